@@ -0,0 +1,48 @@
+package com.app.config;
+
+import com.app.services.scraper.fixture.HttpFixtureServer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Starts a local server replaying recorded store responses, for running scrapes offline (see
+ * the {@code replay} profile, which points every scraper at it). Archives are recorded by
+ * setting {@code scraper.fixtures.record-dir} during a live scrape.
+ */
+@Configuration
+@ConditionalOnProperty(name = "scraper.fixtures.replay.enabled", havingValue = "true")
+public class FixtureReplayConfiguration {
+
+    @Value("${scraper.fixtures.replay.port:8089}")
+    private int port;
+
+    // Comma-separated fixture archives
+    @Value("${scraper.fixtures.replay.archives}")
+    private String archives;
+
+    @Value("${scraper.fixtures.replay.latency-ms:0}")
+    private long latencyMs;
+
+    @Value("${scraper.fixtures.replay.jitter-ms:0}")
+    private long jitterMs;
+
+    @Value("${scraper.fixtures.replay.error-rate:0}")
+    private double errorRate;
+
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    public HttpFixtureServer httpFixtureServer() throws IOException {
+        List<Path> paths = Arrays.stream(archives.split(","))
+                .map(String::trim)
+                .filter(path -> !path.isEmpty())
+                .map(Path::of)
+                .toList();
+        return new HttpFixtureServer(port, latencyMs, jitterMs, errorRate).load(paths);
+    }
+}
@@ -0,0 +1,191 @@
+package com.app.config;
+
+import com.app.models.PriceRecord;
+import com.app.services.ScrapeLeaseService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Rewrites price records written before price intervals existed: consecutive records of a
+ * product at a store with the same price state are collapsed into the first of them, which
+ * then spans from its own scrape to the last one. When enabled, runs at startup while any
+ * record still lacks {@code firstSeenAt}, so it does nothing once the data has been migrated.
+ * Nodes starting together take turns through a lease; only the first one finds work.
+ */
+@Slf4j
+@Component
+public class PriceIntervalMigration implements CommandLineRunner {
+
+    private static final int BULK_SIZE = 1000;
+    private static final String LEASE_NAME = "price-interval-migration";
+
+    private final MongoTemplate mongoTemplate;
+    private final ScrapeLeaseService leaseService;
+    private final boolean migrateOnStartup;
+    private final int maxGapHours;
+
+    public PriceIntervalMigration(
+            MongoTemplate mongoTemplate,
+            ScrapeLeaseService leaseService,
+            @Value("${scraper.price-intervals.migrate-on-startup:false}") boolean migrateOnStartup,
+            @Value("${scraper.price-intervals.max-gap-hours:36}") int maxGapHours) {
+        this.mongoTemplate = mongoTemplate;
+        this.leaseService = leaseService;
+        this.migrateOnStartup = migrateOnStartup;
+        this.maxGapHours = maxGapHours;
+    }
+
+    public record MigrationResult(long scanned, long intervals, long removed) {
+    }
+
+    @Override
+    public void run(String... args) {
+        if (!migrateOnStartup) {
+            return;
+        }
+        Optional<ScrapeLeaseService.Lease> lease = leaseService.tryAcquire(LEASE_NAME);
+        if (lease.isEmpty()) {
+            log.info("Another node is migrating price records to price intervals, skipping");
+            return;
+        }
+        try {
+            Query legacy = Query.query(Criteria.where("firstSeenAt").exists(false));
+            if (!mongoTemplate.exists(legacy, PriceRecord.class)) {
+                log.debug("Price records already stored as intervals, nothing to migrate");
+                return;
+            }
+            log.info("Migrating price records to price intervals...");
+            MigrationResult result = migrate();
+            log.info("Price interval migration done: {} records scanned, {} intervals kept, {} duplicates removed",
+                    result.scanned(), result.intervals(), result.removed());
+        } finally {
+            leaseService.release(lease.get());
+        }
+    }
+
+    MigrationResult migrate() {
+        Query query = new Query()
+                .with(Sort.by("productId", "storeId", "scrapedAt"))
+                .allowDiskUse(true);
+
+        Writer writer = new Writer();
+        PriceRecord open = null;
+        boolean openChanged = false;
+        // Records rewritten in the current product/store series; an index-ordered cursor may
+        // return them again once their scrapedAt has moved forward
+        Set<String> rewritten = new HashSet<>();
+        long scanned = 0;
+        long intervals = 0;
+
+        try (Stream<PriceRecord> records = mongoTemplate.stream(query, PriceRecord.class)) {
+            for (PriceRecord record : (Iterable<PriceRecord>) records::iterator) {
+                if (record.getScrapedAt() == null || rewritten.contains(record.getId())) {
+                    continue;
+                }
+                scanned++;
+                if (open != null && continues(open, record)) {
+                    open.setScrapedAt(record.getScrapedAt());
+                    open.setObservationCount(observations(open) + observations(record));
+                    openChanged = true;
+                    writer.remove(record.getId());
+                    continue;
+                }
+
+                if (open != null) {
+                    if (openChanged || open.getFirstSeenAt() == null || open.getObservationCount() == 0) {
+                        writer.update(open);
+                        rewritten.add(open.getId());
+                    }
+                    if (!sameSeries(open, record)) {
+                        rewritten.clear();
+                    }
+                }
+                open = record;
+                openChanged = false;
+                intervals++;
+            }
+        }
+        if (open != null && (openChanged || open.getFirstSeenAt() == null || open.getObservationCount() == 0)) {
+            writer.update(open);
+        }
+        writer.execute();
+
+        return new MigrationResult(scanned, intervals, writer.removed);
+    }
+
+    private boolean continues(PriceRecord open, PriceRecord record) {
+        return sameSeries(open, record)
+                && open.hasSamePriceStateAs(record)
+                && !record.intervalStart().isAfter(open.getScrapedAt().plusHours(maxGapHours));
+    }
+
+    private static boolean sameSeries(PriceRecord a, PriceRecord b) {
+        return Objects.equals(a.getProductId(), b.getProductId()) && Objects.equals(a.getStoreId(), b.getStoreId());
+    }
+
+    private static int observations(PriceRecord record) {
+        return Math.max(1, record.getObservationCount());
+    }
+
+    /**
+     * Accumulates updates and removals into unordered bulk operations of {@link #BULK_SIZE}.
+     */
+    private class Writer {
+
+        private BulkOperations ops;
+        private int pending;
+        private long removed;
+
+        void update(PriceRecord record) {
+            ops().updateOne(
+                    Query.query(Criteria.where("_id").is(record.getId())),
+                    new Update()
+                            .set("firstSeenAt", record.intervalStart())
+                            .set("scrapedAt", record.getScrapedAt())
+                            .set("observationCount", observations(record)));
+            executeIfFull();
+        }
+
+        void remove(String id) {
+            ops().remove(Query.query(Criteria.where("_id").is(id)));
+            removed++;
+            executeIfFull();
+        }
+
+        private BulkOperations ops() {
+            if (ops == null) {
+                ops = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, PriceRecord.class);
+            }
+            pending++;
+            return ops;
+        }
+
+        private void executeIfFull() {
+            if (pending >= BULK_SIZE) {
+                execute();
+            }
+        }
+
+        void execute() {
+            if (ops != null && pending > 0) {
+                ops.execute();
+            }
+            ops = null;
+            pending = 0;
+        }
+    }
+}
@@ -1,33 +1,78 @@
 package com.app.config;
 
-import io.github.resilience4j.ratelimiter.RateLimiter;
 import io.github.resilience4j.ratelimiter.RateLimiterConfig;
 import io.github.resilience4j.ratelimiter.RateLimiterRegistry;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 import java.time.Duration;
 
+/**
+ * Scrapers create one rate limiter per store and host from this registry. The default
+ * configuration applies unless a host or store code has an entry in
+ * {@code scraper.rate-limit.overrides} (e.g. {@code api.pcexpress.ca=2,WALMART=0.5}),
+ * or the store's scraperConfig sets its own limits.
+ */
+@Slf4j
 @Configuration
 public class RateLimiterConfiguration {
 
     @Value("${scraper.rate-limit.requests-per-second:1}")
-    private int requestsPerSecond;
+    private double requestsPerSecond;
+
+    @Value("${scraper.rate-limit.timeout-seconds:5}")
+    private int timeoutSeconds;
+
+    @Value("${scraper.rate-limit.overrides:}")
+    private String overrides;
 
     @Bean
     public RateLimiterRegistry rateLimiterRegistry() {
-        RateLimiterConfig config = RateLimiterConfig.custom()
-                .limitForPeriod(requestsPerSecond)
-                .limitRefreshPeriod(Duration.ofSeconds(1))
-                .timeoutDuration(Duration.ofSeconds(5))
-                .build();
+        Duration timeout = Duration.ofSeconds(timeoutSeconds);
+        RateLimiterRegistry registry = RateLimiterRegistry.of(limiterConfig(requestsPerSecond, timeout));
 
-        return RateLimiterRegistry.of(config);
+        for (String entry : overrides.split(",")) {
+            String[] parts = entry.trim().split("=");
+            if (parts.length != 2) {
+                continue;
+            }
+            try {
+                double rps = Double.parseDouble(parts[1].trim());
+                registry.addConfiguration(parts[0].trim(), limiterConfig(rps, timeout));
+                log.info("Rate limit override: {} = {} requests/second", parts[0].trim(), rps);
+            } catch (IllegalArgumentException e) {
+                log.warn("Ignoring invalid rate limit override '{}': {}", entry, e.getMessage());
+            }
+        }
+
+        return registry;
     }
 
-    @Bean
-    public RateLimiter scraperRateLimiter(RateLimiterRegistry registry) {
-        return registry.rateLimiter("scraper");
+    /**
+     * Builds a limiter config for a possibly fractional rate. A whole rate refreshes that many
+     * permits every second; any other rate issues one permit per period, rounded up so the
+     * configured rate is never exceeded: 0.5 becomes one permit every two seconds, 1.3 one every
+     * 770 milliseconds.
+     */
+    public static RateLimiterConfig limiterConfig(double requestsPerSecond, Duration timeout) {
+        if (requestsPerSecond <= 0) {
+            throw new IllegalArgumentException("requests per second must be positive: " + requestsPerSecond);
+        }
+        int limitForPeriod;
+        Duration refreshPeriod;
+        if (requestsPerSecond >= 1 && requestsPerSecond == Math.rint(requestsPerSecond)) {
+            limitForPeriod = (int) requestsPerSecond;
+            refreshPeriod = Duration.ofSeconds(1);
+        } else {
+            limitForPeriod = 1;
+            refreshPeriod = Duration.ofMillis((long) Math.ceil(1000 / requestsPerSecond));
+        }
+        return RateLimiterConfig.custom()
+                .limitForPeriod(limitForPeriod)
+                .limitRefreshPeriod(refreshPeriod)
+                .timeoutDuration(timeout)
+                .build();
     }
 }
@@ -2,16 +2,21 @@ package com.app.controllers;
 
 import com.app.exceptions.ResourceNotFoundException;
 import com.app.models.ScrapeJob;
+import com.app.services.ScrapeJobExecutor;
 import com.app.services.ScrapeOrchestrationService;
+import com.app.services.ScrapeProgressBroadcaster;
+import com.app.services.scraper.AdaptivePacer;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.constraints.NotBlank;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 
@@ -24,6 +29,8 @@ import java.util.List;
 public class ScrapeController {
 
     private final ScrapeOrchestrationService scrapeOrchestrationService;
+    private final ScrapeProgressBroadcaster scrapeProgressBroadcaster;
+    private final AdaptivePacer adaptivePacer;
 
     @PostMapping("/trigger/{storeCode}")
     @Operation(summary = "Trigger scrape for one store",
@@ -58,6 +65,33 @@ public class ScrapeController {
         return ResponseEntity.ok(job);
     }
 
+    @PostMapping("/jobs/{jobId}/resume")
+    @Operation(summary = "Resume an interrupted job",
+               description = "Continues a RESUMABLE scrape job, skipping the categories and pages it already processed.")
+    public ResponseEntity<ScrapeJob> resumeJob(
+            @Parameter(description = "Job ID")
+            @PathVariable @NotBlank(message = "Job ID must not be blank") String jobId) {
+
+        scrapeOrchestrationService.getJob(jobId)
+                .orElseThrow(() -> new ResourceNotFoundException("Scrape job not found with id: " + jobId));
+        log.info("Resuming scrape job: {}", jobId);
+        ScrapeJob job = scrapeOrchestrationService.resumeJob(jobId);
+        return ResponseEntity.accepted().body(job);
+    }
+
+    @GetMapping(path = "/jobs/{jobId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream job progress",
+               description = "Server-Sent Events with the job's pages fetched, products parsed, matched and persisted, "
+                       + "errors and throughput. The stream ends after the job's final event.")
+    public SseEmitter streamJobEvents(
+            @Parameter(description = "Job ID")
+            @PathVariable @NotBlank(message = "Job ID must not be blank") String jobId) {
+
+        ScrapeJob job = scrapeOrchestrationService.getJob(jobId)
+                .orElseThrow(() -> new ResourceNotFoundException("Scrape job not found with id: " + jobId));
+        return scrapeProgressBroadcaster.subscribe(job, () -> scrapeOrchestrationService.getJob(jobId));
+    }
+
     @GetMapping("/jobs/latest/{storeCode}")
     @Operation(summary = "Get latest job for store",
                description = "Returns the most recent scrape job for a store.")
@@ -72,18 +106,39 @@ public class ScrapeController {
 
     @GetMapping("/metrics")
     @Operation(summary = "Get scraper metrics for all stores",
-               description = "Returns success/failure rates, last run times, and circuit breaker state for each active store.")
+               description = "Returns success/failure rates, last run times, circuit breaker state and per-stage timings for each active store.")
     public ResponseEntity<List<ScrapeOrchestrationService.ScraperMetrics>> getAllMetrics() {
         return ResponseEntity.ok(scrapeOrchestrationService.getAllScraperMetrics());
     }
 
     @GetMapping("/metrics/{storeCode}")
     @Operation(summary = "Get scraper metrics for a specific store",
-               description = "Returns success/failure rates, last run times, and circuit breaker state for the given store.")
+               description = "Returns success/failure rates, last run times, circuit breaker state and per-stage timings for the given store.")
     public ResponseEntity<ScrapeOrchestrationService.ScraperMetrics> getStoreMetrics(
             @Parameter(description = "Store code (RCSS, WALMART, PRICESMART, TNT)")
             @PathVariable @NotBlank(message = "Store code must not be blank") String storeCode) {
 
         return ResponseEntity.ok(scrapeOrchestrationService.getScraperMetrics(storeCode.toUpperCase()));
     }
+
+    @GetMapping("/executor")
+    @Operation(summary = "Get scrape executor status",
+               description = "Returns the concurrency limit, running jobs and queue depth per store of the scrape job executor.")
+    public ResponseEntity<ScrapeJobExecutor.ExecutorStats> getExecutorStats() {
+        return ResponseEntity.ok(scrapeOrchestrationService.getExecutorStats());
+    }
+
+    @GetMapping("/rate-limits")
+    @Operation(summary = "Get scraper rate limiter status",
+               description = "Returns the rate, available permits, waiting threads and current permit wait time of each per-store/per-host rate limiter.")
+    public ResponseEntity<List<ScrapeOrchestrationService.RateLimiterStatus>> getRateLimits() {
+        return ResponseEntity.ok(scrapeOrchestrationService.getRateLimiterStatuses());
+    }
+
+    @GetMapping("/pacing")
+    @Operation(summary = "Get adaptive request pacing",
+               description = "Returns each store's current adaptive request rate, its bounds and its recent rate changes with their reasons.")
+    public ResponseEntity<List<AdaptivePacer.PacingStatus>> getPacing() {
+        return ResponseEntity.ok(adaptivePacer.getStatuses());
+    }
 }
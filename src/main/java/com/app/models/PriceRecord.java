@@ -6,6 +6,7 @@ import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
@@ -18,7 +19,10 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 @Builder
 @Document(collection = "price_records")
-@CompoundIndex(name = "product_store_idx", def = "{'productId': 1, 'storeId': 1}")
+@CompoundIndexes({
+        @CompoundIndex(name = "product_store_idx", def = "{'productId': 1, 'storeId': 1}"),
+        @CompoundIndex(name = "product_store_scraped_idx", def = "{'productId': 1, 'storeId': 1, 'scrapedAt': 1}")
+})
 public class PriceRecord extends BaseEntity {
 
     @Indexed
@@ -37,10 +41,38 @@ public class PriceRecord extends BaseEntity {
 
     private String promoDescription;
 
+    // Last scrape that observed this price state; the record covers firstSeenAt..scrapedAt
     @Indexed
     private LocalDateTime scrapedAt;
 
+    private LocalDateTime firstSeenAt;
+
+    private int observationCount;
+
     private boolean inStock;
 
     private String sourceUrl;
+
+    /**
+     * Start of the interval this record covers. Records written before intervals were
+     * introduced cover only their own scrape.
+     */
+    public LocalDateTime intervalStart() {
+        return firstSeenAt != null ? firstSeenAt : scrapedAt;
+    }
+
+    /**
+     * True when both records have the same prices, sale flag and stock state.
+     */
+    public boolean hasSamePriceStateAs(PriceRecord other) {
+        return samePrice(regularPrice, other.regularPrice)
+                && samePrice(salePrice, other.salePrice)
+                && samePrice(unitPrice, other.unitPrice)
+                && onSale == other.onSale
+                && inStock == other.inStock;
+    }
+
+    private static boolean samePrice(BigDecimal a, BigDecimal b) {
+        return a == null ? b == null : b != null && a.compareTo(b) == 0;
+    }
 }
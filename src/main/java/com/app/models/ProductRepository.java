@@ -23,6 +23,13 @@ public interface ProductRepository extends MongoRepository<Product, String> {
     @Query("{'storeProductIds.?0': ?1}")
     Optional<Product> findByStoreCodeAndStoreProductId(String storeCode, String storeProductId);
 
+    // All products that carry a product ID for the given store, with only the fields matching reads.
+    // The audit timestamps are left out, so never save one of these back whole.
+    @Query(value = "{'storeProductIds.?0': {$exists: true}}",
+            fields = "{'name': 1, 'normalizedName': 1, 'brand': 1, 'size': 1, 'unit': 1, 'categoryId': 1, "
+                    + "'imageUrl': 1, 'storeProductIds': 1}")
+    List<Product> findByStoreCode(String storeCode);
+
     Page<Product> findByNameContainingIgnoreCaseOrBrandContainingIgnoreCase(
             String name, String brand, Pageable pageable);
 }
@@ -39,10 +39,35 @@ public class ScrapeJob extends BaseEntity {
 
     private List<String> errorMessages;
 
+    // Progress of the job, persisted as it runs so that an interrupted job can be resumed
+    private List<CategoryCheckpoint> checkpoints;
+
+    private int resumeCount;
+
+    // Split into category work items that any node may claim; see ScrapeWorkItem
+    private boolean distributed;
+
     public enum JobStatus {
         PENDING,
         RUNNING,
         COMPLETED,
-        FAILED
+        FAILED,
+        // Stopped part way with progress saved; POST /api/scrape/jobs/{id}/resume continues it
+        RESUMABLE
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class CategoryCheckpoint {
+
+        private String categoryUrl;
+
+        private boolean completed;
+
+        private List<Integer> completedPages;
+
+        private int productCount;
     }
 }
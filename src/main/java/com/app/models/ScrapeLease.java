@@ -0,0 +1,39 @@
+package com.app.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * A named lease that at most one node holds until it expires. The holder renews
+ * {@code expiresAt} while it works; Mongo removes leases that were left to expire.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Document(collection = "scrape_leases")
+public class ScrapeLease {
+
+    @Id
+    private String name;
+
+    // Node that holds the lease
+    private String owner;
+
+    // Identifies one acquisition, so a node never renews or releases a lease it has lost
+    private String token;
+
+    private LocalDateTime acquiredAt;
+
+    private LocalDateTime renewedAt;
+
+    @Indexed(expireAfterSeconds = 0)
+    private LocalDateTime expiresAt;
+}
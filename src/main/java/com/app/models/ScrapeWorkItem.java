@@ -0,0 +1,96 @@
+package com.app.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * One category of a distributed scrape job. A node claims the item for a limited time,
+ * renews the claim while it scrapes, and records the outcome; the parent job completes
+ * once none of its items are left open.
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Document(collection = "scrape_work_items")
+@CompoundIndexes({
+        @CompoundIndex(name = "status_queued_idx", def = "{'status': 1, 'queuedAt': 1}"),
+        @CompoundIndex(name = "job_status_idx", def = "{'jobId': 1, 'status': 1}")
+})
+public class ScrapeWorkItem extends BaseEntity {
+
+    @Indexed
+    private String jobId;
+
+    private String storeId;
+
+    private String storeCode;
+
+    private String categoryUrl;
+
+    private ItemStatus status;
+
+    private LocalDateTime queuedAt;
+
+    // Node holding the claim, and the token of that claim
+    private String owner;
+
+    private String claimToken;
+
+    private LocalDateTime claimExpiresAt;
+
+    private int attempts;
+
+    private LocalDateTime completedAt;
+
+    private int totalProducts;
+
+    private int successCount;
+
+    private int errorCount;
+
+    private List<String> errorMessages;
+
+    private List<DetectedPriceDrop> priceDrops;
+
+    public enum ItemStatus {
+        PENDING,
+        CLAIMED,
+        DONE,
+        FAILED
+    }
+
+    /**
+     * A price drop found while scraping the item, reported once the whole job has completed.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class DetectedPriceDrop {
+
+        private String productId;
+
+        private BigDecimal previousPrice;
+
+        private BigDecimal currentPrice;
+
+        private BigDecimal dropAmount;
+
+        private double dropPercentage;
+
+        private LocalDateTime detectedAt;
+    }
+}
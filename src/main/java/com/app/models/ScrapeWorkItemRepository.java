@@ -0,0 +1,15 @@
+package com.app.models;
+
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ScrapeWorkItemRepository extends MongoRepository<ScrapeWorkItem, String> {
+
+    List<ScrapeWorkItem> findByJobId(String jobId);
+
+    boolean existsByJobIdAndStatusIn(String jobId, Collection<ScrapeWorkItem.ItemStatus> statuses);
+}
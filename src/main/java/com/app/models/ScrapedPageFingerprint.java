@@ -0,0 +1,51 @@
+package com.app.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * What a category page looked like the last time it was scraped: the hash of its content,
+ * the validators the server sent with it, and the products it listed. A later scrape that
+ * gets the same page back records another observation of those products without parsing it.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Document(collection = "page_fingerprints")
+@CompoundIndex(name = "idx_storeId_categoryUrl", def = "{'storeId': 1, 'categoryUrl': 1}")
+public class ScrapedPageFingerprint {
+
+    // storeId:categoryUrl:page
+    @Id
+    private String id;
+
+    private String storeId;
+
+    private String categoryUrl;
+
+    private int page;
+
+    // SHA-256 of the response body
+    private String contentHash;
+
+    private String etag;
+
+    private String lastModified;
+
+    private List<String> productIds;
+
+    private LocalDateTime fetchedAt;
+
+    public static String idOf(String storeId, String categoryUrl, int page) {
+        return storeId + ":" + categoryUrl + ":" + page;
+    }
+}
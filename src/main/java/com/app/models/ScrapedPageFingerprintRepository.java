@@ -0,0 +1,14 @@
+package com.app.models;
+
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ScrapedPageFingerprintRepository extends MongoRepository<ScrapedPageFingerprint, String> {
+
+    List<ScrapedPageFingerprint> findByStoreId(String storeId);
+
+    List<ScrapedPageFingerprint> findByStoreIdAndCategoryUrl(String storeId, String categoryUrl);
+}
@@ -129,22 +129,9 @@ public class PriceAnalysisService {
 
             // Check if price dropped
             if (currentEffectivePrice.compareTo(previousPrice) < 0) {
-                BigDecimal dropAmount = previousPrice.subtract(currentEffectivePrice);
-                double dropPercentage = dropAmount.divide(previousPrice, 4, RoundingMode.HALF_UP)
-                        .multiply(BigDecimal.valueOf(100))
-                        .doubleValue();
-
                 Product product = productRepository.findById(current.getProductId()).orElse(null);
                 if (product != null) {
-                    drops.add(new PriceDrop(
-                            product,
-                            store,
-                            previousPrice,
-                            currentEffectivePrice,
-                            dropAmount,
-                            dropPercentage,
-                            LocalDateTime.now()
-                    ));
+                    drops.add(toPriceDrop(product, store, previousPrice, currentEffectivePrice));
                 }
             }
         }
@@ -155,6 +142,35 @@ public class PriceAnalysisService {
         return drops;
     }
 
+    /**
+     * Compares a product's new price with its last known record, both already in memory, so a
+     * scrape can detect drops as it goes instead of re-reading what it wrote.
+     */
+    public Optional<PriceDrop> findPriceDrop(Product product, Store store, PriceRecord previous, PriceRecord current) {
+        if (previous == null) {
+            return Optional.empty();
+        }
+        BigDecimal previousPrice = effectivePrice(previous);
+        BigDecimal currentPrice = effectivePrice(current);
+        if (previousPrice == null || currentPrice == null || previousPrice.compareTo(BigDecimal.ZERO) == 0
+                || currentPrice.compareTo(previousPrice) >= 0) {
+            return Optional.empty();
+        }
+        return Optional.of(toPriceDrop(product, store, previousPrice, currentPrice));
+    }
+
+    private static BigDecimal effectivePrice(PriceRecord record) {
+        return record.isOnSale() && record.getSalePrice() != null ? record.getSalePrice() : record.getRegularPrice();
+    }
+
+    private static PriceDrop toPriceDrop(Product product, Store store, BigDecimal previousPrice, BigDecimal currentPrice) {
+        BigDecimal dropAmount = previousPrice.subtract(currentPrice);
+        double dropPercentage = dropAmount.divide(previousPrice, 4, RoundingMode.HALF_UP)
+                .multiply(BigDecimal.valueOf(100))
+                .doubleValue();
+        return new PriceDrop(product, store, previousPrice, currentPrice, dropAmount, dropPercentage, LocalDateTime.now());
+    }
+
     public List<PriceDrop> getRecentPriceDrops(int minDropPercentage, int limit) {
         List<PriceDrop> allDrops = new ArrayList<>();
 
@@ -167,7 +183,8 @@ public class PriceAnalysisService {
             List<PriceRecord> previousPrices = priceRecordRepository
                     .findByStoreIdAndScrapedAtAfter(store.getId(), twoDaysAgo)
                     .stream()
-                    .filter(r -> r.getScrapedAt().isBefore(oneDayAgo))
+                    // Prices in effect between two days and one day ago, including intervals still open
+                    .filter(r -> r.intervalStart().isBefore(oneDayAgo))
                     .collect(Collectors.toList());
 
             List<PriceDrop> storeDrops = detectPriceDrops(store.getId(), previousPrices);
@@ -239,23 +256,24 @@ public class PriceAnalysisService {
                 .sorted(Comparator.comparing(PriceRecord::getScrapedAt))
                 .collect(Collectors.toList());
 
-        // Reduce to one record per calendar day (latest scraped that day)
-        Map<LocalDate, PriceRecord> byDay = new LinkedHashMap<>();
+        // Reduce to one point per calendar day (latest observed that day). A record covers every
+        // day from its first to its last sighting, so it contributes a point to each of them.
+        Map<LocalDate, PricePoint> byDay = new TreeMap<>();
         for (PriceRecord r : filteredRecords) {
-            LocalDate day = r.getScrapedAt().toLocalDate();
-            PriceRecord existing = byDay.get(day);
-            if (existing == null || r.getScrapedAt().isAfter(existing.getScrapedAt())) {
-                byDay.put(day, r);
+            BigDecimal price = r.isOnSale() && r.getSalePrice() != null ? r.getSalePrice() : r.getRegularPrice();
+            LocalDateTime from = r.intervalStart().isBefore(startDate) ? startDate : r.intervalStart();
+            LocalDate lastDay = r.getScrapedAt().toLocalDate();
+            for (LocalDate day = from.toLocalDate(); !day.isAfter(lastDay); day = day.plusDays(1)) {
+                LocalDateTime timestamp = day.equals(lastDay) ? r.getScrapedAt()
+                        : day.equals(from.toLocalDate()) ? from : day.atStartOfDay();
+                PricePoint existing = byDay.get(day);
+                if (existing == null || timestamp.isAfter(existing.timestamp())) {
+                    byDay.put(day, new PricePoint(price, r.isOnSale(), timestamp));
+                }
             }
         }
 
-        List<PricePoint> pricePoints = byDay.values().stream()
-                .map(r -> new PricePoint(
-                        r.isOnSale() && r.getSalePrice() != null ? r.getSalePrice() : r.getRegularPrice(),
-                        r.isOnSale(),
-                        r.getScrapedAt()
-                ))
-                .collect(Collectors.toList());
+        List<PricePoint> pricePoints = new ArrayList<>(byDay.values());
 
         return new PriceHistory(product, store, pricePoints);
     }
@@ -0,0 +1,261 @@
+package com.app.services;
+
+import com.app.models.PriceRecord;
+import com.app.services.scraper.ScrapeMetrics;
+import com.mongodb.bulk.BulkWriteError;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Buffers price records and writes them to Mongo with unordered bulk operations.
+ * Each scrape job opens its own {@link Batch}; a batch is flushed when it reaches
+ * {@code scraper.persistence.batch-size} writes or when the oldest buffered write
+ * is older than {@code scraper.persistence.flush-interval-ms}.
+ * <p>
+ * With {@code scraper.price-intervals.enabled}, a record covers an interval of unchanged
+ * prices: an observation matching the product's latest record only moves that record's
+ * {@code scrapedAt} forward, unless it was last seen more than
+ * {@code scraper.price-intervals.max-gap-hours} earlier.
+ */
+@Slf4j
+@Component
+public class PriceRecordBatchWriter {
+
+    private final MongoTemplate mongoTemplate;
+    private final ScrapeMetrics scrapeMetrics;
+    private final int batchSize;
+    private final long flushIntervalMs;
+    private final boolean intervalsEnabled;
+    private final int intervalMaxGapHours;
+
+    public PriceRecordBatchWriter(
+            MongoTemplate mongoTemplate,
+            ScrapeMetrics scrapeMetrics,
+            @Value("${scraper.persistence.batch-size:500}") int batchSize,
+            @Value("${scraper.persistence.flush-interval-ms:2000}") long flushIntervalMs,
+            @Value("${scraper.price-intervals.enabled:true}") boolean intervalsEnabled,
+            @Value("${scraper.price-intervals.max-gap-hours:36}") int intervalMaxGapHours) {
+        this.mongoTemplate = mongoTemplate;
+        this.scrapeMetrics = scrapeMetrics;
+        this.batchSize = Math.max(1, batchSize);
+        this.flushIntervalMs = flushIntervalMs;
+        this.intervalsEnabled = intervalsEnabled;
+        this.intervalMaxGapHours = intervalMaxGapHours;
+    }
+
+    /**
+     * Opens a batch for one scrape job. Write failures are described in {@code errorMessages},
+     * which is normally the job's own error list.
+     */
+    public Batch openBatch(String storeCode, List<String> errorMessages) {
+        return new Batch(storeCode, errorMessages);
+    }
+
+    /**
+     * How far back a job has to look for the latest record of each product so that it can
+     * extend open intervals.
+     */
+    public int getIntervalMaxGapHours() {
+        return intervalMaxGapHours;
+    }
+
+    /**
+     * @param legacyStart start to store on a record written before intervals existed, which has
+     *                    no {@code firstSeenAt}; null for interval records
+     */
+    private record Extension(String recordId, LocalDateTime seenAt, LocalDateTime legacyStart,
+                             int observationCount, String label) {
+
+        Update toUpdate() {
+            Update update = new Update().set("scrapedAt", seenAt);
+            if (legacyStart == null) {
+                return update.inc("observationCount", 1);
+            }
+            return update.set("firstSeenAt", legacyStart).set("observationCount", observationCount);
+        }
+    }
+
+    /**
+     * Write buffer for a single job. Not thread-safe: only the job thread adds and flushes.
+     */
+    public class Batch {
+
+        private final String storeCode;
+        private final List<String> errorMessages;
+        private final List<PriceRecord> records = new ArrayList<>();
+        private final List<String> labels = new ArrayList<>();
+        private final List<Extension> extensions = new ArrayList<>();
+        private long oldestBufferedAt;
+        private int inserted;
+        private int extended;
+        private int failed;
+
+        private Batch(String storeCode, List<String> errorMessages) {
+            this.storeCode = storeCode;
+            this.errorMessages = errorMessages;
+        }
+
+        /**
+         * Buffers a record for insertion as a new interval and flushes the batch once the size
+         * or time limit is reached.
+         *
+         * @param label human-readable name used when reporting a failed write (e.g. product name)
+         */
+        public void add(PriceRecord record, String label) {
+            if (record.getFirstSeenAt() == null) {
+                record.setFirstSeenAt(record.getScrapedAt());
+            }
+            if (record.getObservationCount() == 0) {
+                record.setObservationCount(1);
+            }
+            startBuffering();
+            records.add(record);
+            labels.add(label);
+            flushIfFull();
+        }
+
+        /**
+         * Records a new observation of a product. If {@code latest}, the product's most recent
+         * record, has the same price state and was seen recently enough, its interval is
+         * extended to the observation; otherwise the observation is inserted as a new record.
+         *
+         * @return true if an existing interval was extended
+         */
+        public boolean addObservation(PriceRecord observation, PriceRecord latest, String label) {
+            if (!canExtend(latest, observation)) {
+                add(observation, label);
+                return false;
+            }
+            startBuffering();
+            // A legacy record has no firstSeenAt; pin its start before scrapedAt moves forward
+            LocalDateTime legacyStart = latest.getFirstSeenAt() == null ? latest.intervalStart() : null;
+            int observationCount = Math.max(1, latest.getObservationCount()) + 1;
+            extensions.add(new Extension(latest.getId(), observation.getScrapedAt(), legacyStart,
+                    observationCount, label));
+            // Keep the in-memory copy current for anything else in this job that reads it
+            latest.setFirstSeenAt(latest.intervalStart());
+            latest.setScrapedAt(observation.getScrapedAt());
+            latest.setObservationCount(observationCount);
+            flushIfFull();
+            return true;
+        }
+
+        private boolean canExtend(PriceRecord latest, PriceRecord observation) {
+            return intervalsEnabled
+                    && latest != null
+                    && latest.getId() != null
+                    && latest.getScrapedAt() != null
+                    && observation.getScrapedAt() != null
+                    && !latest.getScrapedAt().isBefore(observation.getScrapedAt().minusHours(intervalMaxGapHours))
+                    && latest.hasSamePriceStateAs(observation);
+        }
+
+        private void startBuffering() {
+            if (getPendingCount() == 0) {
+                oldestBufferedAt = System.currentTimeMillis();
+            }
+        }
+
+        private void flushIfFull() {
+            if (getPendingCount() >= batchSize) {
+                flush();
+            } else {
+                flushIfDue();
+            }
+        }
+
+        public void flushIfDue() {
+            if (getPendingCount() > 0 && System.currentTimeMillis() - oldestBufferedAt >= flushIntervalMs) {
+                flush();
+            }
+        }
+
+        /**
+         * Writes all buffered inserts and interval extensions. Writes that fail are counted and
+         * reported, never retried.
+         */
+        public void flush() {
+            int size = getPendingCount();
+            if (size == 0) {
+                return;
+            }
+            int insertCount = records.size();
+            long start = System.nanoTime();
+            try {
+                BulkOperations ops = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, PriceRecord.class);
+                if (insertCount > 0) {
+                    ops.insert(new ArrayList<>(records));
+                }
+                for (Extension extension : extensions) {
+                    ops.updateOne(
+                            Query.query(Criteria.where("_id").is(extension.recordId())),
+                            extension.toUpdate());
+                }
+                ops.execute();
+                inserted += insertCount;
+                extended += extensions.size();
+            } catch (BulkOperationException e) {
+                // Unordered mode: everything not listed in the errors was written. Operations are
+                // indexed in the order they were added: inserts first, then extensions.
+                List<BulkWriteError> writeErrors = e.getErrors();
+                int failedInserts = 0;
+                for (BulkWriteError error : writeErrors) {
+                    if (error.getIndex() < insertCount) {
+                        failedInserts++;
+                    }
+                    errorMessages.add("Error saving price record: " + labelAt(error.getIndex()) + " - " + error.getMessage());
+                }
+                inserted += insertCount - failedInserts;
+                extended += extensions.size() - (writeErrors.size() - failedInserts);
+                failed += writeErrors.size();
+                log.warn("[{}] Bulk write of {} price records had {} failures", storeCode, size, writeErrors.size());
+            } catch (Exception e) {
+                failed += size;
+                errorMessages.add("Error saving batch of " + size + " price records (first: "
+                        + labelAt(0) + ") - " + e.getMessage());
+                log.error("[{}] Bulk write of {} price records failed", storeCode, size, e);
+            } finally {
+                scrapeMetrics.recordPersist(storeCode, System.nanoTime() - start, size);
+                records.clear();
+                labels.clear();
+                extensions.clear();
+            }
+            log.debug("[{}] Flushed {} price records", storeCode, size);
+        }
+
+        private String labelAt(int index) {
+            if (index < labels.size()) {
+                return labels.get(index);
+            }
+            int extensionIndex = index - labels.size();
+            return extensionIndex < extensions.size() ? extensions.get(extensionIndex).label() : "unknown";
+        }
+
+        public int getPendingCount() {
+            return records.size() + extensions.size();
+        }
+
+        public int getInsertedCount() {
+            return inserted;
+        }
+
+        public int getExtendedCount() {
+            return extended;
+        }
+
+        public int getFailedCount() {
+            return failed;
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.app.services;
+
+import com.app.models.Product;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Product identities for one scrape job, so matching a scraped item does not cost
+ * several queries. Built by {@link ProductMatchingService#loadIdentityCache} from every
+ * product already mapped to the store; products matched by name are loaded the first
+ * time a name is looked up. The matcher registers every product it creates or changes,
+ * which keeps the cache coherent for the rest of the job.
+ * <p>
+ * Not thread-safe: a cache belongs to a single job thread.
+ */
+public class ProductIdentityCache {
+
+    private final String storeCode;
+    private final Function<String, List<Product>> nameLoader;
+
+    private final Map<String, Product> productsById = new HashMap<>();
+    // storeCode|storeProductId -> productId
+    private final Map<String, String> idsByStoreProductId = new HashMap<>();
+    // normalizedName -> productIds, in the order the database returned them
+    private final Map<String, List<String>> idsByNormalizedName = new HashMap<>();
+    // Names whose product list has been loaded from the database in full
+    private final Set<String> loadedNames = new HashSet<>();
+
+    private int hits;
+    private int misses;
+
+    ProductIdentityCache(String storeCode, List<Product> storeProducts,
+                         Function<String, List<Product>> nameLoader) {
+        this.storeCode = storeCode;
+        this.nameLoader = nameLoader;
+        storeProducts.forEach(this::register);
+    }
+
+    public String getStoreCode() {
+        return storeCode;
+    }
+
+    /**
+     * Authoritative for the cache's own store: every product mapped to it was preloaded.
+     */
+    Optional<Product> findByStoreProductId(String storeCode, String storeProductId) {
+        if (storeProductId == null) {
+            return Optional.empty();
+        }
+        String productId = idsByStoreProductId.get(storeKey(storeCode, storeProductId));
+        if (productId != null) {
+            hits++;
+            return Optional.of(productsById.get(productId));
+        }
+        misses++;
+        return Optional.empty();
+    }
+
+    List<Product> findByNormalizedName(String normalizedName) {
+        if (normalizedName == null) {
+            return List.of();
+        }
+        if (loadedNames.add(normalizedName)) {
+            misses++;
+            nameLoader.apply(normalizedName).forEach(this::register);
+        } else {
+            hits++;
+        }
+        List<String> ids = idsByNormalizedName.getOrDefault(normalizedName, List.of());
+        List<Product> products = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            products.add(productsById.get(id));
+        }
+        return products;
+    }
+
+    List<Product> findByNormalizedNameAndSizeAndUnit(String normalizedName, String size, String unit) {
+        return findByNormalizedName(normalizedName).stream()
+                .filter(p -> size.equals(p.getSize()) && unit.equals(p.getUnit()))
+                .toList();
+    }
+
+    /**
+     * Adds or re-indexes a product after it was loaded, created or given a new store mapping.
+     * An instance already in the cache wins over a freshly loaded copy of the same document.
+     */
+    void register(Product product) {
+        if (product == null || product.getId() == null) {
+            return;
+        }
+        Product cached = productsById.putIfAbsent(product.getId(), product);
+        Product current = cached != null ? cached : product;
+
+        if (current.getStoreProductIds() != null) {
+            current.getStoreProductIds().forEach((code, storeProductId) -> {
+                if (storeProductId != null) {
+                    idsByStoreProductId.putIfAbsent(storeKey(code, storeProductId), current.getId());
+                }
+            });
+        }
+        if (current.getNormalizedName() != null) {
+            List<String> ids = idsByNormalizedName.computeIfAbsent(current.getNormalizedName(), k -> new ArrayList<>());
+            if (!ids.contains(current.getId())) {
+                ids.add(current.getId());
+            }
+        }
+    }
+
+    public int size() {
+        return productsById.size();
+    }
+
+    public int getHits() {
+        return hits;
+    }
+
+    public int getMisses() {
+        return misses;
+    }
+
+    private static String storeKey(String storeCode, String storeProductId) {
+        return storeCode + "|" + storeProductId;
+    }
+}
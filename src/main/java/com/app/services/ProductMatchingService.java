@@ -8,8 +8,13 @@ import com.app.models.Store;
 import com.app.services.scraper.StoreScraper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -20,13 +25,45 @@ import java.util.Optional;
 @RequiredArgsConstructor
 public class ProductMatchingService {
 
+    private static final String STORE_PRODUCT_IDS = "storeProductIds";
+
     private final ProductRepository productRepository;
     private final CategoryRepository categoryRepository;
+    private final MongoTemplate mongoTemplate;
+
+    /**
+     * Loads every product already mapped to the store with a single query, for use as the
+     * identity cache of one scrape job.
+     */
+    public ProductIdentityCache loadIdentityCache(Store store) {
+        List<Product> storeProducts = productRepository.findByStoreCode(store.getCode());
+        log.info("[{}] Loaded {} known products into identity cache", store.getCode(), storeProducts.size());
+        return new ProductIdentityCache(store.getCode(), storeProducts, productRepository::findByNormalizedName);
+    }
 
     public Product findOrCreateProduct(StoreScraper.ScrapedProduct scrapedProduct, Store store) {
+        return findOrCreateProduct(scrapedProduct, store, null);
+    }
+
+    /**
+     * Same as {@link #findOrCreateProduct(StoreScraper.ScrapedProduct, Store)}, but resolves
+     * identities through the job's cache instead of querying for every item.
+     */
+    public Product findOrCreateProduct(StoreScraper.ScrapedProduct scrapedProduct, Store store,
+                                       ProductIdentityCache cache) {
+        Product product = matchOrCreateProduct(scrapedProduct, store, cache);
+        if (cache != null) {
+            cache.register(product);
+        }
+        return product;
+    }
+
+    private Product matchOrCreateProduct(StoreScraper.ScrapedProduct scrapedProduct, Store store,
+                                         ProductIdentityCache cache) {
         // First, try to find by store's product ID
-        Optional<Product> existingByStoreId = productRepository
-                .findByStoreCodeAndStoreProductId(store.getCode(), scrapedProduct.storeProductId());
+        Optional<Product> existingByStoreId = cache != null
+                ? cache.findByStoreProductId(store.getCode(), scrapedProduct.storeProductId())
+                : productRepository.findByStoreCodeAndStoreProductId(store.getCode(), scrapedProduct.storeProductId());
 
         if (existingByStoreId.isPresent()) {
             Product product = existingByStoreId.get();
@@ -43,8 +80,9 @@ public class ProductMatchingService {
 
         if (hasSizeAndUnit) {
             // Try exact match on normalizedName + size + unit first
-            List<Product> exactMatches = productRepository.findByNormalizedNameAndSizeAndUnit(
-                    normalizedName, scrapedSize, scrapedUnit);
+            List<Product> exactMatches = cache != null
+                    ? cache.findByNormalizedNameAndSizeAndUnit(normalizedName, scrapedSize, scrapedUnit)
+                    : productRepository.findByNormalizedNameAndSizeAndUnit(normalizedName, scrapedSize, scrapedUnit);
             if (!exactMatches.isEmpty()) {
                 Product product = exactMatches.get(0);
                 addStoreProductMapping(product, store.getCode(), scrapedProduct.storeProductId());
@@ -53,7 +91,7 @@ public class ProductMatchingService {
             }
 
             // Fall back to name-only, but only match a product with null/empty size
-            List<Product> nameMatches = productRepository.findByNormalizedName(normalizedName);
+            List<Product> nameMatches = findByNormalizedName(normalizedName, cache);
             Optional<Product> sizelessMatch = nameMatches.stream()
                     .filter(p -> p.getSize() == null || p.getSize().isEmpty())
                     .findFirst();
@@ -65,7 +103,7 @@ public class ProductMatchingService {
             }
         } else {
             // No size/unit available — use name-only match (backward compat)
-            List<Product> nameMatches = productRepository.findByNormalizedName(normalizedName);
+            List<Product> nameMatches = findByNormalizedName(normalizedName, cache);
             if (!nameMatches.isEmpty()) {
                 Product product = nameMatches.get(0);
                 addStoreProductMapping(product, store.getCode(), scrapedProduct.storeProductId());
@@ -78,6 +116,12 @@ public class ProductMatchingService {
         return createProduct(scrapedProduct, store);
     }
 
+    private List<Product> findByNormalizedName(String normalizedName, ProductIdentityCache cache) {
+        return cache != null
+                ? cache.findByNormalizedName(normalizedName)
+                : productRepository.findByNormalizedName(normalizedName);
+    }
+
     private Product createProduct(StoreScraper.ScrapedProduct scrapedProduct, Store store) {
         Map<String, String> storeProductIds = new HashMap<>();
         storeProductIds.put(store.getCode(), scrapedProduct.storeProductId());
@@ -98,33 +142,38 @@ public class ProductMatchingService {
         return productRepository.save(product);
     }
 
+    /**
+     * Fills in attributes the product is missing. Only the changed fields are written: the
+     * product may be a copy cached when the job started, and saving it whole would drop store
+     * mappings that other stores' jobs added since.
+     */
     private void updateProductIfNeeded(Product product, StoreScraper.ScrapedProduct scrapedProduct, Store store) {
-        boolean updated = false;
+        Update update = new Update();
 
         // Update image if we don't have one
         if ((product.getImageUrl() == null || product.getImageUrl().isBlank()) && scrapedProduct.imageUrl() != null) {
             product.setImageUrl(scrapedProduct.imageUrl());
-            updated = true;
+            update.set("imageUrl", scrapedProduct.imageUrl());
         }
 
         // Update brand if we don't have one
         if (product.getBrand() == null && scrapedProduct.brand() != null) {
             product.setBrand(scrapedProduct.brand());
-            updated = true;
+            update.set("brand", scrapedProduct.brand());
         }
 
         // Only fill in size if the product doesn't already have one
         if ((product.getSize() == null || product.getSize().isEmpty())
                 && scrapedProduct.size() != null && !scrapedProduct.size().isEmpty()) {
             product.setSize(scrapedProduct.size());
-            updated = true;
+            update.set("size", scrapedProduct.size());
         }
 
         // Only fill in unit if the product doesn't already have one
         if ((product.getUnit() == null || product.getUnit().isEmpty())
                 && scrapedProduct.unit() != null && !scrapedProduct.unit().isEmpty()) {
             product.setUnit(scrapedProduct.unit());
-            updated = true;
+            update.set("unit", scrapedProduct.unit());
         }
 
         // Ensure store mapping exists
@@ -133,7 +182,7 @@ public class ProductMatchingService {
         }
         if (!product.getStoreProductIds().containsKey(store.getCode())) {
             product.getStoreProductIds().put(store.getCode(), scrapedProduct.storeProductId());
-            updated = true;
+            update.set(STORE_PRODUCT_IDS + "." + store.getCode(), scrapedProduct.storeProductId());
         }
 
         // Update category if not set
@@ -141,12 +190,12 @@ public class ProductMatchingService {
             String categoryId = findOrCreateCategory(scrapedProduct.category(), store);
             if (categoryId != null) {
                 product.setCategoryId(categoryId);
-                updated = true;
+                update.set("categoryId", categoryId);
             }
         }
 
-        if (updated) {
-            productRepository.save(product);
+        if (!update.getUpdateObject().isEmpty()) {
+            updateFields(product, update);
         }
     }
 
@@ -156,10 +205,17 @@ public class ProductMatchingService {
         }
         if (!product.getStoreProductIds().containsKey(storeCode)) {
             product.getStoreProductIds().put(storeCode, storeProductId);
-            productRepository.save(product);
+            updateFields(product, new Update().set(STORE_PRODUCT_IDS + "." + storeCode, storeProductId));
         }
     }
 
+    private void updateFields(Product product, Update update) {
+        LocalDateTime now = LocalDateTime.now();
+        product.setUpdatedAt(now);
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(product.getId())),
+                update.set("updatedAt", now), Product.class);
+    }
+
     private String findOrCreateCategory(String categoryInput, Store store) {
         if (categoryInput == null || categoryInput.isBlank()) {
             return null;
@@ -0,0 +1,81 @@
+package com.app.services;
+
+import com.app.models.ScrapeJob;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Tracks which categories and pages a job has processed. Seeded from the job's saved
+ * checkpoints when it is resumed; fetch threads ask it which pages to skip while the job
+ * thread records progress, so access is synchronized.
+ */
+class ScrapeCheckpoints {
+
+    private final Map<String, ScrapeJob.CategoryCheckpoint> byCategory = new LinkedHashMap<>();
+
+    ScrapeCheckpoints(List<ScrapeJob.CategoryCheckpoint> saved) {
+        if (saved != null) {
+            for (ScrapeJob.CategoryCheckpoint checkpoint : saved) {
+                byCategory.put(checkpoint.getCategoryUrl(), copyOf(checkpoint));
+            }
+        }
+    }
+
+    synchronized boolean isCategoryComplete(String categoryUrl) {
+        ScrapeJob.CategoryCheckpoint checkpoint = byCategory.get(categoryUrl);
+        return checkpoint != null && checkpoint.isCompleted();
+    }
+
+    synchronized boolean isPageComplete(String categoryUrl, int page) {
+        ScrapeJob.CategoryCheckpoint checkpoint = byCategory.get(categoryUrl);
+        return checkpoint != null && (checkpoint.isCompleted() || checkpoint.getCompletedPages().contains(page));
+    }
+
+    synchronized void pageProcessed(String categoryUrl, int page, int productCount) {
+        ScrapeJob.CategoryCheckpoint checkpoint = checkpointFor(categoryUrl);
+        if (!checkpoint.getCompletedPages().contains(page)) {
+            checkpoint.getCompletedPages().add(page);
+            checkpoint.setProductCount(checkpoint.getProductCount() + productCount);
+        }
+    }
+
+    synchronized void categoryCompleted(String categoryUrl) {
+        checkpointFor(categoryUrl).setCompleted(true);
+    }
+
+    synchronized boolean hasProgress() {
+        return !byCategory.isEmpty();
+    }
+
+    /**
+     * Copy of the current progress for saving with the job.
+     */
+    synchronized List<ScrapeJob.CategoryCheckpoint> snapshot() {
+        List<ScrapeJob.CategoryCheckpoint> snapshot = new ArrayList<>(byCategory.size());
+        byCategory.values().forEach(checkpoint -> snapshot.add(copyOf(checkpoint)));
+        return snapshot;
+    }
+
+    private ScrapeJob.CategoryCheckpoint checkpointFor(String categoryUrl) {
+        return byCategory.computeIfAbsent(categoryUrl, url -> ScrapeJob.CategoryCheckpoint.builder()
+                .categoryUrl(url)
+                .completedPages(new ArrayList<>())
+                .build());
+    }
+
+    private static ScrapeJob.CategoryCheckpoint copyOf(ScrapeJob.CategoryCheckpoint checkpoint) {
+        List<Integer> pages = checkpoint.getCompletedPages() != null
+                ? new ArrayList<>(new TreeSet<>(checkpoint.getCompletedPages()))
+                : new ArrayList<>();
+        return ScrapeJob.CategoryCheckpoint.builder()
+                .categoryUrl(checkpoint.getCategoryUrl())
+                .completed(checkpoint.isCompleted())
+                .completedPages(pages)
+                .productCount(checkpoint.getProductCount())
+                .build();
+    }
+}
@@ -0,0 +1,203 @@
+package com.app.services;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs scrape jobs on a bounded pool of named worker threads.
+ * At most {@code scraper.executor.max-concurrent-jobs} jobs run at once across all stores,
+ * and jobs for the same store are queued and run one after another. Each running job may
+ * hand page fetching to a companion thread from an equally sized fetch pool.
+ */
+@Slf4j
+@Component
+public class ScrapeJobExecutor {
+
+    private final ThreadPoolExecutor executor;
+    private final ThreadPoolExecutor fetchExecutor;
+    private final int shutdownTimeoutSeconds;
+
+    // Pending jobs per store code; guarded by "this"
+    private final Map<String, Deque<Runnable>> storeQueues = new HashMap<>();
+    private final Set<String> activeStores = new HashSet<>();
+
+    private final AtomicLong completedJobs = new AtomicLong();
+    private final AtomicLong failedJobs = new AtomicLong();
+    private volatile boolean shuttingDown;
+
+    public ScrapeJobExecutor(
+            @Value("${scraper.executor.max-concurrent-jobs:4}") int maxConcurrentJobs,
+            @Value("${scraper.executor.shutdown-timeout-seconds:60}") int shutdownTimeoutSeconds) {
+        int poolSize = Math.max(1, maxConcurrentJobs);
+        this.shutdownTimeoutSeconds = shutdownTimeoutSeconds;
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), namedThreadFactory("scrape-job-"));
+        this.fetchExecutor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), namedThreadFactory("scrape-fetch-"));
+        log.info("Scrape job executor started with {} worker threads", poolSize);
+    }
+
+    /**
+     * Queues a job for the given store. The job starts as soon as no other job for the
+     * same store is running and a worker thread is free.
+     *
+     * @throws RejectedExecutionException if the executor is shutting down
+     */
+    public void submit(String storeCode, Runnable job) {
+        if (shuttingDown) {
+            throw new RejectedExecutionException("Scrape job executor is shutting down");
+        }
+        synchronized (this) {
+            if (activeStores.contains(storeCode)) {
+                storeQueues.computeIfAbsent(storeCode, k -> new ArrayDeque<>()).addLast(job);
+                log.info("[{}] Scrape job queued behind running job (queue depth {})",
+                        storeCode, storeQueues.get(storeCode).size());
+                return;
+            }
+            activeStores.add(storeCode);
+        }
+        dispatch(storeCode, job);
+    }
+
+    private void dispatch(String storeCode, Runnable job) {
+        try {
+            executor.execute(() -> runAndContinue(storeCode, job));
+        } catch (RejectedExecutionException e) {
+            synchronized (this) {
+                activeStores.remove(storeCode);
+            }
+            throw e;
+        }
+    }
+
+    private void runAndContinue(String storeCode, Runnable job) {
+        try {
+            job.run();
+            completedJobs.incrementAndGet();
+        } catch (Exception e) {
+            failedJobs.incrementAndGet();
+            log.error("[{}] Scrape job terminated with an uncaught exception", storeCode, e);
+        } finally {
+            Runnable next = null;
+            synchronized (this) {
+                Deque<Runnable> queue = storeQueues.get(storeCode);
+                if (queue != null && !shuttingDown) {
+                    next = queue.pollFirst();
+                }
+                if (queue != null && queue.isEmpty()) {
+                    storeQueues.remove(storeCode);
+                }
+                if (next == null) {
+                    activeStores.remove(storeCode);
+                }
+            }
+            if (next != null) {
+                dispatch(storeCode, next);
+            }
+        }
+    }
+
+    /**
+     * Runs the fetch side of a job's pipeline. Called from a job thread, so there is never
+     * more than one fetch task per running job.
+     */
+    public Future<?> submitFetch(Runnable fetchTask) {
+        return fetchExecutor.submit(fetchTask);
+    }
+
+    public synchronized int getQueueDepth(String storeCode) {
+        Deque<Runnable> queue = storeQueues.get(storeCode);
+        return queue != null ? queue.size() : 0;
+    }
+
+    public synchronized boolean isRunning(String storeCode) {
+        return activeStores.contains(storeCode);
+    }
+
+    public ExecutorStats getStats() {
+        Map<String, Integer> queuedByStore = new TreeMap<>();
+        int queued = 0;
+        synchronized (this) {
+            for (Map.Entry<String, Deque<Runnable>> entry : storeQueues.entrySet()) {
+                queuedByStore.put(entry.getKey(), entry.getValue().size());
+                queued += entry.getValue().size();
+            }
+        }
+        // Jobs waiting for a free worker thread are queued too
+        queued += executor.getQueue().size();
+
+        return new ExecutorStats(
+                executor.getMaximumPoolSize(),
+                executor.getActiveCount(),
+                queued,
+                queuedByStore,
+                completedJobs.get(),
+                failedJobs.get(),
+                shuttingDown);
+    }
+
+    /**
+     * Stops accepting new jobs, drops jobs still waiting in the per-store queues and
+     * waits for running jobs to finish before the application context closes.
+     */
+    @PreDestroy
+    public void shutdown() {
+        shuttingDown = true;
+        int dropped;
+        synchronized (this) {
+            dropped = storeQueues.values().stream().mapToInt(Deque::size).sum();
+            storeQueues.clear();
+        }
+        if (dropped > 0) {
+            log.warn("Dropping {} queued scrape jobs on shutdown; they remain PENDING", dropped);
+        }
+
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(shutdownTimeoutSeconds, TimeUnit.SECONDS)) {
+                log.warn("Scrape jobs still running after {}s, interrupting", shutdownTimeoutSeconds);
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        fetchExecutor.shutdownNow();
+    }
+
+    static ThreadFactory namedThreadFactory(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(false);
+            return thread;
+        };
+    }
+
+    public record ExecutorStats(
+            int maxConcurrentJobs,
+            int runningJobs,
+            int queuedJobs,
+            Map<String, Integer> queuedByStore,
+            long completedJobs,
+            long failedJobs,
+            boolean shuttingDown) {}
+}
@@ -0,0 +1,188 @@
+package com.app.services;
+
+import com.app.models.ScrapeLease;
+import com.mongodb.client.result.UpdateResult;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Mongo-backed leases that keep nodes sharing a database from scraping the same store at the
+ * same time. A lease is taken with a single {@code findAndModify} that only matches an expired
+ * lease and otherwise upserts; when another node holds it, the upsert hits the duplicate
+ * {@code _id} and the acquisition fails. Held leases are renewed every
+ * {@code scraper.lease.heartbeat-ms}; a node that dies stops renewing and its leases expire
+ * after {@code scraper.lease.ttl-seconds}.
+ * <p>
+ * Expiry compares timestamps written by different nodes, so the TTL should be well above any
+ * clock skew between them.
+ */
+@Slf4j
+@Component
+public class ScrapeLeaseService {
+
+    public record Lease(String name, String token) {
+    }
+
+    private final MongoTemplate mongoTemplate;
+    private final Duration ttl;
+    private final String nodeId;
+
+    // Leases this node holds and renews, by token
+    private final Map<String, Lease> held = new ConcurrentHashMap<>();
+
+    public ScrapeLeaseService(
+            MongoTemplate mongoTemplate,
+            @Value("${scraper.lease.ttl-seconds:120}") int ttlSeconds,
+            @Value("${scraper.lease.node-id:}") String nodeId) {
+        this.mongoTemplate = mongoTemplate;
+        this.ttl = Duration.ofSeconds(ttlSeconds);
+        this.nodeId = nodeId == null || nodeId.isBlank() ? defaultNodeId() : nodeId;
+        log.info("Scrape leases held as node '{}' (ttl {}s)", this.nodeId, ttlSeconds);
+    }
+
+    /**
+     * Takes the lease if no other holder has it, and keeps renewing it until
+     * {@link #release(Lease)} is called.
+     */
+    public Optional<Lease> tryAcquire(String name) {
+        Optional<Lease> lease = acquire(name, ttl);
+        lease.ifPresent(l -> held.put(l.token(), l));
+        return lease;
+    }
+
+    /**
+     * Takes the lease for a fixed time without renewing or releasing it, so other nodes
+     * asking for it within that time are turned away.
+     */
+    public boolean tryAcquireFor(String name, Duration duration) {
+        return acquire(name, duration).isPresent();
+    }
+
+    private Optional<Lease> acquire(String name, Duration duration) {
+        LocalDateTime now = LocalDateTime.now();
+        String token = UUID.randomUUID().toString();
+        Query query = Query.query(Criteria.where("_id").is(name).and("expiresAt").lt(now));
+        Update update = new Update()
+                .set("owner", nodeId)
+                .set("token", token)
+                .set("acquiredAt", now)
+                .set("renewedAt", now)
+                .set("expiresAt", now.plus(duration));
+        try {
+            mongoTemplate.findAndModify(query, update,
+                    FindAndModifyOptions.options().upsert(true).returnNew(true), ScrapeLease.class);
+            log.debug("Acquired lease {} until {}", name, now.plus(duration));
+            return Optional.of(new Lease(name, token));
+        } catch (DuplicateKeyException e) {
+            // Held by someone else and not yet expired
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Whether this node still holds the lease. False once it has been released, or if a
+     * renewal found that it had expired and been taken over.
+     */
+    public boolean isHeld(Lease lease) {
+        return lease != null && held.containsKey(lease.token());
+    }
+
+    public void release(Lease lease) {
+        if (lease == null) {
+            return;
+        }
+        held.remove(lease.token());
+        try {
+            mongoTemplate.remove(Query.query(Criteria.where("_id").is(lease.name()).and("token").is(lease.token())),
+                    ScrapeLease.class);
+        } catch (Exception e) {
+            // It expires on its own
+            log.warn("Could not release lease {}: {}", lease.name(), e.getMessage());
+        }
+    }
+
+    /**
+     * Whether another node currently holds the named lease.
+     */
+    public boolean isHeldElsewhere(String name) {
+        return mongoTemplate.exists(Query.query(Criteria.where("_id").is(name)
+                .and("owner").ne(nodeId)
+                .and("expiresAt").gt(LocalDateTime.now())), ScrapeLease.class);
+    }
+
+    /**
+     * Names, less the prefix, of the leases starting with {@code prefix} that other nodes
+     * currently hold.
+     */
+    public Set<String> heldElsewhereWithPrefix(String prefix) {
+        return mongoTemplate.find(Query.query(Criteria.where("_id").regex("^" + Pattern.quote(prefix))
+                        .and("owner").ne(nodeId)
+                        .and("expiresAt").gt(LocalDateTime.now())), ScrapeLease.class).stream()
+                .map(lease -> lease.getName().substring(prefix.length()))
+                .collect(Collectors.toSet());
+    }
+
+    /**
+     * Drops leases recorded for this node that it does not hold, i.e. ones left by a previous
+     * process on the same node that has since restarted.
+     */
+    public void releaseStaleLeases() {
+        long removed = mongoTemplate.remove(Query.query(Criteria.where("owner").is(nodeId)
+                .and("token").nin(held.keySet())), ScrapeLease.class).getDeletedCount();
+        if (removed > 0) {
+            log.info("Released {} leases left by a previous run of node '{}'", removed, nodeId);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${scraper.lease.heartbeat-ms:30000}",
+               initialDelayString = "${scraper.lease.heartbeat-ms:30000}")
+    public void renewHeldLeases() {
+        for (Lease lease : held.values()) {
+            LocalDateTime now = LocalDateTime.now();
+            try {
+                UpdateResult result = mongoTemplate.updateFirst(
+                        Query.query(Criteria.where("_id").is(lease.name()).and("token").is(lease.token())),
+                        new Update().set("renewedAt", now).set("expiresAt", now.plus(ttl)),
+                        ScrapeLease.class);
+                if (result.getMatchedCount() == 0) {
+                    held.remove(lease.token());
+                    log.error("Lease {} expired and was lost before it could be renewed", lease.name());
+                }
+            } catch (Exception e) {
+                // Try again on the next heartbeat; the lease is only lost once it expires
+                log.warn("Could not renew lease {}: {}", lease.name(), e.getMessage());
+            }
+        }
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    private static String defaultNodeId() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            return "node-" + UUID.randomUUID().toString().substring(0, 8);
+        }
+    }
+}
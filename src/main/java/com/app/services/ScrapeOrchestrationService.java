@@ -1,27 +1,46 @@
 package com.app.services;
 
 import com.app.models.*;
+import com.app.services.scraper.ScrapeMetrics;
 import com.app.services.scraper.StoreScraper;
 import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
 import io.github.resilience4j.circuitbreaker.CircuitBreaker;
 import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.ratelimiter.RateLimiter;
+import io.github.resilience4j.ratelimiter.RateLimiterConfig;
+import io.github.resilience4j.ratelimiter.RateLimiterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class ScrapeOrchestrationService {
 
+    private static final String WORKER_LEASE_PREFIX = "scrape-worker:";
+
     private final List<StoreScraper> scrapers;
     private final StoreRepository storeRepository;
     private final ProductRepository productRepository;
@@ -31,6 +50,34 @@ public class ScrapeOrchestrationService {
     private final PriceAnalysisService priceAnalysisService;
     private final TelegramNotificationService telegramNotificationService;
     private final CircuitBreakerRegistry circuitBreakerRegistry;
+    private final ScrapeJobExecutor scrapeJobExecutor;
+    private final PriceRecordBatchWriter priceRecordBatchWriter;
+    private final RateLimiterRegistry rateLimiterRegistry;
+    private final ScrapeLeaseService scrapeLeaseService;
+    private final ScrapeWorkQueue scrapeWorkQueue;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ScrapedPageFingerprintRepository pageFingerprintRepository;
+    private final ScrapeMetrics scrapeMetrics;
+
+    // Store leases of distributed jobs this node submitted, held until the job is closed
+    private final Map<String, ScrapeLeaseService.Lease> distributedJobLeases = new ConcurrentHashMap<>();
+    // Worker leases of the stores this node is working items of, by store code
+    private final Map<String, StoreWorkerLease> workerLeases = new HashMap<>();
+
+    @Value("${scraper.pipeline.queue-capacity:16}")
+    private int pipelineQueueCapacity;
+
+    @Value("${scraper.checkpoint.interval-seconds:30}")
+    private int checkpointIntervalSeconds;
+
+    @Value("${scraper.distributed.enabled:false}")
+    private boolean distributedEnabled;
+
+    @Value("${scraper.progress.publish-interval-ms:1000}")
+    private long progressPublishIntervalMs;
+
+    @Value("${scraper.page-fingerprints.enabled:true}")
+    private boolean pageFingerprintsEnabled;
 
     public ScrapeJob triggerScrape(String storeCode) {
         Store store = storeRepository.findByCode(storeCode)
@@ -45,21 +92,131 @@ public class ScrapeOrchestrationService {
             throw new IllegalStateException("A scrape job is already running for store: " + storeCode);
         }
 
-        // Create job record
-        ScrapeJob job = ScrapeJob.builder()
-                .storeId(store.getId())
-                .storeCode(storeCode)
-                .status(ScrapeJob.JobStatus.PENDING)
-                .startedAt(LocalDateTime.now())
-                .errorMessages(new ArrayList<>())
-                .build();
-        job = scrapeJobRepository.save(job);
+        // The lease makes the check above atomic, and covers jobs queued or running on other nodes
+        ScrapeLeaseService.Lease lease = acquireStoreLease(store);
+        try {
+            // Create job record
+            ScrapeJob job = ScrapeJob.builder()
+                    .storeId(store.getId())
+                    .storeCode(storeCode)
+                    .status(ScrapeJob.JobStatus.PENDING)
+                    .startedAt(LocalDateTime.now())
+                    .errorMessages(new ArrayList<>())
+                    .build();
+            job = scrapeJobRepository.save(job);
+
+            submitJob(job, store, lease);
+            return job;
+        } catch (RuntimeException e) {
+            scrapeLeaseService.release(lease);
+            throw e;
+        }
+    }
+
+    /**
+     * Continues a RESUMABLE job, skipping the categories and pages it already processed.
+     */
+    public ScrapeJob resumeJob(String jobId) {
+        ScrapeJob job = scrapeJobRepository.findById(jobId)
+                .orElseThrow(() -> new IllegalArgumentException("Scrape job not found: " + jobId));
+
+        if (job.getStatus() != ScrapeJob.JobStatus.RESUMABLE) {
+            throw new IllegalArgumentException("Scrape job " + jobId + " is " + job.getStatus() + ", not RESUMABLE");
+        }
+
+        Store store = storeRepository.findById(job.getStoreId())
+                .orElseThrow(() -> new IllegalArgumentException("Store not found: " + job.getStoreCode()));
+
+        if (scrapeJobRepository.existsByStoreIdAndStatus(store.getId(), ScrapeJob.JobStatus.RUNNING)) {
+            throw new IllegalStateException("A scrape job is already running for store: " + store.getCode());
+        }
+
+        ScrapeLeaseService.Lease lease = acquireStoreLease(store);
+        try {
+            job.setStatus(ScrapeJob.JobStatus.PENDING);
+            job.setCompletedAt(null);
+            job.setResumeCount(job.getResumeCount() + 1);
+            if (job.getErrorMessages() == null) {
+                job.setErrorMessages(new ArrayList<>());
+            }
+            ScrapeJob saved = scrapeJobRepository.save(job);
+            log.info("[{}] Resuming scrape job {} (resume #{})", store.getCode(), jobId, saved.getResumeCount());
+
+            submitJob(saved, store, lease);
+            return saved;
+        } catch (RuntimeException e) {
+            scrapeLeaseService.release(lease);
+            throw e;
+        }
+    }
 
-        // Start scraping asynchronously
-        final ScrapeJob finalJob = job;
-        new Thread(() -> executeScrape(finalJob, store)).start();
+    /**
+     * Jobs left RUNNING or PENDING by a previous run of the application were interrupted
+     * (queued jobs only lived in memory); mark them resumable so their progress is not lost.
+     * Jobs whose store lease another node still holds are that node's and are left alone.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void recoverInterruptedJobs() {
+        scrapeLeaseService.releaseStaleLeases();
 
-        return job;
+        List<ScrapeJob> interrupted = new ArrayList<>(scrapeJobRepository.findByStatus(ScrapeJob.JobStatus.RUNNING));
+        interrupted.addAll(scrapeJobRepository.findByStatus(ScrapeJob.JobStatus.PENDING));
+
+        for (ScrapeJob job : interrupted) {
+            // Distributed jobs live on in their work items
+            if (job.isDistributed() || scrapeLeaseService.isHeldElsewhere(storeLeaseName(job.getStoreCode()))) {
+                continue;
+            }
+            job.setStatus(ScrapeJob.JobStatus.RESUMABLE);
+            if (job.getErrorMessages() == null) {
+                job.setErrorMessages(new ArrayList<>());
+            }
+            job.getErrorMessages().add("Interrupted by application restart");
+            job.setCompletedAt(LocalDateTime.now());
+            scrapeJobRepository.save(job);
+            log.warn("[{}] Scrape job {} was interrupted by a restart and can be resumed", job.getStoreCode(), job.getId());
+        }
+    }
+
+    private ScrapeLeaseService.Lease acquireStoreLease(Store store) {
+        return scrapeLeaseService.tryAcquire(storeLeaseName(store.getCode()))
+                .orElseThrow(() -> new IllegalStateException(
+                        "A scrape job is already in progress for store: " + store.getCode()));
+    }
+
+    private static String storeLeaseName(String storeCode) {
+        return "scrape:" + storeCode;
+    }
+
+    private static String workerLeaseName(String storeCode) {
+        return WORKER_LEASE_PREFIX + storeCode;
+    }
+
+    /**
+     * Queues the job; the store lease is released when the job finishes. For a distributed job
+     * that is once {@link #completeFinishedJobs()} has closed it, not when its items are queued.
+     */
+    private void submitJob(ScrapeJob job, Store store, ScrapeLeaseService.Lease lease) {
+        // Queue on the bounded executor; jobs for the same store run one at a time
+        try {
+            scrapeJobExecutor.submit(store.getCode(), () -> {
+                try {
+                    executeScrape(job, store, lease);
+                } finally {
+                    if (job.isDistributed() && job.getStatus() == ScrapeJob.JobStatus.RUNNING) {
+                        distributedJobLeases.put(job.getId(), lease);
+                    } else {
+                        scrapeLeaseService.release(lease);
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            job.setStatus(ScrapeJob.JobStatus.FAILED);
+            job.getErrorMessages().add("Job rejected: " + e.getMessage());
+            job.setCompletedAt(LocalDateTime.now());
+            scrapeJobRepository.save(job);
+            throw new IllegalStateException("Cannot start scrape for store " + store.getCode() + ": " + e.getMessage());
+        }
     }
 
     public List<ScrapeJob> triggerScrapeAll() {
@@ -78,98 +235,706 @@ public class ScrapeOrchestrationService {
         return jobs;
     }
 
-    private void executeScrape(ScrapeJob job, Store store) {
+    private void executeScrape(ScrapeJob job, Store store, ScrapeLeaseService.Lease lease) {
         job.setStatus(ScrapeJob.JobStatus.RUNNING);
         scrapeJobRepository.save(job);
+        eventPublisher.publishEvent(ScrapeProgressEvent.fromJob(job));
 
-        int successCount = 0;
-        int errorCount = 0;
-        List<String> errors = new ArrayList<>();
-        List<PriceRecord> previousPrices = new ArrayList<>();
+        // A resumed job carries on from the counts and checkpoints it saved
+        PipelineRun run = new PipelineRun(job.getId(), store, job.getErrorMessages());
+        run.totalProducts = job.getTotalProducts();
+        run.successCount = job.getSuccessCount();
+        run.errorCount = job.getErrorCount();
+        run.pagesFetched = ScrapeProgressEvent.fromJob(job).pagesFetched();
+        run.startProducts = run.totalProducts;
+        run.startPersisted = job.getSuccessCount();
+        ScrapeCheckpoints checkpoints = new ScrapeCheckpoints(job.getCheckpoints());
 
         try {
             // Find appropriate scraper
-            StoreScraper scraper = scrapers.stream()
-                    .filter(s -> s.supports(store))
-                    .findFirst()
-                    .orElseThrow(() -> new IllegalStateException("No scraper found for store: " + store.getCode()));
-
-            // Get previous prices for comparison
-            LocalDateTime oneDayAgo = LocalDateTime.now().minusDays(1);
-            previousPrices = priceRecordRepository.findByStoreIdAndScrapedAtAfter(store.getId(), oneDayAgo);
-
-            // Scrape products — wrapped in a per-store circuit breaker
-            CircuitBreaker circuitBreaker = circuitBreakerRegistry.circuitBreaker(store.getCode());
-            List<StoreScraper.ScrapedProduct> scrapedProducts;
-            try {
-                scrapedProducts = circuitBreaker.executeSupplier(() -> scraper.scrapeAllProducts(store));
-            } catch (CallNotPermittedException e) {
-                log.warn("[{}] Circuit breaker OPEN — scrape skipped. Store may be temporarily unavailable.", store.getCode());
-                errors.add("Circuit breaker open: scrape skipped. Store temporarily unavailable after repeated failures.");
-                job.setStatus(ScrapeJob.JobStatus.FAILED);
-                job.setErrorMessages(errors);
-                job.setCompletedAt(LocalDateTime.now());
-                scrapeJobRepository.save(job);
+            StoreScraper scraper = findScraper(store);
+
+            if (distributedEnabled) {
+                enqueueWorkItems(job, store, scraper, checkpoints);
                 return;
             }
 
-            job.setTotalProducts(scrapedProducts.size());
-            log.info("[{}] Scraped {} products", store.getCode(), scrapedProducts.size());
+            Throwable failure = runPipeline(store, new StoreBaseline(null, store, null), null,
+                    sink -> scraper.scrapeAllProducts(store, sink), checkpoints, run,
+                    () -> scrapeLeaseService.isHeld(lease),
+                    () -> saveCheckpoint(job, checkpoints, run));
+            job.setTotalProducts(run.totalProducts);
 
-            Set<String> processedProductStoreKeys = new HashSet<>();
-            for (StoreScraper.ScrapedProduct scrapedProduct : scrapedProducts) {
-                try {
-                    processScrapedProduct(scrapedProduct, store, processedProductStoreKeys);
-                    successCount++;
-                } catch (Exception e) {
-                    errorCount++;
-                    String errorMsg = "Error processing product: " + scrapedProduct.name() + " - " + e.getMessage();
-                    errors.add(errorMsg);
-                    log.warn(errorMsg);
-                }
+            if (failure instanceof CallNotPermittedException) {
+                log.warn("[{}] Circuit breaker OPEN — scrape skipped. Store may be temporarily unavailable.", store.getCode());
+                run.errors.add("Circuit breaker open: scrape skipped. Store temporarily unavailable after repeated failures.");
+                run.batch.flush();
+                job.setStatus(stoppedStatus(checkpoints));
+            } else if (failure != null) {
+                throw new IllegalStateException(failure.getMessage(), failure);
+            } else {
+                // Final flush before the job is reported as completed
+                run.batch.flush();
+                job.setStatus(ScrapeJob.JobStatus.COMPLETED);
             }
 
-            job.setStatus(ScrapeJob.JobStatus.COMPLETED);
-
         } catch (Exception e) {
             log.error("[{}] Scrape job failed: {}", store.getCode(), e.getMessage(), e);
-            job.setStatus(ScrapeJob.JobStatus.FAILED);
-            errors.add("Job failed: " + e.getMessage());
+            run.errors.add("Job failed: " + e.getMessage());
+            run.batch.flush();
+            job.setStatus(stoppedStatus(checkpoints));
+            job.setTotalProducts(run.totalProducts);
         }
 
-        job.setSuccessCount(successCount);
-        job.setErrorCount(errorCount);
-        job.setErrorMessages(errors);
+        job.setCheckpoints(checkpoints.snapshot());
+        job.setSuccessCount(run.successes());
+        job.setErrorCount(run.failures());
+        job.setErrorMessages(run.errors);
         job.setCompletedAt(LocalDateTime.now());
         scrapeJobRepository.save(job);
+        publishProgress(run, store, job.getStatus(), true);
 
-        // After scraping, detect price drops and send notifications
+        // Price drops were collected while processing; notify once the job has completed
         if (job.getStatus() == ScrapeJob.JobStatus.COMPLETED) {
+            notifyPriceDrops(store, run.priceDrops);
+        }
+
+        log.info("[{}] Scrape job finished ({}): {} success, {} errors ({} new price records, {} unchanged prices extended)",
+                store.getCode(), job.getStatus(), job.getSuccessCount(), job.getErrorCount(),
+                run.batch.getInsertedCount(), run.batch.getExtendedCount());
+    }
+
+    private StoreScraper findScraper(Store store) {
+        return scrapers.stream()
+                .filter(s -> s.supports(store))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("No scraper found for store: " + store.getCode()));
+    }
+
+    /**
+     * Counts and results of one pass of the pipeline over a job or a work item.
+     */
+    private class PipelineRun {
+
+        // Null for a work item, whose progress is not published
+        final String jobId;
+        final List<String> errors;
+        final List<PriceAnalysisService.PriceDrop> priceDrops = new ArrayList<>();
+        final PriceRecordBatchWriter.Batch batch;
+        // Products this run claimed a record for in its baseline
+        final Set<String> recordedProductIds = new HashSet<>();
+        final long startedAtMs = System.currentTimeMillis();
+        int startProducts;
+        int startPersisted;
+        int totalProducts;
+        int successCount;
+        int errorCount;
+        int pagesFetched;
+        long lastPublishedAtMs;
+
+        PipelineRun(String jobId, Store store, List<String> previousErrors) {
+            this.jobId = jobId;
+            this.errors = previousErrors != null ? new ArrayList<>(previousErrors) : new ArrayList<>();
+            this.batch = priceRecordBatchWriter.openBatch(store.getCode(), errors);
+        }
+
+        // Products whose price record could not be written count as errors
+        int successes() {
+            return successCount - batch.getFailedCount();
+        }
+
+        int failures() {
+            return errorCount + batch.getFailedCount();
+        }
+    }
+
+    /**
+     * What a run checks scraped products against: each product's latest record, the store's
+     * product identities, and the products already recorded. A local job has one of its own.
+     * The items of a distributed job share one on a node for as long as the node holds the
+     * store's worker lease, since no other node can write to the store meanwhile.
+     */
+    private class StoreBaseline {
+
+        final String jobId;
+        final Store store;
+        // Each product's latest record: the baseline for price drops, and the interval that is
+        // extended if the price state has not changed
+        final Map<String, PriceRecord> latestByProduct = new HashMap<>();
+        // Records scraped from then on were written by the job itself, possibly on another node
+        final LocalDateTime jobQueuedAt;
+        final Set<String> recordedProductIds = ConcurrentHashMap.newKeySet();
+        private ProductIdentityCache identityCache;
+
+        StoreBaseline(String jobId, Store store, LocalDateTime jobQueuedAt) {
+            this.jobId = jobId;
+            this.store = store;
+            this.jobQueuedAt = jobQueuedAt;
+            int lookbackHours = Math.max(24, priceRecordBatchWriter.getIntervalMaxGapHours());
+            for (PriceRecord r : priceRecordRepository.findByStoreIdAndScrapedAtAfter(
+                    store.getId(), LocalDateTime.now().minusHours(lookbackHours))) {
+                latestByProduct.merge(r.getProductId(), r,
+                        (a, b) -> b.getScrapedAt().isAfter(a.getScrapedAt()) ? b : a);
+            }
+        }
+
+        // Loaded on first use, so a local run overlaps it with fetching the first page
+        synchronized ProductIdentityCache identityCache() {
+            if (identityCache == null) {
+                identityCache = productMatchingService.loadIdentityCache(store);
+            }
+            return identityCache;
+        }
+
+        /**
+         * @return true if the run should record the product: neither this node nor, for a
+         *         distributed job, another node has recorded it for the job yet
+         */
+        boolean claim(String productId, PipelineRun run) {
+            PriceRecord latest = latestByProduct.get(productId);
+            if (jobQueuedAt != null && latest != null && !latest.getScrapedAt().isBefore(jobQueuedAt)) {
+                return false;
+            }
+            if (!recordedProductIds.add(productId)) {
+                return false;
+            }
+            run.recordedProductIds.add(productId);
+            return true;
+        }
+
+        // A failed run's records may not have been written; let a retry record its products
+        void forget(PipelineRun run) {
+            recordedProductIds.removeAll(run.recordedProductIds);
+        }
+    }
+
+    /**
+     * Fetches on a companion thread, wrapped in the store's circuit breaker, while the calling
+     * thread matches and persists each page as it arrives. Pages the scraper found unchanged
+     * since the last run are not parsed; their products' latest price records are observed again.
+     *
+     * @param categoryUrl the only category fetched, or null for the whole store
+     * @param stillOwned checked before every poll for a page, at least once a second; the run stops
+     *                   once the caller has lost its lease or claim
+     * @param checkpoint called after each completed category and every
+     *                   {@code scraper.checkpoint.interval-seconds}
+     * @return the failure that stopped fetching, or null
+     */
+    private Throwable runPipeline(Store store, StoreBaseline baseline, String categoryUrl,
+                                  Consumer<StoreScraper.ProductSink> fetch, ScrapeCheckpoints checkpoints,
+                                  PipelineRun run, BooleanSupplier stillOwned, Runnable checkpoint)
+            throws InterruptedException {
+        ScrapePageFingerprints fingerprints = pageFingerprintsEnabled
+                ? new ScrapePageFingerprints(store.getId(), categoryUrl != null
+                        ? pageFingerprintRepository.findByStoreIdAndCategoryUrl(store.getId(), categoryUrl)
+                        : pageFingerprintRepository.findByStoreId(store.getId()),
+                        baseline.latestByProduct::containsKey, true)
+                : ScrapePageFingerprints.disabled();
+
+        CircuitBreaker circuitBreaker = circuitBreakerRegistry.circuitBreaker(store.getCode());
+        ScrapedPageQueue pageQueue = new ScrapedPageQueue(pipelineQueueCapacity, checkpoints, fingerprints);
+        Future<?> fetchTask = scrapeJobExecutor.submitFetch(() -> {
             try {
-                List<PriceAnalysisService.PriceDrop> priceDrops =
-                        priceAnalysisService.detectPriceDrops(store.getId(), previousPrices);
-                if (!priceDrops.isEmpty()) {
-                    telegramNotificationService.sendPriceDropNotifications(priceDrops);
+                circuitBreaker.executeRunnable(() -> fetch.accept(pageQueue));
+                pageQueue.complete();
+            } catch (CancellationException e) {
+                log.debug("[{}] Fetch stopped because the pipeline was aborted", store.getCode());
+            } catch (Throwable t) {
+                pageQueue.fail(t);
+            }
+        });
+
+        ProductIdentityCache identityCache = baseline.identityCache();
+        int hitsAtStart;
+        int missesAtStart;
+        synchronized (identityCache) {
+            hitsAtStart = identityCache.getHits();
+            missesAtStart = identityCache.getMisses();
+        }
+        long lastCheckpointAt = System.currentTimeMillis();
+        try {
+            while (true) {
+                if (!stillOwned.getAsBoolean()) {
+                    // Another node may have taken the work over; stop rather than scrape it twice
+                    throw new IllegalStateException("Lost the scrape lease for store " + store.getCode());
                 }
-            } catch (Exception e) {
-                log.error("Error sending price drop notifications", e);
+                ScrapedPageQueue.ScrapedPage page = pageQueue.poll(1, TimeUnit.SECONDS);
+                if (page == null) {
+                    // No page yet; don't let buffered records wait for the next one
+                    run.batch.flushIfDue();
+                    continue;
+                }
+                if (page.isEnd()) {
+                    break;
+                }
+                if (page.isCategoryComplete()) {
+                    checkpoints.categoryCompleted(page.categoryUrl());
+                } else if (page.isUnchanged()) {
+                    List<String> productIds = page.fingerprint().unchangedProductIds();
+                    run.pagesFetched++;
+                    run.totalProducts += productIds.size();
+                    for (String productId : productIds) {
+                        observeUnchanged(productId, store, baseline, run);
+                        run.successCount++;
+                    }
+                    fingerprints.recordProcessed(page.categoryUrl(), page.page(), page.fingerprint().fingerprint(),
+                            productIds);
+                    checkpoints.pageProcessed(page.categoryUrl(), page.page(), productIds.size());
+                } else {
+                    run.pagesFetched++;
+                    run.totalProducts += page.products().size();
+                    List<String> productIds = new ArrayList<>(page.products().size());
+                    for (StoreScraper.ScrapedProduct scrapedProduct : page.products()) {
+                        try {
+                            productIds.add(processScrapedProduct(scrapedProduct, store, baseline, run));
+                            run.successCount++;
+                        } catch (Exception e) {
+                            run.errorCount++;
+                            String errorMsg = "Error processing product: " + scrapedProduct.name() + " - " + e.getMessage();
+                            run.errors.add(errorMsg);
+                            log.warn(errorMsg);
+                        }
+                    }
+                    // A page with failed products is parsed again next time rather than skipped
+                    if (page.fingerprint() != null && productIds.size() == page.products().size()) {
+                        fingerprints.recordProcessed(page.categoryUrl(), page.page(), page.fingerprint().fingerprint(),
+                                productIds);
+                    }
+                    checkpoints.pageProcessed(page.categoryUrl(), page.page(), page.products().size());
+                }
+                if (page.isCategoryComplete()
+                        || System.currentTimeMillis() - lastCheckpointAt >= checkpointIntervalSeconds * 1000L) {
+                    checkpoint.run();
+                    saveFingerprints(store, fingerprints);
+                    lastCheckpointAt = System.currentTimeMillis();
+                }
+                publishProgress(run, store, ScrapeJob.JobStatus.RUNNING, false);
             }
+        } catch (InterruptedException | RuntimeException e) {
+            pageQueue.abort();
+            fetchTask.cancel(true);
+            throw e;
         }
 
-        log.info("[{}] Scrape job finished: {} success, {} errors", store.getCode(), successCount, errorCount);
+        // Fingerprints are saved only once the records they vouch for have been written
+        run.batch.flush();
+        saveFingerprints(store, fingerprints);
+
+        int hits;
+        int misses;
+        synchronized (identityCache) {
+            hits = identityCache.getHits() - hitsAtStart;
+            misses = identityCache.getMisses() - missesAtStart;
+        }
+        scrapeMetrics.recordIdentityCache(store.getCode(), hits, misses);
+        log.info("[{}] Scraped {} products (identity cache: {} hits, {} misses)",
+                store.getCode(), run.totalProducts, hits, misses);
+        return pageQueue.getFailure();
     }
 
-    private void processScrapedProduct(StoreScraper.ScrapedProduct scrapedProduct, Store store,
-                                       Set<String> processedProductStoreKeys) {
-        // Find or create product
-        Product product = productMatchingService.findOrCreateProduct(scrapedProduct, store);
+    private void saveFingerprints(Store store, ScrapePageFingerprints fingerprints) {
+        List<ScrapedPageFingerprint> pending = fingerprints.drainDirty();
+        if (pending.isEmpty()) {
+            return;
+        }
+        try {
+            pageFingerprintRepository.saveAll(pending);
+        } catch (Exception e) {
+            // Only costs a full parse of these pages next time
+            log.warn("[{}] Could not save {} page fingerprints: {}", store.getCode(), pending.size(), e.getMessage());
+        }
+    }
 
-        // Skip duplicate price record if this product+store was already processed in this session
-        String key = product.getId() + "_" + store.getId();
-        if (!processedProductStoreKeys.add(key)) {
-            log.debug("Skipping duplicate price record for product {} in store {}", product.getName(), store.getCode());
+    /**
+     * Observes a product listed on an unchanged page again, with the price state of its latest record.
+     */
+    private void observeUnchanged(String productId, Store store, StoreBaseline baseline, PipelineRun run) {
+        PriceRecord latest = baseline.latestByProduct.get(productId);
+        if (latest == null || !baseline.claim(productId, run)) {
             return;
         }
+        PriceRecord observation = PriceRecord.builder()
+                .productId(productId)
+                .storeId(store.getId())
+                .regularPrice(latest.getRegularPrice())
+                .salePrice(latest.getSalePrice())
+                .unitPrice(latest.getUnitPrice())
+                .onSale(latest.isOnSale())
+                .promoDescription(latest.getPromoDescription())
+                .scrapedAt(LocalDateTime.now())
+                .inStock(latest.isInStock())
+                .sourceUrl(latest.getSourceUrl())
+                .build();
+        run.batch.addObservation(observation, latest, productId);
+    }
+
+    /**
+     * Publishes the run's progress, at most every {@code scraper.progress.publish-interval-ms}
+     * unless forced. Records still buffered in the batch are not yet counted as persisted.
+     */
+    private void publishProgress(PipelineRun run, Store store, ScrapeJob.JobStatus status, boolean force) {
+        long now = System.currentTimeMillis();
+        if (run.jobId == null || (!force && now - run.lastPublishedAtMs < progressPublishIntervalMs)) {
+            return;
+        }
+        run.lastPublishedAtMs = now;
+        double elapsedSeconds = Math.max(1, now - run.startedAtMs) / 1000.0;
+        double productsPerSecond = (run.totalProducts - run.startProducts) / elapsedSeconds;
+        eventPublisher.publishEvent(new ScrapeProgressEvent(run.jobId, store.getCode(), status,
+                run.pagesFetched, run.totalProducts, run.successCount,
+                run.startPersisted + run.batch.getInsertedCount() + run.batch.getExtendedCount(), run.failures(),
+                Math.round(productsPerSecond * 10.0) / 10.0, LocalDateTime.now()));
+    }
+
+    /**
+     * Flushes buffered price records, then saves the job with its progress, so a checkpoint
+     * never covers records that were not written.
+     */
+    private void saveCheckpoint(ScrapeJob job, ScrapeCheckpoints checkpoints, PipelineRun run) {
+        run.batch.flush();
+        job.setCheckpoints(checkpoints.snapshot());
+        job.setSuccessCount(run.successes());
+        job.setErrorCount(run.failures());
+        job.setTotalProducts(run.totalProducts);
+        job.setErrorMessages(new ArrayList<>(run.errors));
+        scrapeJobRepository.save(job);
+    }
+
+    /**
+     * A job that stops early can be resumed if it got anywhere.
+     */
+    private static ScrapeJob.JobStatus stoppedStatus(ScrapeCheckpoints checkpoints) {
+        return checkpoints.hasProgress() ? ScrapeJob.JobStatus.RESUMABLE : ScrapeJob.JobStatus.FAILED;
+    }
+
+    private void notifyPriceDrops(Store store, List<PriceAnalysisService.PriceDrop> priceDrops) {
+        if (priceDrops.isEmpty()) {
+            return;
+        }
+        try {
+            priceDrops.sort((a, b) -> Double.compare(b.dropPercentage(), a.dropPercentage()));
+            log.info("[{}] Detected {} price drops", store.getCode(), priceDrops.size());
+            telegramNotificationService.sendPriceDropNotifications(priceDrops);
+        } catch (Exception e) {
+            log.error("Error sending price drop notifications", e);
+        }
+    }
+
+    /**
+     * Splits the job into one work item per category that is not already complete. The job is
+     * only marked distributed once its items exist, so it cannot be completed half-queued.
+     */
+    private void enqueueWorkItems(ScrapeJob job, Store store, StoreScraper scraper, ScrapeCheckpoints checkpoints) {
+        List<String> categoryUrls = scraper.listCategories(store).stream()
+                .filter(url -> !checkpoints.isCategoryComplete(url))
+                .toList();
+        scrapeWorkQueue.enqueue(job, categoryUrls);
+        job.setDistributed(true);
+        scrapeJobRepository.save(job);
+        log.info("[{}] Scrape job {} queued as {} category work items", store.getCode(), job.getId(), categoryUrls.size());
+    }
+
+    /**
+     * Claims the next work item of any distributed job and scrapes its category.
+     *
+     * @return false if there was nothing to claim
+     */
+    public boolean processNextWorkItem() {
+        // Stores another node is working are left to it, so each store sees one node's requests
+        Optional<ScrapeWorkItem> claimed = scrapeWorkQueue.claimNext(
+                scrapeLeaseService.heldElsewhereWithPrefix(WORKER_LEASE_PREFIX));
+        if (claimed.isEmpty()) {
+            releaseIdleWorkerLeases(null);
+            return false;
+        }
+        ScrapeWorkItem item = claimed.get();
+        releaseIdleWorkerLeases(item.getStoreCode());
+        Optional<StoreWorkerLease> workerLease = acquireWorkerLease(item.getStoreCode());
+        if (workerLease.isEmpty()) {
+            // Another node started on the store since the claim was made
+            log.debug("[{}] Handing back work item {}: store is worked by another node",
+                    item.getStoreCode(), item.getId());
+            scrapeWorkQueue.unclaim(item);
+            return true;
+        }
+        log.info("[{}] Claimed work item {} ({}), attempt {}",
+                item.getStoreCode(), item.getId(), item.getCategoryUrl(), item.getAttempts());
+        StoreBaseline baseline = null;
+        PipelineRun run = null;
+        try {
+            Store store = storeRepository.findById(item.getStoreId())
+                    .orElseThrow(() -> new IllegalStateException("Store not found: " + item.getStoreCode()));
+            StoreScraper scraper = findScraper(store);
+
+            baseline = workerLease.get().baselineFor(item, store);
+            run = new PipelineRun(null, store, null);
+            ClaimRenewal claimRenewal = new ClaimRenewal(item);
+            BooleanSupplier stillOwned = () -> claimRenewal.getAsBoolean()
+                    && scrapeLeaseService.isHeld(workerLease.get().lease);
+            Throwable failure = runPipeline(store, baseline, item.getCategoryUrl(),
+                    sink -> scraper.scrapeProducts(store, item.getCategoryUrl(), sink),
+                    new ScrapeCheckpoints(null), run, stillOwned, run.batch::flush);
+            if (failure != null) {
+                throw new IllegalStateException(failure.getMessage(), failure);
+            }
+            run.batch.flush();
+
+            List<ScrapeWorkItem.DetectedPriceDrop> drops = run.priceDrops.stream()
+                    .map(ScrapeOrchestrationService::toDetectedPriceDrop)
+                    .toList();
+            ScrapeWorkQueue.ItemResult result = new ScrapeWorkQueue.ItemResult(
+                    run.totalProducts, run.successes(), run.failures(), run.errors, drops);
+            if (scrapeWorkQueue.complete(item, result)) {
+                log.info("[{}] Work item {} done: {} products, {} errors",
+                        item.getStoreCode(), item.getId(), run.totalProducts, run.failures());
+            } else {
+                log.warn("[{}] Work item {} was taken over by another node before it finished",
+                        item.getStoreCode(), item.getId());
+            }
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            log.error("[{}] Work item {} failed: {}", item.getStoreCode(), item.getId(), e.getMessage(), e);
+            if (baseline != null && run != null) {
+                baseline.forget(run);
+            }
+            scrapeWorkQueue.fail(item, "Attempt " + item.getAttempts() + " failed: " + e.getMessage());
+        } finally {
+            finishWithWorkerLease(item.getStoreCode());
+        }
+        return true;
+    }
+
+    /**
+     * Takes the store's worker lease for one more of this node's work items, acquiring it unless
+     * this node already holds it.
+     */
+    private Optional<StoreWorkerLease> acquireWorkerLease(String storeCode) {
+        synchronized (workerLeases) {
+            StoreWorkerLease held = workerLeases.get(storeCode);
+            if (held == null || !scrapeLeaseService.isHeld(held.lease)) {
+                Optional<ScrapeLeaseService.Lease> lease = scrapeLeaseService.tryAcquire(workerLeaseName(storeCode));
+                if (lease.isEmpty()) {
+                    return Optional.empty();
+                }
+                // A lost lease may have let another node write to the store; start from a new baseline
+                StoreWorkerLease acquired = new StoreWorkerLease(lease.get());
+                acquired.items = held != null ? held.items : 0;
+                held = acquired;
+                workerLeases.put(storeCode, held);
+            }
+            held.items++;
+            return Optional.of(held);
+        }
+    }
+
+    private void finishWithWorkerLease(String storeCode) {
+        synchronized (workerLeases) {
+            StoreWorkerLease held = workerLeases.get(storeCode);
+            if (held != null && held.items > 0) {
+                held.items--;
+            }
+        }
+    }
+
+    /**
+     * Gives up the worker leases of stores none of this node's items are being worked for,
+     * except the one about to be worked. A lease is kept between consecutive items of its store
+     * so that they share a baseline.
+     */
+    private void releaseIdleWorkerLeases(String keepStoreCode) {
+        synchronized (workerLeases) {
+            workerLeases.entrySet().removeIf(entry -> {
+                if (entry.getValue().items > 0 || entry.getKey().equals(keepStoreCode)) {
+                    return false;
+                }
+                scrapeLeaseService.release(entry.getValue().lease);
+                return true;
+            });
+        }
+    }
+
+    /**
+     * A store's worker lease held by this node, with the number of its items being worked here
+     * and the baseline they share.
+     */
+    private class StoreWorkerLease {
+
+        final ScrapeLeaseService.Lease lease;
+        // Guarded by workerLeases
+        int items;
+        private StoreBaseline baseline;
+
+        StoreWorkerLease(ScrapeLeaseService.Lease lease) {
+            this.lease = lease;
+        }
+
+        synchronized StoreBaseline baselineFor(ScrapeWorkItem item, Store store) {
+            if (baseline == null || !baseline.jobId.equals(item.getJobId())) {
+                baseline = new StoreBaseline(item.getJobId(), store, item.getQueuedAt());
+            }
+            return baseline;
+        }
+    }
+
+    /**
+     * Keeps the claim on a work item alive while it is worked. The pipeline asks it whether the
+     * item is still owned between pages and at least once a second while waiting for one, so a
+     * slow category is renewed well within the claim's TTL.
+     */
+    private class ClaimRenewal implements BooleanSupplier {
+
+        private final ScrapeWorkItem item;
+        private final long renewEveryMs;
+        private long renewedAt = System.currentTimeMillis();
+        private boolean owned = true;
+
+        ClaimRenewal(ScrapeWorkItem item) {
+            this.item = item;
+            this.renewEveryMs = Math.max(1000, scrapeWorkQueue.getClaimTtl().toMillis() / 3);
+        }
+
+        @Override
+        public boolean getAsBoolean() {
+            long now = System.currentTimeMillis();
+            if (owned && now - renewedAt >= renewEveryMs) {
+                owned = scrapeWorkQueue.renew(item);
+                renewedAt = now;
+            }
+            return owned;
+        }
+    }
+
+    /**
+     * Completes distributed jobs that have no open work items left: their items' counts are
+     * added to the job and their price drops are notified. Runs on every node; only the node
+     * that moves the job out of RUNNING reports it.
+     */
+    public void completeFinishedJobs() {
+        try {
+            reportFinishedJobs();
+        } finally {
+            releaseFinishedJobLeases();
+        }
+    }
+
+    private void reportFinishedJobs() {
+        for (ScrapeJob job : scrapeJobRepository.findByStatus(ScrapeJob.JobStatus.RUNNING)) {
+            if (!job.isDistributed()) {
+                continue;
+            }
+            scrapeWorkQueue.failAbandoned(job.getId());
+            if (scrapeWorkQueue.hasOpenItems(job.getId())) {
+                continue;
+            }
+
+            List<ScrapeWorkItem> items = scrapeWorkQueue.findByJob(job.getId());
+            boolean anyDone = items.isEmpty()
+                    || items.stream().anyMatch(i -> i.getStatus() == ScrapeWorkItem.ItemStatus.DONE);
+            ScrapeJob.JobStatus status = anyDone ? ScrapeJob.JobStatus.COMPLETED : ScrapeJob.JobStatus.FAILED;
+            if (!scrapeWorkQueue.finishJob(job.getId(), status)) {
+                continue;
+            }
+
+            List<String> errors = job.getErrorMessages() != null ? new ArrayList<>(job.getErrorMessages()) : new ArrayList<>();
+            List<ScrapeWorkItem.DetectedPriceDrop> detected = new ArrayList<>();
+            int totalProducts = job.getTotalProducts();
+            int successCount = job.getSuccessCount();
+            int errorCount = job.getErrorCount();
+            for (ScrapeWorkItem item : items) {
+                totalProducts += item.getTotalProducts();
+                successCount += item.getSuccessCount();
+                errorCount += item.getErrorCount();
+                if (item.getErrorMessages() != null) {
+                    errors.addAll(item.getErrorMessages());
+                }
+                if (item.getStatus() == ScrapeWorkItem.ItemStatus.FAILED) {
+                    errors.add("Category failed: " + item.getCategoryUrl());
+                }
+                if (item.getPriceDrops() != null) {
+                    detected.addAll(item.getPriceDrops());
+                }
+            }
+            job.setStatus(status);
+            job.setTotalProducts(totalProducts);
+            job.setSuccessCount(successCount);
+            job.setErrorCount(errorCount);
+            job.setErrorMessages(errors);
+            job.setCompletedAt(LocalDateTime.now());
+            scrapeJobRepository.save(job);
+            log.info("[{}] Distributed scrape job {} finished ({}): {} work items, {} success, {} errors",
+                    job.getStoreCode(), job.getId(), status, items.size(), successCount, errorCount);
+            eventPublisher.publishEvent(ScrapeProgressEvent.fromJob(job));
+
+            if (status == ScrapeJob.JobStatus.COMPLETED && !detected.isEmpty()) {
+                storeRepository.findById(job.getStoreId())
+                        .ifPresent(store -> notifyPriceDrops(store, toPriceDrops(store, detected)));
+            }
+        }
+    }
+
+    /**
+     * Releases the store leases this node holds for distributed jobs that are no longer running,
+     * whichever node completed them.
+     */
+    private void releaseFinishedJobLeases() {
+        distributedJobLeases.forEach((jobId, lease) -> {
+            boolean running = scrapeLeaseService.isHeld(lease) && scrapeJobRepository.findById(jobId)
+                    .map(job -> job.getStatus() == ScrapeJob.JobStatus.RUNNING)
+                    .orElse(false);
+            if (!running) {
+                distributedJobLeases.remove(jobId);
+                scrapeLeaseService.release(lease);
+            }
+        });
+    }
+
+    private static ScrapeWorkItem.DetectedPriceDrop toDetectedPriceDrop(PriceAnalysisService.PriceDrop drop) {
+        return ScrapeWorkItem.DetectedPriceDrop.builder()
+                .productId(drop.product().getId())
+                .previousPrice(drop.previousPrice())
+                .currentPrice(drop.currentPrice())
+                .dropAmount(drop.dropAmount())
+                .dropPercentage(drop.dropPercentage())
+                .detectedAt(drop.detectedAt())
+                .build();
+    }
+
+    private List<PriceAnalysisService.PriceDrop> toPriceDrops(Store store, List<ScrapeWorkItem.DetectedPriceDrop> detected) {
+        Map<String, Product> products = new HashMap<>();
+        productRepository.findAllById(detected.stream().map(ScrapeWorkItem.DetectedPriceDrop::getProductId).toList())
+                .forEach(product -> products.put(product.getId(), product));
+        List<PriceAnalysisService.PriceDrop> drops = new ArrayList<>();
+        for (ScrapeWorkItem.DetectedPriceDrop drop : detected) {
+            Product product = products.get(drop.getProductId());
+            if (product != null) {
+                drops.add(new PriceAnalysisService.PriceDrop(product, store, drop.getPreviousPrice(),
+                        drop.getCurrentPrice(), drop.getDropAmount(), drop.getDropPercentage(), drop.getDetectedAt()));
+            }
+        }
+        return drops;
+    }
+
+    /**
+     * Returns the id of the product the scraped product was matched to.
+     */
+    private String processScrapedProduct(StoreScraper.ScrapedProduct scrapedProduct, Store store,
+                                       StoreBaseline baseline, PipelineRun run) {
+        // Find or create product; the identity cache may be shared with other items of the job
+        long matchStart = System.nanoTime();
+        ProductIdentityCache identityCache = baseline.identityCache();
+        Product product;
+        synchronized (identityCache) {
+            product = productMatchingService.findOrCreateProduct(scrapedProduct, store, identityCache);
+        }
+        scrapeMetrics.recordMatch(store.getCode(), System.nanoTime() - matchStart);
+
+        // Skip duplicate price record if this product was already recorded by the job
+        if (!baseline.claim(product.getId(), run)) {
+            log.debug("Skipping duplicate price record for product {} in store {}", product.getName(), store.getCode());
+            return product.getId();
+        }
 
         // Create price record
         PriceRecord priceRecord = PriceRecord.builder()
@@ -185,7 +950,10 @@ public class ScrapeOrchestrationService {
                 .sourceUrl(scrapedProduct.sourceUrl())
                 .build();
 
-        priceRecordRepository.save(priceRecord);
+        PriceRecord latest = baseline.latestByProduct.get(product.getId());
+        priceAnalysisService.findPriceDrop(product, store, latest, priceRecord).ifPresent(run.priceDrops::add);
+        run.batch.addObservation(priceRecord, latest, scrapedProduct.name());
+        return product.getId();
     }
 
     public Optional<ScrapeJob> getJob(String jobId) {
@@ -197,6 +965,33 @@ public class ScrapeOrchestrationService {
                 .flatMap(store -> scrapeJobRepository.findTopByStoreIdOrderByStartedAtDesc(store.getId()));
     }
 
+    public ScrapeJobExecutor.ExecutorStats getExecutorStats() {
+        return scrapeJobExecutor.getStats();
+    }
+
+    /**
+     * Current state of every per-store/per-host rate limiter created so far.
+     */
+    public List<RateLimiterStatus> getRateLimiterStatuses() {
+        return rateLimiterRegistry.getAllRateLimiters().stream()
+                .map(this::toRateLimiterStatus)
+                .sorted(Comparator.comparing(RateLimiterStatus::name))
+                .toList();
+    }
+
+    private RateLimiterStatus toRateLimiterStatus(RateLimiter limiter) {
+        RateLimiterConfig config = limiter.getRateLimiterConfig();
+        double requestsPerSecond = config.getLimitForPeriod() * 1000.0 / config.getLimitRefreshPeriod().toMillis();
+        // Limiters are named store@host; permit waits are timed per store
+        String storeCode = limiter.getName().split("@", 2)[0];
+        return new RateLimiterStatus(
+                limiter.getName(),
+                Math.round(requestsPerSecond * 100.0) / 100.0,
+                limiter.getMetrics().getAvailablePermissions(),
+                limiter.getMetrics().getNumberOfWaitingThreads(),
+                scrapeMetrics.meanRateLimiterWaitMs(storeCode));
+    }
+
     public List<ScraperMetrics> getAllScraperMetrics() {
         List<Store> activeStores = storeRepository.findByActiveTrue();
         return activeStores.stream()
@@ -240,7 +1035,8 @@ public class ScrapeOrchestrationService {
         }
 
         return new ScraperMetrics(storeCode, total, successful, failed,
-                Math.round(successRate * 10.0) / 10.0, lastSuccessAt, lastJobAt, circuitBreakerState);
+                Math.round(successRate * 10.0) / 10.0, lastSuccessAt, lastJobAt, circuitBreakerState,
+                scrapeMetrics.snapshot(storeCode));
     }
 
     public record ScraperMetrics(
@@ -251,5 +1047,15 @@ public class ScrapeOrchestrationService {
             double successRate,
             LocalDateTime lastSuccessAt,
             LocalDateTime lastJobAt,
-            String circuitBreakerState) {}
+            String circuitBreakerState,
+            // Per-stage timings since startup; also exported at /actuator/prometheus
+            ScrapeMetrics.StageMetrics stages) {}
+
+    public record RateLimiterStatus(
+            String name,
+            double requestsPerSecond,
+            int availablePermissions,
+            int waitingThreads,
+            // Mean wait for a permit across all of the store's limiters since startup
+            double storeMeanWaitMs) {}
 }
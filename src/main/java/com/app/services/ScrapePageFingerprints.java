@@ -0,0 +1,124 @@
+package com.app.services;
+
+import com.app.models.ScrapedPageFingerprint;
+import com.app.services.scraper.StoreScraper;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * Fingerprints of a store's category pages from earlier runs, and the ones taken during this
+ * run. Fetch threads offer each page's fingerprint before parsing it; a page whose content
+ * matches its earlier fingerprint is skipped as unchanged, provided every product it listed
+ * still has a recent price record to observe again. The job thread takes each page's
+ * decision when it processes the page and records the fingerprints to save.
+ */
+class ScrapePageFingerprints {
+
+    private final String storeId;
+    private final boolean enabled;
+    private final Map<String, ScrapedPageFingerprint> previous = new ConcurrentHashMap<>();
+    private final Predicate<String> productKnown;
+    private final Map<String, Decision> decisions = new ConcurrentHashMap<>();
+    private final Map<String, ScrapedPageFingerprint> dirty = new ConcurrentHashMap<>();
+
+    ScrapePageFingerprints(String storeId, List<ScrapedPageFingerprint> saved, Predicate<String> productKnown,
+                           boolean enabled) {
+        this.storeId = storeId;
+        this.enabled = enabled;
+        this.productKnown = productKnown;
+        if (enabled && saved != null) {
+            saved.forEach(fingerprint -> previous.put(key(fingerprint.getCategoryUrl(), fingerprint.getPage()), fingerprint));
+        }
+    }
+
+    static ScrapePageFingerprints disabled() {
+        return new ScrapePageFingerprints(null, null, productId -> false, false);
+    }
+
+    /**
+     * What the job thread needs to know about a fetched page: its fingerprint, and the products
+     * to observe again if it was skipped as unchanged (null if it was parsed).
+     */
+    record Decision(StoreScraper.PageFingerprint fingerprint, List<String> unchangedProductIds) {
+        boolean isUnchanged() {
+            return unchangedProductIds != null;
+        }
+    }
+
+    StoreScraper.PageFingerprint previousFingerprint(String categoryUrl, int page) {
+        ScrapedPageFingerprint saved = previous.get(key(categoryUrl, page));
+        return saved != null
+                ? new StoreScraper.PageFingerprint(saved.getContentHash(), saved.getEtag(), saved.getLastModified())
+                : null;
+    }
+
+    /**
+     * Number of products the page listed on an earlier run, or -1 if it has no fingerprint.
+     */
+    int previousProductCount(String categoryUrl, int page) {
+        ScrapedPageFingerprint saved = previous.get(key(categoryUrl, page));
+        return saved != null && saved.getProductIds() != null ? saved.getProductIds().size() : -1;
+    }
+
+    boolean isUnchanged(String categoryUrl, int page, StoreScraper.PageFingerprint fingerprint) {
+        if (!enabled || fingerprint == null) {
+            return false;
+        }
+        String key = key(categoryUrl, page);
+        ScrapedPageFingerprint saved = previous.get(key);
+        boolean unchanged = saved != null
+                && saved.getContentHash() != null
+                && saved.getContentHash().equals(fingerprint.contentHash())
+                && saved.getProductIds() != null
+                && !saved.getProductIds().isEmpty()
+                && saved.getProductIds().stream().allMatch(productKnown);
+        decisions.put(key, new Decision(fingerprint, unchanged ? List.copyOf(saved.getProductIds()) : null));
+        return unchanged;
+    }
+
+    /**
+     * Removes and returns the decision taken for a page, or null if its fingerprint was never offered.
+     */
+    Decision take(String categoryUrl, int page) {
+        return enabled ? decisions.remove(key(categoryUrl, page)) : null;
+    }
+
+    /**
+     * Records the fingerprint of a processed page and the products found on it, to be saved.
+     */
+    void recordProcessed(String categoryUrl, int page, StoreScraper.PageFingerprint fingerprint, List<String> productIds) {
+        if (!enabled || fingerprint == null) {
+            return;
+        }
+        String id = ScrapedPageFingerprint.idOf(storeId, categoryUrl, page);
+        dirty.put(id, ScrapedPageFingerprint.builder()
+                .id(id)
+                .storeId(storeId)
+                .categoryUrl(categoryUrl)
+                .page(page)
+                .contentHash(fingerprint.contentHash())
+                .etag(fingerprint.etag())
+                .lastModified(fingerprint.lastModified())
+                .productIds(productIds)
+                .fetchedAt(LocalDateTime.now())
+                .build());
+    }
+
+    /**
+     * Fingerprints recorded since the last call.
+     */
+    List<ScrapedPageFingerprint> drainDirty() {
+        List<ScrapedPageFingerprint> drained = new ArrayList<>(dirty.values());
+        drained.forEach(fingerprint -> dirty.remove(fingerprint.getId()));
+        return drained;
+    }
+
+    private static String key(String categoryUrl, int page) {
+        return categoryUrl + "|" + page;
+    }
+}
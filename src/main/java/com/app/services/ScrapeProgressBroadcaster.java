@@ -0,0 +1,168 @@
+package com.app.services;
+
+import com.app.models.ScrapeJob;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Relays {@link ScrapeProgressEvent}s to the Server-Sent Event streams open for each job.
+ * A stream starts with the job's saved progress and is completed after the job's final event.
+ * Only events published on this node are relayed.
+ * <p>
+ * Events are published on the job's own thread, so they are handed to a delivery thread per
+ * stream rather than sent there. A stream that falls behind is sent only the latest event.
+ */
+@Slf4j
+@Component
+public class ScrapeProgressBroadcaster {
+
+    private final Map<String, List<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final long timeoutMs;
+    private final ExecutorService delivery;
+
+    public ScrapeProgressBroadcaster(@Value("${scraper.progress.sse-timeout-ms:1800000}") long timeoutMs) {
+        this.timeoutMs = timeoutMs;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.delivery = Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, "scrape-progress-" + threadCount.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Opens a stream for {@code job}, as just read. The job's final event may be published before
+     * the stream is registered, so once it is, the job is read again with {@code reload} and the
+     * stream completed if the job has finished.
+     */
+    public SseEmitter subscribe(ScrapeJob job, Supplier<Optional<ScrapeJob>> reload) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscriber subscriber = new Subscriber(job.getId(), emitter);
+        emitter.onCompletion(subscriber::remove);
+        emitter.onTimeout(subscriber::remove);
+        emitter.onError(e -> subscriber.remove());
+
+        // Queued before registering, so any event relayed from then on supersedes it
+        ScrapeProgressEvent current = ScrapeProgressEvent.fromJob(job);
+        subscriber.next.set(current);
+        if (!current.isFinal()) {
+            subscribers.computeIfAbsent(job.getId(), k -> new CopyOnWriteArrayList<>()).add(subscriber);
+            reload.get()
+                    .map(ScrapeProgressEvent::fromJob)
+                    .filter(ScrapeProgressEvent::isFinal)
+                    .ifPresent(subscriber.next::set);
+        }
+        subscriber.schedule();
+        return emitter;
+    }
+
+    @EventListener
+    public void onProgress(ScrapeProgressEvent event) {
+        List<Subscriber> jobSubscribers = subscribers.get(event.jobId());
+        if (jobSubscribers == null) {
+            return;
+        }
+        for (Subscriber subscriber : jobSubscribers) {
+            subscriber.offer(event);
+        }
+    }
+
+    public int getSubscriberCount(String jobId) {
+        List<Subscriber> jobSubscribers = subscribers.get(jobId);
+        return jobSubscribers != null ? jobSubscribers.size() : 0;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        delivery.shutdownNow();
+    }
+
+    /**
+     * One open stream and the event waiting to be sent to it. At most one delivery task per
+     * stream runs at a time, so its events go out in order.
+     */
+    private class Subscriber {
+
+        private final String jobId;
+        private final SseEmitter emitter;
+        private final AtomicReference<ScrapeProgressEvent> next = new AtomicReference<>();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        Subscriber(String jobId, SseEmitter emitter) {
+            this.jobId = jobId;
+            this.emitter = emitter;
+        }
+
+        void offer(ScrapeProgressEvent event) {
+            // An event not yet sent is superseded; the final event is always the last one
+            next.set(event);
+            schedule();
+        }
+
+        private void schedule() {
+            if (!scheduled.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                delivery.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                // Shutting down
+                scheduled.set(false);
+            }
+        }
+
+        private void drain() {
+            ScrapeProgressEvent event;
+            while ((event = next.getAndSet(null)) != null) {
+                if (send(event) && event.isFinal()) {
+                    emitter.complete();
+                    remove();
+                    // Leave the stream marked as scheduled so that nothing is sent after the final event
+                    return;
+                }
+            }
+            scheduled.set(false);
+            if (next.get() != null) {
+                // Offered after the loop found nothing, but before the flag was cleared
+                schedule();
+            }
+        }
+
+        private boolean send(ScrapeProgressEvent event) {
+            try {
+                emitter.send(SseEmitter.event().name("progress").data(event));
+                return true;
+            } catch (IOException | IllegalStateException e) {
+                // Client went away; drop the stream
+                log.debug("Dropping progress stream for job {}: {}", jobId, e.getMessage());
+                remove();
+                return false;
+            }
+        }
+
+        void remove() {
+            subscribers.computeIfPresent(jobId, (id, list) -> {
+                list.remove(this);
+                return list.isEmpty() ? null : list;
+            });
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.app.services;
+
+import com.app.models.ScrapeJob;
+
+import java.time.LocalDateTime;
+
+/**
+ * Progress of a scrape job, published on the application event bus while the job runs and
+ * once when it ends. Counts cover the whole job, including work done before a resume.
+ */
+public record ScrapeProgressEvent(
+        String jobId,
+        String storeCode,
+        ScrapeJob.JobStatus status,
+        int pagesFetched,
+        int productsParsed,
+        int productsMatched,
+        int recordsPersisted,
+        int errors,
+        double productsPerSecond,
+        LocalDateTime timestamp) {
+
+    public boolean isFinal() {
+        return status != ScrapeJob.JobStatus.PENDING && status != ScrapeJob.JobStatus.RUNNING;
+    }
+
+    /**
+     * The job's progress as last saved, for clients that connect part way through.
+     */
+    public static ScrapeProgressEvent fromJob(ScrapeJob job) {
+        int pages = 0;
+        if (job.getCheckpoints() != null) {
+            for (ScrapeJob.CategoryCheckpoint checkpoint : job.getCheckpoints()) {
+                pages += checkpoint.getCompletedPages() != null ? checkpoint.getCompletedPages().size() : 0;
+            }
+        }
+        return new ScrapeProgressEvent(job.getId(), job.getStoreCode(), job.getStatus(), pages,
+                job.getTotalProducts(), job.getSuccessCount(), job.getSuccessCount(), job.getErrorCount(),
+                0, LocalDateTime.now());
+    }
+}
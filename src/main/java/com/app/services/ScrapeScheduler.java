@@ -2,20 +2,35 @@ package com.app.services;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class ScrapeScheduler {
 
+    static final String SCHEDULE_LEASE = "scheduled-scrape-all";
+
     private final ScrapeOrchestrationService scrapeOrchestrationService;
+    private final ScrapeLeaseService scrapeLeaseService;
+
+    // Every node fires the cron; the first to take the lease runs the round and the lease
+    // turns the others away until it expires
+    @Value("${scraper.lease.schedule-hold-minutes:30}")
+    private int scheduleHoldMinutes;
 
     @Scheduled(cron = "${scraper.schedule.cron}")
     public void scheduledScrapeAll() {
-        log.info("Starting scheduled scrape for all stores");
         try {
+            if (!scrapeLeaseService.tryAcquireFor(SCHEDULE_LEASE, Duration.ofMinutes(scheduleHoldMinutes))) {
+                log.info("Scheduled scrape already started by another node, skipping");
+                return;
+            }
+            log.info("Starting scheduled scrape for all stores");
             var jobs = scrapeOrchestrationService.triggerScrapeAll();
             log.info("Scheduled scrape triggered {} jobs", jobs.size());
         } catch (Exception e) {
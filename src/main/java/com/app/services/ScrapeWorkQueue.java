@@ -0,0 +1,202 @@
+package com.app.services;
+
+import com.app.models.ScrapeJob;
+import com.app.models.ScrapeWorkItem;
+import com.app.models.ScrapeWorkItemRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Mongo-backed queue of category work items for distributed scrape jobs. Items are claimed
+ * with an atomic {@code findAndModify}, so each is worked by one node at a time; a claim lasts
+ * {@code scraper.distributed.claim-ttl-seconds} unless renewed, after which another node may
+ * take the item over. An item is given up after {@code scraper.distributed.max-attempts} claims.
+ */
+@Slf4j
+@Component
+public class ScrapeWorkQueue {
+
+    private final MongoTemplate mongoTemplate;
+    private final ScrapeWorkItemRepository workItemRepository;
+    private final String nodeId;
+    private final Duration claimTtl;
+    private final int maxAttempts;
+
+    public ScrapeWorkQueue(
+            MongoTemplate mongoTemplate,
+            ScrapeWorkItemRepository workItemRepository,
+            ScrapeLeaseService scrapeLeaseService,
+            @Value("${scraper.distributed.claim-ttl-seconds:300}") int claimTtlSeconds,
+            @Value("${scraper.distributed.max-attempts:3}") int maxAttempts) {
+        this.mongoTemplate = mongoTemplate;
+        this.workItemRepository = workItemRepository;
+        this.nodeId = scrapeLeaseService.getNodeId();
+        this.claimTtl = Duration.ofSeconds(claimTtlSeconds);
+        this.maxAttempts = Math.max(1, maxAttempts);
+    }
+
+    /**
+     * Outcome of a work item, as recorded by the node that scraped it.
+     */
+    public record ItemResult(int totalProducts, int successCount, int errorCount, List<String> errorMessages,
+                             List<ScrapeWorkItem.DetectedPriceDrop> priceDrops) {
+    }
+
+    public List<ScrapeWorkItem> enqueue(ScrapeJob job, List<String> categoryUrls) {
+        LocalDateTime now = LocalDateTime.now();
+        List<ScrapeWorkItem> items = new ArrayList<>(categoryUrls.size());
+        for (String categoryUrl : categoryUrls) {
+            items.add(ScrapeWorkItem.builder()
+                    .jobId(job.getId())
+                    .storeId(job.getStoreId())
+                    .storeCode(job.getStoreCode())
+                    .categoryUrl(categoryUrl)
+                    .status(ScrapeWorkItem.ItemStatus.PENDING)
+                    .queuedAt(now)
+                    .build());
+        }
+        return new ArrayList<>(mongoTemplate.insertAll(items));
+    }
+
+    /**
+     * Claims the oldest item that is pending, or whose claim expired without the item being
+     * finished, skipping items of the excluded stores.
+     */
+    public Optional<ScrapeWorkItem> claimNext(Collection<String> excludedStoreCodes) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Criteria> conditions = new ArrayList<>(List.of(
+                new Criteria().orOperator(
+                        Criteria.where("status").is(ScrapeWorkItem.ItemStatus.PENDING),
+                        Criteria.where("status").is(ScrapeWorkItem.ItemStatus.CLAIMED).and("claimExpiresAt").lt(now)),
+                Criteria.where("attempts").lt(maxAttempts)));
+        if (!excludedStoreCodes.isEmpty()) {
+            conditions.add(Criteria.where("storeCode").nin(excludedStoreCodes));
+        }
+        Criteria claimable = new Criteria().andOperator(conditions);
+        Update claim = new Update()
+                .set("status", ScrapeWorkItem.ItemStatus.CLAIMED)
+                .set("owner", nodeId)
+                .set("claimToken", UUID.randomUUID().toString())
+                .set("claimExpiresAt", now.plus(claimTtl))
+                .inc("attempts", 1);
+        return Optional.ofNullable(mongoTemplate.findAndModify(
+                Query.query(claimable).with(Sort.by("queuedAt")),
+                claim,
+                FindAndModifyOptions.options().returnNew(true),
+                ScrapeWorkItem.class));
+    }
+
+    public Duration getClaimTtl() {
+        return claimTtl;
+    }
+
+    /**
+     * Extends the claim on an item being worked.
+     *
+     * @return false if the claim has been lost to another node
+     */
+    public boolean renew(ScrapeWorkItem item) {
+        return mongoTemplate.updateFirst(claimed(item),
+                new Update().set("claimExpiresAt", LocalDateTime.now().plus(claimTtl)),
+                ScrapeWorkItem.class).getMatchedCount() > 0;
+    }
+
+    /**
+     * @return false if the claim had been lost, in which case the other node's outcome stands
+     */
+    public boolean complete(ScrapeWorkItem item, ItemResult result) {
+        Update update = new Update()
+                .set("status", ScrapeWorkItem.ItemStatus.DONE)
+                .set("completedAt", LocalDateTime.now())
+                .set("totalProducts", result.totalProducts())
+                .set("successCount", result.successCount())
+                .set("errorCount", result.errorCount())
+                .set("errorMessages", result.errorMessages())
+                .set("priceDrops", result.priceDrops());
+        return mongoTemplate.updateFirst(claimed(item), update, ScrapeWorkItem.class).getMatchedCount() > 0;
+    }
+
+    /**
+     * Hands a claimed item straight back to the queue without counting the claim as an attempt,
+     * for when this node turns out not to be able to work it.
+     */
+    public void unclaim(ScrapeWorkItem item) {
+        mongoTemplate.updateFirst(claimed(item),
+                new Update().set("status", ScrapeWorkItem.ItemStatus.PENDING).unset("claimToken").inc("attempts", -1),
+                ScrapeWorkItem.class);
+    }
+
+    /**
+     * Returns a failed item to the queue for another attempt, or marks it FAILED once it has
+     * used up its attempts.
+     */
+    public void fail(ScrapeWorkItem item, String errorMessage) {
+        boolean retry = item.getAttempts() < maxAttempts;
+        Update update = new Update()
+                .set("status", retry ? ScrapeWorkItem.ItemStatus.PENDING : ScrapeWorkItem.ItemStatus.FAILED)
+                .unset("claimToken")
+                .push("errorMessages", errorMessage);
+        if (!retry) {
+            update.set("completedAt", LocalDateTime.now());
+        }
+        mongoTemplate.updateFirst(claimed(item), update, ScrapeWorkItem.class);
+    }
+
+    /**
+     * Marks items of the job FAILED whose last permitted claim expired, e.g. because every node
+     * that took them died. They would otherwise keep the job open forever.
+     */
+    public long failAbandoned(String jobId) {
+        return mongoTemplate.updateMulti(
+                Query.query(Criteria.where("jobId").is(jobId)
+                        .and("status").is(ScrapeWorkItem.ItemStatus.CLAIMED)
+                        .and("claimExpiresAt").lt(LocalDateTime.now())
+                        .and("attempts").gte(maxAttempts)),
+                new Update()
+                        .set("status", ScrapeWorkItem.ItemStatus.FAILED)
+                        .set("completedAt", LocalDateTime.now())
+                        .push("errorMessages", "Claim expired after " + maxAttempts + " attempts"),
+                ScrapeWorkItem.class).getModifiedCount();
+    }
+
+    public boolean hasOpenItems(String jobId) {
+        return workItemRepository.existsByJobIdAndStatusIn(jobId,
+                List.of(ScrapeWorkItem.ItemStatus.PENDING, ScrapeWorkItem.ItemStatus.CLAIMED));
+    }
+
+    public List<ScrapeWorkItem> findByJob(String jobId) {
+        return workItemRepository.findByJobId(jobId);
+    }
+
+    /**
+     * Moves a RUNNING job on to {@code status}. Several nodes may notice that a job's items are
+     * all finished; only the one for which this returns true reports the job.
+     */
+    public boolean finishJob(String jobId, ScrapeJob.JobStatus status) {
+        return mongoTemplate.updateFirst(
+                Query.query(Criteria.where("_id").is(jobId).and("status").is(ScrapeJob.JobStatus.RUNNING)),
+                new Update().set("status", status).set("completedAt", LocalDateTime.now()),
+                ScrapeJob.class).getModifiedCount() > 0;
+    }
+
+    private static Query claimed(ScrapeWorkItem item) {
+        return Query.query(Criteria.where("_id").is(item.getId())
+                .and("status").is(ScrapeWorkItem.ItemStatus.CLAIMED)
+                .and("claimToken").is(item.getClaimToken()));
+    }
+}
@@ -0,0 +1,94 @@
+package com.app.services;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Works distributed scrape jobs on this node: every {@code scraper.distributed.poll-ms} it
+ * completes jobs whose work items have all finished, on a thread of its own so that reporting
+ * and notifying them does not hold up the scheduler, then keeps up to
+ * {@code scraper.distributed.worker-threads} threads claiming and scraping items until the
+ * queue is empty. Every node sharing the database may run workers.
+ */
+@Slf4j
+@Component
+public class ScrapeWorker {
+
+    private final ScrapeOrchestrationService scrapeOrchestrationService;
+    private final boolean enabled;
+    private final int workerThreads;
+    private final ExecutorService workers;
+    private final ExecutorService completer;
+    private final AtomicInteger busy = new AtomicInteger();
+    private final AtomicBoolean completing = new AtomicBoolean();
+
+    public ScrapeWorker(
+            ScrapeOrchestrationService scrapeOrchestrationService,
+            @Value("${scraper.distributed.enabled:false}") boolean enabled,
+            @Value("${scraper.distributed.worker-threads:2}") int workerThreads) {
+        this.scrapeOrchestrationService = scrapeOrchestrationService;
+        this.enabled = enabled;
+        this.workerThreads = Math.max(1, workerThreads);
+        AtomicInteger threadCount = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(this.workerThreads, r -> {
+            Thread t = new Thread(r, "scrape-worker-" + threadCount.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        this.completer = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "scrape-job-completer");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${scraper.distributed.poll-ms:5000}")
+    public void poll() {
+        if (!enabled) {
+            return;
+        }
+        if (completing.compareAndSet(false, true)) {
+            completer.execute(this::completeFinishedJobs);
+        }
+        while (busy.get() < workerThreads) {
+            busy.incrementAndGet();
+            workers.execute(this::drain);
+        }
+    }
+
+    private void completeFinishedJobs() {
+        try {
+            scrapeOrchestrationService.completeFinishedJobs();
+        } catch (Exception e) {
+            log.error("Failed to complete finished scrape jobs", e);
+        } finally {
+            completing.set(false);
+        }
+    }
+
+    private void drain() {
+        try {
+            while (!Thread.currentThread().isInterrupted() && scrapeOrchestrationService.processNextWorkItem()) {
+                // Keep claiming until the queue is empty
+            }
+        } catch (Exception e) {
+            log.error("Scrape worker failed to claim work", e);
+        } finally {
+            busy.decrementAndGet();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+        completer.shutdownNow();
+    }
+}
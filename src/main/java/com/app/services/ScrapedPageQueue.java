@@ -0,0 +1,152 @@
+package com.app.services;
+
+import com.app.services.scraper.StoreScraper;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded hand-off between the thread fetching pages and the job thread matching and
+ * persisting products. {@link #onPage} blocks while the queue is full, so a slow
+ * consumer throttles fetching instead of buffering the whole catalog in memory.
+ * Category completions travel through the queue too, after the category's last page;
+ * categories and pages already in the job's checkpoints are declined. Each page carries the
+ * fingerprint decision taken for it while it was fetched.
+ */
+class ScrapedPageQueue implements StoreScraper.ProductSink {
+
+    private static final int END_PAGE = -1;
+    private static final int CATEGORY_COMPLETE_PAGE = -2;
+    private static final ScrapedPage END = new ScrapedPage(null, END_PAGE, List.of(), null);
+
+    private final BlockingQueue<ScrapedPage> queue;
+    private final ScrapeCheckpoints checkpoints;
+    private final ScrapePageFingerprints fingerprints;
+    private volatile boolean aborted;
+    private volatile Throwable failure;
+
+    ScrapedPageQueue(int capacity) {
+        this(capacity, new ScrapeCheckpoints(null));
+    }
+
+    ScrapedPageQueue(int capacity, ScrapeCheckpoints checkpoints) {
+        this(capacity, checkpoints, ScrapePageFingerprints.disabled());
+    }
+
+    ScrapedPageQueue(int capacity, ScrapeCheckpoints checkpoints, ScrapePageFingerprints fingerprints) {
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, capacity));
+        this.checkpoints = checkpoints;
+        this.fingerprints = fingerprints;
+    }
+
+    @Override
+    public void onPage(String categoryUrl, int page, List<StoreScraper.ScrapedProduct> products) {
+        put(new ScrapedPage(categoryUrl, page, products, fingerprints.take(categoryUrl, page)));
+    }
+
+    @Override
+    public boolean wantsCategory(String categoryUrl) {
+        return !checkpoints.isCategoryComplete(categoryUrl);
+    }
+
+    @Override
+    public boolean wantsPage(String categoryUrl, int page) {
+        return !checkpoints.isPageComplete(categoryUrl, page);
+    }
+
+    @Override
+    public StoreScraper.PageFingerprint previousFingerprint(String categoryUrl, int page) {
+        return fingerprints.previousFingerprint(categoryUrl, page);
+    }
+
+    @Override
+    public boolean isUnchanged(String categoryUrl, int page, StoreScraper.PageFingerprint fingerprint) {
+        return fingerprints.isUnchanged(categoryUrl, page, fingerprint);
+    }
+
+    @Override
+    public int previousProductCount(String categoryUrl, int page) {
+        return fingerprints.previousProductCount(categoryUrl, page);
+    }
+
+    @Override
+    public void onCategoryComplete(String categoryUrl) {
+        put(new ScrapedPage(categoryUrl, CATEGORY_COMPLETE_PAGE, List.of(), null));
+    }
+
+    /**
+     * Signals that the producer finished normally.
+     */
+    void complete() {
+        put(END);
+    }
+
+    /**
+     * Signals that the producer stopped with an error; the consumer sees it after draining.
+     */
+    void fail(Throwable cause) {
+        failure = cause;
+        put(END);
+    }
+
+    /**
+     * Stops the pipeline from the consumer side; a producer blocked in {@link #onPage} is released.
+     */
+    void abort() {
+        aborted = true;
+        queue.clear();
+    }
+
+    /**
+     * Returns the next page, {@code null} if none arrived within the timeout, a marker for which
+     * {@link ScrapedPage#isCategoryComplete()} is true after a category's last page, or one for
+     * which {@link ScrapedPage#isEnd()} is true once the producer has finished.
+     */
+    ScrapedPage poll(long timeout, TimeUnit unit) throws InterruptedException {
+        return queue.poll(timeout, unit);
+    }
+
+    Throwable getFailure() {
+        return failure;
+    }
+
+    private void put(ScrapedPage page) {
+        try {
+            while (!aborted) {
+                if (queue.offer(page, 200, TimeUnit.MILLISECONDS)) {
+                    // abort() clears the queue, which can let a blocked offer through
+                    if (aborted) {
+                        queue.clear();
+                        break;
+                    }
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        throw new CancellationException("Scrape pipeline aborted");
+    }
+
+    /**
+     * @param fingerprint decision taken when the page was fetched; null if the scraper did not
+     *                    fingerprint it
+     */
+    record ScrapedPage(String categoryUrl, int page, List<StoreScraper.ScrapedProduct> products,
+                       ScrapePageFingerprints.Decision fingerprint) {
+        boolean isEnd() {
+            return page == END_PAGE;
+        }
+
+        boolean isCategoryComplete() {
+            return page == CATEGORY_COMPLETE_PAGE;
+        }
+
+        boolean isUnchanged() {
+            return fingerprint != null && fingerprint.isUnchanged();
+        }
+    }
+}
@@ -1,24 +1,56 @@
 package com.app.services.scraper;
 
 import com.app.models.Store;
+import com.app.config.RateLimiterConfiguration;
+import com.app.services.scraper.fixture.HttpFixture;
+import com.app.services.scraper.fixture.HttpFixtureArchive;
 import io.github.resilience4j.ratelimiter.RateLimiter;
+import io.github.resilience4j.ratelimiter.RateLimiterConfig;
 import io.github.resilience4j.ratelimiter.RateLimiterRegistry;
 import lombok.extern.slf4j.Slf4j;
-import org.jsoup.Jsoup;
+import org.jsoup.HttpStatusException;
 import org.jsoup.nodes.Document;
 import org.springframework.beans.factory.annotation.Value;
 
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.nio.file.Path;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.UnaryOperator;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 @Slf4j
 public abstract class AbstractStoreScraper implements StoreScraper {
 
-    protected final RateLimiter rateLimiter;
+    protected final RateLimiterRegistry rateLimiterRegistry;
+
+    protected final ScrapeMetrics metrics;
+
+    protected final AdaptivePacer pacer;
+
+    protected final ScraperHttpClient httpClient;
 
     @Value("${scraper.user-agent}")
     protected String userAgent;
@@ -35,10 +67,30 @@ public abstract class AbstractStoreScraper implements StoreScraper {
     @Value("${scraper.retry.backoff-multiplier:2}")
     private int retryBackoffMultiplier;
 
+    @Value("${scraper.parallel.categories:1}")
+    private int categoryParallelism;
+
+    @Value("${scraper.parallel.pages:1}")
+    private int pageParallelism;
+
+    // Pages held for each category waiting behind an earlier one when categories run in parallel
+    @Value("${scraper.parallel.buffered-pages-per-category:8}")
+    private int maxBufferedPages;
+
+    // When set, every successful response is recorded to <dir>/<store code>.fixtures.jsonl.gz
+    @Value("${scraper.fixtures.record-dir:}")
+    private String fixtureRecordDir;
+
+    private volatile HttpFixtureArchive fixtureArchive;
+
     private static final Pattern PRICE_PATTERN = Pattern.compile("\\$?([\\d,]+\\.?\\d*)");
 
-    protected AbstractStoreScraper(RateLimiterRegistry rateLimiterRegistry) {
-        this.rateLimiter = rateLimiterRegistry.rateLimiter("scraper");
+    protected AbstractStoreScraper(RateLimiterRegistry rateLimiterRegistry, ScrapeMetrics metrics,
+                                   AdaptivePacer pacer, ScraperHttpClient httpClient) {
+        this.rateLimiterRegistry = rateLimiterRegistry;
+        this.metrics = metrics;
+        this.pacer = pacer;
+        this.httpClient = httpClient;
     }
 
     @Override
@@ -49,20 +101,238 @@ public abstract class AbstractStoreScraper implements StoreScraper {
     @Override
     public List<ScrapedProduct> scrapeAllProducts(Store store) {
         List<ScrapedProduct> allProducts = new ArrayList<>();
-        List<String> categoryUrls = getCategoryUrls(store);
+        scrapeAllProducts(store, (categoryUrl, page, products) -> allProducts.addAll(products));
+        return allProducts;
+    }
+
+    @Override
+    public List<ScrapedProduct> scrapeProducts(Store store, String categoryUrl) {
+        List<ScrapedProduct> products = new ArrayList<>();
+        try {
+            scrapeProducts(store, categoryUrl, (url, page, pageProducts) -> products.addAll(pageProducts));
+        } catch (Exception e) {
+            log.error("[{}] Error scraping category URL {}, returning {} products scraped so far: {}",
+                    getStoreCode(), categoryUrl, products.size(), e.getMessage());
+        }
+        return products;
+    }
+
+    @Override
+    public List<String> listCategories(Store store) {
+        return getCategoryUrls(store);
+    }
+
+    /**
+     * Streams every category to the sink. With a category parallelism above one, categories are
+     * fetched by that many workers at once; pages still reach the sink grouped by category and in
+     * {@link #getCategoryUrls} order, so the result matches a sequential scrape. Categories the
+     * sink already has are skipped.
+     */
+    @Override
+    public void scrapeAllProducts(Store store, ProductSink sink) {
+        List<String> allCategoryUrls = getCategoryUrls(store);
+        List<String> categoryUrls = allCategoryUrls.stream().filter(sink::wantsCategory).toList();
+        if (categoryUrls.size() < allCategoryUrls.size()) {
+            log.info("[{}] Skipping {} categories that are already complete",
+                    getStoreCode(), allCategoryUrls.size() - categoryUrls.size());
+        }
+        int workers = Math.min(getCategoryParallelism(store), categoryUrls.size());
+
+        if (workers > 1) {
+            scrapeCategoriesInParallel(store, categoryUrls, workers, sink);
+            return;
+        }
 
         for (String categoryUrl : categoryUrls) {
-            try {
-                List<ScrapedProduct> products = scrapeProducts(store, categoryUrl);
-                allProducts.addAll(products);
-                log.info("[{}] Scraped {} products from {}", getStoreCode(), products.size(), categoryUrl);
-            } catch (Exception e) {
-                log.error("[{}] Error scraping category URL {} — skipping and continuing: {}",
-                        getStoreCode(), categoryUrl, e.getMessage());
+            if (Thread.currentThread().isInterrupted()) {
+                log.warn("[{}] Scrape interrupted, skipping remaining categories", getStoreCode());
+                break;
             }
+            scrapeCategory(store, categoryUrl, sink);
         }
+    }
 
-        return allProducts;
+    private void scrapeCategoriesInParallel(Store store, List<String> categoryUrls, int workers, ProductSink sink) {
+        log.info("[{}] Scraping {} categories with {} workers", getStoreCode(), categoryUrls.size(), workers);
+        OrderedCategorySink orderedSink = new OrderedCategorySink(categoryUrls.size(),
+                Math.max(1, maxBufferedPages), sink);
+        ExecutorService pool = Executors.newFixedThreadPool(workers, workerThreads("category"));
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < categoryUrls.size(); i++) {
+                int index = i;
+                String categoryUrl = categoryUrls.get(i);
+                futures.add(pool.submit(() -> {
+                    try {
+                        scrapeCategory(store, categoryUrl, orderedSink.forCategory(index));
+                    } finally {
+                        orderedSink.complete(index);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("[{}] Scrape interrupted, cancelling remaining categories", getStoreCode());
+        } catch (ExecutionException e) {
+            // scrapeCategory isolates failures inside a category; what gets this far came from
+            // the downstream sink while releasing buffered pages, e.g. an aborted pipeline
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private void scrapeCategory(Store store, String categoryUrl, ProductSink sink) {
+        try {
+            int[] count = new int[1];
+            scrapeProducts(store, categoryUrl, new ProductSink() {
+                @Override
+                public void onPage(String url, int page, List<ScrapedProduct> products) {
+                    count[0] += products.size();
+                    sink.onPage(url, page, products);
+                }
+
+                @Override
+                public boolean wantsPage(String url, int page) {
+                    return sink.wantsPage(url, page);
+                }
+
+                @Override
+                public PageFingerprint previousFingerprint(String url, int page) {
+                    return sink.previousFingerprint(url, page);
+                }
+
+                @Override
+                public boolean isUnchanged(String url, int page, PageFingerprint fingerprint) {
+                    return sink.isUnchanged(url, page, fingerprint);
+                }
+
+                @Override
+                public int previousProductCount(String url, int page) {
+                    return sink.previousProductCount(url, page);
+                }
+            });
+            sink.onCategoryComplete(categoryUrl);
+            log.info("[{}] Scraped {} products from {}", getStoreCode(), count[0], categoryUrl);
+        } catch (Exception e) {
+            // The sink aborted the pipeline: stop the scrape rather than move to the next category
+            CancellationException cancellation = findCancellation(e);
+            if (cancellation != null) {
+                throw cancellation;
+            }
+            log.error("[{}] Error scraping category URL {} — skipping and continuing: {}",
+                    getStoreCode(), categoryUrl, e.getMessage());
+        }
+    }
+
+    // Scrapers wrap what their sink throws, so look through the causes
+    private static CancellationException findCancellation(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof CancellationException cancellation) {
+                return cancellation;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Fetches pages {@code firstPage..lastPage} of a category whose page count is already known,
+     * keeping up to {@link #getPageParallelism} requests in flight, and hands them to the sink in
+     * page order. Requests go out from the calling thread as the store's rate limit allows and
+     * their responses are read where they arrive, so no thread waits on a page. Like a
+     * sequential loop, a fetcher returning {@code null} ends the category and the first failed
+     * page ends it with that page's exception; pages before it are still delivered. Pages the
+     * sink does not want are not fetched.
+     */
+    protected void fetchPages(Store store, String categoryUrl, int firstPage, int lastPage,
+                              PageFetcher fetcher, ProductSink sink) throws Exception {
+        int window = Math.max(1, getPageParallelism(store));
+        Deque<PendingPage> inFlight = new ArrayDeque<>();
+        int next = firstPage;
+        try {
+            while (true) {
+                // Pages wait here until delivered, so the window also bounds what is buffered
+                while (next <= lastPage && inFlight.size() < window) {
+                    int page = next++;
+                    if (sink.wantsPage(categoryUrl, page)) {
+                        inFlight.add(new PendingPage(page, dispatch(fetcher, page)));
+                    }
+                }
+                PendingPage pending = inFlight.poll();
+                if (pending == null) {
+                    return;
+                }
+                List<ScrapedProduct> products;
+                try {
+                    products = pending.products().get();
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause() instanceof CompletionException wrapped && wrapped.getCause() != null
+                            ? wrapped.getCause() : e.getCause();
+                    throw cause instanceof Exception exception ? exception : e;
+                }
+                if (products == null) {
+                    return;
+                }
+                sink.onPage(categoryUrl, pending.page(), products);
+            }
+        } finally {
+            inFlight.forEach(pending -> pending.products().cancel(true));
+        }
+    }
+
+    // A page that fails before its request is sent fails in its turn, after the pages before it
+    private static CompletableFuture<List<ScrapedProduct>> dispatch(PageFetcher fetcher, int page) {
+        try {
+            return fetcher.fetch(page);
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private record PendingPage(int page, CompletableFuture<List<ScrapedProduct>> products) {
+    }
+
+    /**
+     * Number of categories fetched at once; the store's scraperConfig {@code categoryParallelism}
+     * overrides {@code scraper.parallel.categories}.
+     */
+    protected int getCategoryParallelism(Store store) {
+        return configInt(store, "categoryParallelism", categoryParallelism);
+    }
+
+    /**
+     * Number of pages of one category fetched at once; the store's scraperConfig
+     * {@code pageParallelism} overrides {@code scraper.parallel.pages}.
+     */
+    protected int getPageParallelism(Store store) {
+        return configInt(store, "pageParallelism", pageParallelism);
+    }
+
+    private static int configInt(Store store, String key, int defaultValue) {
+        Map<String, Object> config = store != null ? store.getScraperConfig() : null;
+        if (config != null && config.get(key) instanceof Number value) {
+            return value.intValue();
+        }
+        return defaultValue;
+    }
+
+    private ThreadFactory workerThreads(String kind) {
+        String prefix = getStoreCode().toLowerCase() + "-" + kind + "-";
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
     }
 
     protected abstract List<String> getCategoryUrls(Store store);
@@ -71,18 +341,298 @@ public abstract class AbstractStoreScraper implements StoreScraper {
         return timeoutSeconds;
     }
 
-    protected Document fetchDocument(String url) throws IOException {
-        rateLimiter.acquirePermission();
+    /**
+     * Returns the limiter for requests from this scraper to the URL's host, named
+     * {@code STORECODE@host}. Its rate comes from, in order: the store's scraperConfig
+     * ({@code rateLimits} entries per host, then {@code requestsPerSecond}), a registry
+     * override for the host or store code, and finally the registry default.
+     */
+    protected RateLimiter rateLimiterFor(Store store, String url) {
+        String host = hostOf(url);
+        return rateLimiterRegistry.rateLimiter(getStoreCode() + "@" + host, () -> limiterConfigFor(store, host));
+    }
+
+    /**
+     * Blocks until the store/host limiter grants a permit.
+     */
+    protected void acquirePermit(Store store, String url) {
+        RateLimiter limiter = rateLimiterFor(store, url);
+        long start = System.nanoTime();
+        // acquirePermission gives up after the configured timeout; keep waiting our turn
+        while (!limiter.acquirePermission()) {
+            if (Thread.currentThread().isInterrupted()) {
+                throw new IllegalStateException("Interrupted while waiting for rate limiter " + limiter.getName());
+            }
+            log.debug("[{}] Still waiting for rate limiter {}", getStoreCode(), limiter.getName());
+        }
+        RateLimiterConfig config = limiter.getRateLimiterConfig();
+        pacer.await(store, config.getLimitForPeriod() * 1e9 / config.getLimitRefreshPeriod().toNanos(),
+                System.nanoTime() - start);
+        metrics.recordRateLimiterWait(getStoreCode(), System.nanoTime() - start);
+    }
+
+    /**
+     * Reports a request's outcome to the adaptive pacer.
+     *
+     * @param status the HTTP status, or -1 if the request failed without one
+     */
+    protected void reportResponse(long startNanos, int status) {
+        pacer.onResponse(getStoreCode(), System.nanoTime() - startNanos, status);
+    }
+
+    /**
+     * Reports the outcome of a request whose duration is no measure of the store's latency,
+     * such as a browser render, to the adaptive pacer.
+     */
+    protected void reportOutcome(int status) {
+        pacer.onOutcome(getStoreCode(), status);
+    }
+
+    /**
+     * Records a completed HTTP request: its latency since {@code startNanos} and the size of
+     * the body it downloaded.
+     */
+    protected void recordFetch(long startNanos, long bytes) {
+        metrics.recordFetch(getStoreCode(), System.nanoTime() - startNanos, bytes);
+    }
+
+    /**
+     * Records the time a browser took since {@code startNanos} to render a page until its
+     * products were ready.
+     */
+    protected void recordRender(long startNanos) {
+        metrics.recordRender(getStoreCode(), System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Records the bytes a browser downloaded to render one page, including all its subresources.
+     */
+    protected void recordRenderBytes(long bytes) {
+        metrics.recordRenderBytes(getStoreCode(), bytes);
+    }
+
+    /**
+     * Records the time spent extracting one page's products since {@code startNanos}.
+     */
+    protected void recordParse(long startNanos) {
+        metrics.recordParse(getStoreCode(), System.nanoTime() - startNanos);
+    }
+
+    private RateLimiterConfig limiterConfigFor(Store store, String host) {
+        Duration timeout = rateLimiterRegistry.getDefaultConfig().getTimeoutDuration();
+        Map<String, Object> config = store != null ? store.getScraperConfig() : null;
+        if (config != null) {
+            if (config.get("rateLimits") instanceof List<?> limits) {
+                for (Object limit : limits) {
+                    if (limit instanceof Map<?, ?> entry && host.equalsIgnoreCase(String.valueOf(entry.get("host")))
+                            && entry.get("requestsPerSecond") instanceof Number rps) {
+                        return RateLimiterConfiguration.limiterConfig(rps.doubleValue(), timeout);
+                    }
+                }
+            }
+            if (config.get("requestsPerSecond") instanceof Number rps) {
+                return RateLimiterConfiguration.limiterConfig(rps.doubleValue(), timeout);
+            }
+        }
+        return rateLimiterRegistry.getConfiguration(host)
+                .or(() -> rateLimiterRegistry.getConfiguration(getStoreCode()))
+                .orElse(rateLimiterRegistry.getDefaultConfig());
+    }
+
+    private static String hostOf(String url) {
+        try {
+            String host = URI.create(url).getHost();
+            return host != null ? host.toLowerCase() : "unknown";
+        } catch (IllegalArgumentException e) {
+            return "unknown";
+        }
+    }
+
+    /**
+     * The store's base URL, unless {@code override} (a {@code scraper.<store>.base-url} property)
+     * points the scraper somewhere else, such as a local fixture server.
+     */
+    protected static String baseUrl(Store store, String override) {
+        if (override != null && !override.isBlank()) {
+            return override.endsWith("/") ? override.substring(0, override.length() - 1) : override;
+        }
+        return store.getBaseUrl();
+    }
+
+    /**
+     * Records a successful response as a fixture if {@code scraper.fixtures.record-dir} is set.
+     */
+    protected boolean isRecordingFixtures() {
+        return fixtureRecordDir != null && !fixtureRecordDir.isBlank();
+    }
+
+    protected void recordFixture(String method, String url, String requestBody, ScraperHttpResponse response) {
+        if (!isRecordingFixtures() || response.statusCode() >= 300) {
+            return;
+        }
+        recordFixture(method, url, requestBody, response.statusCode(), response.contentType(),
+                response.header("ETag"), response.header("Last-Modified"), response.bodyAsString());
+    }
+
+    protected void recordFixture(String method, String url, String requestBody, int status, String contentType,
+                                 String etag, String lastModified, String body) {
+        if (!isRecordingFixtures()) {
+            return;
+        }
+        if (fixtureArchive == null) {
+            synchronized (this) {
+                if (fixtureArchive == null) {
+                    fixtureArchive = new HttpFixtureArchive(
+                            Path.of(fixtureRecordDir, getStoreCode() + ".fixtures.jsonl.gz"));
+                    log.info("[{}] Recording HTTP fixtures to {}", getStoreCode(), fixtureArchive.getFile());
+                }
+            }
+        }
+        try {
+            fixtureArchive.append(new HttpFixture(HttpFixture.keyOf(method, url, requestBody),
+                    method, url, status, contentType, etag, lastModified, body));
+        } catch (RuntimeException e) {
+            log.warn("[{}] Could not record fixture for {}: {}", getStoreCode(), url, e.getMessage());
+        }
+    }
+
+    /**
+     * Starts a request through the shared client with this scraper's user agent and timeout.
+     */
+    protected HttpRequest.Builder newRequest(String url) {
+        return httpClient.request(url)
+                .header("User-Agent", userAgent)
+                .timeout(Duration.ofSeconds(getTimeoutSeconds()));
+    }
+
+    /**
+     * Sends a request without waiting for it, reporting its latency, size and status as
+     * {@link #send} does. The caller acquires the rate limit permit first.
+     */
+    protected CompletableFuture<ScraperHttpResponse> sendAsync(HttpRequest request, boolean ignoreHttpErrors) {
+        long start = System.nanoTime();
+        return httpClient.sendAsync(request).handle((response, error) -> {
+            if (error != null) {
+                reportResponse(start, -1);
+                throw error instanceof CompletionException completion ? completion : new CompletionException(error);
+            }
+            reportResponse(start, response.statusCode());
+            recordFetch(start, response.size());
+            if (!ignoreHttpErrors && response.statusCode() >= 400) {
+                throw new CompletionException(new HttpStatusException("HTTP error fetching URL",
+                        response.statusCode(), request.uri().toString()));
+            }
+            return response;
+        });
+    }
+
+    /**
+     * Sends a request and waits for the response. Like a Jsoup connection, a status of 400 or
+     * above fails with {@link HttpStatusException} unless {@code ignoreHttpErrors} is set.
+     */
+    protected ScraperHttpResponse send(HttpRequest request, boolean ignoreHttpErrors) throws IOException {
+        return ScraperHttpClient.await(sendAsync(request, ignoreHttpErrors));
+    }
+
+    /**
+     * Sends a request without waiting for it and reads the response on the thread it arrives
+     * on. A status of 400 or above fails the future as {@link #send} does.
+     */
+    protected <T> CompletableFuture<T> sendAsync(HttpRequest request, ResponseReader<T> reader) {
+        return sendAsync(request, false).thenApply(response -> {
+            try {
+                return reader.read(response);
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        });
+    }
+
+    protected Document fetchDocument(Store store, String url) throws IOException {
+        return parse(execute(store, url, request -> request));
+    }
+
+    /**
+     * Fetches a page of a category, sending the validators the sink recorded for it on an earlier
+     * run. Returns null if the page is unchanged (not modified, or the same content) and the sink
+     * has accepted it as observed; the caller then skips parsing it. Otherwise the caller reads
+     * what it needs from the body, building a DOM with {@link ScraperHttpResponse#parse} only if
+     * it must.
+     */
+    protected ScraperHttpResponse fetchResponse(Store store, String url, ProductSink sink, String categoryUrl,
+                                                int page) throws IOException {
+        PageFingerprint previous = sink.previousFingerprint(categoryUrl, page);
+        if (previous != null && (previous.etag() != null || previous.lastModified() != null)) {
+            // 304 is not an error status, so errors are retried as for an unconditional fetch
+            ScraperHttpResponse response = execute(store, url, request -> {
+                if (previous.etag() != null) {
+                    request.header("If-None-Match", previous.etag());
+                }
+                if (previous.lastModified() != null) {
+                    request.header("If-Modified-Since", previous.lastModified());
+                }
+                return request;
+            });
+            if (response.statusCode() == 304) {
+                if (sink.isUnchanged(categoryUrl, page, previous)) {
+                    return null;
+                }
+                // Not modified, but the sink cannot use its earlier result; fetch it in full
+            } else {
+                return unchanged(sink, categoryUrl, page, response) ? null : response;
+            }
+        }
+        ScraperHttpResponse response = execute(store, url, request -> request);
+        return unchanged(sink, categoryUrl, page, response) ? null : response;
+    }
+
+    private Document parse(ScraperHttpResponse response) throws IOException {
+        long start = System.nanoTime();
+        Document doc = response.parse();
+        recordParse(start);
+        return doc;
+    }
+
+    /**
+     * Offers a fetched response's fingerprint to the sink; true if it is unchanged and
+     * need not be parsed.
+     */
+    protected boolean unchanged(ProductSink sink, String categoryUrl, int page, ScraperHttpResponse response) {
+        return sink.isUnchanged(categoryUrl, page,
+                fingerprint(response.body(), response.header("ETag"), response.header("Last-Modified")));
+    }
+
+    protected static PageFingerprint fingerprint(String body, String etag, String lastModified) {
+        return fingerprint(body.getBytes(StandardCharsets.UTF_8), etag, lastModified);
+    }
+
+    protected static PageFingerprint fingerprint(byte[] body, String etag, String lastModified) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            return new PageFingerprint(HexFormat.of().formatHex(digest), etag, lastModified);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Runs a GET with the store's rate limit and the configured retries; {@code customize} may
+     * add headers or other options to each attempt's request.
+     */
+    private ScraperHttpResponse execute(Store store, String url, UnaryOperator<HttpRequest.Builder> customize)
+            throws IOException {
+        acquirePermit(store, url);
 
         IOException lastException = null;
         long delayMs = retryInitialDelaySeconds * 1000L;
 
         for (int attempt = 1; attempt <= maxRetryAttempts; attempt++) {
             try {
-                return Jsoup.connect(url)
-                        .userAgent(userAgent)
-                        .timeout(getTimeoutSeconds() * 1000)
-                        .get();
+                ScraperHttpResponse response = send(customize.apply(newRequest(url).GET()).build(), false);
+                recordFixture("GET", url, null, response);
+                return response;
+            } catch (InterruptedIOException e) {
+                throw e;
             } catch (IOException e) {
                 lastException = e;
                 if (attempt < maxRetryAttempts) {
@@ -156,4 +706,127 @@ public abstract class AbstractStoreScraper implements StoreScraper {
         }
         return null;
     }
+
+    @FunctionalInterface
+    protected interface PageFetcher {
+        /**
+         * Sends the page's request without waiting for the response. The future completes with
+         * the page's products, or {@code null} if the category has no such page.
+         */
+        CompletableFuture<List<ScrapedProduct>> fetch(int page) throws Exception;
+    }
+
+    @FunctionalInterface
+    protected interface ResponseReader<T> {
+        T read(ScraperHttpResponse response) throws IOException;
+    }
+
+    /**
+     * Merges pages from concurrently scraped categories into category order. The category at
+     * the head of the order streams straight through; later ones, including their completion
+     * notices, are buffered until every category before them has finished. Each buffer holds
+     * at most {@code maxBufferedPages} pages; a worker whose buffer is full waits until its
+     * category reaches the head. Calls into the downstream sink happen under the lock, so a
+     * full downstream queue holds back every worker.
+     */
+    static class OrderedCategorySink {
+
+        // products == null marks the category's completion notice
+        private record BufferedPage(String categoryUrl, int page, List<ScrapedProduct> products) {
+        }
+
+        private final ProductSink downstream;
+        private final int maxBufferedPages;
+        private final List<List<BufferedPage>> buffers;
+        private final boolean[] completed;
+        private int head;
+
+        OrderedCategorySink(int categories, int maxBufferedPages, ProductSink downstream) {
+            if (maxBufferedPages < 1) {
+                throw new IllegalArgumentException("Buffered pages per category must be positive: "
+                        + maxBufferedPages);
+            }
+            this.downstream = downstream;
+            this.maxBufferedPages = maxBufferedPages;
+            this.buffers = new ArrayList<>(categories);
+            for (int i = 0; i < categories; i++) {
+                buffers.add(new ArrayList<>());
+            }
+            this.completed = new boolean[categories];
+        }
+
+        ProductSink forCategory(int index) {
+            return new ProductSink() {
+                @Override
+                public void onPage(String categoryUrl, int page, List<ScrapedProduct> products) {
+                    deliver(index, new BufferedPage(categoryUrl, page, products));
+                }
+
+                @Override
+                public boolean wantsPage(String categoryUrl, int page) {
+                    return downstream.wantsPage(categoryUrl, page);
+                }
+
+                @Override
+                public PageFingerprint previousFingerprint(String categoryUrl, int page) {
+                    return downstream.previousFingerprint(categoryUrl, page);
+                }
+
+                @Override
+                public boolean isUnchanged(String categoryUrl, int page, PageFingerprint fingerprint) {
+                    return downstream.isUnchanged(categoryUrl, page, fingerprint);
+                }
+
+                @Override
+                public int previousProductCount(String categoryUrl, int page) {
+                    return downstream.previousProductCount(categoryUrl, page);
+                }
+
+                @Override
+                public void onCategoryComplete(String categoryUrl) {
+                    deliver(index, new BufferedPage(categoryUrl, 0, null));
+                }
+            };
+        }
+
+        private synchronized void deliver(int index, BufferedPage page) {
+            // Completion notices are always buffered: the worker must not wait to finish its category
+            while (index != head && page.products() != null && buffers.get(index).size() >= maxBufferedPages) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new CancellationException("Interrupted while waiting for earlier categories");
+                }
+            }
+            if (index == head) {
+                forward(page);
+            } else {
+                buffers.get(index).add(page);
+            }
+        }
+
+        private void forward(BufferedPage page) {
+            if (page.products() == null) {
+                downstream.onCategoryComplete(page.categoryUrl());
+            } else {
+                downstream.onPage(page.categoryUrl(), page.page(), page.products());
+            }
+        }
+
+        synchronized void complete(int index) {
+            completed[index] = true;
+            while (head < completed.length && completed[head]) {
+                head++;
+                if (head < completed.length) {
+                    List<BufferedPage> buffered = buffers.get(head);
+                    for (BufferedPage page : buffered) {
+                        forward(page);
+                    }
+                    buffered.clear();
+                }
+            }
+            notifyAll();
+        }
+    }
 }
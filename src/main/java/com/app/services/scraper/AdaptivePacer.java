@@ -0,0 +1,321 @@
+package com.app.services.scraper;
+
+import com.app.models.Store;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Paces each store's requests at a rate that adapts to how the store responds (AIMD). After
+ * every {@code scraper.pacing.window} responses the rate grows by
+ * {@code scraper.pacing.increase-rps} if their p95 latency and error rate were within bounds,
+ * and is cut by {@code scraper.pacing.decrease-factor} otherwise. A throttling response (429 or
+ * 503) cuts it at once, at most once per window, and the store's circuit breaker opening drops
+ * it to the minimum. The per-host rate limiters still apply on top as hard ceilings: a store's
+ * rate never grows past the fastest of its limiters, and does not grow at all while most of a
+ * window's requests were held back by a limiter rather than by the pacer.
+ * <p>
+ * A store's scraperConfig can set its own {@code requestsPerSecond} (the starting rate),
+ * {@code minRequestsPerSecond} and {@code maxRequestsPerSecond}.
+ */
+@Slf4j
+@Component
+public class AdaptivePacer {
+
+    private static final int HISTORY_SIZE = 50;
+
+    private final MeterRegistry meterRegistry;
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+    private final boolean enabled;
+    private final double initialRps;
+    private final double minRps;
+    private final double maxRps;
+    private final double increaseRps;
+    private final double decreaseFactor;
+    private final long targetP95Ms;
+    private final double maxErrorRate;
+    private final int window;
+    private final Map<String, StorePace> paces = new ConcurrentHashMap<>();
+
+    public AdaptivePacer(
+            MeterRegistry meterRegistry,
+            CircuitBreakerRegistry circuitBreakerRegistry,
+            @Value("${scraper.pacing.enabled:true}") boolean enabled,
+            @Value("${scraper.pacing.initial-rps:${scraper.rate-limit.requests-per-second:1}}") double initialRps,
+            @Value("${scraper.pacing.min-rps:0.2}") double minRps,
+            @Value("${scraper.pacing.max-rps:5}") double maxRps,
+            @Value("${scraper.pacing.increase-rps:0.25}") double increaseRps,
+            @Value("${scraper.pacing.decrease-factor:0.5}") double decreaseFactor,
+            @Value("${scraper.pacing.target-p95-ms:3000}") long targetP95Ms,
+            @Value("${scraper.pacing.max-error-rate:0.1}") double maxErrorRate,
+            @Value("${scraper.pacing.window:20}") int window) {
+        if (minRps <= 0 || maxRps < minRps) {
+            throw new IllegalArgumentException("pacing needs 0 < min-rps <= max-rps: " + minRps + ", " + maxRps);
+        }
+        if (decreaseFactor <= 0 || decreaseFactor >= 1) {
+            throw new IllegalArgumentException("pacing decrease-factor must be between 0 and 1: " + decreaseFactor);
+        }
+        this.meterRegistry = meterRegistry;
+        this.circuitBreakerRegistry = circuitBreakerRegistry;
+        this.enabled = enabled;
+        this.initialRps = initialRps;
+        this.minRps = minRps;
+        this.maxRps = maxRps;
+        this.increaseRps = increaseRps;
+        this.decreaseFactor = decreaseFactor;
+        this.targetP95Ms = targetP95Ms;
+        this.maxErrorRate = maxErrorRate;
+        this.window = Math.max(1, window);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Blocks until the store's next request slot.
+     */
+    public void await(Store store) {
+        await(store, Double.POSITIVE_INFINITY, 0);
+    }
+
+    /**
+     * Blocks until the store's next request slot, for a request whose rate limiter allows
+     * {@code limiterRps} and has just made it wait {@code limiterWaitNanos} for a permit.
+     */
+    public void await(Store store, double limiterRps, long limiterWaitNanos) {
+        if (!enabled) {
+            return;
+        }
+        long waitNanos = paceFor(store).reserveSlot(limiterRps, limiterWaitNanos);
+        if (waitNanos > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(waitNanos);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while pacing requests to " + store.getCode(), e);
+            }
+        }
+    }
+
+    /**
+     * Reports a response from the store.
+     *
+     * @param status the HTTP status, or -1 if the request failed without one
+     */
+    public void onResponse(String storeCode, long latencyNanos, int status) {
+        StorePace pace = enabled ? paces.get(storeCode) : null;
+        if (pace != null) {
+            pace.onResponse(TimeUnit.NANOSECONDS.toMillis(latencyNanos), status);
+        }
+    }
+
+    /**
+     * Reports the status of a request whose duration is no measure of how the store responds,
+     * such as a browser rendering a whole page. It counts towards the error rate only.
+     */
+    public void onOutcome(String storeCode, int status) {
+        StorePace pace = enabled ? paces.get(storeCode) : null;
+        if (pace != null) {
+            pace.onResponse(-1, status);
+        }
+    }
+
+    public List<PacingStatus> getStatuses() {
+        return paces.values().stream()
+                .map(StorePace::status)
+                .sorted(Comparator.comparing(PacingStatus::storeCode))
+                .toList();
+    }
+
+    public record PacingStatus(String storeCode, double requestsPerSecond, double minRequestsPerSecond,
+                               double maxRequestsPerSecond, List<RateChange> history) {}
+
+    public record RateChange(LocalDateTime at, double requestsPerSecond, String reason) {}
+
+    private StorePace paceFor(Store store) {
+        return paces.computeIfAbsent(store.getCode(), code -> {
+            Map<String, Object> config = store.getScraperConfig();
+            double min = configDouble(config, "minRequestsPerSecond", minRps);
+            double max = Math.max(min, configDouble(config, "maxRequestsPerSecond", maxRps));
+            double start = Math.min(max, Math.max(min, configDouble(config, "requestsPerSecond", initialRps)));
+            StorePace pace = new StorePace(code, start, min, max);
+            Gauge.builder("scraper.pacing.rate", pace, StorePace::currentRate)
+                    .description("Adaptive request rate in requests per second")
+                    .tag("store", code)
+                    .register(meterRegistry);
+            CircuitBreaker circuitBreaker = circuitBreakerRegistry.circuitBreaker(code);
+            circuitBreaker.getEventPublisher().onStateTransition(event -> {
+                if (event.getStateTransition().getToState() == CircuitBreaker.State.OPEN) {
+                    pace.resetToMinimum();
+                }
+            });
+            log.info("[{}] Adaptive pacing starts at {} requests/second ({}..{})", code, start, min, max);
+            return pace;
+        });
+    }
+
+    private static double configDouble(Map<String, Object> config, String key, double fallback) {
+        return config != null && config.get(key) instanceof Number value ? value.doubleValue() : fallback;
+    }
+
+    /**
+     * One store's rate and the responses of the current window. Synchronized: all of a store's
+     * fetch threads share it.
+     */
+    private class StorePace {
+
+        private final String storeCode;
+        private final double min;
+        private final double max;
+        private final long[] latenciesMs = new long[window];
+        private final Deque<RateChange> history = new ArrayDeque<>();
+        private final Counter increases;
+        private final Counter decreases;
+        private double rate;
+        private long nextSlotNanos;
+        // Fastest rate limiter seen for the store's requests, 0 until one is
+        private double limiterRps;
+        private int samples;
+        private int timedSamples;
+        private int errors;
+        private int reservations;
+        private int limiterBound;
+        private boolean throttledThisWindow;
+
+        StorePace(String storeCode, double rate, double min, double max) {
+            this.storeCode = storeCode;
+            this.rate = rate;
+            this.min = min;
+            this.max = max;
+            this.increases = adjustmentCounter("increase");
+            this.decreases = adjustmentCounter("decrease");
+            this.nextSlotNanos = System.nanoTime();
+            history.add(new RateChange(LocalDateTime.now(), rate, "initial"));
+        }
+
+        synchronized double currentRate() {
+            return rate;
+        }
+
+        /**
+         * The highest rate the store may be paced at: its maximum, or its rate limiters' if lower.
+         */
+        private double ceiling() {
+            return limiterRps > 0 ? Math.max(min, Math.min(max, limiterRps)) : max;
+        }
+
+        /**
+         * Claims the next free slot and returns how long to wait for it.
+         */
+        synchronized long reserveSlot(double requestLimiterRps, long limiterWaitNanos) {
+            if (Double.isFinite(requestLimiterRps) && requestLimiterRps > limiterRps) {
+                limiterRps = requestLimiterRps;
+            }
+            if (rate > ceiling()) {
+                change(ceiling(), String.format("rate limiter allows %.2f requests/second", limiterRps), decreases);
+            }
+            long now = System.nanoTime();
+            long slot = Math.max(now, nextSlotNanos);
+            long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / rate);
+            nextSlotNanos = slot + intervalNanos;
+            // The limiter, not the pacer, is what spaces this request out
+            reservations++;
+            if (limiterWaitNanos > Math.max(slot - now, intervalNanos / 2)) {
+                limiterBound++;
+            }
+            return slot - now;
+        }
+
+        synchronized void onResponse(long latencyMs, int status) {
+            boolean throttled = status == 429 || status == 503;
+            if (throttled && !throttledThisWindow) {
+                throttledThisWindow = true;
+                change(Math.max(min, rate * decreaseFactor), "throttled (HTTP " + status + ")", decreases);
+            }
+            samples++;
+            if (latencyMs >= 0) {
+                latenciesMs[timedSamples++] = latencyMs;
+            }
+            if (status < 0 || status >= 400) {
+                errors++;
+            }
+            if (samples < window) {
+                return;
+            }
+
+            long[] sorted = Arrays.copyOf(latenciesMs, timedSamples);
+            Arrays.sort(sorted);
+            long p95 = timedSamples > 0
+                    ? sorted[Math.min(timedSamples - 1, (int) Math.ceil(timedSamples * 0.95) - 1)]
+                    : 0;
+            double errorRate = (double) errors / samples;
+            if (!throttledThisWindow) {
+                if (p95 > targetP95Ms || errorRate > maxErrorRate) {
+                    change(Math.max(min, rate * decreaseFactor),
+                            String.format("p95 %dms, error rate %.2f", p95, errorRate), decreases);
+                } else if (limiterBound * 2 > reservations) {
+                    log.debug("[{}] Pacing held at {} requests/second: {} of {} requests waited on the rate limiter",
+                            storeCode, rate, limiterBound, reservations);
+                } else if (rate < ceiling()) {
+                    change(Math.min(ceiling(), rate + increaseRps),
+                            String.format("healthy (p95 %dms, error rate %.2f)", p95, errorRate), increases);
+                }
+            }
+            samples = 0;
+            timedSamples = 0;
+            errors = 0;
+            reservations = 0;
+            limiterBound = 0;
+            throttledThisWindow = false;
+        }
+
+        synchronized void resetToMinimum() {
+            if (rate > min) {
+                change(min, "circuit breaker open", decreases);
+            }
+        }
+
+        private void change(double newRate, String reason, Counter counter) {
+            if (newRate == rate) {
+                return;
+            }
+            log.info("[{}] Pacing {} -> {} requests/second: {}", storeCode,
+                    Math.round(rate * 100) / 100.0, Math.round(newRate * 100) / 100.0, reason);
+            rate = newRate;
+            counter.increment();
+            history.addLast(new RateChange(LocalDateTime.now(), Math.round(newRate * 100) / 100.0, reason));
+            while (history.size() > HISTORY_SIZE) {
+                history.removeFirst();
+            }
+        }
+
+        synchronized PacingStatus status() {
+            return new PacingStatus(storeCode, Math.round(rate * 100) / 100.0, min, ceiling(), new ArrayList<>(history));
+        }
+
+        private Counter adjustmentCounter(String direction) {
+            return Counter.builder("scraper.pacing.adjustments")
+                    .description("Adaptive pacing rate changes")
+                    .tag("store", storeCode)
+                    .tag("direction", direction)
+                    .register(meterRegistry);
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.app.services.scraper;
+
+import com.microsoft.playwright.Browser;
+import com.microsoft.playwright.BrowserContext;
+import com.microsoft.playwright.BrowserType;
+import com.microsoft.playwright.Page;
+import com.microsoft.playwright.Playwright;
+import com.microsoft.playwright.PlaywrightException;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * A bounded pool of warm browser pages. Playwright objects must not be used by two threads at
+ * once, so each slot has its own Playwright, browser, context and page, and is lent to one
+ * thread at a time. A slot keeps its context between uses, so cookies and consent choices carry
+ * over from one page to the next. After {@code recycleAfterPages} pages it relaunches its
+ * browser to cap Chromium's memory growth, moving the context's cookies and storage to the new
+ * one. Each new context is handed to {@code contextSetup} before use, e.g. to route its
+ * requests.
+ */
+@Slf4j
+class BrowserPool implements AutoCloseable {
+
+    /**
+     * Work done with a pooled page. {@code newContext} is true for the first page a context
+     * serves, when no cookie or consent state has been set yet.
+     */
+    @FunctionalInterface
+    interface PageTask<T> {
+        T apply(Page page, boolean newContext);
+    }
+
+    private final Supplier<Playwright> playwrightFactory;
+    private final BrowserType.LaunchOptions launchOptions;
+    private final Consumer<BrowserContext> contextSetup;
+    private final int recycleAfterPages;
+    private final List<Slot> slots = new ArrayList<>();
+    private final BlockingQueue<Slot> idle;
+    private volatile boolean closed;
+
+    BrowserPool(int size, int recycleAfterPages, Supplier<Playwright> playwrightFactory,
+                BrowserType.LaunchOptions launchOptions, Consumer<BrowserContext> contextSetup) {
+        if (size < 1 || recycleAfterPages < 1) {
+            throw new IllegalArgumentException("Browser pool size and recycle-after-pages must be positive: size="
+                    + size + ", recycle-after-pages=" + recycleAfterPages);
+        }
+        this.playwrightFactory = playwrightFactory;
+        this.launchOptions = launchOptions;
+        this.contextSetup = contextSetup;
+        this.recycleAfterPages = recycleAfterPages;
+        this.idle = new ArrayBlockingQueue<>(size);
+        for (int i = 0; i < size; i++) {
+            Slot slot = new Slot(i + 1);
+            slots.add(slot);
+            idle.add(slot);
+        }
+    }
+
+    int size() {
+        return slots.size();
+    }
+
+    /**
+     * Runs the task on a pooled page, waiting for one to be free. Browsers are launched on first
+     * use. A slot whose browser or page died during the task is closed and relaunched on its
+     * next use.
+     */
+    <T> T withPage(PageTask<T> task) throws InterruptedException {
+        if (closed) {
+            throw new IllegalStateException("Browser pool is closed");
+        }
+        Slot slot = idle.take();
+        try {
+            boolean newContext = slot.open();
+            try {
+                return task.apply(slot.page, newContext);
+            } finally {
+                slot.afterUse();
+            }
+        } finally {
+            if (closed) {
+                slot.close();
+            }
+            idle.add(slot);
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        for (Slot slot : slots) {
+            // Slots in use close when they are returned
+            if (idle.remove(slot)) {
+                slot.close();
+                idle.add(slot);
+            }
+        }
+    }
+
+    private class Slot {
+
+        private final int id;
+        private Playwright playwright;
+        private Browser browser;
+        private BrowserContext context;
+        private Page page;
+        private int pagesServed;
+        private boolean contextUsed;
+        // Cookies and local storage carried from a recycled browser to its replacement
+        private String storageState;
+
+        Slot(int id) {
+            this.id = id;
+        }
+
+        // Returns true if the context has not served a page yet
+        boolean open() {
+            if (playwright == null) {
+                playwright = playwrightFactory.get();
+            }
+            if (browser == null) {
+                log.info("Launching pooled browser {}", id);
+                browser = playwright.chromium().launch(launchOptions);
+                try {
+                    context = browser.newContext(new Browser.NewContextOptions().setStorageState(storageState));
+                    contextSetup.accept(context);
+                    page = context.newPage();
+                } catch (RuntimeException e) {
+                    closeBrowser();
+                    throw e;
+                }
+                contextUsed = false;
+            }
+            boolean newContext = !contextUsed;
+            contextUsed = true;
+            return newContext;
+        }
+
+        void afterUse() {
+            pagesServed++;
+            if (!browser.isConnected() || page.isClosed()) {
+                log.warn("Pooled browser {} lost its page, relaunching on next use", id);
+                storageState = null;
+                closeBrowser();
+            } else if (pagesServed >= recycleAfterPages) {
+                log.info("Recycling pooled browser {} after {} pages", id, pagesServed);
+                try {
+                    storageState = context.storageState();
+                } catch (PlaywrightException e) {
+                    log.warn("Could not save pooled browser {} storage state: {}", id, e.getMessage());
+                    storageState = null;
+                }
+                closeBrowser();
+            }
+        }
+
+        private void closeBrowser() {
+            pagesServed = 0;
+            try {
+                if (browser != null) {
+                    browser.close();
+                }
+            } catch (PlaywrightException e) {
+                log.debug("Error closing pooled browser {}: {}", id, e.getMessage());
+            }
+            browser = null;
+            context = null;
+            page = null;
+        }
+
+        void close() {
+            closeBrowser();
+            if (playwright != null) {
+                try {
+                    playwright.close();
+                } catch (PlaywrightException e) {
+                    log.debug("Error closing Playwright for pooled browser {}: {}", id, e.getMessage());
+                }
+                playwright = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.app.services.scraper;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Finds the script elements of an HTML page in its raw bytes, without parsing the page into a
+ * DOM. A script's content is raw text in HTML, so the bytes between its tags are exactly what
+ * a DOM would hold; they are returned as offsets into the page so JSON can be read from them
+ * without copying. Assumes an ASCII-compatible encoding such as UTF-8.
+ */
+final class HtmlScripts {
+
+    private static final byte[] SCRIPT_OPEN = "<script".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] SCRIPT_CLOSE = "</script".getBytes(StandardCharsets.US_ASCII);
+    private static final Pattern ATTRIBUTE = Pattern.compile(
+            "([^\\s\"'>/=]+)(?:\\s*=\\s*(?:\"([^\"]*)\"|'([^']*)'|([^\\s>]+)))?");
+
+    private HtmlScripts() {
+    }
+
+    /**
+     * A script element: its {@code id} and {@code type} attributes, lower-cased type, and where
+     * its content lies in the page.
+     */
+    record Script(byte[] html, int offset, int length, String id, String type) {
+
+        String text() {
+            return new String(html, offset, length, StandardCharsets.UTF_8);
+        }
+    }
+
+    static List<Script> find(byte[] html) {
+        List<Script> scripts = new ArrayList<>();
+        int from = 0;
+        while (true) {
+            int open = indexOfIgnoreCase(html, SCRIPT_OPEN, from);
+            if (open < 0) {
+                break;
+            }
+            int afterName = open + SCRIPT_OPEN.length;
+            if (afterName < html.length && !isTagNameEnd(html[afterName])) {
+                // e.g. <scripts>
+                from = afterName;
+                continue;
+            }
+            int tagEnd = tagEnd(html, afterName);
+            if (tagEnd < 0) {
+                break;
+            }
+            int contentStart = tagEnd + 1;
+            int close = indexOfIgnoreCase(html, SCRIPT_CLOSE, contentStart);
+            int contentEnd = close < 0 ? html.length : close;
+
+            String id = null;
+            String type = null;
+            Matcher attribute = ATTRIBUTE.matcher(new String(html, afterName, tagEnd - afterName,
+                    StandardCharsets.ISO_8859_1));
+            while (attribute.find()) {
+                String name = attribute.group(1).toLowerCase(Locale.ROOT);
+                String value = attribute.group(2) != null ? attribute.group(2)
+                        : attribute.group(3) != null ? attribute.group(3) : attribute.group(4);
+                if (name.equals("id")) {
+                    id = value;
+                } else if (name.equals("type") && value != null) {
+                    type = value.trim().toLowerCase(Locale.ROOT);
+                }
+            }
+            scripts.add(new Script(html, contentStart, contentEnd - contentStart, id, type));
+            from = contentEnd;
+        }
+        return scripts;
+    }
+
+    private static boolean isTagNameEnd(byte b) {
+        return b == '>' || b == '/' || b == ' ' || b == '\t' || b == '\n' || b == '\r' || b == '\f';
+    }
+
+    // The closing '>' of the tag, skipping any inside quoted attribute values
+    private static int tagEnd(byte[] html, int from) {
+        byte quote = 0;
+        for (int i = from; i < html.length; i++) {
+            byte b = html[i];
+            if (quote != 0) {
+                if (b == quote) {
+                    quote = 0;
+                }
+            } else if (b == '"' || b == '\'') {
+                quote = b;
+            } else if (b == '>') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int indexOfIgnoreCase(byte[] html, byte[] target, int from) {
+        byte first = target[0];
+        int last = html.length - target.length;
+        for (int i = from; i <= last; i++) {
+            if (html[i] != first) {
+                continue;
+            }
+            int j = 1;
+            while (j < target.length && lowerAscii(html[i + j]) == target[j]) {
+                j++;
+            }
+            if (j == target.length) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static byte lowerAscii(byte b) {
+        return b >= 'A' && b <= 'Z' ? (byte) (b + 32) : b;
+    }
+}
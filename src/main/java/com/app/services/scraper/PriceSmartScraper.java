@@ -1,22 +1,31 @@
 package com.app.services.scraper;
 
 import com.app.models.Store;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.microsoft.playwright.*;
 import com.microsoft.playwright.options.LoadState;
+import com.microsoft.playwright.options.Sizes;
 import io.github.resilience4j.ratelimiter.RateLimiterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.jsoup.Jsoup;
-import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
 import org.jsoup.select.Elements;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import jakarta.annotation.PreDestroy;
+import java.io.IOException;
 import java.math.BigDecimal;
+import java.net.URI;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -152,8 +161,54 @@ public class PriceSmartScraper extends AbstractStoreScraper {
             "/sm/pickup/rsid/2274/categories/pantry/snacks-id-30511"
     );
 
-    private Playwright playwright;
-    private Browser browser;
+    private static final String PRODUCT_CARD = "article[class*=ProductCardWrapper]";
+
+    // Clicks the listing's "load more" button if it shows one, scrolls to the bottom and returns
+    // [page height, product cards] for PAGE_GREW
+    private static final String SCROLL_TO_BOTTOM = "() => {"
+            + "  const more = Array.from(document.querySelectorAll('button'))"
+            + "      .find(button => /load more|show more/i.test(button.textContent) && button.offsetParent !== null);"
+            + "  if (more) more.click();"
+            + "  window.scrollTo(0, document.body.scrollHeight);"
+            + "  return [document.body.scrollHeight, document.querySelectorAll('" + PRODUCT_CARD + "').length];"
+            + "}";
+    private static final String PAGE_GREW = "([height, cards]) => document.body.scrollHeight > height"
+            + "  || document.querySelectorAll('" + PRODUCT_CARD + "').length > cards";
+    private static final String SCROLL_THROUGH_CARDS = "() => {"
+            + "  const cards = document.querySelectorAll('" + PRODUCT_CARD + "');"
+            + "  cards.forEach(card => card.scrollIntoView({behavior: 'instant'}));"
+            + "}";
+    // True once every card image has a real source in place of its lazy-load placeholder
+    private static final String CARD_IMAGES_RESOLVED = "() => Array.from("
+            + "  document.querySelectorAll('" + PRODUCT_CARD + " img')).every(img => {"
+            + "    const src = img.getAttribute('src') || '';"
+            + "    return src.startsWith('http') || (img.getAttribute('srcset') || '').startsWith('http');"
+            + "  })";
+    // Returns the HTML of cards not returned before in this page, only those whose images have
+    // resolved unless called with true
+    private static final String TAKE_NEW_CARDS = "(all) => {"
+            + "  const taken = window.__priceScannerTaken || (window.__priceScannerTaken = new Set());"
+            + "  const resolved = img => (img.getAttribute('src') || '').startsWith('http')"
+            + "      || (img.getAttribute('srcset') || '').startsWith('http');"
+            + "  const cards = [];"
+            + "  document.querySelectorAll('" + PRODUCT_CARD + "').forEach(card => {"
+            + "    const id = card.getAttribute('data-testid');"
+            + "    if (!id || taken.has(id)) return;"
+            + "    if (!all && !Array.from(card.querySelectorAll('img')).every(resolved)) return;"
+            + "    taken.add(id);"
+            + "    cards.push(card.outerHTML);"
+            + "  });"
+            + "  return cards;"
+            + "}";
+
+    private static final Pattern CATEGORY_ID_PATTERN = Pattern.compile("id-(\\d+)");
+    private static final Pattern SKIP_PARAM = Pattern.compile("([?&]skip=)(\\d+)");
+    private static final Pattern PAGE_PARAM = Pattern.compile("([?&]page=)(\\d+)");
+    // Listing pages requested past the ones the storefront loaded itself
+    private static final int MAX_LISTING_PAGES = 20;
+
+    private final ObjectMapper objectMapper;
+    private BrowserPool browserPool;
 
     @Value("${scraper.timeout.pricesmart.navigate:60000}")
     private int navigateTimeoutMs;
@@ -161,27 +216,79 @@ public class PriceSmartScraper extends AbstractStoreScraper {
     @Value("${scraper.timeout.pricesmart.selector:30000}")
     private int selectorTimeoutMs;
 
-    public PriceSmartScraper(RateLimiterRegistry rateLimiterRegistry) {
-        super(rateLimiterRegistry);
+    @Value("${scraper.timeout.pricesmart.settle:1500}")
+    private int settleTimeoutMs;
+
+    @Value("${scraper.timeout.pricesmart.images:5000}")
+    private int imagesTimeoutMs;
+
+    @Value("${scraper.pricesmart.max-scroll-rounds:60}")
+    private int maxScrollRounds;
+
+    @Value("${scraper.pricesmart.base-url:}")
+    private String baseUrlOverride;
+
+    @Value("${scraper.pricesmart.pool.size:3}")
+    private int poolSize;
+
+    @Value("${scraper.pricesmart.pool.recycle-after-pages:40}")
+    private int recycleAfterPages;
+
+    @Value("${scraper.pricesmart.capture-json:false}")
+    private boolean captureJson;
+
+    @Value("${scraper.pricesmart.block.enabled:true}")
+    private boolean blockResources;
+
+    @Value("${scraper.pricesmart.block.resource-types:font,media}")
+    private Set<String> blockedResourceTypes;
+
+    @Value("${scraper.pricesmart.block.images:false}")
+    private boolean blockImages;
+
+    @Value("${scraper.pricesmart.block.hosts:}")
+    private List<String> blockedHosts;
+
+    public PriceSmartScraper(RateLimiterRegistry rateLimiterRegistry, ObjectMapper objectMapper,
+                             ScrapeMetrics metrics, AdaptivePacer pacer, ScraperHttpClient httpClient) {
+        super(rateLimiterRegistry, metrics, pacer, httpClient);
+        this.objectMapper = objectMapper;
     }
 
-    private synchronized void initBrowser() {
-        if (playwright == null) {
-            log.info("Initializing Playwright browser...");
-            playwright = Playwright.create();
-            browser = playwright.chromium().launch(new BrowserType.LaunchOptions()
-                    .setHeadless(true));
-            log.info("Playwright browser initialized");
+    /**
+     * What rendering a category produced: its products, read from the storefront's own listing
+     * responses or else from the rendered cards, and the bytes they were read from. {@code html}
+     * is the rendered page, kept only when recording fixtures since a replay serves it.
+     */
+    private record RenderedCategory(List<ScrapedProduct> products, String html, long bytes) {}
+
+    /**
+     * One product listing response: its products and how many the category has in all, or -1
+     * if the response does not say.
+     */
+    record ListingPage(List<ScrapedProduct> products, int total) {}
+
+    private synchronized BrowserPool browserPool() {
+        if (browserPool == null) {
+            log.info("Initializing pool of {} Playwright browsers, recycled every {} pages",
+                    poolSize, recycleAfterPages);
+            Consumer<BrowserContext> contextSetup = context -> { };
+            if (blockResources) {
+                log.info("Blocking {} requests{} and {} hosts in PriceSmart browsers", blockedResourceTypes,
+                        blockImages ? ", image bodies" : "", blockedHosts.size());
+                contextSetup = new ResourceBlocker(blockedResourceTypes, blockImages, blockedHosts,
+                        resourceType -> metrics.recordBlockedRequest(STORE_CODE, resourceType));
+            }
+            browserPool = new BrowserPool(poolSize, recycleAfterPages, Playwright::create,
+                    new BrowserType.LaunchOptions().setHeadless(true), contextSetup);
         }
+        return browserPool;
     }
 
     @PreDestroy
-    public void cleanup() {
-        if (browser != null) {
-            browser.close();
-        }
-        if (playwright != null) {
-            playwright.close();
+    public synchronized void cleanup() {
+        if (browserPool != null) {
+            browserPool.close();
         }
     }
 
@@ -190,10 +297,18 @@ public class PriceSmartScraper extends AbstractStoreScraper {
         return STORE_CODE;
     }
 
+    /**
+     * One category renders per pooled browser page, so the configured parallelism is capped at the pool size.
+     */
+    @Override
+    protected int getCategoryParallelism(Store store) {
+        return Math.min(poolSize, super.getCategoryParallelism(store));
+    }
+
     @Override
     protected List<String> getCategoryUrls(Store store) {
         List<String> urls = new ArrayList<>();
-        String baseUrl = store.getBaseUrl();
+        String baseUrl = baseUrl(store, baseUrlOverride);
 
         // Check for custom URLs from store config
         Map<String, Object> config = store.getScraperConfig();
@@ -216,125 +331,460 @@ public class PriceSmartScraper extends AbstractStoreScraper {
     }
 
     @Override
-    public List<ScrapedProduct> scrapeProducts(Store store, String categoryUrl) {
-        List<ScrapedProduct> products = new ArrayList<>();
-
+    public void scrapeProducts(Store store, String categoryUrl, ProductSink sink) {
+        if (!sink.wantsPage(categoryUrl, 1)) {
+            return;
+        }
         try {
-            initBrowser();
+            BrowserPool pool = browserPool();
 
             log.debug("Fetching PriceSmart products from: {}", categoryUrl);
-            rateLimiter.acquirePermission();
+            acquirePermit(store, categoryUrl);
 
-            String html = fetchRenderedHtml(categoryUrl);
-            Document doc = Jsoup.parse(html);
+            long fetchStart = System.nanoTime();
+            RenderedCategory rendered;
+            // A render takes as long as the category is; only its outcome tells the pacer anything
+            try {
+                rendered = pool.withPage((page, newContext) -> renderCategory(page, newContext, store, categoryUrl));
+            } catch (RuntimeException e) {
+                reportOutcome(-1);
+                throw e;
+            }
+            reportOutcome(200);
+            recordFetch(fetchStart, rendered.bytes());
+            if (rendered.html() != null) {
+                // The rendered page is recorded, so a replay serves it without running the site's scripts
+                recordFixture("GET", categoryUrl, null, 200, "text/html; charset=utf-8", null, null,
+                        rendered.html());
+            }
+            log.info("Found {} products in {}", rendered.products().size(), categoryUrl);
+            sink.onPage(categoryUrl, 1, rendered.products());
 
-            // Select all product cards
-            Elements productElements = doc.select("article[class*=ProductCardWrapper]");
-            log.info("Found {} product elements on page", productElements.size());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("PriceSmart scraping interrupted for URL: " + categoryUrl, e);
+        } catch (Exception e) {
+            throw new IllegalStateException("Error scraping PriceSmart products from URL " + categoryUrl
+                    + ": " + e.getMessage(), e);
+        }
+    }
 
-            for (Element productElement : productElements) {
-                try {
-                    ScrapedProduct product = parseProductElement(productElement, categoryUrl);
-                    if (product != null) {
-                        products.add(product);
-                    }
-                } catch (Exception e) {
-                    log.warn("Error parsing PriceSmart product element: {}", e.getMessage());
+    /**
+     * Renders the category in a pooled page. Unless {@code scraper.pricesmart.capture-json} is
+     * off, the page's product listing responses are captured as it loads, and once the product
+     * cards show their products are read from that JSON, with the storefront's later pages
+     * requested the same way. If no complete listing was captured the products are read from
+     * the rendered cards instead.
+     */
+    private RenderedCategory renderCategory(Page page, boolean newContext, Store store, String url) {
+        String categoryId = categoryIdOf(url);
+        List<Response> listings = new CopyOnWriteArrayList<>();
+        Consumer<Response> listener = response -> {
+            if (isListingResponse(response, categoryId)) {
+                listings.add(response);
+            }
+        };
+        if (captureJson && categoryId != null) {
+            page.onResponse(listener);
+        }
+        List<Request> requests = new CopyOnWriteArrayList<>();
+        Consumer<Request> finished = requests::add;
+        page.onRequestFinished(finished);
+        try {
+            long renderStart = System.nanoTime();
+            if (!navigateToProducts(page, newContext, url)) {
+                return new RenderedCategory(List.of(), isRecordingFixtures() ? page.content() : null, 0);
+            }
+            if (!listings.isEmpty()) {
+                RenderedCategory captured = readListings(page, store, listings, url);
+                if (captured != null && !captured.products().isEmpty()) {
+                    recordRender(renderStart);
+                    return captured;
                 }
+                if (captured != null) {
+                    log.info("Captured listing responses for {} had no products, using the rendered page", url);
+                }
+            } else if (captureJson) {
+                log.info("No product listing response captured for {}, using the rendered page", url);
             }
-
-            // Handle "Load More" or infinite scroll by scrolling down
-            // For now, we just get the initial page load
-
-        } catch (Exception e) {
-            log.error("Error scraping PriceSmart products from URL: {}", categoryUrl, e);
+            return readRenderedCards(page, url, renderStart);
+        } finally {
+            page.offResponse(listener);
+            page.offRequestFinished(finished);
+            recordTraffic(url, requests);
         }
+    }
 
-        return products;
+    /**
+     * Records what the page downloaded for the category, which resource blocking reduces.
+     */
+    private void recordTraffic(String url, List<Request> requests) {
+        long bytes = 0;
+        for (Request request : requests) {
+            try {
+                Sizes sizes = request.sizes();
+                bytes += sizes.responseHeadersSize + sizes.responseBodySize;
+            } catch (PlaywrightException e) {
+                // The page or browser is gone; count what was readable
+            }
+        }
+        recordRenderBytes(bytes);
+        log.debug("Browser downloaded {} KB in {} requests for {}", bytes / 1024, requests.size(), url);
     }
 
-    private String fetchRenderedHtml(String url) {
-        try (BrowserContext context = browser.newContext()) {
-            Page page = context.newPage();
+    /**
+     * Navigates to the URL and waits for product cards, dismissing the cookie dialog in a new
+     * context. Returns false if no product cards appeared.
+     */
+    private boolean navigateToProducts(Page page, boolean newContext, String url) {
+        log.info("Navigating to: {}", url);
 
-            log.info("Navigating to: {}", url);
+        // Navigate and wait for page load
+        page.navigate(url, new Page.NavigateOptions().setTimeout(navigateTimeoutMs));
+        page.waitForLoadState(LoadState.DOMCONTENTLOADED);
+        log.info("Page loaded, waiting for content...");
 
-            // Navigate and wait for page load
-            page.navigate(url, new Page.NavigateOptions().setTimeout(navigateTimeoutMs));
-            page.waitForLoadState(LoadState.DOMCONTENTLOADED);
-            log.info("Page loaded, waiting for content...");
+        // Check page title
+        String title = page.title();
+        log.info("Page title: {}", title);
 
-            // Wait a bit for JavaScript to render
-            page.waitForTimeout(5000);
+        // Wait for product cards to appear (longer timeout)
+        try {
+            log.info("Waiting for ProductCardWrapper...");
+            page.waitForSelector(PRODUCT_CARD,
+                    new Page.WaitForSelectorOptions().setTimeout(selectorTimeoutMs));
+            log.info("Found ProductCardWrapper elements");
+        } catch (Exception e) {
+            log.warn("Could not find ProductCardWrapper: {}", e.getMessage());
 
-            // Check page title
-            String title = page.title();
-            log.info("Page title: {}", title);
+            // Debug: log what we can see on page
+            String bodyText = page.locator("body").innerText();
+            log.info("Page body preview (first 500 chars): {}",
+                bodyText.length() > 500 ? bodyText.substring(0, 500) : bodyText);
 
-            // Try to dismiss any cookie/popup dialogs
+            // Save screenshot for debugging
+            try {
+                byte[] screenshot = page.screenshot();
+                java.nio.file.Files.write(
+                    java.nio.file.Paths.get("pricesmart-debug.png"),
+                    screenshot
+                );
+                log.info("Saved debug screenshot to pricesmart-debug.png");
+            } catch (Exception ex) {
+                log.warn("Could not save screenshot: {}", ex.getMessage());
+            }
+            return false;
+        }
+
+        // Try to dismiss any cookie/popup dialogs; the choice persists in the pooled context
+        if (newContext) {
             try {
                 page.click("button:has-text('Accept')", new Page.ClickOptions().setTimeout(3000));
                 log.info("Clicked Accept button");
             } catch (Exception e) {
                 // No accept button, continue
             }
+        }
+
+        return true;
+    }
 
-            // Wait for product cards to appear (longer timeout)
+    /**
+     * Pages through the loaded category by scrolling to the bottom, which also clicks a "load
+     * more" button if the page shows one, until a round adds nothing within
+     * {@code scraper.timeout.pricesmart.settle} ms. Each card's product is read as soon as its
+     * image has resolved, since a long list may drop cards that have scrolled far out of view.
+     * Waits are on the page's own progress rather than fixed delays.
+     */
+    private RenderedCategory readRenderedCards(Page page, String url, long renderStart) {
+        Map<String, ScrapedProduct> products = new LinkedHashMap<>();
+        long bytes = 0;
+        int rounds = 0;
+        while (rounds < maxScrollRounds) {
+            bytes += takeNewCards(page, false, url, products);
+            Object before = page.evaluate(SCROLL_TO_BOTTOM);
+            rounds++;
             try {
-                log.info("Waiting for ProductCardWrapper...");
-                page.waitForSelector("article[class*=ProductCardWrapper]",
-                        new Page.WaitForSelectorOptions().setTimeout(selectorTimeoutMs));
-                log.info("Found ProductCardWrapper elements");
-            } catch (Exception e) {
-                log.warn("Could not find ProductCardWrapper: {}", e.getMessage());
-
-                // Debug: log what we can see on page
-                String bodyText = page.locator("body").innerText();
-                log.info("Page body preview (first 500 chars): {}",
-                    bodyText.length() > 500 ? bodyText.substring(0, 500) : bodyText);
-
-                // Save screenshot for debugging
-                try {
-                    byte[] screenshot = page.screenshot();
-                    java.nio.file.Files.write(
-                        java.nio.file.Paths.get("pricesmart-debug.png"),
-                        screenshot
-                    );
-                    log.info("Saved debug screenshot to pricesmart-debug.png");
-                } catch (Exception ex) {
-                    log.warn("Could not save screenshot: {}", ex.getMessage());
+                page.waitForFunction(PAGE_GREW, before,
+                        new Page.WaitForFunctionOptions().setTimeout(settleTimeoutMs));
+            } catch (TimeoutError e) {
+                break;
+            }
+        }
+        if (rounds == maxScrollRounds) {
+            log.warn("PriceSmart category {} still growing after {} scrolls, stopping", url, rounds);
+        }
+
+        // Force the remaining lazy images to load by scrolling through the cards, then wait for their sources
+        page.evaluate(SCROLL_THROUGH_CARDS);
+        try {
+            page.waitForFunction(CARD_IMAGES_RESOLVED, null,
+                    new Page.WaitForFunctionOptions().setTimeout(imagesTimeoutMs));
+        } catch (TimeoutError e) {
+            log.debug("Some product images did not resolve, proceeding with available content");
+        }
+        bytes += takeNewCards(page, true, url, products);
+
+        recordRender(renderStart);
+        log.info("Rendered {} products from {} in {} scrolls, {} ms", products.size(), url, rounds,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - renderStart));
+        String html = isRecordingFixtures() ? page.content() : null;
+        return new RenderedCategory(new ArrayList<>(products.values()), html, bytes);
+    }
+
+    /**
+     * Reads the cards the page has rendered since the last call, only those with resolved
+     * images unless {@code all}. Returns the size of the HTML read.
+     */
+    @SuppressWarnings("unchecked")
+    private long takeNewCards(Page page, boolean all, String url, Map<String, ScrapedProduct> products) {
+        List<String> cards = (List<String>) page.evaluate(TAKE_NEW_CARDS, all);
+        long parseStart = System.nanoTime();
+        long bytes = 0;
+        for (String cardHtml : cards) {
+            bytes += cardHtml.length();
+            try {
+                ScrapedProduct product = parseCard(cardHtml, url);
+                if (product != null) {
+                    products.putIfAbsent(product.storeProductId(), product);
                 }
+            } catch (Exception e) {
+                log.warn("Error parsing PriceSmart product element: {}", e.getMessage());
             }
+        }
+        if (!cards.isEmpty()) {
+            recordParse(parseStart);
+        }
+        return bytes;
+    }
+
+    /**
+     * The product of one card's HTML, or null if it is not a product card.
+     */
+    ScrapedProduct parseCard(String cardHtml, String sourceUrl) {
+        Element card = Jsoup.parseBodyFragment(cardHtml, sourceUrl).body().firstElementChild();
+        return card != null ? parseProductElement(card, sourceUrl) : null;
+    }
+
+    /**
+     * A product listing the storefront fetched for this category: a JSON XHR whose URL names
+     * the category.
+     */
+    private static boolean isListingResponse(Response response, String categoryId) {
+        String resourceType = response.request().resourceType();
+        if (response.status() != 200 || !("xhr".equals(resourceType) || "fetch".equals(resourceType))) {
+            return false;
+        }
+        String contentType = response.headers().getOrDefault("content-type", "");
+        return contentType.contains("json") && response.url().contains(categoryId);
+    }
 
-            // Scroll to load more products and trigger lazy image loading
-            for (int i = 0; i < 3; i++) {
-                page.evaluate("window.scrollBy(0, window.innerHeight)");
-                page.waitForTimeout(2000);
+    /**
+     * Reads the products of the captured listing responses, then requests the pages the
+     * storefront has not loaded yet with the page's own cookies, each under the store's rate
+     * limit, until the listing's total is reached. Null if the listing does not give its total,
+     * as there is then no telling whether it was read in full.
+     */
+    private RenderedCategory readListings(Page page, Store store, List<Response> responses, String sourceUrl) {
+        long parseStart = System.nanoTime();
+        Map<String, ScrapedProduct> products = new LinkedHashMap<>();
+        long bytes = 0;
+        String lastUrl = null;
+        int total = 0;
+        boolean totalMissing = false;
+        for (Response response : responses) {
+            try {
+                byte[] body = response.body();
+                bytes += body.length;
+                ListingPage listing = parseListing(objectMapper.readTree(body), sourceUrl);
+                if (listing != null && !listing.products().isEmpty()) {
+                    listing.products().forEach(product -> products.putIfAbsent(product.storeProductId(), product));
+                    lastUrl = response.url();
+                    totalMissing |= listing.total() < 0;
+                    total = Math.max(total, listing.total());
+                }
+            } catch (Exception e) {
+                log.debug("Could not read PriceSmart listing response {}: {}", response.url(), e.getMessage());
             }
+        }
+        if (totalMissing) {
+            log.info("PriceSmart listing for {} does not give its total, using the rendered page", sourceUrl);
+            return null;
+        }
 
-            // Scroll back to top and wait for images to load
-            page.evaluate("window.scrollTo(0, 0)");
-            page.waitForTimeout(1000);
+        for (int pages = 0; lastUrl != null && products.size() < total && pages < MAX_LISTING_PAGES; pages++) {
+            String nextUrl = nextListingUrl(lastUrl, products.size());
+            if (nextUrl == null) {
+                log.debug("PriceSmart listing URL {} has no paging parameter, stopping at {} of {} products",
+                        lastUrl, products.size(), total);
+                break;
+            }
+            acquirePermit(store, nextUrl);
+            long requestStart = System.nanoTime();
+            APIResponse response;
+            try {
+                response = page.request().get(nextUrl);
+            } catch (RuntimeException e) {
+                reportResponse(requestStart, -1);
+                throw e;
+            }
+            reportResponse(requestStart, response.status());
+            try {
+                if (!response.ok()) {
+                    log.warn("PriceSmart listing page {} returned HTTP {}", nextUrl, response.status());
+                    break;
+                }
+                byte[] body = response.body();
+                bytes += body.length;
+                ListingPage listing = parseListing(objectMapper.readTree(body), sourceUrl);
+                int before = products.size();
+                if (listing != null) {
+                    listing.products().forEach(product -> products.putIfAbsent(product.storeProductId(), product));
+                }
+                if (products.size() == before) {
+                    break;
+                }
+                lastUrl = nextUrl;
+            } catch (IOException e) {
+                log.warn("Could not read PriceSmart listing page {}: {}", nextUrl, e.getMessage());
+                break;
+            } finally {
+                response.dispose();
+            }
+        }
+        recordParse(parseStart);
 
-            // Force lazy images to load by scrolling through all product cards
-            page.evaluate("() => {"
-                    + "  const cards = document.querySelectorAll('article[class*=ProductCardWrapper]');"
-                    + "  cards.forEach(card => card.scrollIntoView({behavior: 'instant'}));"
-                    + "}");
-            page.waitForTimeout(2000);
+        String html = isRecordingFixtures() ? page.content() : null;
+        return new RenderedCategory(new ArrayList<>(products.values()), html, bytes);
+    }
 
-            // Wait for network to be mostly idle (images loading)
+    /**
+     * Products of a listing response: its {@code items} (or {@code products}) array and the
+     * category's total, -1 if it has none. Null if the JSON has no such array.
+     */
+    ListingPage parseListing(JsonNode root, String sourceUrl) {
+        JsonNode items = root.isArray() ? root : root.has("items") ? root.get("items") : root.get("products");
+        if (items == null || !items.isArray()) {
+            return null;
+        }
+        String category = extractCategoryFromUrl(sourceUrl);
+        List<ScrapedProduct> products = new ArrayList<>();
+        for (JsonNode item : items) {
             try {
-                page.waitForLoadState(LoadState.NETWORKIDLE,
-                        new Page.WaitForLoadStateOptions().setTimeout(10000));
+                ScrapedProduct product = parseListingItem(item, sourceUrl, category);
+                if (product != null) {
+                    products.add(product);
+                }
             } catch (Exception e) {
-                log.debug("Network idle timeout, proceeding with available content");
+                log.warn("Error parsing PriceSmart listing item: {}", e.getMessage());
+            }
+        }
+        JsonNode total = root.isObject() ? firstPresent(root, "total", "totalCount", "totalItems") : null;
+        return new ListingPage(products, total != null && total.canConvertToInt() ? total.asInt() : -1);
+    }
+
+    private ScrapedProduct parseListingItem(JsonNode item, String sourceUrl, String category) {
+        // Same ID as the card's data-testid, so products keep their identity whichever path read them
+        String productId = getTextValue(item, "productId", "sku", "id");
+        String name = getTextValue(item, "name");
+        if (productId == null || name == null) {
+            return null;
+        }
+        String brand = getTextValue(item, "brand");
+
+        BigDecimal price = getPriceValue(item, "priceNumeric", "price");
+        BigDecimal wasPrice = getPriceValue(item, "wasPriceNumeric", "wasPrice");
+        boolean discounted = price != null && wasPrice != null && wasPrice.compareTo(price) > 0;
+        BigDecimal unitPrice = parsePrice(getTextValue(item, "pricePerUnit", "unitPrice"));
+
+        String imageUrl = null;
+        JsonNode image = item.get("image");
+        if (image != null && image.isObject()) {
+            imageUrl = getTextValue(image, "default", "details", "cell", "url");
+        } else if (image != null) {
+            imageUrl = image.asText(null);
+        }
+        if (imageUrl == null) {
+            imageUrl = getTextValue(item, "imageUrl");
+        }
+
+        String promoDescription = getTextValue(item, "promoText");
+        JsonNode promotions = item.path("promotions");
+        if (promoDescription == null && promotions.isArray() && !promotions.isEmpty()) {
+            promoDescription = getTextValue(promotions.get(0), "name", "description", "text");
+        }
+        // A promotion counts as a sale, as the card's "View Deal" indicator does
+        boolean onSale = discounted || promoDescription != null;
+
+        boolean inStock = item.path("available").asBoolean(true);
+
+        String productUrl = getTextValue(item, "productUrl", "url");
+        if (productUrl == null) {
+            productUrl = sourceUrl;
+        } else if (productUrl.startsWith("/")) {
+            productUrl = URI.create(sourceUrl).resolve(productUrl).toString();
+        }
+
+        return new ScrapedProduct(
+                productId,
+                name,
+                brand,
+                extractSize(name),
+                extractUnit(name),
+                category,
+                imageUrl,
+                discounted ? wasPrice : price,
+                price,
+                unitPrice,
+                onSale,
+                promoDescription,
+                inStock,
+                productUrl
+        );
+    }
+
+    /**
+     * The listing URL for the page after {@code loaded} products: its {@code skip} set to the
+     * number loaded, or else its {@code page} incremented. Null if it has neither.
+     */
+    static String nextListingUrl(String url, int loaded) {
+        Matcher skip = SKIP_PARAM.matcher(url);
+        if (skip.find()) {
+            return skip.replaceFirst("$1" + loaded);
+        }
+        Matcher page = PAGE_PARAM.matcher(url);
+        if (page.find()) {
+            return page.replaceFirst("$1" + (Integer.parseInt(page.group(2)) + 1));
+        }
+        return null;
+    }
+
+    private static String categoryIdOf(String url) {
+        Matcher matcher = CATEGORY_ID_PATTERN.matcher(url);
+        return matcher.find() ? matcher.group(1) : null;
+    }
+
+    private static JsonNode firstPresent(JsonNode node, String... fieldNames) {
+        for (String fieldName : fieldNames) {
+            JsonNode value = node.get(fieldName);
+            if (value != null && !value.isNull()) {
+                return value;
             }
+        }
+        return null;
+    }
+
+    private static String getTextValue(JsonNode node, String... fieldNames) {
+        JsonNode value = firstPresent(node, fieldNames);
+        return value != null && !value.isContainerNode() && !value.asText().isEmpty() ? value.asText() : null;
+    }
 
-            String content = page.content();
-            log.info("Fetched page content length: {} characters", content.length());
-            return content;
+    private BigDecimal getPriceValue(JsonNode node, String... fieldNames) {
+        JsonNode value = firstPresent(node, fieldNames);
+        if (value == null) {
+            return null;
         }
+        return value.isNumber() ? value.decimalValue() : parsePrice(value.asText());
     }
 
     private ScrapedProduct parseProductElement(Element element, String sourceUrl) {
@@ -535,8 +985,7 @@ public class PriceSmartScraper extends AbstractStoreScraper {
 
     private String extractCategoryFromUrl(String url) {
         // Extract category ID from URL like /categories/dairy-eggs-id-30906
-        Pattern pattern = Pattern.compile("id-(\\d+)");
-        Matcher matcher = pattern.matcher(url);
+        Matcher matcher = CATEGORY_ID_PATTERN.matcher(url);
         if (matcher.find()) {
             String categoryId = matcher.group(1);
             String categoryName = CATEGORY_IDS.getOrDefault(categoryId, categoryId);
@@ -0,0 +1,93 @@
+package com.app.services.scraper;
+
+import com.microsoft.playwright.BrowserContext;
+import com.microsoft.playwright.Request;
+import com.microsoft.playwright.Route;
+
+import java.net.URI;
+import java.util.Base64;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Stops a browser context from downloading what a scrape does not read: resource types such as
+ * fonts and media, requests to tracker and ad hosts, and optionally image bodies. Images are
+ * answered with a transparent pixel rather than aborted, so the page's lazy loading still runs
+ * and sets the real image URLs on its {@code img} attributes.
+ * <p>
+ * Note that routing requests turns off the browser's HTTP cache for the context.
+ */
+class ResourceBlocker implements Consumer<BrowserContext> {
+
+    private static final byte[] TRANSPARENT_GIF = Base64.getDecoder()
+            .decode("R0lGODlhAQABAIAAAAAAAP///yH5BAEAAAAALAAAAAABAAEAAAIBRAA7");
+
+    private final Set<String> resourceTypes;
+    private final boolean blockImages;
+    private final List<String> hosts;
+    private final Consumer<String> onBlocked;
+
+    /**
+     * @param onBlocked told the resource type of each request blocked
+     */
+    ResourceBlocker(Set<String> resourceTypes, boolean blockImages, List<String> hosts, Consumer<String> onBlocked) {
+        this.resourceTypes = resourceTypes.stream().map(ResourceBlocker::normalize)
+                .filter(type -> !type.isEmpty()).collect(Collectors.toUnmodifiableSet());
+        this.blockImages = blockImages;
+        this.hosts = hosts.stream().map(ResourceBlocker::normalize).filter(host -> !host.isEmpty()).toList();
+        this.onBlocked = onBlocked;
+    }
+
+    private static String normalize(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    @Override
+    public void accept(BrowserContext context) {
+        context.route("**/*", this::handle);
+    }
+
+    private void handle(Route route) {
+        Request request = route.request();
+        String resourceType = request.resourceType();
+        if (blocks(resourceType, request.url())) {
+            onBlocked.accept(resourceType);
+            route.abort("blockedbyclient");
+        } else if (blockImages && "image".equals(resourceType)) {
+            onBlocked.accept(resourceType);
+            route.fulfill(new Route.FulfillOptions().setStatus(200).setContentType("image/gif")
+                    .setBodyBytes(TRANSPARENT_GIF));
+        } else {
+            route.resume();
+        }
+    }
+
+    /**
+     * True if a request of this type to this URL is aborted. Images are not aborted but
+     * answered with a pixel, see {@link ResourceBlocker}.
+     */
+    boolean blocks(String resourceType, String url) {
+        if (resourceTypes.contains(resourceType)) {
+            return true;
+        }
+        String host;
+        try {
+            host = URI.create(url).getHost();
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        if (host == null) {
+            return false;
+        }
+        host = host.toLowerCase(Locale.ROOT);
+        for (String blocked : hosts) {
+            if (host.equals(blocked) || host.endsWith("." + blocked)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,174 @@
+package com.app.services.scraper;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.search.Search;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Timers and counters for each stage of a store's scrape, tagged with the store code:
+ * HTTP fetches and the bytes they download, browser rendering with its traffic, page
+ * parsing, product matching and the identity cache, price record batch writes, and time
+ * spent waiting for rate limiters. Timers publish percentile histograms, so the Prometheus
+ * endpoint can report latency quantiles.
+ */
+@Component
+public class ScrapeMetrics {
+
+    public static final String FETCH = "scraper.fetch";
+    public static final String FETCH_BYTES = "scraper.fetch.bytes";
+    public static final String RENDER = "scraper.render";
+    public static final String RENDER_BYTES = "scraper.render.bytes";
+    public static final String RENDER_BLOCKED = "scraper.render.blocked";
+    public static final String PARSE = "scraper.parse";
+    public static final String MATCH = "scraper.match";
+    public static final String IDENTITY_CACHE = "scraper.match.identity.cache";
+    public static final String PERSIST = "scraper.persist.batch";
+    public static final String PERSIST_SIZE = "scraper.persist.batch.size";
+    public static final String RATE_LIMITER_WAIT = "scraper.ratelimiter.wait";
+
+    private static final String STORE = "store";
+
+    private final MeterRegistry registry;
+
+    public ScrapeMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    public void recordFetch(String storeCode, long nanos, long bytes) {
+        timer(FETCH, "HTTP request for a page or API response", storeCode).record(nanos, TimeUnit.NANOSECONDS);
+        DistributionSummary.builder(FETCH_BYTES)
+                .description("Size of downloaded responses")
+                .baseUnit("bytes")
+                .tag(STORE, storeCode)
+                .register(registry)
+                .record(bytes);
+    }
+
+    public void recordRender(String storeCode, long nanos) {
+        timer(RENDER, "Rendering a page in a browser until its products are ready", storeCode)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordRenderBytes(String storeCode, long bytes) {
+        DistributionSummary.builder(RENDER_BYTES)
+                .description("Bytes a browser downloaded to render a page")
+                .baseUnit("bytes")
+                .tag(STORE, storeCode)
+                .register(registry)
+                .record(bytes);
+    }
+
+    public void recordBlockedRequest(String storeCode, String resourceType) {
+        Counter.builder(RENDER_BLOCKED)
+                .description("Browser requests blocked while rendering, by resource type")
+                .tag(STORE, storeCode)
+                .tag("type", resourceType)
+                .register(registry)
+                .increment();
+    }
+
+    public void recordParse(String storeCode, long nanos) {
+        timer(PARSE, "Extracting the products of one page", storeCode).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordMatch(String storeCode, long nanos) {
+        timer(MATCH, "Matching a scraped product to a catalog product", storeCode).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordIdentityCache(String storeCode, long hits, long misses) {
+        cacheCounter(storeCode, "hit").increment(hits);
+        cacheCounter(storeCode, "miss").increment(misses);
+    }
+
+    public void recordPersist(String storeCode, long nanos, int records) {
+        timer(PERSIST, "Bulk write of buffered price records", storeCode).record(nanos, TimeUnit.NANOSECONDS);
+        DistributionSummary.builder(PERSIST_SIZE)
+                .description("Price records per bulk write")
+                .tag(STORE, storeCode)
+                .register(registry)
+                .record(records);
+    }
+
+    public void recordRateLimiterWait(String storeCode, long nanos) {
+        timer(RATE_LIMITER_WAIT, "Waiting for a rate limiter permit", storeCode).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Mean time the store's requests have waited for a rate limiter permit since startup.
+     */
+    public double meanRateLimiterWaitMs(String storeCode) {
+        return timing(RATE_LIMITER_WAIT, storeCode).meanMs();
+    }
+
+    /**
+     * The store's stage metrics since startup, as reported by {@code /api/scrape/metrics}.
+     */
+    public StageMetrics snapshot(String storeCode) {
+        double hits = counterTotal(IDENTITY_CACHE, storeCode, "hit");
+        double misses = counterTotal(IDENTITY_CACHE, storeCode, "miss");
+        Double hitRatio = hits + misses > 0 ? Math.round(hits / (hits + misses) * 1000.0) / 1000.0 : null;
+        DistributionSummary bytes = Search.in(registry).name(FETCH_BYTES).tag(STORE, storeCode).summary();
+        return new StageMetrics(
+                timing(FETCH, storeCode),
+                bytes != null ? (long) bytes.totalAmount() : 0,
+                timing(RENDER, storeCode),
+                timing(PARSE, storeCode),
+                timing(MATCH, storeCode),
+                hitRatio,
+                timing(PERSIST, storeCode),
+                timing(RATE_LIMITER_WAIT, storeCode));
+    }
+
+    public record StageMetrics(
+            StageTiming fetch,
+            long bytesDownloaded,
+            StageTiming render,
+            StageTiming parse,
+            StageTiming match,
+            Double identityCacheHitRatio,
+            StageTiming persist,
+            StageTiming rateLimiterWait) {}
+
+    public record StageTiming(long count, double totalMs, double meanMs, double maxMs) {}
+
+    private Timer timer(String name, String description, String storeCode) {
+        return Timer.builder(name)
+                .description(description)
+                .tag(STORE, storeCode)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    private Counter cacheCounter(String storeCode, String result) {
+        return Counter.builder(IDENTITY_CACHE)
+                .description("Product identity cache lookups")
+                .tag(STORE, storeCode)
+                .tag("result", result)
+                .register(registry);
+    }
+
+    private double counterTotal(String name, String storeCode, String result) {
+        Counter counter = Search.in(registry).name(name).tag(STORE, storeCode).tag("result", result).counter();
+        return counter != null ? counter.count() : 0;
+    }
+
+    private StageTiming timing(String name, String storeCode) {
+        Timer timer = Search.in(registry).name(name).tag(STORE, storeCode).timer();
+        if (timer == null) {
+            return new StageTiming(0, 0, 0, 0);
+        }
+        return new StageTiming(timer.count(),
+                round(timer.totalTime(TimeUnit.MILLISECONDS)),
+                round(timer.mean(TimeUnit.MILLISECONDS)),
+                round(timer.max(TimeUnit.MILLISECONDS)));
+    }
+
+    private static double round(double ms) {
+        return Math.round(ms * 10.0) / 10.0;
+    }
+}
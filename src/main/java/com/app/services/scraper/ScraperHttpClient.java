@@ -0,0 +1,309 @@
+package com.app.services.scraper;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * The HTTP client shared by all scrapers. One {@link HttpClient} keeps connections to each host
+ * alive between requests and negotiates HTTP/2 where the server offers it, so concurrent
+ * requests to a host share one connection. Requests ask for gzip or deflate and bodies are
+ * decompressed here.
+ * <p>
+ * At most {@code scraper.http.max-requests-per-host} requests per host are in flight; further
+ * ones queue without holding a thread. A body larger than {@code scraper.http.max-body-bytes},
+ * before or after decompression, fails the request.
+ */
+@Component
+public class ScraperHttpClient {
+
+    private static final String ACCEPT_ENCODING = "gzip, deflate";
+
+    private final HttpClient client;
+    private final ExecutorService executor;
+    private final int maxRequestsPerHost;
+    private final long maxBodyBytes;
+    private final Map<String, HostGate> gates = new ConcurrentHashMap<>();
+
+    public ScraperHttpClient(
+            @Value("${scraper.http.max-requests-per-host:6}") int maxRequestsPerHost,
+            @Value("${scraper.http.max-body-bytes:16777216}") long maxBodyBytes,
+            @Value("${scraper.http.connect-timeout-seconds:10}") int connectTimeoutSeconds) {
+        if (maxRequestsPerHost < 1 || maxBodyBytes < 1) {
+            throw new IllegalArgumentException("scraper.http limits must be positive: max-requests-per-host="
+                    + maxRequestsPerHost + ", max-body-bytes=" + maxBodyBytes);
+        }
+        this.maxRequestsPerHost = maxRequestsPerHost;
+        this.maxBodyBytes = maxBodyBytes;
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "scraper-http-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .connectTimeout(Duration.ofSeconds(connectTimeoutSeconds))
+                .executor(executor)
+                .build();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Starts a request to the URL that asks for a compressed response.
+     */
+    public HttpRequest.Builder request(String url) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .header("Accept-Encoding", ACCEPT_ENCODING);
+    }
+
+    /**
+     * Sends the request once a slot for its host is free. Responses of any status complete
+     * normally; only failures to get a response, including an oversized body, complete
+     * exceptionally.
+     */
+    public CompletableFuture<ScraperHttpResponse> sendAsync(HttpRequest request) {
+        String host = request.uri().getHost() != null ? request.uri().getHost().toLowerCase() : "unknown";
+        return gates.computeIfAbsent(host, h -> new HostGate(maxRequestsPerHost))
+                .submit(() -> client.sendAsync(request, info -> new CappedBodySubscriber(
+                                info.headers().firstValueAsLong("Content-Length").orElse(-1), maxBodyBytes))
+                        .thenApply(this::toResponse));
+    }
+
+    /**
+     * Sends the request and waits for its response.
+     */
+    public ScraperHttpResponse send(HttpRequest request) throws IOException {
+        return await(sendAsync(request));
+    }
+
+    /**
+     * Waits for an asynchronous request, rethrowing its failure as the {@link IOException}
+     * a blocking call would have thrown.
+     */
+    public static <T> T await(CompletableFuture<T> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for HTTP response");
+        } catch (CancellationException e) {
+            throw new InterruptedIOException("HTTP request cancelled");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause() instanceof CompletionException wrapped && wrapped.getCause() != null
+                    ? wrapped.getCause() : e.getCause();
+            if (cause instanceof IOException io) {
+                throw io;
+            }
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    public int getActiveRequests(String host) {
+        HostGate gate = gates.get(host.toLowerCase());
+        return gate != null ? gate.active() : 0;
+    }
+
+    private ScraperHttpResponse toResponse(HttpResponse<byte[]> response) {
+        try {
+            String encoding = response.headers().firstValue("Content-Encoding").orElse("").trim().toLowerCase();
+            byte[] body = switch (encoding) {
+                case "gzip", "x-gzip" -> inflate(new GZIPInputStream(new ByteArrayInputStream(response.body())));
+                case "deflate" -> inflate(new InflaterInputStream(new ByteArrayInputStream(response.body())));
+                default -> response.body();
+            };
+            return new ScraperHttpResponse(response.statusCode(), response.uri(), response.headers(), body);
+        } catch (IOException e) {
+            throw new CompletionException(e);
+        }
+    }
+
+    private byte[] inflate(InputStream in) throws IOException {
+        try (in) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[16 * 1024];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                if (out.size() + read > maxBodyBytes) {
+                    throw tooLarge(maxBodyBytes);
+                }
+                out.write(buffer, 0, read);
+            }
+            return out.toByteArray();
+        }
+    }
+
+    private static IOException tooLarge(long maxBodyBytes) {
+        return new IOException("Response body exceeds " + maxBodyBytes + " bytes");
+    }
+
+    /**
+     * Collects a body into a byte array, giving up as soon as it grows past the cap.
+     */
+    private static class CappedBodySubscriber implements HttpResponse.BodySubscriber<byte[]> {
+
+        private final CompletableFuture<byte[]> body = new CompletableFuture<>();
+        private final ByteArrayOutputStream out;
+        private final long declaredLength;
+        private final long maxBytes;
+        private Flow.Subscription subscription;
+
+        CappedBodySubscriber(long declaredLength, long maxBytes) {
+            this.declaredLength = declaredLength;
+            this.maxBytes = maxBytes;
+            this.out = new ByteArrayOutputStream(declaredLength > 0 && declaredLength <= maxBytes
+                    ? (int) declaredLength : 8 * 1024);
+        }
+
+        @Override
+        public CompletionStage<byte[]> getBody() {
+            return body;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            if (declaredLength > maxBytes) {
+                subscription.cancel();
+                body.completeExceptionally(tooLarge(maxBytes));
+                return;
+            }
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(List<ByteBuffer> buffers) {
+            if (body.isDone()) {
+                return;
+            }
+            for (ByteBuffer buffer : buffers) {
+                if (out.size() + buffer.remaining() > maxBytes) {
+                    subscription.cancel();
+                    body.completeExceptionally(tooLarge(maxBytes));
+                    return;
+                }
+                byte[] chunk = new byte[buffer.remaining()];
+                buffer.get(chunk);
+                out.writeBytes(chunk);
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            body.completeExceptionally(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            body.complete(out.toByteArray());
+        }
+    }
+
+    /**
+     * Lets a fixed number of a host's requests run at once and starts queued ones as running
+     * ones complete.
+     */
+    private static class HostGate {
+
+        private final int limit;
+        private final Deque<Runnable> waiting = new ArrayDeque<>();
+        private int active;
+
+        HostGate(int limit) {
+            this.limit = limit;
+        }
+
+        synchronized int active() {
+            return active;
+        }
+
+        <T> CompletableFuture<T> submit(Supplier<CompletableFuture<T>> call) {
+            CompletableFuture<T> result = new CompletableFuture<>();
+            Runnable start = () -> {
+                if (result.isDone()) {
+                    // Cancelled while queued
+                    release();
+                    return;
+                }
+                CompletableFuture<T> started;
+                try {
+                    started = call.get();
+                } catch (RuntimeException e) {
+                    started = CompletableFuture.failedFuture(e);
+                }
+                started.whenComplete((value, error) -> {
+                    release();
+                    if (error != null) {
+                        result.completeExceptionally(error);
+                    } else {
+                        result.complete(value);
+                    }
+                });
+            };
+            boolean runNow;
+            synchronized (this) {
+                runNow = active < limit;
+                if (runNow) {
+                    active++;
+                } else {
+                    waiting.addLast(start);
+                }
+            }
+            if (runNow) {
+                start.run();
+            }
+            return result;
+        }
+
+        private void release() {
+            Runnable next;
+            synchronized (this) {
+                next = waiting.pollFirst();
+                if (next == null) {
+                    active--;
+                }
+            }
+            if (next != null) {
+                next.run();
+            }
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.app.services.scraper;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpHeaders;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+/**
+ * A response from {@link ScraperHttpClient} with its body already decompressed. Scrapers read
+ * the bytes directly, e.g. into Jackson, and only build a Jsoup document when they need one.
+ */
+public record ScraperHttpResponse(int statusCode, URI uri, HttpHeaders headers, byte[] body) {
+
+    public String header(String name) {
+        return headers.firstValue(name).orElse(null);
+    }
+
+    public String contentType() {
+        return header("Content-Type");
+    }
+
+    public int size() {
+        return body.length;
+    }
+
+    public InputStream bodyStream() {
+        return new ByteArrayInputStream(body);
+    }
+
+    public String bodyAsString() {
+        Charset charset = charset();
+        return new String(body, charset != null ? charset : StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Parses the body as HTML, in the charset the Content-Type names or else the one the
+     * document declares.
+     */
+    public Document parse() throws IOException {
+        Charset charset = charset();
+        return Jsoup.parse(bodyStream(), charset != null ? charset.name() : null, uri.toString());
+    }
+
+    private Charset charset() {
+        String contentType = contentType();
+        if (contentType == null) {
+            return null;
+        }
+        int index = contentType.toLowerCase(Locale.ROOT).indexOf("charset=");
+        if (index < 0) {
+            return null;
+        }
+        String name = contentType.substring(index + "charset=".length()).split(";")[0].trim().replace("\"", "");
+        try {
+            return Charset.forName(name);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
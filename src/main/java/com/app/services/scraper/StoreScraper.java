@@ -16,6 +16,81 @@ public interface StoreScraper {
 
     List<ScrapedProduct> scrapeAllProducts(Store store);
 
+    /**
+     * The categories {@link #scrapeAllProducts(Store, ProductSink)} goes through, in order.
+     */
+    List<String> listCategories(Store store);
+
+    /**
+     * Streams the products of one category to the sink, one call per fetched page. Pages the
+     * sink does not want are not fetched where the store's paging allows it. A failure that
+     * stops the category early is thrown, so the caller never mistakes it for a complete one.
+     */
+    void scrapeProducts(Store store, String categoryUrl, ProductSink sink);
+
+    /**
+     * Streams the products of every category the sink wants as pages are fetched.
+     */
+    void scrapeAllProducts(Store store, ProductSink sink);
+
+    /**
+     * Receives scraped products page by page. Implementations may block to apply
+     * backpressure; the scraper fetches the next page only after {@code onPage} returns.
+     * A sink resuming an interrupted scrape declines the categories and pages it already has.
+     */
+    @FunctionalInterface
+    interface ProductSink {
+        void onPage(String categoryUrl, int page, List<ScrapedProduct> products);
+
+        default boolean wantsCategory(String categoryUrl) {
+            return true;
+        }
+
+        default boolean wantsPage(String categoryUrl, int page) {
+            return true;
+        }
+
+        /**
+         * Called after the last page of a category that was scraped without errors.
+         */
+        default void onCategoryComplete(String categoryUrl) {
+        }
+
+        /**
+         * Validators recorded for the page on an earlier run, sent as a conditional request
+         * where the store supports it; null if there are none.
+         */
+        default PageFingerprint previousFingerprint(String categoryUrl, int page) {
+            return null;
+        }
+
+        /**
+         * Offered the fingerprint of each fetched page before it is parsed. Returns true if the
+         * page is unchanged since an earlier run and the sink will count its products as observed
+         * again; the scraper then skips parsing it and delivers it to {@link #onPage} with no
+         * products.
+         */
+        default boolean isUnchanged(String categoryUrl, int page, PageFingerprint fingerprint) {
+            return false;
+        }
+
+        /**
+         * Number of products the page listed when it was last processed, or -1 if unknown. Lets a
+         * scraper that skips a page, unchanged or already processed, still tell whether it was the
+         * category's last one.
+         */
+        default int previousProductCount(String categoryUrl, int page) {
+            return -1;
+        }
+    }
+
+    /**
+     * Identifies the content of a fetched page: a hash of the response body, plus the ETag and
+     * Last-Modified validators if the store sent them.
+     */
+    record PageFingerprint(String contentHash, String etag, String lastModified) {
+    }
+
     record ScrapedProduct(
             String storeProductId,
             String name,
@@ -0,0 +1,174 @@
+package com.app.services.scraper;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * Reads selected parts of a JSON document in one streaming pass instead of building a tree of
+ * the whole document. Paths are slash-separated field names and array indexes from the root,
+ * where {@code *} matches any index. The elements of a {@link #forEach} array are handed over
+ * one at a time as small trees, {@link #capture}d values are kept, and everything else is
+ * skipped token by token.
+ * <p>
+ * The parser must come from an {@code ObjectMapper}, which reads the element trees.
+ */
+class StreamingJsonExtractor {
+
+    private final List<String[]> captures = new ArrayList<>();
+    private final List<String[]> arrays = new ArrayList<>();
+    private final List<BiConsumer<String, JsonNode>> handlers = new ArrayList<>();
+
+    /**
+     * Keeps the value at the path, e.g. a page count.
+     */
+    StreamingJsonExtractor capture(String path) {
+        captures.add(path.split("/"));
+        return this;
+    }
+
+    /**
+     * Hands each element of the array at the path to the handler, along with the array's
+     * concrete path.
+     */
+    StreamingJsonExtractor forEach(String path, BiConsumer<String, JsonNode> handler) {
+        arrays.add(path.split("/"));
+        handlers.add(handler);
+        return this;
+    }
+
+    Result extract(JsonParser parser) throws IOException {
+        Result result = new Result(new LinkedHashMap<>(), new LinkedHashMap<>());
+        try (parser) {
+            if (parser.nextToken() != null) {
+                walk(parser, new ArrayList<>(), result);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * What a pass found: the captured values and the size of each array streamed, both by
+     * concrete path.
+     */
+    record Result(Map<String, JsonNode> captured, Map<String, Integer> arraySizes) {
+
+        JsonNode get(String path) {
+            return captured.get(path);
+        }
+
+        /**
+         * True if none of the given paths, as registered, captured a value or streamed an array
+         * with elements. Callers check the paths they need the data from: a document that has
+         * its page count where expected may still keep its products somewhere else.
+         */
+        boolean isEmptyAt(String... paths) {
+            for (String path : paths) {
+                String[] pattern = path.split("/");
+                for (String concrete : captured.keySet()) {
+                    if (matches(pattern, List.of(concrete.split("/")))) {
+                        return false;
+                    }
+                }
+                for (Map.Entry<String, Integer> array : arraySizes.entrySet()) {
+                    if (array.getValue() > 0 && matches(pattern, List.of(array.getKey().split("/")))) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+    }
+
+    // The parser is on the first token of the value at path
+    private void walk(JsonParser parser, List<String> path, Result result) throws IOException {
+        for (String[] capture : captures) {
+            if (matches(capture, path)) {
+                JsonNode value = parser.readValueAsTree();
+                result.captured().put(String.join("/", path), value);
+                return;
+            }
+        }
+        for (int i = 0; i < arrays.size(); i++) {
+            if (matches(arrays.get(i), path)) {
+                streamArray(parser, String.join("/", path), handlers.get(i), result);
+                return;
+            }
+        }
+        if (!isPrefix(path)) {
+            parser.skipChildren();
+            return;
+        }
+
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.START_OBJECT) {
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                path.add(parser.getCurrentName());
+                parser.nextToken();
+                walk(parser, path, result);
+                path.remove(path.size() - 1);
+            }
+        } else if (token == JsonToken.START_ARRAY) {
+            int index = 0;
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                path.add(Integer.toString(index++));
+                walk(parser, path, result);
+                path.remove(path.size() - 1);
+            }
+        }
+    }
+
+    private static void streamArray(JsonParser parser, String arrayPath, BiConsumer<String, JsonNode> handler,
+                                    Result result) throws IOException {
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return;
+        }
+        int size = 0;
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            JsonNode element = parser.readValueAsTree();
+            size++;
+            handler.accept(arrayPath, element);
+        }
+        result.arraySizes().put(arrayPath, size);
+    }
+
+    private static boolean matches(String[] pattern, List<String> path) {
+        return pattern.length == path.size() && matchesPrefix(pattern, path);
+    }
+
+    private boolean isPrefix(List<String> path) {
+        for (String[] pattern : captures) {
+            if (pattern.length > path.size() && matchesPrefix(pattern, path)) {
+                return true;
+            }
+        }
+        for (String[] pattern : arrays) {
+            if (pattern.length > path.size() && matchesPrefix(pattern, path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean matchesPrefix(String[] pattern, List<String> path) {
+        for (int i = 0; i < path.size(); i++) {
+            String segment = pattern[i];
+            if (segment.equals("*") ? !isIndex(path.get(i)) : !segment.equals(path.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isIndex(String segment) {
+        return !segment.isEmpty() && segment.chars().allMatch(Character::isDigit);
+    }
+}
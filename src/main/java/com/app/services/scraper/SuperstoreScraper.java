@@ -5,15 +5,18 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.github.resilience4j.ratelimiter.RateLimiterRegistry;
 import lombok.extern.slf4j.Slf4j;
-import org.jsoup.Connection;
-import org.jsoup.Jsoup;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.io.IOException;
 import java.math.BigDecimal;
+import java.net.http.HttpRequest;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiConsumer;
 
 /**
  * Real Canadian Superstore scraper using PC Express API.
@@ -23,8 +26,9 @@ import java.util.Map;
 public class SuperstoreScraper extends AbstractStoreScraper {
 
     public static final String STORE_CODE = "RCSS";
-    private static final String API_BASE_URL = "https://api.pcexpress.ca/pcx-bff/api/v2/listingPage/";
+    private static final String DEFAULT_API_BASE_URL = "https://api.pcexpress.ca/pcx-bff/api/v2/listingPage/";
     private static final int PAGE_SIZE = 48;
+    private static final String COMPONENTS_PATH = "layout/sections/mainContentCollection/components";
 
     // Category ID to name mapping
     private static final Map<String, String> CATEGORY_NAMES = Map.of(
@@ -40,8 +44,12 @@ public class SuperstoreScraper extends AbstractStoreScraper {
     @Value("${scraper.superstore.api-key}")
     private String apiKey;
 
-    public SuperstoreScraper(RateLimiterRegistry rateLimiterRegistry, ObjectMapper objectMapper) {
-        super(rateLimiterRegistry);
+    @Value("${scraper.superstore.api-base-url:" + DEFAULT_API_BASE_URL + "}")
+    private String apiBaseUrl = DEFAULT_API_BASE_URL;
+
+    public SuperstoreScraper(RateLimiterRegistry rateLimiterRegistry, ObjectMapper objectMapper, ScrapeMetrics metrics,
+                             AdaptivePacer pacer, ScraperHttpClient httpClient) {
+        super(rateLimiterRegistry, metrics, pacer, httpClient);
         this.objectMapper = objectMapper;
     }
 
@@ -78,93 +86,184 @@ public class SuperstoreScraper extends AbstractStoreScraper {
     }
 
     @Override
-    public List<ScrapedProduct> scrapeProducts(Store store, String categoryId) {
+    public void scrapeProducts(Store store, String categoryId, ProductSink sink) {
+        try {
+            // The first page reveals the page count; the rest can then be fetched in parallel
+            boolean wantsFirst = sink.wantsPage(categoryId, 0);
+            ApiPage first = ScraperHttpClient.await(fetchPage(store, categoryId, 0, wantsFirst ? sink : null));
+            if (wantsFirst) {
+                sink.onPage(categoryId, 0, first.products());
+            }
+
+            fetchPages(store, categoryId, 1, first.totalPages() - 1,
+                    page -> fetchPage(store, categoryId, page, sink).thenApply(ApiPage::products), sink);
+
+        } catch (Exception e) {
+            throw new IllegalStateException("Error scraping RCSS products for category " + categoryId
+                    + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Sends the request for a page of a category once the rate limit allows, and reads the
+     * response when it arrives. If {@code sink} accepts the response as unchanged, its products
+     * are not parsed and the page comes back empty.
+     *
+     * @param sink the sink to offer the page's fingerprint to, or null if it is not wanted
+     */
+    private CompletableFuture<ApiPage> fetchPage(Store store, String categoryId, int page, ProductSink sink) {
+        String apiUrl = buildApiUrl(categoryId);
+        String requestBody = buildRequestBody(page);
+        log.debug("Fetching RCSS products from: {}", apiUrl);
+
+        acquirePermit(store, apiUrl);
+
+        HttpRequest request = newRequest(apiUrl)
+                .header("Content-Type", "application/json")
+                .header("Accept-Language", "en")
+                .header("x-apikey", apiKey)
+                .header("x-application-type", "web")
+                .header("x-loblaw-tenant-id", "ONLINE_GROCERIES")
+                .POST(HttpRequest.BodyPublishers.ofString(requestBody))
+                .build();
+        return sendAsync(request, httpResponse -> readPage(httpResponse, apiUrl, requestBody, categoryId, page, sink));
+    }
+
+    private ApiPage readPage(ScraperHttpResponse httpResponse, String apiUrl, String requestBody, String categoryId,
+                             int page, ProductSink sink) throws IOException {
+        recordFixture("POST", apiUrl, requestBody, httpResponse);
+
+        boolean unchanged = sink != null
+                && sink.isUnchanged(categoryId, page, fingerprint(httpResponse.body(), null, null));
+        if (unchanged && page > 0) {
+            log.debug("RCSS category {} page {} unchanged, skipping", categoryId, page + 1);
+            return new ApiPage(List.of(), 0);
+        }
+
+        long parseStart = System.nanoTime();
+        ApiPage result = parsePage(httpResponse.body(), categoryId, !unchanged);
+        recordParse(parseStart);
+        if (unchanged) {
+            // The first page is still read for the page count
+            return result;
+        }
+
+        log.info("Fetched {} products from category {} page {}/{}",
+                result.products().size(), categoryId, page + 1, result.totalPages());
+        return result;
+    }
+
+    /**
+     * Streams the page count and, if {@code withProducts}, the carousel product tiles out of a
+     * listing response without building a tree of the whole response. Falls back to
+     * {@link #parsePageTree} when the paths it needs, the tiles or else the page count, are not
+     * there.
+     */
+    ApiPage parsePage(byte[] body, String categoryId, boolean withProducts) throws IOException {
+        StreamingJsonExtractor extractor = new StreamingJsonExtractor().capture("pagination/totalPages");
+        Map<String, List<ScrapedProduct>> tilesByPath = new HashMap<>();
+        if (withProducts) {
+            BiConsumer<String, JsonNode> tileHandler = (tilesPath, item) -> {
+                List<ScrapedProduct> tiles = tilesByPath.computeIfAbsent(tilesPath, path -> new ArrayList<>());
+                ScrapedProduct product = parseTile(item, categoryId);
+                if (product != null) {
+                    tiles.add(product);
+                }
+            };
+            extractor.capture(COMPONENTS_PATH + "/*/componentId")
+                    .forEach(COMPONENTS_PATH + "/*/productTiles", tileHandler)
+                    .forEach(COMPONENTS_PATH + "/*/data/productTiles", tileHandler);
+        }
+
+        StreamingJsonExtractor.Result result = extractor.extract(objectMapper.createParser(body));
+        boolean missing = withProducts
+                ? result.isEmptyAt(COMPONENTS_PATH + "/*/productTiles", COMPONENTS_PATH + "/*/data/productTiles")
+                : result.isEmptyAt("pagination/totalPages");
+        if (missing) {
+            log.debug("RCSS response for category {} has an unexpected structure, reading it in full", categoryId);
+            return parsePageTree(objectMapper.readTree(body), categoryId, withProducts);
+        }
+
+        JsonNode totalPagesNode = result.get("pagination/totalPages");
+        int totalPages = totalPagesNode != null ? totalPagesNode.asInt(1) : 1;
+
+        // Components come in document order; a carousel's tiles are at its root or under data
         List<ScrapedProduct> products = new ArrayList<>();
-        int page = 0;
+        for (Map.Entry<String, JsonNode> entry : result.captured().entrySet()) {
+            String key = entry.getKey();
+            if (!key.endsWith("/componentId") || entry.getValue() == null
+                    || !"productCarouselComponent".equals(entry.getValue().asText(""))) {
+                continue;
+            }
+            String component = key.substring(0, key.length() - "/componentId".length());
+            String tilesPath = result.arraySizes().containsKey(component + "/productTiles")
+                    ? component + "/productTiles" : component + "/data/productTiles";
+            products.addAll(tilesByPath.getOrDefault(tilesPath, List.of()));
+        }
+        return new ApiPage(products, totalPages);
+    }
+
+    /**
+     * Reads a listing response through a tree of the whole response.
+     */
+    ApiPage parsePageTree(JsonNode root, String categoryId, boolean withProducts) {
+        // Get pagination info
         int totalPages = 1;
+        JsonNode pagination = root.get("pagination");
+        if (pagination != null) {
+            totalPages = pagination.path("totalPages").asInt(1);
+        }
+        if (!withProducts) {
+            return new ApiPage(List.of(), totalPages);
+        }
 
-        try {
-            do {
-                String apiUrl = buildApiUrl(categoryId);
-                String requestBody = buildRequestBody(page);
-                log.debug("Fetching RCSS products from: {}", apiUrl);
-
-                rateLimiter.acquirePermission();
-
-                String response = Jsoup.connect(apiUrl)
-                        .method(Connection.Method.POST)
-                        .header("Content-Type", "application/json")
-                        .header("Accept-Language", "en")
-                        .header("x-apikey", apiKey)
-                        .header("x-application-type", "web")
-                        .header("x-loblaw-tenant-id", "ONLINE_GROCERIES")
-                        .requestBody(requestBody)
-                        .userAgent(userAgent)
-                        .timeout(timeoutSeconds * 1000)
-                        .ignoreContentType(true)
-                        .execute()
-                        .body();
-
-                JsonNode root = objectMapper.readTree(response);
-
-                // Get pagination info
-                JsonNode pagination = root.get("pagination");
-                if (pagination != null) {
-                    totalPages = pagination.path("totalPages").asInt(1);
-                }
+        // Parse products from layout > sections > mainContentCollection > components
+        JsonNode components = root.path("layout")
+                .path("sections")
+                .path("mainContentCollection")
+                .path("components");
 
-                // Parse products from layout > sections > mainContentCollection > components
-                JsonNode components = root.path("layout")
-                        .path("sections")
-                        .path("mainContentCollection")
-                        .path("components");
-
-                int productCount = 0;
-                if (components.isArray()) {
-                    for (JsonNode component : components) {
-                        String componentId = component.path("componentId").asText("");
-                        if (!"productCarouselComponent".equals(componentId)) {
-                            continue;
-                        }
+        List<ScrapedProduct> products = new ArrayList<>();
+        if (components.isArray()) {
+            for (JsonNode component : components) {
+                String componentId = component.path("componentId").asText("");
+                if (!"productCarouselComponent".equals(componentId)) {
+                    continue;
+                }
 
-                        // Get productTiles from the component (check both root and data)
-                        JsonNode productTiles = component.path("productTiles");
-                        if (productTiles.isMissingNode() || !productTiles.isArray()) {
-                            productTiles = component.path("data").path("productTiles");
-                        }
+                // Get productTiles from the component (check both root and data)
+                JsonNode productTiles = component.path("productTiles");
+                if (productTiles.isMissingNode() || !productTiles.isArray()) {
+                    productTiles = component.path("data").path("productTiles");
+                }
 
-                        if (productTiles.isArray()) {
-                            for (JsonNode item : productTiles) {
-                                try {
-                                    ScrapedProduct product = parseProduct(item, categoryId);
-                                    if (product != null) {
-                                        products.add(product);
-                                        productCount++;
-                                    }
-                                } catch (Exception e) {
-                                    log.warn("Error parsing RCSS product: {}", e.getMessage());
-                                }
-                            }
+                if (productTiles.isArray()) {
+                    for (JsonNode item : productTiles) {
+                        ScrapedProduct product = parseTile(item, categoryId);
+                        if (product != null) {
+                            products.add(product);
                         }
                     }
                 }
+            }
+        }
+        return new ApiPage(products, totalPages);
+    }
 
-                log.info("Fetched {} products from category {} page {}/{}",
-                        productCount, categoryId, page + 1, totalPages);
-
-                page++;
-
-            } while (page < totalPages);
+    record ApiPage(List<ScrapedProduct> products, int totalPages) {
+    }
 
+    private ScrapedProduct parseTile(JsonNode item, String categoryId) {
+        try {
+            return parseProduct(item, categoryId);
         } catch (Exception e) {
-            log.error("Error scraping RCSS products for category {}: {}", categoryId, e.getMessage(), e);
+            log.warn("Error parsing RCSS product: {}", e.getMessage());
+            return null;
         }
-
-        return products;
     }
 
     private String buildApiUrl(String categoryId) {
-        return API_BASE_URL + categoryId;
+        return (apiBaseUrl.endsWith("/") ? apiBaseUrl : apiBaseUrl + "/") + categoryId;
     }
 
     private String buildRequestBody(int page) {
@@ -5,14 +5,16 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.github.resilience4j.ratelimiter.RateLimiterRegistry;
 import lombok.extern.slf4j.Slf4j;
-import org.jsoup.Connection;
-import org.jsoup.Jsoup;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.io.IOException;
 import java.math.BigDecimal;
+import java.net.http.HttpRequest;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * T&T Supermarket scraper using GraphQL API.
@@ -22,7 +24,7 @@ import java.util.Map;
 public class TntScraper extends AbstractStoreScraper {
 
     public static final String STORE_CODE = "TNT";
-    private static final String GRAPHQL_URL = "https://www.tntsupermarket.com/graphql";
+    private static final String DEFAULT_GRAPHQL_URL = "https://www.tntsupermarket.com/graphql";
     private static final int PAGE_SIZE = 35;
 
     // Category ID to Name mapping
@@ -37,6 +39,9 @@ public class TntScraper extends AbstractStoreScraper {
 
     private final ObjectMapper objectMapper;
 
+    @Value("${scraper.tnt.graphql-url:" + DEFAULT_GRAPHQL_URL + "}")
+    private String graphqlUrl = DEFAULT_GRAPHQL_URL;
+
     // GraphQL query for fetching products
     private static final String PRODUCTS_QUERY = """
         query GetCategories($id:Int!$pageSize:Int!$currentPage:Int!$filters:ProductAttributeFilterInput!$sort:ProductAttributeSortInput){
@@ -97,8 +102,9 @@ public class TntScraper extends AbstractStoreScraper {
         }
         """;
 
-    public TntScraper(RateLimiterRegistry rateLimiterRegistry, ObjectMapper objectMapper) {
-        super(rateLimiterRegistry);
+    public TntScraper(RateLimiterRegistry rateLimiterRegistry, ObjectMapper objectMapper, ScrapeMetrics metrics,
+                      AdaptivePacer pacer, ScraperHttpClient httpClient) {
+        super(rateLimiterRegistry, metrics, pacer, httpClient);
         this.objectMapper = objectMapper;
     }
 
@@ -136,77 +142,156 @@ public class TntScraper extends AbstractStoreScraper {
     }
 
     @Override
-    public List<ScrapedProduct> scrapeProducts(Store store, String categoryId) {
-        List<ScrapedProduct> products = new ArrayList<>();
-        int currentPage = 1;
-        int totalPages = 1;
-
+    public void scrapeProducts(Store store, String categoryId, ProductSink sink) {
         try {
-            do {
-                log.debug("Fetching T&T products for category {} page {}", categoryId, currentPage);
-
-                rateLimiter.acquirePermission();
-
-                String requestBody = buildGraphQLRequest(categoryId, currentPage);
-
-                String response = Jsoup.connect(GRAPHQL_URL)
-                        .method(Connection.Method.POST)
-                        .header("Content-Type", "application/json")
-                        .header("Accept", "application/json")
-                        .userAgent(userAgent)
-                        .timeout(timeoutSeconds * 1000)
-                        .requestBody(requestBody)
-                        .ignoreContentType(true)
-                        .execute()
-                        .body();
-
-                JsonNode root = objectMapper.readTree(response);
-                JsonNode data = root.get("data");
-
-                if (data == null) {
-                    log.warn("No data in GraphQL response for category {}", categoryId);
-                    break;
-                }
+            // The first page reveals the page count; the rest can then be fetched in parallel
+            boolean wantsFirst = sink.wantsPage(categoryId, 1);
+            GraphQLPage first = ScraperHttpClient.await(fetchPage(store, categoryId, 1, wantsFirst ? sink : null));
+            if (first == null) {
+                return;
+            }
+            if (wantsFirst) {
+                sink.onPage(categoryId, 1, first.products());
+            }
 
-                JsonNode productsNode = data.get("products");
-                if (productsNode == null) {
-                    log.warn("No products in GraphQL response for category {}", categoryId);
-                    break;
-                }
+            fetchPages(store, categoryId, 2, first.totalPages(), page -> fetchPage(store, categoryId, page, sink)
+                    .thenApply(result -> result != null ? result.products() : null), sink);
 
-                // Get pagination info
-                JsonNode pageInfo = productsNode.get("page_info");
-                if (pageInfo != null) {
-                    totalPages = pageInfo.get("total_pages").asInt(1);
-                }
+        } catch (Exception e) {
+            throw new IllegalStateException("Error scraping T&T products for category " + categoryId
+                    + ": " + e.getMessage(), e);
+        }
+    }
 
-                // Parse products
-                JsonNode items = productsNode.get("items");
-                if (items != null && items.isArray()) {
-                    for (JsonNode item : items) {
-                        try {
-                            ScrapedProduct product = parseProduct(item, categoryId);
-                            if (product != null) {
-                                products.add(product);
-                            }
-                        } catch (Exception e) {
-                            log.warn("Error parsing T&T product: {}", e.getMessage());
-                        }
-                    }
+    /**
+     * Sends the request for a page once the rate limit allows, and reads the response when it
+     * arrives. Completes with {@code null} when the response carries no product data. If
+     * {@code sink} accepts the response as unchanged, its products are not parsed and the page
+     * comes back empty.
+     *
+     * @param sink the sink to offer the page's fingerprint to, or null if it is not wanted
+     */
+    private CompletableFuture<GraphQLPage> fetchPage(Store store, String categoryId, int page, ProductSink sink)
+            throws Exception {
+        log.debug("Fetching T&T products for category {} page {}", categoryId, page);
+
+        acquirePermit(store, graphqlUrl);
+
+        String requestBody = buildGraphQLRequest(categoryId, page);
+
+        HttpRequest request = newRequest(graphqlUrl)
+                .header("Content-Type", "application/json")
+                .header("Accept", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(requestBody))
+                .build();
+        return sendAsync(request, httpResponse -> readPage(httpResponse, requestBody, categoryId, page, sink));
+    }
+
+    private GraphQLPage readPage(ScraperHttpResponse httpResponse, String requestBody, String categoryId, int page,
+                                 ProductSink sink) throws IOException {
+        recordFixture("POST", graphqlUrl, requestBody, httpResponse);
+
+        boolean unchanged = sink != null
+                && sink.isUnchanged(categoryId, page, fingerprint(httpResponse.body(), null, null));
+        if (unchanged && page > 1) {
+            log.debug("T&T category {} page {} unchanged, skipping", categoryId, page);
+            return new GraphQLPage(List.of(), 0);
+        }
+
+        long parseStart = System.nanoTime();
+        GraphQLPage result = parsePage(httpResponse.body(), categoryId, !unchanged);
+        recordParse(parseStart);
+        if (result == null || unchanged) {
+            // An unchanged first page is still read for the page count
+            return result;
+        }
+
+        log.info("Fetched {} products from category {} page {}/{}",
+                result.products().size(), categoryId, page, result.totalPages());
+        return result;
+    }
+
+    /**
+     * Streams the page count and, if {@code withProducts}, the product items out of a GraphQL
+     * response without building a tree of the whole response. Falls back to
+     * {@link #parsePageTree} when the paths it needs, the items or else the page count, are not
+     * there.
+     */
+    GraphQLPage parsePage(byte[] body, String categoryId, boolean withProducts) throws IOException {
+        List<ScrapedProduct> products = new ArrayList<>();
+        StreamingJsonExtractor extractor = new StreamingJsonExtractor().capture("data/products/page_info/total_pages");
+        if (withProducts) {
+            extractor.forEach("data/products/items", (itemsPath, item) -> {
+                ScrapedProduct product = parseItem(item, categoryId);
+                if (product != null) {
+                    products.add(product);
                 }
+            });
+        }
 
-                log.info("Fetched {} products from category {} page {}/{}",
-                        items != null ? items.size() : 0, categoryId, currentPage, totalPages);
+        StreamingJsonExtractor.Result result = extractor.extract(objectMapper.createParser(body));
+        if (result.isEmptyAt(withProducts ? "data/products/items" : "data/products/page_info/total_pages")) {
+            return parsePageTree(objectMapper.readTree(body), categoryId, withProducts);
+        }
 
-                currentPage++;
+        JsonNode totalPagesNode = result.get("data/products/page_info/total_pages");
+        int totalPages = totalPagesNode != null ? totalPagesNode.asInt(1) : 1;
+        return new GraphQLPage(products, totalPages);
+    }
 
-            } while (currentPage <= totalPages);
+    /**
+     * Reads a GraphQL response through a tree of the whole response. Returns {@code null} when
+     * it carries no product data.
+     */
+    GraphQLPage parsePageTree(JsonNode root, String categoryId, boolean withProducts) {
+        JsonNode data = root.get("data");
 
-        } catch (Exception e) {
-            log.error("Error scraping T&T products for category {}: {}", categoryId, e.getMessage(), e);
+        if (data == null) {
+            log.warn("No data in GraphQL response for category {}", categoryId);
+            return null;
+        }
+
+        JsonNode productsNode = data.get("products");
+        if (productsNode == null) {
+            log.warn("No products in GraphQL response for category {}", categoryId);
+            return null;
         }
 
-        return products;
+        // Get pagination info
+        int totalPages = 1;
+        JsonNode pageInfo = productsNode.get("page_info");
+        if (pageInfo != null) {
+            totalPages = pageInfo.path("total_pages").asInt(1);
+        }
+
+        if (!withProducts) {
+            return new GraphQLPage(List.of(), totalPages);
+        }
+
+        // Parse products
+        List<ScrapedProduct> products = new ArrayList<>();
+        JsonNode items = productsNode.get("items");
+        if (items != null && items.isArray()) {
+            for (JsonNode item : items) {
+                ScrapedProduct product = parseItem(item, categoryId);
+                if (product != null) {
+                    products.add(product);
+                }
+            }
+        }
+        return new GraphQLPage(products, totalPages);
+    }
+
+    record GraphQLPage(List<ScrapedProduct> products, int totalPages) {
+    }
+
+    private ScrapedProduct parseItem(JsonNode item, String categoryId) {
+        try {
+            return parseProduct(item, categoryId);
+        } catch (Exception e) {
+            log.warn("Error parsing T&T product: {}", e.getMessage());
+            return null;
+        }
     }
 
     private String buildGraphQLRequest(String categoryId, int page) throws Exception {
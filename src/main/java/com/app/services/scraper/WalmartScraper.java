@@ -9,9 +9,11 @@ import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
 import org.jsoup.select.Elements;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -29,14 +31,6 @@ import java.util.regex.Pattern;
 public class WalmartScraper extends AbstractStoreScraper {
 
     public static final String STORE_CODE = "WALMART";
-    private static final Pattern JSON_LD_PATTERN = Pattern.compile(
-            "<script[^>]*type=[\"']application/ld\\+json[\"'][^>]*>(.*?)</script>",
-            Pattern.DOTALL | Pattern.CASE_INSENSITIVE
-    );
-    private static final Pattern NEXT_DATA_PATTERN = Pattern.compile(
-            "<script[^>]*id=[\"']__NEXT_DATA__[\"'][^>]*>(.*?)</script>",
-            Pattern.DOTALL | Pattern.CASE_INSENSITIVE
-    );
     private static final Pattern CATEGORY_ID_PATTERN = Pattern.compile("_(\\d{13})(?:\\?|$)");
     private static final Pattern WAS_PRICE_PATTERN = Pattern.compile(
             "Was\\s*\\$?([\\d,]+\\.?\\d*)", Pattern.CASE_INSENSITIVE
@@ -127,8 +121,12 @@ public class WalmartScraper extends AbstractStoreScraper {
 
     private final ObjectMapper objectMapper;
 
-    public WalmartScraper(RateLimiterRegistry rateLimiterRegistry, ObjectMapper objectMapper) {
-        super(rateLimiterRegistry);
+    @Value("${scraper.walmart.base-url:}")
+    private String baseUrlOverride;
+
+    public WalmartScraper(RateLimiterRegistry rateLimiterRegistry, ObjectMapper objectMapper, ScrapeMetrics metrics,
+                          AdaptivePacer pacer, ScraperHttpClient httpClient) {
+        super(rateLimiterRegistry, metrics, pacer, httpClient);
         this.objectMapper = objectMapper;
     }
 
@@ -140,7 +138,7 @@ public class WalmartScraper extends AbstractStoreScraper {
     @Override
     protected List<String> getCategoryUrls(Store store) {
         List<String> urls = new ArrayList<>();
-        String baseUrl = store.getBaseUrl();
+        String baseUrl = baseUrl(store, baseUrlOverride);
 
         // Default category URLs for Walmart Canada
         // Fruits & Vegetables
@@ -191,39 +189,68 @@ public class WalmartScraper extends AbstractStoreScraper {
 
     private static final int WALMART_PAGE_SIZE = 40;
 
+    private static final String PAGE_PROPS_PATH = "props/pageProps/";
+
+    // Where a page's products are, under props.pageProps; the structure varies by page type
+    private static final List<String> PRODUCT_ARRAY_PATHS = List.of(
+            "initialData/searchResult/itemStacks/0/items",
+            "initialData/items",
+            "products",
+            "searchResult/items",
+            "itemStacks/0/items"
+    );
+
     @Override
-    public List<ScrapedProduct> scrapeProducts(Store store, String categoryUrl) {
-        List<ScrapedProduct> products = new ArrayList<>();
+    public void scrapeProducts(Store store, String categoryUrl, ProductSink sink) {
         int page = 1;
         int maxPages = 10;
         String category = extractCategoryFromUrl(categoryUrl);
 
         try {
             while (page <= maxPages) {
+                if (!sink.wantsPage(categoryUrl, page)) {
+                    // Already processed by an earlier attempt; only go on if it was a full page
+                    if (wasLastPage(sink.previousProductCount(categoryUrl, page))) {
+                        break;
+                    }
+                    page++;
+                    continue;
+                }
                 String pageUrl = buildPageUrl(categoryUrl, page);
                 log.debug("Fetching Walmart products from: {}", pageUrl);
 
-                Document doc = fetchDocument(pageUrl);
-
-                // Try to extract products from embedded JSON first
-                boolean fromJson = false;
-                List<ScrapedProduct> pageProducts = extractFromEmbeddedJson(doc, pageUrl, category);
-                if (!pageProducts.isEmpty()) {
-                    fromJson = true;
+                ScraperHttpResponse response = fetchResponse(store, pageUrl, sink, categoryUrl, page);
+                if (response == null) {
+                    // Same page as last time: the sink observes its products again without parsing
+                    log.debug("Walmart page {} of {} unchanged, skipping", page, categoryUrl);
+                    sink.onPage(categoryUrl, page, List.of());
+                    if (wasLastPage(sink.previousProductCount(categoryUrl, page))) {
+                        break;
+                    }
+                    page++;
+                    continue;
                 }
 
-                // If no embedded JSON found, fallback to HTML parsing
-                if (pageProducts.isEmpty()) {
+                // Try to extract products from embedded JSON first, straight from the response bytes
+                long parseStart = System.nanoTime();
+                List<ScrapedProduct> pageProducts = extractFromEmbeddedJson(response.body(), pageUrl, category);
+                boolean fromJson = !pageProducts.isEmpty();
+
+                // If no embedded JSON found, fallback to HTML parsing; only this path needs a DOM
+                Document doc = null;
+                if (!fromJson) {
+                    doc = response.parse();
                     pageProducts = extractFromHtml(doc, pageUrl, category);
                 }
+                recordParse(parseStart);
 
                 if (pageProducts.isEmpty()) {
                     log.debug("No products found on page {}, stopping pagination", page);
                     break;
                 }
 
-                products.addAll(pageProducts);
                 log.debug("Found {} products on page {}", pageProducts.size(), page);
+                sink.onPage(categoryUrl, page, pageProducts);
 
                 // Determine if there's a next page
                 if (fromJson) {
@@ -240,20 +267,29 @@ public class WalmartScraper extends AbstractStoreScraper {
 
                 page++;
 
-                // Random delay between pages to avoid being blocked
-                long delayMs = ThreadLocalRandom.current().nextLong(3000, 6000);
-                log.debug("Waiting {}ms before fetching next page", delayMs);
-                Thread.sleep(delayMs);
+                if (!pacer.isEnabled()) {
+                    // Random delay between pages to avoid being blocked
+                    long delayMs = ThreadLocalRandom.current().nextLong(3000, 6000);
+                    log.debug("Waiting {}ms before fetching next page", delayMs);
+                    Thread.sleep(delayMs);
+                }
             }
 
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
-            log.warn("Walmart scraping interrupted for URL: {}", categoryUrl);
+            throw new IllegalStateException("Walmart scraping interrupted for URL: " + categoryUrl, e);
         } catch (Exception e) {
-            log.error("Error scraping Walmart products from URL: {}", categoryUrl, e);
+            throw new IllegalStateException("Error scraping Walmart products from URL " + categoryUrl
+                    + ": " + e.getMessage(), e);
         }
+    }
 
-        return products;
+    /**
+     * Whether a skipped page, with the product count it had when last processed, ended its
+     * category. A page whose count is unknown is assumed to be full.
+     */
+    private static boolean wasLastPage(int previousProductCount) {
+        return previousProductCount >= 0 && previousProductCount < WALMART_PAGE_SIZE;
     }
 
     private String buildPageUrl(String categoryUrl, int page) {
@@ -266,27 +302,32 @@ public class WalmartScraper extends AbstractStoreScraper {
         return categoryUrl + "?page=" + page;
     }
 
-    private List<ScrapedProduct> extractFromEmbeddedJson(Document doc, String sourceUrl, String category) {
+    /**
+     * Reads products from the page's {@code __NEXT_DATA__} script, or failing that its JSON-LD
+     * scripts, finding them in the raw page bytes rather than in a DOM.
+     */
+    List<ScrapedProduct> extractFromEmbeddedJson(byte[] html, String sourceUrl, String category) {
         List<ScrapedProduct> products = new ArrayList<>();
 
         try {
+            List<HtmlScripts.Script> scripts = HtmlScripts.find(html);
+
             // Try __NEXT_DATA__ script (Next.js apps)
-            String html = doc.html();
-            Matcher nextDataMatcher = NEXT_DATA_PATTERN.matcher(html);
-            if (nextDataMatcher.find()) {
-                String jsonStr = nextDataMatcher.group(1);
-                products = parseNextDataJson(jsonStr, sourceUrl, category);
-                if (!products.isEmpty()) {
-                    return products;
+            for (HtmlScripts.Script script : scripts) {
+                if ("__NEXT_DATA__".equals(script.id())) {
+                    products = parseNextDataJson(html, script.offset(), script.length(), sourceUrl, category);
+                    if (!products.isEmpty()) {
+                        return products;
+                    }
+                    break;
                 }
             }
 
             // Try JSON-LD structured data
-            Matcher jsonLdMatcher = JSON_LD_PATTERN.matcher(html);
-            while (jsonLdMatcher.find()) {
-                String jsonStr = jsonLdMatcher.group(1);
-                List<ScrapedProduct> ldProducts = parseJsonLd(jsonStr, sourceUrl, category);
-                products.addAll(ldProducts);
+            for (HtmlScripts.Script script : scripts) {
+                if ("application/ld+json".equals(script.type())) {
+                    products.addAll(parseJsonLd(script.text(), sourceUrl, category));
+                }
             }
 
         } catch (Exception e) {
@@ -296,42 +337,81 @@ public class WalmartScraper extends AbstractStoreScraper {
         return products;
     }
 
-    private List<ScrapedProduct> parseNextDataJson(String jsonStr, String sourceUrl, String category) {
-        List<ScrapedProduct> products = new ArrayList<>();
+    /**
+     * Streams the products out of a {@code __NEXT_DATA__} document, skipping the rest of the
+     * page state. Of the known product arrays, the first non-empty one in
+     * {@link #PRODUCT_ARRAY_PATHS} order wins. Falls back to {@link #parseNextDataTree} when
+     * none of them has products.
+     */
+    List<ScrapedProduct> parseNextDataJson(String jsonStr, String sourceUrl, String category) {
+        byte[] json = jsonStr.getBytes(StandardCharsets.UTF_8);
+        return parseNextDataJson(json, 0, json.length, sourceUrl, category);
+    }
 
+    private List<ScrapedProduct> parseNextDataJson(byte[] json, int offset, int length, String sourceUrl,
+                                                   String category) {
         try {
-            JsonNode root = objectMapper.readTree(jsonStr);
-            JsonNode props = root.path("props").path("pageProps");
-
-            // Navigate to products array (structure varies by page type)
-            JsonNode itemsNode = findProductsArray(props);
-
-            if (itemsNode != null && itemsNode.isArray()) {
-                for (JsonNode item : itemsNode) {
+            Map<String, List<ScrapedProduct>> productsByPath = new HashMap<>();
+            StreamingJsonExtractor extractor = new StreamingJsonExtractor();
+            for (String path : PRODUCT_ARRAY_PATHS) {
+                extractor.forEach(PAGE_PROPS_PATH + path, (itemsPath, item) -> {
+                    List<ScrapedProduct> products = productsByPath.computeIfAbsent(itemsPath, p -> new ArrayList<>());
                     ScrapedProduct product = parseProductFromNextData(item, sourceUrl, category);
                     if (product != null) {
                         products.add(product);
                     }
+                });
+            }
+
+            StreamingJsonExtractor.Result result = extractor.extract(objectMapper.createParser(json, offset, length));
+            if (result.isEmptyAt(PRODUCT_ARRAY_PATHS.stream().map(path -> PAGE_PROPS_PATH + path)
+                    .toArray(String[]::new))) {
+                return productsFromTree(objectMapper.readTree(json, offset, length), sourceUrl, category);
+            }
+            for (String path : PRODUCT_ARRAY_PATHS) {
+                if (result.arraySizes().getOrDefault(PAGE_PROPS_PATH + path, 0) > 0) {
+                    return new ArrayList<>(productsByPath.get(PAGE_PROPS_PATH + path));
                 }
             }
         } catch (Exception e) {
             log.debug("Error parsing __NEXT_DATA__: {}", e.getMessage());
         }
 
+        return new ArrayList<>();
+    }
+
+    /**
+     * Reads a {@code __NEXT_DATA__} document through a tree of the whole document.
+     */
+    List<ScrapedProduct> parseNextDataTree(String jsonStr, String sourceUrl, String category) {
+        try {
+            return productsFromTree(objectMapper.readTree(jsonStr), sourceUrl, category);
+        } catch (Exception e) {
+            log.debug("Error parsing __NEXT_DATA__: {}", e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+
+    private List<ScrapedProduct> productsFromTree(JsonNode root, String sourceUrl, String category) {
+        List<ScrapedProduct> products = new ArrayList<>();
+        JsonNode props = root.path("props").path("pageProps");
+
+        // Navigate to products array (structure varies by page type)
+        JsonNode itemsNode = findProductsArray(props);
+
+        if (itemsNode != null && itemsNode.isArray()) {
+            for (JsonNode item : itemsNode) {
+                ScrapedProduct product = parseProductFromNextData(item, sourceUrl, category);
+                if (product != null) {
+                    products.add(product);
+                }
+            }
+        }
         return products;
     }
 
     private JsonNode findProductsArray(JsonNode props) {
-        // Try common paths for product data
-        String[] possiblePaths = {
-            "initialData/searchResult/itemStacks/0/items",
-            "initialData/items",
-            "products",
-            "searchResult/items",
-            "itemStacks/0/items"
-        };
-
-        for (String path : possiblePaths) {
+        for (String path : PRODUCT_ARRAY_PATHS) {
             JsonNode node = props;
             for (String segment : path.split("/")) {
                 if (node == null) break;
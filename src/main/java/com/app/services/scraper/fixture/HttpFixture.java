@@ -0,0 +1,57 @@
+package com.app.services.scraper.fixture;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.regex.Pattern;
+
+/**
+ * One recorded HTTP exchange: the request it answers and the response the store sent.
+ *
+ * @param key identifies the request independently of host and volatile request fields; see {@link #keyOf}
+ */
+public record HttpFixture(
+        String key,
+        String method,
+        String url,
+        int status,
+        String contentType,
+        String etag,
+        String lastModified,
+        String body) {
+
+    // Superstore requests carry fresh cart/session ids and today's date
+    private static final Pattern UUID = Pattern.compile(
+            "[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}");
+    private static final Pattern DATE_FIELD = Pattern.compile("(\"date\"\\s*:\\s*\")\\d{8}(\")");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    /**
+     * Key for a request: the method and the URL's path and query, plus for requests with a body
+     * a hash of the body with ids, dates and whitespace normalized. The host is left out so that
+     * fixtures recorded from the stores replay from any base URL.
+     */
+    public static String keyOf(String method, String url, String requestBody) {
+        URI uri = URI.create(url);
+        String path = uri.getRawPath() == null || uri.getRawPath().isEmpty() ? "/" : uri.getRawPath();
+        String key = method.toUpperCase() + " " + path + (uri.getRawQuery() != null ? "?" + uri.getRawQuery() : "");
+        if (requestBody == null || requestBody.isEmpty()) {
+            return key;
+        }
+        String normalized = UUID.matcher(requestBody).replaceAll("<id>");
+        normalized = DATE_FIELD.matcher(normalized).replaceAll("$1<date>$2");
+        normalized = WHITESPACE.matcher(normalized).replaceAll("");
+        return key + " " + sha256(normalized);
+    }
+
+    private static String sha256(String text) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 12);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
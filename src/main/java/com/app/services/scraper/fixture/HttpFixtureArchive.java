@@ -0,0 +1,71 @@
+package com.app.services.scraper.fixture;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * A gzip-compressed file of recorded fixtures, one JSON object per line. Each appended fixture
+ * is written as its own gzip member, so the file is readable at any point while recording and
+ * needs no closing.
+ */
+public class HttpFixtureArchive {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final Path file;
+
+    public HttpFixtureArchive(Path file) {
+        this.file = file;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    public synchronized void append(HttpFixture fixture) {
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            try (OutputStream out = Files.newOutputStream(file, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+                 GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+                gzip.write(MAPPER.writeValueAsBytes(fixture));
+                gzip.write('\n');
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not record fixture to " + file, e);
+        }
+    }
+
+    /**
+     * Reads the archive into a map by request key; a request recorded more than once keeps its
+     * latest response.
+     */
+    public Map<String, HttpFixture> load() throws IOException {
+        Map<String, HttpFixture> fixtures = new LinkedHashMap<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(file)), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isBlank()) {
+                    HttpFixture fixture = MAPPER.readValue(line, HttpFixture.class);
+                    fixtures.put(fixture.key(), fixture);
+                }
+            }
+        }
+        return fixtures;
+    }
+}
@@ -0,0 +1,164 @@
+package com.app.services.scraper.fixture;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Serves recorded fixtures over HTTP so scrapers can run offline against a local base URL.
+ * Requests are matched by {@link HttpFixture#keyOf}, so a fixture recorded from a store's host
+ * answers the same path on this server. Each response can be delayed by a fixed latency plus
+ * random jitter, and a fraction of requests can be answered with 503 to exercise retries and
+ * circuit breakers. Unknown requests get 404.
+ */
+@Slf4j
+public class HttpFixtureServer {
+
+    private final Map<String, HttpFixture> fixtures = new ConcurrentHashMap<>();
+    private final int port;
+    private final long latencyMs;
+    private final long jitterMs;
+    private final double errorRate;
+    private final AtomicLong served = new AtomicLong();
+    private final AtomicLong missed = new AtomicLong();
+    private final AtomicLong injectedErrors = new AtomicLong();
+    private HttpServer server;
+    private ExecutorService executor;
+
+    /**
+     * @param port      port to listen on; 0 picks a free one
+     * @param errorRate fraction of requests, 0 to 1, answered with 503
+     */
+    public HttpFixtureServer(int port, long latencyMs, long jitterMs, double errorRate) {
+        if (errorRate < 0 || errorRate > 1) {
+            throw new IllegalArgumentException("error rate must be between 0 and 1: " + errorRate);
+        }
+        this.port = port;
+        this.latencyMs = Math.max(0, latencyMs);
+        this.jitterMs = Math.max(0, jitterMs);
+        this.errorRate = errorRate;
+    }
+
+    public HttpFixtureServer load(List<Path> archives) throws IOException {
+        for (Path archive : archives) {
+            Map<String, HttpFixture> loaded = new HttpFixtureArchive(archive).load();
+            fixtures.putAll(loaded);
+            log.info("Loaded {} fixtures from {}", loaded.size(), archive);
+        }
+        return this;
+    }
+
+    public HttpFixtureServer add(HttpFixture fixture) {
+        fixtures.put(fixture.key(), fixture);
+        return this;
+    }
+
+    public synchronized void start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 0);
+        executor = Executors.newCachedThreadPool();
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+        server.start();
+        log.info("Fixture server serving {} fixtures at {}", fixtures.size(), getBaseUrl());
+    }
+
+    public synchronized void stop() {
+        if (server != null) {
+            server.stop(0);
+            executor.shutdownNow();
+            server = null;
+            log.info("Fixture server stopped: {} served, {} unknown, {} errors injected",
+                    served.get(), missed.get(), injectedErrors.get());
+        }
+    }
+
+    public String getBaseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    public long getServedCount() {
+        return served.get();
+    }
+
+    public long getMissedCount() {
+        return missed.get();
+    }
+
+    public long getInjectedErrorCount() {
+        return injectedErrors.get();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String requestBody;
+            try (InputStream in = exchange.getRequestBody()) {
+                requestBody = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            }
+            delay();
+
+            if (errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate) {
+                injectedErrors.incrementAndGet();
+                send(exchange, 503, "text/plain", "Injected failure");
+                return;
+            }
+
+            String key = HttpFixture.keyOf(exchange.getRequestMethod(), exchange.getRequestURI().toString(), requestBody);
+            HttpFixture fixture = fixtures.get(key);
+            if (fixture == null) {
+                missed.incrementAndGet();
+                log.debug("No fixture for {}", key);
+                send(exchange, 404, "text/plain", "No fixture for " + key);
+                return;
+            }
+
+            served.incrementAndGet();
+            if (fixture.etag() != null) {
+                exchange.getResponseHeaders().set("ETag", fixture.etag());
+                if (fixture.etag().equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                    exchange.sendResponseHeaders(304, -1);
+                    return;
+                }
+            }
+            if (fixture.lastModified() != null) {
+                exchange.getResponseHeaders().set("Last-Modified", fixture.lastModified());
+            }
+            send(exchange, fixture.status(), fixture.contentType(), fixture.body());
+        }
+    }
+
+    private void delay() {
+        long delayMs = latencyMs + (jitterMs > 0 ? ThreadLocalRandom.current().nextLong(jitterMs + 1) : 0);
+        if (delayMs > 0) {
+            try {
+                Thread.sleep(delayMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static void send(HttpExchange exchange, int status, String contentType, String body) throws IOException {
+        byte[] bytes = body != null ? body.getBytes(StandardCharsets.UTF_8) : new byte[0];
+        if (contentType != null) {
+            exchange.getResponseHeaders().set("Content-Type", contentType);
+        }
+        exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.app.config;
+
+import com.app.models.PriceRecord;
+import com.app.services.ScrapeLeaseService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PriceIntervalMigrationTest {
+
+    private static final LocalDateTime DAY_ONE = LocalDateTime.of(2024, 3, 1, 6, 0);
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private BulkOperations bulkOperations;
+
+    @Mock
+    private ScrapeLeaseService leaseService;
+
+    @Test
+    void migrate_CollapsesUnchangedConsecutiveRecords() {
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, PriceRecord.class)).thenReturn(bulkOperations);
+        when(mongoTemplate.stream(any(Query.class), eq(PriceRecord.class))).thenReturn(Stream.of(
+                record("r1", "p1", "4.99", DAY_ONE),
+                record("r2", "p1", "4.99", DAY_ONE.plusDays(1)),
+                record("r3", "p1", "3.99", DAY_ONE.plusDays(2)),
+                record("r4", "p1", "4.99", DAY_ONE.plusDays(3)),
+                record("r5", "p2", "4.99", DAY_ONE.plusDays(3))));
+
+        PriceIntervalMigration.MigrationResult result = migration().migrate();
+
+        assertEquals(5, result.scanned());
+        assertEquals(4, result.intervals());
+        assertEquals(1, result.removed());
+        verify(bulkOperations, times(1)).remove(any(Query.class));
+        // Every kept record gets firstSeenAt and observationCount
+        verify(bulkOperations, times(4)).updateOne(any(Query.class), any(Update.class));
+        verify(bulkOperations).execute();
+    }
+
+    @Test
+    void migrate_GapLongerThanMaxGap_StartsNewInterval() {
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, PriceRecord.class)).thenReturn(bulkOperations);
+        when(mongoTemplate.stream(any(Query.class), eq(PriceRecord.class))).thenReturn(Stream.of(
+                record("r1", "p1", "4.99", DAY_ONE),
+                record("r2", "p1", "4.99", DAY_ONE.plusDays(5))));
+
+        PriceIntervalMigration.MigrationResult result = migration().migrate();
+
+        assertEquals(2, result.intervals());
+        assertEquals(0, result.removed());
+        verify(bulkOperations, never()).remove(any(Query.class));
+    }
+
+    @Test
+    void run_AlreadyMigrated_DoesNothing() {
+        ScrapeLeaseService.Lease lease = new ScrapeLeaseService.Lease("price-interval-migration", "token");
+        when(leaseService.tryAcquire("price-interval-migration")).thenReturn(Optional.of(lease));
+        when(mongoTemplate.exists(any(Query.class), eq(PriceRecord.class))).thenReturn(false);
+
+        migration().run();
+
+        verify(mongoTemplate, never()).stream(any(Query.class), eq(PriceRecord.class));
+        verify(leaseService).release(lease);
+    }
+
+    @Test
+    void run_LeaseHeldByAnotherNode_DoesNothing() {
+        when(leaseService.tryAcquire("price-interval-migration")).thenReturn(Optional.empty());
+
+        migration().run();
+
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    @Test
+    void run_Disabled_DoesNothing() {
+        new PriceIntervalMigration(mongoTemplate, leaseService, false, 36).run();
+
+        verifyNoInteractions(mongoTemplate, leaseService);
+    }
+
+    private PriceIntervalMigration migration() {
+        return new PriceIntervalMigration(mongoTemplate, leaseService, true, 36);
+    }
+
+    private static PriceRecord record(String id, String productId, String price, LocalDateTime scrapedAt) {
+        PriceRecord record = PriceRecord.builder()
+                .productId(productId)
+                .storeId("store-123")
+                .regularPrice(new BigDecimal(price))
+                .inStock(true)
+                .scrapedAt(scrapedAt)
+                .build();
+        record.setId(id);
+        return record;
+    }
+}
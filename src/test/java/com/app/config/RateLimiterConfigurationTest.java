@@ -0,0 +1,37 @@
+package com.app.config;
+
+import io.github.resilience4j.ratelimiter.RateLimiterConfig;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimiterConfigurationTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    @Test
+    void limiterConfig_WholeRate_RefreshesEverySecond() {
+        RateLimiterConfig config = RateLimiterConfiguration.limiterConfig(3, TIMEOUT);
+
+        assertEquals(3, config.getLimitForPeriod());
+        assertEquals(Duration.ofSeconds(1), config.getLimitRefreshPeriod());
+    }
+
+    @Test
+    void limiterConfig_FractionalRate_NeverExceedsIt() {
+        for (double rps : new double[]{0.3, 0.5, 1.3, 2.5, 7.7}) {
+            RateLimiterConfig config = RateLimiterConfiguration.limiterConfig(rps, TIMEOUT);
+
+            double actual = config.getLimitForPeriod() * 1e9 / config.getLimitRefreshPeriod().toNanos();
+            assertTrue(actual <= rps, rps + " requests/second became " + actual);
+            assertTrue(actual > rps * 0.99, rps + " requests/second became " + actual);
+        }
+    }
+
+    @Test
+    void limiterConfig_NonPositiveRate_Throws() {
+        assertThrows(IllegalArgumentException.class, () -> RateLimiterConfiguration.limiterConfig(0, TIMEOUT));
+    }
+}
@@ -2,6 +2,8 @@ package com.app.controllers;
 
 import com.app.models.ScrapeJob;
 import com.app.services.ScrapeOrchestrationService;
+import com.app.services.ScrapeProgressBroadcaster;
+import com.app.services.scraper.AdaptivePacer;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -10,6 +12,7 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import com.app.exceptions.ResourceNotFoundException;
 
@@ -28,6 +31,12 @@ class ScrapeControllerTest {
     @Mock
     private ScrapeOrchestrationService scrapeOrchestrationService;
 
+    @Mock
+    private ScrapeProgressBroadcaster scrapeProgressBroadcaster;
+
+    @Mock
+    private AdaptivePacer adaptivePacer;
+
     @InjectMocks
     private ScrapeController scrapeController;
 
@@ -130,6 +139,45 @@ class ScrapeControllerTest {
                 () -> scrapeController.getJobStatus("nonexistent"));
     }
 
+    @Test
+    void resumeJob_Success() {
+        testJob.setStatus(ScrapeJob.JobStatus.PENDING);
+        when(scrapeOrchestrationService.getJob("job-123")).thenReturn(Optional.of(testJob));
+        when(scrapeOrchestrationService.resumeJob("job-123")).thenReturn(testJob);
+
+        ResponseEntity<ScrapeJob> response = scrapeController.resumeJob("job-123");
+
+        assertEquals(HttpStatus.ACCEPTED, response.getStatusCode());
+        assertEquals(testJob, response.getBody());
+    }
+
+    @Test
+    void resumeJob_NotFound() {
+        when(scrapeOrchestrationService.getJob("nonexistent")).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class,
+                () -> scrapeController.resumeJob("nonexistent"));
+        verify(scrapeOrchestrationService, never()).resumeJob(anyString());
+    }
+
+    @Test
+    void streamJobEvents_Found_SubscribesToJob() {
+        SseEmitter emitter = new SseEmitter();
+        when(scrapeOrchestrationService.getJob("job-123")).thenReturn(Optional.of(testJob));
+        when(scrapeProgressBroadcaster.subscribe(eq(testJob), any())).thenReturn(emitter);
+
+        assertSame(emitter, scrapeController.streamJobEvents("job-123"));
+    }
+
+    @Test
+    void streamJobEvents_NotFound() {
+        when(scrapeOrchestrationService.getJob("nonexistent")).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class,
+                () -> scrapeController.streamJobEvents("nonexistent"));
+        verifyNoInteractions(scrapeProgressBroadcaster);
+    }
+
     @Test
     void getLatestJob_Found() {
         testJob.setStatus(ScrapeJob.JobStatus.COMPLETED);
@@ -158,4 +206,16 @@ class ScrapeControllerTest {
 
         verify(scrapeOrchestrationService).getLatestJob("WALMART");
     }
+
+    @Test
+    void getPacing_ReturnsEachStoresRate() {
+        AdaptivePacer.PacingStatus status = new AdaptivePacer.PacingStatus("RCSS", 1.5, 0.2, 5, List.of(
+                new AdaptivePacer.RateChange(LocalDateTime.now(), 1.5, "healthy (p95 300ms, error rate 0.00)")));
+        when(adaptivePacer.getStatuses()).thenReturn(List.of(status));
+
+        ResponseEntity<List<AdaptivePacer.PacingStatus>> response = scrapeController.getPacing();
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(1.5, response.getBody().get(0).requestsPerSecond());
+    }
 }
@@ -95,6 +95,30 @@ class PriceAnalysisServiceTest {
         assertEquals(30.0, drop.dropPercentage(), 0.1);
     }
 
+    @Test
+    void findPriceDrop_LowerThanLastKnown_ReturnsDropWithoutQueries() {
+        Optional<PriceAnalysisService.PriceDrop> drop = priceAnalysisService.findPriceDrop(
+                testProduct, testStore, previousRecord, currentRecord);
+
+        assertTrue(drop.isPresent());
+        assertEquals(testProduct, drop.get().product());
+        assertEquals(new BigDecimal("3.00"), drop.get().dropAmount());
+        assertEquals(30.0, drop.get().dropPercentage(), 0.1);
+        verifyNoInteractions(priceRecordRepository, productRepository, storeRepository);
+    }
+
+    @Test
+    void findPriceDrop_NoLastKnownPrice_ReturnsEmpty() {
+        assertTrue(priceAnalysisService.findPriceDrop(testProduct, testStore, null, currentRecord).isEmpty());
+    }
+
+    @Test
+    void findPriceDrop_PriceIncreased_ReturnsEmpty() {
+        currentRecord.setRegularPrice(new BigDecimal("12.00"));
+
+        assertTrue(priceAnalysisService.findPriceDrop(testProduct, testStore, previousRecord, currentRecord).isEmpty());
+    }
+
     @Test
     void detectPriceDrops_NoDrop_WhenPriceIncreased() {
         currentRecord.setRegularPrice(new BigDecimal("12.00"));
@@ -519,6 +543,35 @@ class PriceAnalysisServiceTest {
         assertTrue(result.isEmpty());
     }
 
+    @Test
+    void getProductPriceHistory_IntervalRecord_AddsPointForEachDayCovered() {
+        LocalDateTime now = LocalDateTime.now();
+        PriceRecord interval = PriceRecord.builder()
+                .productId("prod-123").storeId("store-123")
+                .regularPrice(new BigDecimal("10.00")).onSale(false)
+                .firstSeenAt(now.minusDays(3)).scrapedAt(now.minusDays(1))
+                .observationCount(3).build();
+
+        PriceRecord current = PriceRecord.builder()
+                .productId("prod-123").storeId("store-123")
+                .regularPrice(new BigDecimal("8.00")).onSale(false)
+                .firstSeenAt(now).scrapedAt(now)
+                .observationCount(1).build();
+
+        when(productRepository.findById("prod-123")).thenReturn(Optional.of(testProduct));
+        when(storeRepository.findById("store-123")).thenReturn(Optional.of(testStore));
+        when(priceRecordRepository.findByProductIdAndScrapedAtBetween(eq("prod-123"), any(), any()))
+                .thenReturn(List.of(interval, current));
+
+        PriceAnalysisService.PriceHistory history =
+                priceAnalysisService.getProductPriceHistory("prod-123", "store-123", 7);
+
+        assertEquals(4, history.pricePoints().size());
+        assertEquals(new BigDecimal("10.00"), history.pricePoints().get(0).price());
+        assertEquals(new BigDecimal("10.00"), history.pricePoints().get(2).price());
+        assertEquals(new BigDecimal("8.00"), history.pricePoints().get(3).price());
+    }
+
     @Test
     void getProductPriceHistory_NoRecords_ReturnsEmptyPoints() {
         when(productRepository.findById("prod-123")).thenReturn(Optional.of(testProduct));
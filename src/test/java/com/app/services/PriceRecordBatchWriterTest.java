@@ -0,0 +1,243 @@
+package com.app.services;
+
+import com.app.models.PriceRecord;
+import com.app.services.scraper.ScrapeMetrics;
+import com.mongodb.bulk.BulkWriteError;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PriceRecordBatchWriterTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private BulkOperations bulkOperations;
+
+    private final ScrapeMetrics scrapeMetrics = new ScrapeMetrics(new SimpleMeterRegistry());
+
+    private List<String> errors;
+
+    @BeforeEach
+    void setUp() {
+        errors = new ArrayList<>();
+    }
+
+    @Test
+    void add_BelowBatchSize_DoesNotWrite() {
+        PriceRecordBatchWriter writer = new PriceRecordBatchWriter(mongoTemplate, scrapeMetrics, 3, 60_000, true, 36);
+        PriceRecordBatchWriter.Batch batch = writer.openBatch("TEST", errors);
+
+        batch.add(record("p1"), "Product 1");
+        batch.add(record("p2"), "Product 2");
+
+        assertEquals(2, batch.getPendingCount());
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    @Test
+    void add_ReachesBatchSize_FlushesWithUnorderedBulkInsert() {
+        stubBulkOps();
+        PriceRecordBatchWriter writer = new PriceRecordBatchWriter(mongoTemplate, scrapeMetrics, 2, 60_000, true, 36);
+        PriceRecordBatchWriter.Batch batch = writer.openBatch("TEST", errors);
+
+        batch.add(record("p1"), "Product 1");
+        batch.add(record("p2"), "Product 2");
+
+        verify(mongoTemplate).bulkOps(BulkOperations.BulkMode.UNORDERED, PriceRecord.class);
+        verify(bulkOperations).insert(argThat((List<?> list) -> list.size() == 2));
+        assertEquals(0, batch.getPendingCount());
+        assertEquals(2, batch.getInsertedCount());
+    }
+
+    @Test
+    void add_FlushIntervalElapsed_FlushesEarly() {
+        stubBulkOps();
+        PriceRecordBatchWriter writer = new PriceRecordBatchWriter(mongoTemplate, scrapeMetrics, 100, 0, true, 36);
+        PriceRecordBatchWriter.Batch batch = writer.openBatch("TEST", errors);
+
+        batch.add(record("p1"), "Product 1");
+
+        assertEquals(0, batch.getPendingCount());
+        assertEquals(1, batch.getInsertedCount());
+    }
+
+    @Test
+    void flush_PartialBulkFailure_AttributesErrorsToProducts() {
+        stubBulkOps();
+        BulkOperationException exception = mock(BulkOperationException.class);
+        when(exception.getErrors()).thenReturn(List.of(
+                new BulkWriteError(11000, "duplicate key", new BsonDocument(), 1)));
+        when(bulkOperations.execute()).thenThrow(exception);
+
+        PriceRecordBatchWriter writer = new PriceRecordBatchWriter(mongoTemplate, scrapeMetrics, 100, 60_000, true, 36);
+        PriceRecordBatchWriter.Batch batch = writer.openBatch("TEST", errors);
+        batch.add(record("p1"), "Product 1");
+        batch.add(record("p2"), "Product 2");
+        batch.add(record("p3"), "Product 3");
+
+        batch.flush();
+
+        assertEquals(2, batch.getInsertedCount());
+        assertEquals(1, batch.getFailedCount());
+        assertEquals(1, errors.size());
+        assertTrue(errors.get(0).contains("Product 2"));
+    }
+
+    @Test
+    void flush_WholeBatchFails_CountsAllAsFailed() {
+        stubBulkOps();
+        when(bulkOperations.execute()).thenThrow(new RuntimeException("connection reset"));
+
+        PriceRecordBatchWriter writer = new PriceRecordBatchWriter(mongoTemplate, scrapeMetrics, 100, 60_000, true, 36);
+        PriceRecordBatchWriter.Batch batch = writer.openBatch("TEST", errors);
+        batch.add(record("p1"), "Product 1");
+        batch.add(record("p2"), "Product 2");
+
+        batch.flush();
+
+        assertEquals(0, batch.getInsertedCount());
+        assertEquals(2, batch.getFailedCount());
+        assertEquals(1, errors.size());
+        assertEquals(0, batch.getPendingCount());
+    }
+
+    @Test
+    void flush_EmptyBatch_DoesNothing() {
+        PriceRecordBatchWriter writer = new PriceRecordBatchWriter(mongoTemplate, scrapeMetrics, 100, 60_000, true, 36);
+
+        writer.openBatch("TEST", errors).flush();
+
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    @Test
+    void addObservation_SamePriceState_ExtendsLatestRecord() {
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, PriceRecord.class)).thenReturn(bulkOperations);
+        PriceRecordBatchWriter writer = new PriceRecordBatchWriter(mongoTemplate, scrapeMetrics, 100, 60_000, true, 36);
+        PriceRecordBatchWriter.Batch batch = writer.openBatch("TEST", errors);
+        PriceRecord latest = record("p1");
+        latest.setId("rec-1");
+        latest.setFirstSeenAt(LocalDateTime.now().minusDays(2));
+        latest.setScrapedAt(LocalDateTime.now().minusDays(1));
+        latest.setObservationCount(3);
+        PriceRecord observation = record("p1");
+        observation.setScrapedAt(LocalDateTime.now());
+
+        assertTrue(batch.addObservation(observation, latest, "Product 1"));
+        batch.flush();
+
+        verify(bulkOperations, never()).insert(anyList());
+        verify(bulkOperations).updateOne(any(Query.class), any(Update.class));
+        assertEquals(observation.getScrapedAt(), latest.getScrapedAt());
+        assertEquals(4, latest.getObservationCount());
+        assertEquals(1, batch.getExtendedCount());
+        assertEquals(0, batch.getInsertedCount());
+    }
+
+    @Test
+    void addObservation_LegacyRecord_KeepsItsOriginalStart() {
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, PriceRecord.class)).thenReturn(bulkOperations);
+        PriceRecordBatchWriter writer = new PriceRecordBatchWriter(mongoTemplate, scrapeMetrics, 100, 60_000, true, 36);
+        PriceRecordBatchWriter.Batch batch = writer.openBatch("TEST", errors);
+        LocalDateTime originalScrape = LocalDateTime.now().minusDays(1);
+        PriceRecord latest = record("p1");
+        latest.setId("rec-1");
+        latest.setScrapedAt(originalScrape);
+        PriceRecord observation = record("p1");
+        observation.setScrapedAt(LocalDateTime.now());
+
+        assertTrue(batch.addObservation(observation, latest, "Product 1"));
+        batch.flush();
+
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(bulkOperations).updateOne(any(Query.class), update.capture());
+        Document set = update.getValue().getUpdateObject().get("$set", Document.class);
+        assertEquals(observation.getScrapedAt(), set.get("scrapedAt"));
+        assertEquals(originalScrape, set.get("firstSeenAt"));
+        assertEquals(2, set.get("observationCount"));
+        assertNull(update.getValue().getUpdateObject().get("$inc"));
+        assertEquals(originalScrape, latest.getFirstSeenAt());
+        assertEquals(originalScrape, latest.intervalStart());
+        assertEquals(2, latest.getObservationCount());
+    }
+
+    @Test
+    void addObservation_PriceChanged_InsertsNewInterval() {
+        PriceRecordBatchWriter writer = new PriceRecordBatchWriter(mongoTemplate, scrapeMetrics, 100, 60_000, true, 36);
+        PriceRecordBatchWriter.Batch batch = writer.openBatch("TEST", errors);
+        PriceRecord latest = record("p1");
+        latest.setId("rec-1");
+        latest.setScrapedAt(LocalDateTime.now().minusDays(1));
+        PriceRecord observation = record("p1");
+        observation.setRegularPrice(new BigDecimal("3.99"));
+        observation.setScrapedAt(LocalDateTime.now());
+
+        assertFalse(batch.addObservation(observation, latest, "Product 1"));
+
+        assertEquals(1, batch.getPendingCount());
+        assertEquals(observation.getScrapedAt(), observation.getFirstSeenAt());
+        assertEquals(1, observation.getObservationCount());
+    }
+
+    @Test
+    void addObservation_LatestSeenBeforeMaxGap_InsertsNewInterval() {
+        PriceRecordBatchWriter writer = new PriceRecordBatchWriter(mongoTemplate, scrapeMetrics, 100, 60_000, true, 36);
+        PriceRecordBatchWriter.Batch batch = writer.openBatch("TEST", errors);
+        PriceRecord latest = record("p1");
+        latest.setId("rec-1");
+        latest.setScrapedAt(LocalDateTime.now().minusDays(3));
+        PriceRecord observation = record("p1");
+        observation.setScrapedAt(LocalDateTime.now());
+
+        assertFalse(batch.addObservation(observation, latest, "Product 1"));
+    }
+
+    @Test
+    void addObservation_IntervalsDisabled_AlwaysInserts() {
+        PriceRecordBatchWriter writer = new PriceRecordBatchWriter(mongoTemplate, scrapeMetrics, 100, 60_000, false, 36);
+        PriceRecordBatchWriter.Batch batch = writer.openBatch("TEST", errors);
+        PriceRecord latest = record("p1");
+        latest.setId("rec-1");
+        latest.setScrapedAt(LocalDateTime.now().minusHours(1));
+        PriceRecord observation = record("p1");
+        observation.setScrapedAt(LocalDateTime.now());
+
+        assertFalse(batch.addObservation(observation, latest, "Product 1"));
+    }
+
+    private void stubBulkOps() {
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, PriceRecord.class)).thenReturn(bulkOperations);
+        when(bulkOperations.insert(anyList())).thenReturn(bulkOperations);
+    }
+
+    private PriceRecord record(String productId) {
+        return PriceRecord.builder()
+                .productId(productId)
+                .storeId("store-123")
+                .regularPrice(new BigDecimal("4.99"))
+                .build();
+    }
+}
@@ -2,6 +2,7 @@ package com.app.services;
 
 import com.app.models.*;
 import com.app.services.scraper.StoreScraper;
+import org.bson.Document;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -9,6 +10,9 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 
 import java.math.BigDecimal;
 import java.util.Collections;
@@ -30,6 +34,9 @@ class ProductMatchingServiceTest {
     @Mock
     private CategoryRepository categoryRepository;
 
+    @Mock
+    private MongoTemplate mongoTemplate;
+
     @InjectMocks
     private ProductMatchingService productMatchingService;
 
@@ -144,7 +151,6 @@ class ProductMatchingServiceTest {
                 .thenReturn(Optional.empty());
         when(productRepository.findByNormalizedNameAndSizeAndUnit("organic bananas 1kg", "1kg", "kg"))
                 .thenReturn(List.of(existingProduct));
-        when(productRepository.save(any(Product.class))).thenAnswer(inv -> inv.getArgument(0));
 
         // Category lookup for updateProductIfNeeded
         Category existingCat = Category.builder().name("Fruits").code("fruits").storeId("store-123").build();
@@ -156,6 +162,11 @@ class ProductMatchingServiceTest {
 
         assertTrue(result.getStoreProductIds().containsKey("TEST"));
         assertEquals("sku-12345", result.getStoreProductIds().get("TEST"));
+        // Only this store's entry is written, so other stores' mappings added since are kept
+        Document set = writtenFields();
+        assertEquals("sku-12345", set.get("storeProductIds.TEST"));
+        assertFalse(set.containsKey("storeProductIds"));
+        verify(productRepository, never()).save(any(Product.class));
     }
 
     @Test
@@ -164,12 +175,12 @@ class ProductMatchingServiceTest {
 
         when(productRepository.findByStoreCodeAndStoreProductId("TEST", "sku-12345"))
                 .thenReturn(Optional.of(existingProduct));
-        when(productRepository.save(any(Product.class))).thenAnswer(inv -> inv.getArgument(0));
 
         Product result = productMatchingService.findOrCreateProduct(scrapedProduct, testStore);
 
         assertEquals("http://example.com/banana.jpg", result.getImageUrl());
-        verify(productRepository).save(existingProduct);
+        assertEquals("http://example.com/banana.jpg", writtenFields().get("imageUrl"));
+        verify(productRepository, never()).save(any(Product.class));
     }
 
     @Test
@@ -178,12 +189,12 @@ class ProductMatchingServiceTest {
 
         when(productRepository.findByStoreCodeAndStoreProductId("TEST", "sku-12345"))
                 .thenReturn(Optional.of(existingProduct));
-        when(productRepository.save(any(Product.class))).thenAnswer(inv -> inv.getArgument(0));
 
         Product result = productMatchingService.findOrCreateProduct(scrapedProduct, testStore);
 
         assertEquals("Dole", result.getBrand());
-        verify(productRepository).save(existingProduct);
+        assertEquals("Dole", writtenFields().get("brand"));
+        verify(productRepository, never()).save(any(Product.class));
     }
 
     @Test
@@ -425,7 +436,6 @@ class ProductMatchingServiceTest {
                 .thenReturn(Optional.empty());
         when(productRepository.findByNormalizedName("organic bananas"))
                 .thenReturn(List.of(existingNoSize));
-        when(productRepository.save(any(Product.class))).thenAnswer(inv -> inv.getArgument(0));
 
         Product result = productMatchingService.findOrCreateProduct(scrapedNoSize, testStore);
 
@@ -452,7 +462,6 @@ class ProductMatchingServiceTest {
                 .thenReturn(Collections.emptyList());
         when(productRepository.findByNormalizedName("organic bananas 1kg"))
                 .thenReturn(List.of(sizelessProduct));
-        when(productRepository.save(any(Product.class))).thenAnswer(inv -> inv.getArgument(0));
 
         Product result = productMatchingService.findOrCreateProduct(scrapedProduct, testStore);
 
@@ -483,4 +492,89 @@ class ProductMatchingServiceTest {
         assertEquals("2kg", result.getSize());
         assertEquals("kg", result.getUnit());
     }
+
+    @Test
+    void loadIdentityCache_IndexesStoreProducts() {
+        when(productRepository.findByStoreCode("TEST")).thenReturn(List.of(existingProduct));
+
+        ProductIdentityCache cache = productMatchingService.loadIdentityCache(testStore);
+
+        assertEquals(1, cache.size());
+        assertEquals("TEST", cache.getStoreCode());
+    }
+
+    @Test
+    void findOrCreateProduct_WithCache_HitsWithoutQuerying() {
+        when(productRepository.findByStoreCode("TEST")).thenReturn(List.of(existingProduct));
+        ProductIdentityCache cache = productMatchingService.loadIdentityCache(testStore);
+
+        Product first = productMatchingService.findOrCreateProduct(scrapedProduct, testStore, cache);
+        Product second = productMatchingService.findOrCreateProduct(scrapedProduct, testStore, cache);
+
+        assertEquals("prod-123", first.getId());
+        assertSame(first, second);
+        assertEquals(2, cache.getHits());
+        verify(productRepository, never()).findByStoreCodeAndStoreProductId(anyString(), anyString());
+        verify(productRepository, never()).findByNormalizedNameAndSizeAndUnit(anyString(), anyString(), anyString());
+    }
+
+    @Test
+    void findOrCreateProduct_WithCache_LoadsNameOnceAndMatchesOtherStoreProduct() {
+        Product otherStoreProduct = Product.builder()
+                .name("Organic Bananas 1kg")
+                .normalizedName("organic bananas 1kg")
+                .size("1kg")
+                .unit("kg")
+                .categoryId("cat-123")
+                .imageUrl("http://example.com/banana.jpg")
+                .brand("Dole")
+                .storeProductIds(new HashMap<>(Map.of("OTHER", "other-sku")))
+                .build();
+        otherStoreProduct.setId("prod-other");
+
+        when(productRepository.findByStoreCode("TEST")).thenReturn(List.of());
+        when(productRepository.findByNormalizedName("organic bananas 1kg")).thenReturn(List.of(otherStoreProduct));
+        ProductIdentityCache cache = productMatchingService.loadIdentityCache(testStore);
+
+        Product result = productMatchingService.findOrCreateProduct(scrapedProduct, testStore, cache);
+        // The new store mapping is registered, so the next sighting is a store-id hit
+        Product again = productMatchingService.findOrCreateProduct(scrapedProduct, testStore, cache);
+
+        assertEquals("prod-other", result.getId());
+        assertSame(result, again);
+        assertEquals("sku-12345", result.getStoreProductIds().get("TEST"));
+        verify(productRepository, times(1)).findByNormalizedName("organic bananas 1kg");
+    }
+
+    @Test
+    void findOrCreateProduct_WithCache_RegistersCreatedProduct() {
+        when(productRepository.findByStoreCode("TEST")).thenReturn(List.of());
+        when(productRepository.findByNormalizedName("organic bananas 1kg")).thenReturn(List.of());
+        when(categoryRepository.findByStoreIdAndCode("store-123", "fruits")).thenReturn(Optional.empty());
+        Category category = Category.builder().name("Fruits").code("fruits").storeId("store-123").build();
+        category.setId("cat-new");
+        when(categoryRepository.save(any(Category.class))).thenReturn(category);
+        when(productRepository.save(any(Product.class))).thenAnswer(inv -> {
+            Product p = inv.getArgument(0);
+            p.setId("prod-new");
+            return p;
+        });
+        ProductIdentityCache cache = productMatchingService.loadIdentityCache(testStore);
+
+        Product created = productMatchingService.findOrCreateProduct(scrapedProduct, testStore, cache);
+        Product again = productMatchingService.findOrCreateProduct(scrapedProduct, testStore, cache);
+
+        assertEquals("prod-new", created.getId());
+        assertSame(created, again);
+        verify(productRepository, times(1)).save(any(Product.class));
+    }
+
+    // Every field set by the field updates written for products
+    private Document writtenFields() {
+        ArgumentCaptor<Update> updates = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate, atLeastOnce()).updateFirst(any(Query.class), updates.capture(), eq(Product.class));
+        Document fields = new Document();
+        updates.getAllValues().forEach(update -> fields.putAll(update.getUpdateObject().get("$set", Document.class)));
+        return fields;
+    }
 }
@@ -0,0 +1,110 @@
+package com.app.services;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScrapeJobExecutorTest {
+
+    private ScrapeJobExecutor executor;
+
+    @AfterEach
+    void tearDown() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void submit_SameStore_RunsJobsSerially() throws Exception {
+        executor = new ScrapeJobExecutor(4, 5);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(2);
+        List<String> order = new CopyOnWriteArrayList<>();
+
+        executor.submit("TEST", () -> {
+            await(release);
+            order.add("first");
+            done.countDown();
+        });
+        executor.submit("TEST", () -> {
+            order.add("second");
+            done.countDown();
+        });
+
+        assertEquals(1, executor.getQueueDepth("TEST"));
+        assertEquals(1, executor.getStats().queuedByStore().get("TEST"));
+
+        release.countDown();
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of("first", "second"), order);
+    }
+
+    @Test
+    void submit_ManyStores_RespectsConcurrencyLimit() throws Exception {
+        executor = new ScrapeJobExecutor(2, 5);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(6);
+
+        for (int i = 0; i < 6; i++) {
+            executor.submit("STORE" + i, () -> {
+                int now = running.incrementAndGet();
+                maxRunning.accumulateAndGet(now, Math::max);
+                sleep(50);
+                running.decrementAndGet();
+                done.countDown();
+            });
+        }
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertTrue(maxRunning.get() <= 2);
+        assertEquals(2, executor.getStats().maxConcurrentJobs());
+    }
+
+    @Test
+    void submit_JobThrows_NextQueuedJobStillRuns() throws Exception {
+        executor = new ScrapeJobExecutor(1, 5);
+        CountDownLatch done = new CountDownLatch(1);
+
+        executor.submit("TEST", () -> {
+            throw new IllegalStateException("boom");
+        });
+        executor.submit("TEST", done::countDown);
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void submit_AfterShutdown_Rejects() {
+        executor = new ScrapeJobExecutor(1, 1);
+        executor.shutdown();
+
+        assertThrows(RejectedExecutionException.class, () -> executor.submit("TEST", () -> {}));
+        assertTrue(executor.getStats().shuttingDown());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.app.services;
+
+import com.app.models.ScrapeLease;
+import com.mongodb.client.result.UpdateResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ScrapeLeaseServiceTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    private ScrapeLeaseService leaseService;
+
+    @BeforeEach
+    void setUp() {
+        leaseService = new ScrapeLeaseService(mongoTemplate, 120, "node-a");
+    }
+
+    @Test
+    void tryAcquire_FreeLease_IsHeldUntilReleased() {
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(ScrapeLease.class))).thenReturn(new ScrapeLease());
+
+        Optional<ScrapeLeaseService.Lease> lease = leaseService.tryAcquire("scrape:TEST");
+
+        assertTrue(lease.isPresent());
+        assertTrue(leaseService.isHeld(lease.get()));
+
+        leaseService.release(lease.get());
+
+        assertFalse(leaseService.isHeld(lease.get()));
+        verify(mongoTemplate).remove(any(Query.class), eq(ScrapeLease.class));
+    }
+
+    @Test
+    void tryAcquire_HeldByAnotherNode_ReturnsEmpty() {
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(ScrapeLease.class))).thenThrow(new DuplicateKeyException("E11000 duplicate key"));
+
+        assertTrue(leaseService.tryAcquire("scrape:TEST").isEmpty());
+    }
+
+    @Test
+    void renewHeldLeases_LeaseTakenOver_StopsHoldingIt() {
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(ScrapeLease.class))).thenReturn(new ScrapeLease());
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(ScrapeLease.class)))
+                .thenReturn(UpdateResult.acknowledged(0, 0L, null));
+        ScrapeLeaseService.Lease lease = leaseService.tryAcquire("scrape:TEST").orElseThrow();
+
+        leaseService.renewHeldLeases();
+
+        assertFalse(leaseService.isHeld(lease));
+    }
+
+    @Test
+    void renewHeldLeases_StillOwned_KeepsHoldingIt() {
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(ScrapeLease.class))).thenReturn(new ScrapeLease());
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(ScrapeLease.class)))
+                .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+        ScrapeLeaseService.Lease lease = leaseService.tryAcquire("scrape:TEST").orElseThrow();
+
+        leaseService.renewHeldLeases();
+
+        assertTrue(leaseService.isHeld(lease));
+    }
+
+    @Test
+    void heldElsewhereWithPrefix_ReturnsNamesWithoutPrefix() {
+        when(mongoTemplate.find(any(Query.class), eq(ScrapeLease.class)))
+                .thenReturn(List.of(ScrapeLease.builder().name("scrape-worker:WALMART").owner("node-b").build()));
+
+        assertEquals(Set.of("WALMART"), leaseService.heldElsewhereWithPrefix("scrape-worker:"));
+    }
+}
@@ -1,18 +1,26 @@
 package com.app.services;
 
 import com.app.models.*;
+import com.app.services.scraper.ScrapeMetrics;
 import com.app.services.scraper.StoreScraper;
+import io.github.resilience4j.ratelimiter.RateLimiter;
+import io.github.resilience4j.ratelimiter.RateLimiterConfig;
+import io.github.resilience4j.ratelimiter.RateLimiterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -45,6 +53,30 @@ class ScrapeOrchestrationServiceTest {
     @Mock
     private TelegramNotificationService telegramNotificationService;
 
+    @Mock
+    private ScrapeJobExecutor scrapeJobExecutor;
+
+    @Mock
+    private PriceRecordBatchWriter priceRecordBatchWriter;
+
+    @Mock
+    private RateLimiterRegistry rateLimiterRegistry;
+
+    @Mock
+    private ScrapeLeaseService scrapeLeaseService;
+
+    @Mock
+    private ScrapeWorkQueue scrapeWorkQueue;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private ScrapedPageFingerprintRepository pageFingerprintRepository;
+
+    @Mock
+    private ScrapeMetrics scrapeMetrics;
+
     @InjectMocks
     private ScrapeOrchestrationService scrapeOrchestrationService;
 
@@ -76,6 +108,7 @@ class ScrapeOrchestrationServiceTest {
         when(storeRepository.findByCode("TEST")).thenReturn(Optional.of(testStore));
         when(scrapeJobRepository.existsByStoreIdAndStatus("store-123", ScrapeJob.JobStatus.RUNNING))
                 .thenReturn(false);
+        when(scrapeLeaseService.tryAcquire(anyString())).thenReturn(Optional.of(lease()));
         when(scrapeJobRepository.save(any(ScrapeJob.class))).thenReturn(testJob);
 
         ScrapeJob result = scrapeOrchestrationService.triggerScrape("TEST");
@@ -83,6 +116,39 @@ class ScrapeOrchestrationServiceTest {
         assertNotNull(result);
         assertEquals("TEST", result.getStoreCode());
         verify(scrapeJobRepository).save(any(ScrapeJob.class));
+        verify(scrapeJobExecutor).submit(eq("TEST"), any(Runnable.class));
+    }
+
+    @Test
+    void triggerScrape_ExecutorRejects_MarksJobFailed() {
+        when(storeRepository.findByCode("TEST")).thenReturn(Optional.of(testStore));
+        when(scrapeJobRepository.existsByStoreIdAndStatus("store-123", ScrapeJob.JobStatus.RUNNING))
+                .thenReturn(false);
+        when(scrapeLeaseService.tryAcquire(anyString())).thenReturn(Optional.of(lease()));
+        when(scrapeJobRepository.save(any(ScrapeJob.class))).thenReturn(testJob);
+        doThrow(new RejectedExecutionException("Scrape job executor is shutting down"))
+                .when(scrapeJobExecutor).submit(eq("TEST"), any(Runnable.class));
+
+        assertThrows(IllegalStateException.class,
+                () -> scrapeOrchestrationService.triggerScrape("TEST"));
+
+        assertEquals(ScrapeJob.JobStatus.FAILED, testJob.getStatus());
+        assertNotNull(testJob.getCompletedAt());
+        verify(scrapeLeaseService).release(lease());
+    }
+
+    @Test
+    void triggerScrape_LeaseHeldByAnotherNode_ThrowsIllegalState() {
+        when(storeRepository.findByCode("TEST")).thenReturn(Optional.of(testStore));
+        when(scrapeJobRepository.existsByStoreIdAndStatus("store-123", ScrapeJob.JobStatus.RUNNING))
+                .thenReturn(false);
+        when(scrapeLeaseService.tryAcquire("scrape:TEST")).thenReturn(Optional.empty());
+
+        assertThrows(IllegalStateException.class,
+                () -> scrapeOrchestrationService.triggerScrape("TEST"));
+
+        verify(scrapeJobRepository, never()).save(any(ScrapeJob.class));
+        verifyNoInteractions(scrapeJobExecutor);
     }
 
     @Test
@@ -134,6 +200,7 @@ class ScrapeOrchestrationServiceTest {
         when(storeRepository.findByCode("S2")).thenReturn(Optional.of(store2));
         when(scrapeJobRepository.existsByStoreIdAndStatus(anyString(), eq(ScrapeJob.JobStatus.RUNNING)))
                 .thenReturn(false);
+        when(scrapeLeaseService.tryAcquire(anyString())).thenReturn(Optional.of(lease()));
         when(scrapeJobRepository.save(any(ScrapeJob.class)))
                 .thenReturn(testJob)
                 .thenReturn(job2);
@@ -161,6 +228,7 @@ class ScrapeOrchestrationServiceTest {
                 .thenReturn(true);
         when(scrapeJobRepository.existsByStoreIdAndStatus("store-456", ScrapeJob.JobStatus.RUNNING))
                 .thenReturn(false);
+        when(scrapeLeaseService.tryAcquire(anyString())).thenReturn(Optional.of(lease()));
 
         ScrapeJob job2 = ScrapeJob.builder()
                 .storeId("store-456")
@@ -184,6 +252,183 @@ class ScrapeOrchestrationServiceTest {
         assertTrue(result.isEmpty());
     }
 
+    @Test
+    void resumeJob_Resumable_ResubmitsJob() {
+        testJob.setStatus(ScrapeJob.JobStatus.RESUMABLE);
+        testJob.setCompletedAt(LocalDateTime.now());
+        when(scrapeJobRepository.findById("job-123")).thenReturn(Optional.of(testJob));
+        when(storeRepository.findById("store-123")).thenReturn(Optional.of(testStore));
+        when(scrapeJobRepository.existsByStoreIdAndStatus("store-123", ScrapeJob.JobStatus.RUNNING))
+                .thenReturn(false);
+        when(scrapeLeaseService.tryAcquire(anyString())).thenReturn(Optional.of(lease()));
+        when(scrapeJobRepository.save(testJob)).thenReturn(testJob);
+
+        ScrapeJob result = scrapeOrchestrationService.resumeJob("job-123");
+
+        assertEquals(ScrapeJob.JobStatus.PENDING, result.getStatus());
+        assertNull(result.getCompletedAt());
+        assertEquals(1, result.getResumeCount());
+        verify(scrapeJobExecutor).submit(eq("TEST"), any(Runnable.class));
+    }
+
+    @Test
+    void resumeJob_NotResumable_ThrowsIllegalArgument() {
+        testJob.setStatus(ScrapeJob.JobStatus.COMPLETED);
+        when(scrapeJobRepository.findById("job-123")).thenReturn(Optional.of(testJob));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> scrapeOrchestrationService.resumeJob("job-123"));
+        verifyNoInteractions(scrapeJobExecutor);
+    }
+
+    @Test
+    void resumeJob_JobAlreadyRunning_ThrowsIllegalState() {
+        testJob.setStatus(ScrapeJob.JobStatus.RESUMABLE);
+        when(scrapeJobRepository.findById("job-123")).thenReturn(Optional.of(testJob));
+        when(storeRepository.findById("store-123")).thenReturn(Optional.of(testStore));
+        when(scrapeJobRepository.existsByStoreIdAndStatus("store-123", ScrapeJob.JobStatus.RUNNING))
+                .thenReturn(true);
+
+        assertThrows(IllegalStateException.class,
+                () -> scrapeOrchestrationService.resumeJob("job-123"));
+        verifyNoInteractions(scrapeJobExecutor);
+    }
+
+    @Test
+    void recoverInterruptedJobs_MarksRunningAndPendingJobsResumable() {
+        ScrapeJob running = ScrapeJob.builder()
+                .storeCode("TEST")
+                .status(ScrapeJob.JobStatus.RUNNING)
+                .errorMessages(new ArrayList<>())
+                .build();
+        when(scrapeJobRepository.findByStatus(ScrapeJob.JobStatus.RUNNING)).thenReturn(List.of(running));
+        when(scrapeJobRepository.findByStatus(ScrapeJob.JobStatus.PENDING)).thenReturn(List.of(testJob));
+
+        scrapeOrchestrationService.recoverInterruptedJobs();
+
+        assertEquals(ScrapeJob.JobStatus.RESUMABLE, running.getStatus());
+        assertEquals(ScrapeJob.JobStatus.RESUMABLE, testJob.getStatus());
+        assertNotNull(running.getCompletedAt());
+        assertTrue(running.getErrorMessages().contains("Interrupted by application restart"));
+        verify(scrapeJobRepository, times(2)).save(any(ScrapeJob.class));
+        verify(scrapeLeaseService).releaseStaleLeases();
+    }
+
+    @Test
+    void recoverInterruptedJobs_StoreLeasedByAnotherNode_LeavesJobAlone() {
+        testJob.setStatus(ScrapeJob.JobStatus.RUNNING);
+        when(scrapeJobRepository.findByStatus(ScrapeJob.JobStatus.RUNNING)).thenReturn(List.of(testJob));
+        when(scrapeJobRepository.findByStatus(ScrapeJob.JobStatus.PENDING)).thenReturn(List.of());
+        when(scrapeLeaseService.isHeldElsewhere("scrape:TEST")).thenReturn(true);
+
+        scrapeOrchestrationService.recoverInterruptedJobs();
+
+        assertEquals(ScrapeJob.JobStatus.RUNNING, testJob.getStatus());
+        verify(scrapeJobRepository, never()).save(any(ScrapeJob.class));
+    }
+
+    @Test
+    void recoverInterruptedJobs_DistributedJob_LeftRunning() {
+        testJob.setStatus(ScrapeJob.JobStatus.RUNNING);
+        testJob.setDistributed(true);
+        when(scrapeJobRepository.findByStatus(ScrapeJob.JobStatus.RUNNING)).thenReturn(List.of(testJob));
+        when(scrapeJobRepository.findByStatus(ScrapeJob.JobStatus.PENDING)).thenReturn(List.of());
+
+        scrapeOrchestrationService.recoverInterruptedJobs();
+
+        assertEquals(ScrapeJob.JobStatus.RUNNING, testJob.getStatus());
+        verify(scrapeJobRepository, never()).save(any(ScrapeJob.class));
+    }
+
+    @Test
+    void processNextWorkItem_NothingQueued_ReturnsFalse() {
+        when(scrapeWorkQueue.claimNext(Set.of())).thenReturn(Optional.empty());
+
+        assertFalse(scrapeOrchestrationService.processNextWorkItem());
+    }
+
+    @Test
+    void processNextWorkItem_StoreWorkedByAnotherNode_SkipsItsItems() {
+        when(scrapeLeaseService.heldElsewhereWithPrefix("scrape-worker:")).thenReturn(Set.of("TEST"));
+        when(scrapeWorkQueue.claimNext(Set.of("TEST"))).thenReturn(Optional.empty());
+
+        assertFalse(scrapeOrchestrationService.processNextWorkItem());
+    }
+
+    @Test
+    void processNextWorkItem_StoreTakenAfterClaim_HandsItemBack() {
+        ScrapeWorkItem item = ScrapeWorkItem.builder()
+                .jobId("job-123").storeId("store-123").storeCode("TEST").categoryUrl("fruit")
+                .status(ScrapeWorkItem.ItemStatus.CLAIMED).claimToken("token-1").attempts(1)
+                .build();
+        when(scrapeWorkQueue.claimNext(Set.of())).thenReturn(Optional.of(item));
+        when(scrapeLeaseService.tryAcquire("scrape-worker:TEST")).thenReturn(Optional.empty());
+
+        assertTrue(scrapeOrchestrationService.processNextWorkItem());
+
+        verify(scrapeWorkQueue).unclaim(item);
+        verify(scrapeWorkQueue, never()).fail(any(), anyString());
+        verifyNoInteractions(storeRepository);
+    }
+
+    @Test
+    void completeFinishedJobs_OpenItemsLeft_KeepsJobRunning() {
+        testJob.setStatus(ScrapeJob.JobStatus.RUNNING);
+        testJob.setDistributed(true);
+        when(scrapeJobRepository.findByStatus(ScrapeJob.JobStatus.RUNNING)).thenReturn(List.of(testJob));
+        when(scrapeWorkQueue.hasOpenItems("job-123")).thenReturn(true);
+
+        scrapeOrchestrationService.completeFinishedJobs();
+
+        verify(scrapeWorkQueue, never()).finishJob(anyString(), any());
+        assertEquals(ScrapeJob.JobStatus.RUNNING, testJob.getStatus());
+    }
+
+    @Test
+    void completeFinishedJobs_AllItemsFinished_AddsUpItemCounts() {
+        testJob.setStatus(ScrapeJob.JobStatus.RUNNING);
+        testJob.setDistributed(true);
+        ScrapeWorkItem fruit = ScrapeWorkItem.builder()
+                .categoryUrl("fruit").status(ScrapeWorkItem.ItemStatus.DONE)
+                .totalProducts(10).successCount(9).errorCount(1)
+                .errorMessages(new ArrayList<>(List.of("Error processing product: Apple - bad price")))
+                .build();
+        ScrapeWorkItem dairy = ScrapeWorkItem.builder()
+                .categoryUrl("dairy").status(ScrapeWorkItem.ItemStatus.FAILED)
+                .errorMessages(new ArrayList<>(List.of("Attempt 3 failed: timeout")))
+                .build();
+        when(scrapeJobRepository.findByStatus(ScrapeJob.JobStatus.RUNNING)).thenReturn(List.of(testJob));
+        when(scrapeWorkQueue.hasOpenItems("job-123")).thenReturn(false);
+        when(scrapeWorkQueue.findByJob("job-123")).thenReturn(List.of(fruit, dairy));
+        when(scrapeWorkQueue.finishJob("job-123", ScrapeJob.JobStatus.COMPLETED)).thenReturn(true);
+
+        scrapeOrchestrationService.completeFinishedJobs();
+
+        assertEquals(ScrapeJob.JobStatus.COMPLETED, testJob.getStatus());
+        assertEquals(10, testJob.getTotalProducts());
+        assertEquals(9, testJob.getSuccessCount());
+        assertEquals(1, testJob.getErrorCount());
+        assertTrue(testJob.getErrorMessages().contains("Category failed: dairy"));
+        verify(scrapeJobRepository).save(testJob);
+        verify(eventPublisher).publishEvent(argThat((Object e) ->
+                e instanceof ScrapeProgressEvent p && p.isFinal() && p.productsParsed() == 10));
+        verifyNoInteractions(telegramNotificationService);
+    }
+
+    @Test
+    void completeFinishedJobs_AnotherNodeFinishedIt_DoesNotReport() {
+        testJob.setStatus(ScrapeJob.JobStatus.RUNNING);
+        testJob.setDistributed(true);
+        when(scrapeJobRepository.findByStatus(ScrapeJob.JobStatus.RUNNING)).thenReturn(List.of(testJob));
+        when(scrapeWorkQueue.hasOpenItems("job-123")).thenReturn(false);
+        when(scrapeWorkQueue.findByJob("job-123")).thenReturn(List.of());
+        when(scrapeWorkQueue.finishJob("job-123", ScrapeJob.JobStatus.COMPLETED)).thenReturn(false);
+
+        scrapeOrchestrationService.completeFinishedJobs();
+
+        verify(scrapeJobRepository, never()).save(any(ScrapeJob.class));
+    }
+
     @Test
     void getJob_Found_ReturnsJob() {
         when(scrapeJobRepository.findById("job-123")).thenReturn(Optional.of(testJob));
@@ -223,4 +468,29 @@ class ScrapeOrchestrationServiceTest {
 
         assertTrue(result.isEmpty());
     }
+
+    @Test
+    void getRateLimiterStatuses_ReportsEachLimiter() {
+        RateLimiterConfig config = RateLimiterConfig.custom()
+                .limitForPeriod(1)
+                .limitRefreshPeriod(Duration.ofSeconds(2))
+                .build();
+        RateLimiter walmart = RateLimiter.of("WALMART@www.walmart.ca", config);
+        RateLimiter rcss = RateLimiter.of("RCSS@api.pcexpress.ca", RateLimiterConfig.ofDefaults());
+        when(rateLimiterRegistry.getAllRateLimiters()).thenReturn(Set.of(walmart, rcss));
+        when(scrapeMetrics.meanRateLimiterWaitMs("WALMART")).thenReturn(850.0);
+
+        List<ScrapeOrchestrationService.RateLimiterStatus> result = scrapeOrchestrationService.getRateLimiterStatuses();
+
+        assertEquals(2, result.size());
+        assertEquals("RCSS@api.pcexpress.ca", result.get(0).name());
+        assertEquals("WALMART@www.walmart.ca", result.get(1).name());
+        assertEquals(0.5, result.get(1).requestsPerSecond());
+        assertEquals(1, result.get(1).availablePermissions());
+        assertEquals(850.0, result.get(1).storeMeanWaitMs());
+    }
+
+    private static ScrapeLeaseService.Lease lease() {
+        return new ScrapeLeaseService.Lease("scrape:TEST", "token-1");
+    }
 }
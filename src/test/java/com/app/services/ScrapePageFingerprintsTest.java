@@ -0,0 +1,98 @@
+package com.app.services;
+
+import com.app.models.ScrapedPageFingerprint;
+import com.app.services.scraper.StoreScraper;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScrapePageFingerprintsTest {
+
+    private static final StoreScraper.PageFingerprint SAME = new StoreScraper.PageFingerprint("abc", null, null);
+
+    private ScrapePageFingerprints fingerprints(Set<String> knownProducts) {
+        ScrapedPageFingerprint saved = ScrapedPageFingerprint.builder()
+                .id(ScrapedPageFingerprint.idOf("store1", "fruit", 1))
+                .storeId("store1")
+                .categoryUrl("fruit")
+                .page(1)
+                .contentHash("abc")
+                .etag("\"v1\"")
+                .productIds(List.of("p1", "p2"))
+                .build();
+        return new ScrapePageFingerprints("store1", List.of(saved), knownProducts::contains, true);
+    }
+
+    @Test
+    void isUnchanged_SameHashAndKnownProducts_ReturnsTrue() {
+        ScrapePageFingerprints fingerprints = fingerprints(Set.of("p1", "p2"));
+
+        assertTrue(fingerprints.isUnchanged("fruit", 1, SAME));
+
+        ScrapePageFingerprints.Decision decision = fingerprints.take("fruit", 1);
+        assertTrue(decision.isUnchanged());
+        assertEquals(List.of("p1", "p2"), decision.unchangedProductIds());
+        assertNull(fingerprints.take("fruit", 1));
+    }
+
+    @Test
+    void isUnchanged_DifferentHash_ReturnsFalseButKeepsFingerprint() {
+        ScrapePageFingerprints fingerprints = fingerprints(Set.of("p1", "p2"));
+        StoreScraper.PageFingerprint changed = new StoreScraper.PageFingerprint("def", null, null);
+
+        assertFalse(fingerprints.isUnchanged("fruit", 1, changed));
+
+        ScrapePageFingerprints.Decision decision = fingerprints.take("fruit", 1);
+        assertFalse(decision.isUnchanged());
+        assertSame(changed, decision.fingerprint());
+    }
+
+    @Test
+    void previousProductCount_CountsSavedProducts() {
+        ScrapePageFingerprints fingerprints = fingerprints(Set.of("p1", "p2"));
+
+        assertEquals(2, fingerprints.previousProductCount("fruit", 1));
+        assertEquals(-1, fingerprints.previousProductCount("fruit", 2));
+        assertEquals(-1, ScrapePageFingerprints.disabled().previousProductCount("fruit", 1));
+    }
+
+    @Test
+    void isUnchanged_ProductWithoutRecentRecord_ReturnsFalse() {
+        ScrapePageFingerprints fingerprints = fingerprints(Set.of("p1"));
+
+        assertFalse(fingerprints.isUnchanged("fruit", 1, SAME));
+    }
+
+    @Test
+    void isUnchanged_Disabled_ReturnsFalse() {
+        ScrapePageFingerprints fingerprints = ScrapePageFingerprints.disabled();
+
+        assertFalse(fingerprints.isUnchanged("fruit", 1, SAME));
+        assertNull(fingerprints.previousFingerprint("fruit", 1));
+        assertNull(fingerprints.take("fruit", 1));
+    }
+
+    @Test
+    void previousFingerprint_ReturnsSavedValidators() {
+        StoreScraper.PageFingerprint previous = fingerprints(Set.of()).previousFingerprint("fruit", 1);
+
+        assertEquals(new StoreScraper.PageFingerprint("abc", "\"v1\"", null), previous);
+    }
+
+    @Test
+    void drainDirty_ReturnsRecordedPagesOnce() {
+        ScrapePageFingerprints fingerprints = fingerprints(Set.of());
+        fingerprints.recordProcessed("veg", 2, new StoreScraper.PageFingerprint("xyz", null, null), List.of("p3"));
+
+        List<ScrapedPageFingerprint> dirty = fingerprints.drainDirty();
+
+        assertEquals(1, dirty.size());
+        assertEquals("store1:veg:2", dirty.get(0).getId());
+        assertEquals("xyz", dirty.get(0).getContentHash());
+        assertEquals(List.of("p3"), dirty.get(0).getProductIds());
+        assertTrue(fingerprints.drainDirty().isEmpty());
+    }
+}
@@ -0,0 +1,100 @@
+package com.app.services;
+
+import com.app.models.ScrapeJob;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScrapeProgressBroadcasterTest {
+
+    private ScrapeProgressBroadcaster broadcaster;
+
+    @BeforeEach
+    void setUp() {
+        broadcaster = new ScrapeProgressBroadcaster(60_000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        broadcaster.shutdown();
+    }
+
+    @Test
+    void subscribe_RunningJob_StaysSubscribedUntilFinalEvent() {
+        broadcaster.subscribe(job(ScrapeJob.JobStatus.RUNNING), Optional::empty);
+
+        broadcaster.onProgress(event(ScrapeJob.JobStatus.RUNNING));
+        assertEquals(1, broadcaster.getSubscriberCount("job-123"));
+
+        broadcaster.onProgress(event(ScrapeJob.JobStatus.COMPLETED));
+        awaitSubscriberCount(0);
+    }
+
+    @Test
+    void subscribe_FinishedJob_IsNotKept() {
+        broadcaster.subscribe(job(ScrapeJob.JobStatus.COMPLETED), Optional::empty);
+
+        assertEquals(0, broadcaster.getSubscriberCount("job-123"));
+    }
+
+    @Test
+    void subscribe_JobFinishedBeforeRegistering_CompletesStream() {
+        // The job was read while running, but its final event went out before the stream registered
+        broadcaster.subscribe(job(ScrapeJob.JobStatus.RUNNING), () -> Optional.of(job(ScrapeJob.JobStatus.COMPLETED)));
+
+        awaitSubscriberCount(0);
+    }
+
+    @Test
+    void onProgress_OtherJob_Ignored() {
+        broadcaster.subscribe(job(ScrapeJob.JobStatus.RUNNING), Optional::empty);
+
+        broadcaster.onProgress(new ScrapeProgressEvent("job-999", "TEST", ScrapeJob.JobStatus.COMPLETED,
+                0, 0, 0, 0, 0, 0, LocalDateTime.now()));
+
+        assertEquals(1, broadcaster.getSubscriberCount("job-123"));
+    }
+
+    @Test
+    void fromJob_CountsCheckpointedPages() {
+        ScrapeJob job = job(ScrapeJob.JobStatus.RESUMABLE);
+        job.setTotalProducts(40);
+        job.setSuccessCount(38);
+        job.setErrorCount(2);
+        job.setCheckpoints(List.of(
+                ScrapeJob.CategoryCheckpoint.builder().categoryUrl("fruit").completedPages(List.of(1, 2)).build(),
+                ScrapeJob.CategoryCheckpoint.builder().categoryUrl("dairy").completedPages(List.of(1)).build()));
+
+        ScrapeProgressEvent event = ScrapeProgressEvent.fromJob(job);
+
+        assertEquals(3, event.pagesFetched());
+        assertEquals(40, event.productsParsed());
+        assertEquals(2, event.errors());
+        assertTrue(event.isFinal());
+    }
+
+    // Events are delivered on another thread
+    private void awaitSubscriberCount(int expected) {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (broadcaster.getSubscriberCount("job-123") != expected && System.currentTimeMillis() < deadline) {
+            Thread.onSpinWait();
+        }
+        assertEquals(expected, broadcaster.getSubscriberCount("job-123"));
+    }
+
+    private static ScrapeJob job(ScrapeJob.JobStatus status) {
+        ScrapeJob job = ScrapeJob.builder().storeCode("TEST").status(status).build();
+        job.setId("job-123");
+        return job;
+    }
+
+    private static ScrapeProgressEvent event(ScrapeJob.JobStatus status) {
+        return new ScrapeProgressEvent("job-123", "TEST", status, 1, 10, 10, 10, 0, 5.0, LocalDateTime.now());
+    }
+}
@@ -7,9 +7,12 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -18,11 +21,15 @@ class ScrapeSchedulerTest {
     @Mock
     private ScrapeOrchestrationService scrapeOrchestrationService;
 
+    @Mock
+    private ScrapeLeaseService scrapeLeaseService;
+
     @InjectMocks
     private ScrapeScheduler scrapeScheduler;
 
     @Test
     void scheduledScrapeAll_callsTriggerScrapeAll() {
+        when(scrapeLeaseService.tryAcquireFor(eq(ScrapeScheduler.SCHEDULE_LEASE), any(Duration.class))).thenReturn(true);
         List<ScrapeJob> jobs = new ArrayList<>();
         jobs.add(ScrapeJob.builder().storeCode("test").build());
         when(scrapeOrchestrationService.triggerScrapeAll()).thenReturn(jobs);
@@ -34,6 +41,7 @@ class ScrapeSchedulerTest {
 
     @Test
     void scheduledScrapeAll_handlesEmptyResult() {
+        when(scrapeLeaseService.tryAcquireFor(eq(ScrapeScheduler.SCHEDULE_LEASE), any(Duration.class))).thenReturn(true);
         when(scrapeOrchestrationService.triggerScrapeAll()).thenReturn(new ArrayList<>());
 
         scrapeScheduler.scheduledScrapeAll();
@@ -43,6 +51,7 @@ class ScrapeSchedulerTest {
 
     @Test
     void scheduledScrapeAll_handlesException_doesNotPropagate() {
+        when(scrapeLeaseService.tryAcquireFor(eq(ScrapeScheduler.SCHEDULE_LEASE), any(Duration.class))).thenReturn(true);
         when(scrapeOrchestrationService.triggerScrapeAll()).thenThrow(new RuntimeException("DB connection failed"));
 
         // Should not throw — scheduler must not crash
@@ -50,4 +59,13 @@ class ScrapeSchedulerTest {
 
         verify(scrapeOrchestrationService, times(1)).triggerScrapeAll();
     }
+
+    @Test
+    void scheduledScrapeAll_leaseHeldByAnotherNode_skipsRound() {
+        when(scrapeLeaseService.tryAcquireFor(eq(ScrapeScheduler.SCHEDULE_LEASE), any(Duration.class))).thenReturn(false);
+
+        scrapeScheduler.scheduledScrapeAll();
+
+        verifyNoInteractions(scrapeOrchestrationService);
+    }
 }
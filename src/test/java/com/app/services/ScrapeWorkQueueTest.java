@@ -0,0 +1,125 @@
+package com.app.services;
+
+import com.app.models.ScrapeWorkItem;
+import com.app.models.ScrapeWorkItemRepository;
+import com.mongodb.client.result.UpdateResult;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ScrapeWorkQueueTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private ScrapeWorkItemRepository workItemRepository;
+
+    @Mock
+    private ScrapeLeaseService scrapeLeaseService;
+
+    private ScrapeWorkQueue workQueue;
+
+    @BeforeEach
+    void setUp() {
+        when(scrapeLeaseService.getNodeId()).thenReturn("node-a");
+        workQueue = new ScrapeWorkQueue(mongoTemplate, workItemRepository, scrapeLeaseService, 300, 3);
+    }
+
+    @Test
+    void claimNext_ItemAvailable_ReturnsClaimedItem() {
+        ScrapeWorkItem item = item(1);
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(ScrapeWorkItem.class))).thenReturn(item);
+
+        Optional<ScrapeWorkItem> claimed = workQueue.claimNext(List.of());
+
+        assertSame(item, claimed.orElseThrow());
+    }
+
+    @Test
+    void claimNext_NothingToClaim_ReturnsEmpty() {
+        assertTrue(workQueue.claimNext(List.of()).isEmpty());
+    }
+
+    @Test
+    void claimNext_ExcludedStores_LeavesTheirItems() {
+        workQueue.claimNext(List.of("WALMART"));
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).findAndModify(query.capture(), any(Update.class), any(FindAndModifyOptions.class),
+                eq(ScrapeWorkItem.class));
+        assertTrue(query.getValue().getQueryObject().toJson().contains("\"storeCode\": {\"$nin\": [\"WALMART\"]}"));
+    }
+
+    @Test
+    void unclaim_DoesNotCountTheAttempt() {
+        workQueue.unclaim(item(1));
+
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).updateFirst(any(Query.class), update.capture(), eq(ScrapeWorkItem.class));
+        assertEquals(ScrapeWorkItem.ItemStatus.PENDING,
+                ((Document) update.getValue().getUpdateObject().get("$set")).get("status"));
+        assertEquals(-1, ((Document) update.getValue().getUpdateObject().get("$inc")).get("attempts"));
+    }
+
+    @Test
+    void complete_ClaimLost_ReturnsFalse() {
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(ScrapeWorkItem.class)))
+                .thenReturn(UpdateResult.acknowledged(0, 0L, null));
+
+        boolean completed = workQueue.complete(item(1),
+                new ScrapeWorkQueue.ItemResult(10, 10, 0, List.of(), List.of()));
+
+        assertFalse(completed);
+    }
+
+    @Test
+    void fail_AttemptsLeft_ReturnsItemToQueue() {
+        workQueue.fail(item(1), "boom");
+
+        assertEquals(ScrapeWorkItem.ItemStatus.PENDING, statusSetByFail());
+    }
+
+    @Test
+    void fail_LastAttempt_MarksItemFailed() {
+        workQueue.fail(item(3), "boom");
+
+        assertEquals(ScrapeWorkItem.ItemStatus.FAILED, statusSetByFail());
+    }
+
+    private Object statusSetByFail() {
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).updateFirst(any(Query.class), update.capture(), eq(ScrapeWorkItem.class));
+        return ((Document) update.getValue().getUpdateObject().get("$set")).get("status");
+    }
+
+    private static ScrapeWorkItem item(int attempts) {
+        ScrapeWorkItem item = ScrapeWorkItem.builder()
+                .jobId("job-123")
+                .storeCode("TEST")
+                .categoryUrl("fruit")
+                .status(ScrapeWorkItem.ItemStatus.CLAIMED)
+                .claimToken("token-1")
+                .attempts(attempts)
+                .build();
+        item.setId("item-1");
+        return item;
+    }
+}
@@ -0,0 +1,117 @@
+package com.app.services;
+
+import com.app.models.ScrapeJob;
+import com.app.services.scraper.StoreScraper;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScrapedPageQueueTest {
+
+    @Test
+    void poll_ReturnsPagesThenEnd() throws Exception {
+        ScrapedPageQueue queue = new ScrapedPageQueue(4);
+
+        queue.onPage("fruit", 1, List.of());
+        queue.complete();
+
+        ScrapedPageQueue.ScrapedPage page = queue.poll(1, TimeUnit.SECONDS);
+        assertEquals("fruit", page.categoryUrl());
+        assertFalse(page.isEnd());
+        assertTrue(queue.poll(1, TimeUnit.SECONDS).isEnd());
+        assertNull(queue.getFailure());
+    }
+
+    @Test
+    void fail_ExposesFailureAfterEnd() throws Exception {
+        ScrapedPageQueue queue = new ScrapedPageQueue(4);
+        RuntimeException cause = new RuntimeException("boom");
+
+        queue.fail(cause);
+
+        assertTrue(queue.poll(1, TimeUnit.SECONDS).isEnd());
+        assertSame(cause, queue.getFailure());
+    }
+
+    @Test
+    void onPage_QueueFull_BlocksUntilConsumed() throws Exception {
+        ScrapedPageQueue queue = new ScrapedPageQueue(1);
+        queue.onPage("fruit", 1, List.of());
+
+        CompletableFuture<Void> producer = CompletableFuture.runAsync(
+                () -> queue.onPage("fruit", 2, List.<StoreScraper.ScrapedProduct>of()));
+
+        Thread.sleep(100);
+        assertFalse(producer.isDone());
+
+        assertEquals(1, queue.poll(1, TimeUnit.SECONDS).page());
+        producer.get(1, TimeUnit.SECONDS);
+        assertEquals(2, queue.poll(1, TimeUnit.SECONDS).page());
+    }
+
+    @Test
+    void abort_ReleasesBlockedProducer() throws Exception {
+        ScrapedPageQueue queue = new ScrapedPageQueue(1);
+        queue.onPage("fruit", 1, List.of());
+
+        CompletableFuture<Void> producer = CompletableFuture.runAsync(
+                () -> queue.onPage("fruit", 2, List.<StoreScraper.ScrapedProduct>of()));
+        Thread.sleep(100);
+
+        queue.abort();
+
+        Exception e = assertThrows(Exception.class, () -> producer.get(1, TimeUnit.SECONDS));
+        assertInstanceOf(CancellationException.class, e.getCause());
+    }
+
+    @Test
+    void onCategoryComplete_QueuesMarkerAfterPages() throws Exception {
+        ScrapedPageQueue queue = new ScrapedPageQueue(4);
+
+        queue.onPage("fruit", 1, List.of());
+        queue.onCategoryComplete("fruit");
+
+        assertFalse(queue.poll(1, TimeUnit.SECONDS).isCategoryComplete());
+        ScrapedPageQueue.ScrapedPage marker = queue.poll(1, TimeUnit.SECONDS);
+        assertTrue(marker.isCategoryComplete());
+        assertFalse(marker.isEnd());
+        assertEquals("fruit", marker.categoryUrl());
+    }
+
+    @Test
+    void wants_SkipsCheckpointedCategoriesAndPages() {
+        ScrapeCheckpoints checkpoints = new ScrapeCheckpoints(List.of(
+                ScrapeJob.CategoryCheckpoint.builder().categoryUrl("fruit").completed(true)
+                        .completedPages(List.of(1, 2)).build(),
+                ScrapeJob.CategoryCheckpoint.builder().categoryUrl("dairy")
+                        .completedPages(List.of(1)).build()));
+        ScrapedPageQueue queue = new ScrapedPageQueue(4, checkpoints);
+
+        assertFalse(queue.wantsCategory("fruit"));
+        assertTrue(queue.wantsCategory("dairy"));
+        assertFalse(queue.wantsPage("dairy", 1));
+        assertTrue(queue.wantsPage("dairy", 2));
+        assertTrue(queue.wantsPage("bakery", 1));
+    }
+
+    @Test
+    void onPage_CarriesFingerprintDecision() throws Exception {
+        ScrapePageFingerprints fingerprints = new ScrapePageFingerprints("store1", List.of(), id -> true, true);
+        ScrapedPageQueue queue = new ScrapedPageQueue(4, new ScrapeCheckpoints(null), fingerprints);
+        StoreScraper.PageFingerprint fingerprint = new StoreScraper.PageFingerprint("abc", null, null);
+
+        assertFalse(queue.isUnchanged("fruit", 1, fingerprint));
+        queue.onPage("fruit", 1, List.of());
+        queue.onPage("fruit", 2, List.of());
+
+        ScrapedPageQueue.ScrapedPage first = queue.poll(1, TimeUnit.SECONDS);
+        assertSame(fingerprint, first.fingerprint().fingerprint());
+        assertFalse(first.isUnchanged());
+        assertNull(queue.poll(1, TimeUnit.SECONDS).fingerprint());
+    }
+}
@@ -1,15 +1,33 @@
 package com.app.services.scraper;
 
 import com.app.models.Store;
+import com.sun.net.httpserver.HttpServer;
+import io.github.resilience4j.ratelimiter.RateLimiter;
 import io.github.resilience4j.ratelimiter.RateLimiterConfig;
 import io.github.resilience4j.ratelimiter.RateLimiterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.io.IOException;
 import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -17,14 +35,17 @@ import static org.junit.jupiter.api.Assertions.*;
 class AbstractStoreScraperTest {
 
     private TestStoreScraper scraper;
+    private RateLimiterRegistry registry;
 
     @BeforeEach
     void setUp() {
         RateLimiterConfig config = RateLimiterConfig.custom()
                 .limitForPeriod(100)
                 .build();
-        RateLimiterRegistry registry = RateLimiterRegistry.of(config);
-        scraper = new TestStoreScraper(registry);
+        registry = RateLimiterRegistry.of(config);
+        scraper = new TestStoreScraper(registry,
+                new ScrapeMetrics(new SimpleMeterRegistry()), AdaptivePacerTest.disabled(),
+                ScraperHttpClientTest.client());
     }
 
     @Test
@@ -139,13 +160,386 @@ class AbstractStoreScraperTest {
         assertNull(scraper.testExtractUnit("Plain Product"));
     }
 
+    @Test
+    void scrapeAllProducts_Streaming_EmitsPagesInCategoryOrder() {
+        StoreScraper.ScrapedProduct apple = product("1", "Apple");
+        StoreScraper.ScrapedProduct milk = product("2", "Milk");
+        scraper.pages.put("fruit", List.of(apple));
+        scraper.pages.put("dairy", List.of(milk));
+
+        List<String> seen = new ArrayList<>();
+        scraper.scrapeAllProducts(Store.builder().code("TEST_SCRAPER").build(),
+                (categoryUrl, page, products) -> seen.add(categoryUrl + ":" + products.size()));
+
+        assertEquals(List.of("fruit:1", "dairy:1"), seen);
+    }
+
+    @Test
+    void scrapeAllProducts_List_CollectsAllPages() {
+        scraper.pages.put("fruit", List.of(product("1", "Apple"), product("3", "Pear")));
+        scraper.pages.put("dairy", List.of(product("2", "Milk")));
+
+        List<StoreScraper.ScrapedProduct> products =
+                scraper.scrapeAllProducts(Store.builder().code("TEST_SCRAPER").build());
+
+        assertEquals(3, products.size());
+        assertEquals("Apple", products.get(0).name());
+    }
+
+    @Test
+    void rateLimiterFor_SeparateLimiterPerHost() {
+        Store store = Store.builder().code("TEST_SCRAPER").build();
+
+        RateLimiter api = scraper.rateLimiterFor(store, "https://api.example.com/products?page=1");
+        RateLimiter www = scraper.rateLimiterFor(store, "https://www.example.com/browse");
+
+        assertEquals("TEST_SCRAPER@api.example.com", api.getName());
+        assertEquals("TEST_SCRAPER@www.example.com", www.getName());
+        assertSame(api, scraper.rateLimiterFor(store, "https://api.example.com/other"));
+    }
+
+    @Test
+    void rateLimiterFor_StoreConfigHostLimit_Applies() {
+        Store store = Store.builder()
+                .code("TEST_SCRAPER")
+                .scraperConfig(Map.of(
+                        "requestsPerSecond", 2,
+                        "rateLimits", List.of(Map.of("host", "api.example.com", "requestsPerSecond", 0.5))))
+                .build();
+
+        RateLimiter api = scraper.rateLimiterFor(store, "https://api.example.com/products");
+        RateLimiter www = scraper.rateLimiterFor(store, "https://www.example.com/browse");
+
+        assertEquals(1, api.getRateLimiterConfig().getLimitForPeriod());
+        assertEquals(Duration.ofSeconds(2), api.getRateLimiterConfig().getLimitRefreshPeriod());
+        assertEquals(2, www.getRateLimiterConfig().getLimitForPeriod());
+    }
+
+    @Test
+    void rateLimiterFor_RegistryOverrideForHost_Applies() {
+        registry.addConfiguration("api.example.com", RateLimiterConfig.custom().limitForPeriod(7).build());
+        Store store = Store.builder().code("TEST_SCRAPER").build();
+
+        RateLimiter api = scraper.rateLimiterFor(store, "https://api.example.com/products");
+
+        assertEquals(7, api.getRateLimiterConfig().getLimitForPeriod());
+    }
+
+    @Test
+    void scrapeAllProducts_AbortedSink_StopsInsteadOfSkippingCategory() {
+        scraper.pages.put("fruit", List.of(product("1", "Apple")));
+        scraper.pages.put("dairy", List.of(product("2", "Milk")));
+
+        List<String> seen = new ArrayList<>();
+        assertThrows(CancellationException.class, () -> scraper.scrapeAllProducts(
+                Store.builder().code("TEST_SCRAPER").build(), (categoryUrl, page, products) -> {
+                    seen.add(categoryUrl);
+                    throw new CancellationException("Scrape pipeline aborted");
+                }));
+
+        assertEquals(List.of("fruit"), seen);
+    }
+
+    @Test
+    void scrapeAllProducts_ParallelCategories_KeepsCategoryOrder() {
+        scraper.pages.put("fruit", List.of(product("1", "Apple")));
+        scraper.pages.put("dairy", List.of(product("2", "Milk")));
+        scraper.pages.put("bakery", List.of(product("3", "Bread")));
+        // The first category finishes last, so the others have to be held back
+        scraper.delaysMs.put("fruit", 200L);
+
+        List<String> seen = Collections.synchronizedList(new ArrayList<>());
+        scraper.scrapeAllProducts(parallelStore(3, 1),
+                (categoryUrl, page, products) -> seen.add(categoryUrl));
+
+        assertEquals(List.of("fruit", "dairy", "bakery"), seen);
+    }
+
+    @Test
+    void scrapeAllProducts_ParallelCategoryFails_OthersStillDelivered() {
+        scraper.pages.put("fruit", List.of(product("1", "Apple")));
+        scraper.pages.put("dairy", List.of(product("2", "Milk")));
+        scraper.pages.put("bakery", List.of(product("3", "Bread")));
+        scraper.failing.add("dairy");
+
+        List<String> seen = Collections.synchronizedList(new ArrayList<>());
+        scraper.scrapeAllProducts(parallelStore(2, 1),
+                (categoryUrl, page, products) -> seen.add(categoryUrl));
+
+        assertEquals(List.of("fruit", "bakery"), seen);
+    }
+
+    @Test
+    void orderedCategorySink_FullBuffer_HoldsBackLaterCategory() throws Exception {
+        List<String> seen = Collections.synchronizedList(new ArrayList<>());
+        AbstractStoreScraper.OrderedCategorySink ordered = new AbstractStoreScraper.OrderedCategorySink(2, 1,
+                (categoryUrl, page, products) -> seen.add(categoryUrl + " " + page));
+        AtomicInteger buffered = new AtomicInteger();
+        Thread later = new Thread(() -> {
+            StoreScraper.ProductSink sink = ordered.forCategory(1);
+            for (int page = 1; page <= 3; page++) {
+                sink.onPage("dairy", page, List.of());
+                buffered.incrementAndGet();
+            }
+            ordered.complete(1);
+        });
+        later.start();
+        long deadline = System.currentTimeMillis() + 5000;
+        while (later.getState() != Thread.State.WAITING && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+
+        assertEquals(1, buffered.get(), "the second page waits for room in the buffer");
+        ordered.forCategory(0).onPage("fruit", 1, List.of());
+        ordered.complete(0);
+        later.join(5000);
+
+        assertEquals(List.of("fruit 1", "dairy 1", "dairy 2", "dairy 3"), seen);
+    }
+
+    @Test
+    void fetchPages_Parallel_DeliversInPageOrder() throws Exception {
+        List<Integer> seen = new ArrayList<>();
+
+        // Later pages answer first
+        scraper.fetchPages(parallelStore(1, 4), "fruit", 1, 5, page -> CompletableFuture.supplyAsync(
+                () -> List.of(product(String.valueOf(page), "Item " + page)),
+                CompletableFuture.delayedExecutor((6 - page) * 20L, TimeUnit.MILLISECONDS)),
+                (categoryUrl, page, products) -> seen.add(page));
+
+        assertEquals(List.of(1, 2, 3, 4, 5), seen);
+    }
+
+    @Test
+    void fetchPages_KeepsPageParallelismRequestsInFlight() throws Exception {
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        List<Integer> seen = new ArrayList<>();
+
+        scraper.fetchPages(parallelStore(1, 2), "fruit", 1, 6, page -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            return CompletableFuture.supplyAsync(() -> {
+                inFlight.decrementAndGet();
+                return List.of(product(String.valueOf(page), "Item " + page));
+            }, CompletableFuture.delayedExecutor(30, TimeUnit.MILLISECONDS));
+        }, (categoryUrl, page, products) -> seen.add(page));
+
+        assertEquals(2, maxInFlight.get());
+        assertEquals(List.of(1, 2, 3, 4, 5, 6), seen);
+    }
+
+    @Test
+    void fetchPages_FailedResponse_DeliversEarlierPagesThenThrowsItsCause() {
+        List<Integer> seen = new ArrayList<>();
+
+        IOException e = assertThrows(IOException.class, () ->
+                scraper.fetchPages(parallelStore(1, 3), "fruit", 1, 5, page -> page == 2
+                        ? CompletableFuture.failedFuture(new IOException("page 2 failed"))
+                        : CompletableFuture.completedFuture(List.of(product(String.valueOf(page), "Item " + page))),
+                        (categoryUrl, page, products) -> seen.add(page)));
+
+        assertEquals("page 2 failed", e.getMessage());
+        assertEquals(List.of(1), seen);
+    }
+
+    @Test
+    void fetchPages_FailedPage_DeliversEarlierPagesThenThrows() {
+        List<Integer> seen = new ArrayList<>();
+
+        IllegalStateException e = assertThrows(IllegalStateException.class, () ->
+                scraper.fetchPages(parallelStore(1, 3), "fruit", 1, 5, page -> {
+                    if (page == 3) {
+                        throw new IllegalStateException("page 3 failed");
+                    }
+                    return CompletableFuture.completedFuture(List.of(product(String.valueOf(page), "Item " + page)));
+                }, (categoryUrl, page, products) -> seen.add(page)));
+
+        assertEquals("page 3 failed", e.getMessage());
+        assertEquals(List.of(1, 2), seen);
+    }
+
+    @Test
+    void fetchPages_NullPage_EndsCategory() throws Exception {
+        List<Integer> seen = new ArrayList<>();
+
+        scraper.fetchPages(parallelStore(1, 1), "fruit", 1, 5,
+                page -> CompletableFuture.completedFuture(
+                        page < 3 ? List.of(product(String.valueOf(page), "Item " + page)) : null),
+                (categoryUrl, page, products) -> seen.add(page));
+
+        assertEquals(List.of(1, 2), seen);
+    }
+
+    @Test
+    void scrapeAllProducts_CheckpointedCategory_IsSkipped() {
+        scraper.pages.put("fruit", List.of(product("1", "Apple")));
+        scraper.pages.put("dairy", List.of(product("2", "Milk")));
+
+        List<String> seen = new ArrayList<>();
+        scraper.scrapeAllProducts(Store.builder().code("TEST_SCRAPER").build(), new StoreScraper.ProductSink() {
+            @Override
+            public void onPage(String categoryUrl, int page, List<StoreScraper.ScrapedProduct> products) {
+                seen.add(categoryUrl);
+            }
+
+            @Override
+            public boolean wantsCategory(String categoryUrl) {
+                return !"fruit".equals(categoryUrl);
+            }
+        });
+
+        assertEquals(List.of("dairy"), seen);
+    }
+
+    @Test
+    void scrapeAllProducts_ParallelCategories_CompletesEachCategoryAfterItsPages() {
+        scraper.pages.put("fruit", List.of(product("1", "Apple")));
+        scraper.pages.put("dairy", List.of(product("2", "Milk")));
+        scraper.pages.put("bakery", List.of(product("3", "Bread")));
+        scraper.delaysMs.put("fruit", 200L);
+        scraper.failing.add("bakery");
+
+        List<String> seen = Collections.synchronizedList(new ArrayList<>());
+        scraper.scrapeAllProducts(parallelStore(3, 1), new StoreScraper.ProductSink() {
+            @Override
+            public void onPage(String categoryUrl, int page, List<StoreScraper.ScrapedProduct> products) {
+                seen.add(categoryUrl);
+            }
+
+            @Override
+            public void onCategoryComplete(String categoryUrl) {
+                seen.add(categoryUrl + " done");
+            }
+        });
+
+        // A failed category is never reported complete, so a resumed job retries it
+        assertEquals(List.of("fruit", "fruit done", "dairy", "dairy done"), seen);
+    }
+
+    @Test
+    void fetchPages_CheckpointedPages_AreNotFetched() throws Exception {
+        List<Integer> fetched = Collections.synchronizedList(new ArrayList<>());
+        List<Integer> seen = new ArrayList<>();
+
+        scraper.fetchPages(parallelStore(1, 2), "fruit", 1, 4, page -> {
+            fetched.add(page);
+            return CompletableFuture.completedFuture(List.of(product(String.valueOf(page), "Item " + page)));
+        }, new StoreScraper.ProductSink() {
+            @Override
+            public void onPage(String categoryUrl, int page, List<StoreScraper.ScrapedProduct> products) {
+                seen.add(page);
+            }
+
+            @Override
+            public boolean wantsPage(String categoryUrl, int page) {
+                return page != 2;
+            }
+        });
+
+        assertFalse(fetched.contains(2));
+        assertEquals(List.of(1, 3, 4), seen);
+    }
+
+    @Test
+    void fingerprint_HashesBodyAndKeepsValidators() {
+        StoreScraper.PageFingerprint a = AbstractStoreScraper.fingerprint("<html>a</html>", "\"v1\"", null);
+        StoreScraper.PageFingerprint b = AbstractStoreScraper.fingerprint("<html>a</html>", null, null);
+        StoreScraper.PageFingerprint c = AbstractStoreScraper.fingerprint("<html>b</html>", null, null);
+
+        assertEquals(64, a.contentHash().length());
+        assertEquals(a.contentHash(), b.contentHash());
+        assertNotEquals(a.contentHash(), c.contentHash());
+        assertEquals("\"v1\"", a.etag());
+    }
+
+    @Test
+    void scrapeAllProducts_ParallelCategories_UnchangedPageDeliveredEmpty() {
+        scraper.pages.put("fruit", List.of(product("1", "Apple")));
+        scraper.pages.put("dairy", List.of(product("2", "Milk")));
+        String fruitHash = AbstractStoreScraper.fingerprint("fruit", null, null).contentHash();
+        List<String> seen = Collections.synchronizedList(new ArrayList<>());
+
+        scraper.scrapeAllProducts(parallelStore(2, 1), new StoreScraper.ProductSink() {
+            @Override
+            public void onPage(String categoryUrl, int page, List<StoreScraper.ScrapedProduct> products) {
+                seen.add(categoryUrl + ":" + products.size());
+            }
+
+            @Override
+            public boolean isUnchanged(String categoryUrl, int page, StoreScraper.PageFingerprint fingerprint) {
+                return fingerprint.contentHash().equals(fruitHash);
+            }
+        });
+
+        assertEquals(List.of("fruit:0", "dairy:1"), seen);
+    }
+
+    private static Store parallelStore(int categoryParallelism, int pageParallelism) {
+        return Store.builder()
+                .code("TEST_SCRAPER")
+                .scraperConfig(Map.of(
+                        "categoryParallelism", categoryParallelism,
+                        "pageParallelism", pageParallelism))
+                .build();
+    }
+
+    private static StoreScraper.ScrapedProduct product(String id, String name) {
+        return new StoreScraper.ScrapedProduct(id, name, null, null, null, null, null,
+                new BigDecimal("1.00"), new BigDecimal("1.00"), null, false, null, true, null);
+    }
+
     /**
      * Concrete subclass for testing the abstract class methods.
      */
+    @Test
+    void fetchResponse_ConditionalRequestFails_IsRetried() throws Exception {
+        ReflectionTestUtils.setField(scraper, "maxRetryAttempts", 3);
+        scraper.userAgent = "test-agent";
+        scraper.timeoutSeconds = 5;
+        AtomicInteger requests = new AtomicInteger();
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            boolean conditional = "\"v1\"".equals(exchange.getRequestHeaders().getFirst("If-None-Match"));
+            exchange.sendResponseHeaders(requests.incrementAndGet() == 1 ? 503 : conditional ? 304 : 500, -1);
+            exchange.close();
+        });
+        server.start();
+        try {
+            String url = "http://127.0.0.1:" + server.getAddress().getPort() + "/fruit";
+            StoreScraper.PageFingerprint previous = new StoreScraper.PageFingerprint("hash", "\"v1\"", null);
+            StoreScraper.ProductSink sink = new StoreScraper.ProductSink() {
+                @Override
+                public void onPage(String categoryUrl, int page, List<StoreScraper.ScrapedProduct> products) {
+                }
+
+                @Override
+                public StoreScraper.PageFingerprint previousFingerprint(String categoryUrl, int page) {
+                    return previous;
+                }
+
+                @Override
+                public boolean isUnchanged(String categoryUrl, int page, StoreScraper.PageFingerprint fingerprint) {
+                    return fingerprint == previous;
+                }
+            };
+
+            assertNull(scraper.testFetchResponse(Store.builder().code("TEST_SCRAPER").build(), url, sink),
+                    "a 304 on the retry leaves the page unchanged");
+            assertEquals(2, requests.get());
+        } finally {
+            server.stop(0);
+        }
+    }
+
     static class TestStoreScraper extends AbstractStoreScraper {
 
-        protected TestStoreScraper(RateLimiterRegistry rateLimiterRegistry) {
-            super(rateLimiterRegistry);
+        private final Map<String, List<ScrapedProduct>> pages = new LinkedHashMap<>();
+        private final Map<String, Long> delaysMs = new HashMap<>();
+        private final Set<String> failing = new HashSet<>();
+
+        protected TestStoreScraper(RateLimiterRegistry rateLimiterRegistry, ScrapeMetrics metrics,
+                                   AdaptivePacer pacer, ScraperHttpClient httpClient) {
+            super(rateLimiterRegistry, metrics, pacer, httpClient);
         }
 
         @Override
@@ -155,12 +549,24 @@ class AbstractStoreScraperTest {
 
         @Override
         protected List<String> getCategoryUrls(Store store) {
-            return List.of();
+            return new ArrayList<>(pages.keySet());
         }
 
         @Override
-        public List<ScrapedProduct> scrapeProducts(Store store, String categoryUrl) {
-            return List.of();
+        public void scrapeProducts(Store store, String categoryUrl, ProductSink sink) {
+            if (failing.contains(categoryUrl)) {
+                throw new IllegalStateException("Category unavailable: " + categoryUrl);
+            }
+            try {
+                Thread.sleep(delaysMs.getOrDefault(categoryUrl, 0L));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (sink.isUnchanged(categoryUrl, 1, fingerprint(categoryUrl, null, null))) {
+                sink.onPage(categoryUrl, 1, List.of());
+                return;
+            }
+            sink.onPage(categoryUrl, 1, pages.getOrDefault(categoryUrl, List.of()));
         }
 
         // Expose protected methods for testing
@@ -179,5 +585,9 @@ class AbstractStoreScraperTest {
         public String testExtractUnit(String text) {
             return extractUnit(text);
         }
+
+        public ScraperHttpResponse testFetchResponse(Store store, String url, ProductSink sink) throws IOException {
+            return fetchResponse(store, url, sink, url, 1);
+        }
     }
 }
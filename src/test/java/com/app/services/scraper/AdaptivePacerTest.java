@@ -0,0 +1,153 @@
+package com.app.services.scraper;
+
+import com.app.models.Store;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptivePacerTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(200);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(5000);
+
+    private MeterRegistry meterRegistry;
+    private CircuitBreakerRegistry circuitBreakerRegistry;
+    private AdaptivePacer pacer;
+    private Store store;
+
+    /**
+     * A pacer that never waits, for scraper tests.
+     */
+    static AdaptivePacer disabled() {
+        return new AdaptivePacer(new SimpleMeterRegistry(), CircuitBreakerRegistry.ofDefaults(),
+                false, 1, 0.2, 5, 0.25, 0.5, 3000, 0.1, 20);
+    }
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        circuitBreakerRegistry = CircuitBreakerRegistry.ofDefaults();
+        // Window of 4 responses, starting at 1 request/second
+        pacer = new AdaptivePacer(meterRegistry, circuitBreakerRegistry, true, 1, 0.25, 2, 0.5, 0.5, 3000, 0.25, 4);
+        store = Store.builder().code("RCSS").build();
+        pacer.await(store);
+    }
+
+    @Test
+    void onResponse_HealthyWindow_IncreasesAdditively() {
+        respond(4, FAST, 200);
+
+        assertEquals(1.5, rate());
+        respond(4, FAST, 200);
+        assertEquals(2.0, rate());
+        respond(4, FAST, 200);
+        assertEquals(2.0, rate(), "capped at max-rps");
+    }
+
+    @Test
+    void onResponse_SlowWindow_DecreasesMultiplicatively() {
+        respond(4, SLOW, 200);
+
+        assertEquals(0.5, rate());
+    }
+
+    @Test
+    void onResponse_Throttled_CutsOncePerWindow() {
+        pacer.onResponse("RCSS", FAST, 429);
+        pacer.onResponse("RCSS", FAST, 429);
+
+        assertEquals(0.5, rate());
+        respond(2, FAST, 200);
+        assertEquals(0.5, rate(), "a throttled window does not increase the rate");
+        assertEquals(1.0, meterRegistry.get("scraper.pacing.adjustments").tag("direction", "decrease").counter().count());
+    }
+
+    @Test
+    void circuitBreakerOpen_DropsToMinimum() {
+        circuitBreakerRegistry.circuitBreaker("RCSS").transitionToOpenState();
+
+        assertEquals(0.25, rate());
+        assertEquals("circuit breaker open", pacer.getStatuses().get(0).history().get(1).reason());
+    }
+
+    @Test
+    void await_StoreConfig_OverridesBounds() {
+        Store walmart = Store.builder().code("WALMART")
+                .scraperConfig(Map.of("requestsPerSecond", 0.3, "maxRequestsPerSecond", 0.5))
+                .build();
+        pacer.await(walmart);
+
+        AdaptivePacer.PacingStatus status = pacer.getStatuses().get(1);
+        assertEquals("WALMART", status.storeCode());
+        assertEquals(0.3, status.requestsPerSecond());
+        assertEquals(0.5, status.maxRequestsPerSecond());
+    }
+
+    @Test
+    void await_SpacesRequestsAtCurrentRate() {
+        pacer.onResponse("RCSS", FAST, 429);  // 0.5 requests/second: one slot every 2 seconds
+        long start = System.nanoTime();
+        pacer.await(store);
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertTrue(elapsedMs >= 900, "second request waits for its slot, took " + elapsedMs + "ms");
+        assertEquals(0.5, meterRegistry.get("scraper.pacing.rate").tag("store", "RCSS").gauge().value());
+    }
+
+    @Test
+    void await_LimiterSlowerThanMax_ClampsRate() {
+        Store walmart = Store.builder().code("WALMART").build();
+        pacer.await(walmart, 0.5, 0);
+
+        AdaptivePacer.PacingStatus status = pacer.getStatuses().get(1);
+        assertEquals(0.5, status.requestsPerSecond());
+        assertEquals(0.5, status.maxRequestsPerSecond());
+        for (int i = 0; i < 4; i++) {
+            pacer.onResponse("WALMART", FAST, 200);
+        }
+        assertEquals(0.5, pacer.getStatuses().get(1).requestsPerSecond(), "never raised past the limiter");
+    }
+
+    @Test
+    void onResponse_LimiterWaitDominates_HoldsRate() {
+        // Fast enough that waiting for the pacer's own slots takes no time worth mentioning
+        AdaptivePacer fast = new AdaptivePacer(meterRegistry, circuitBreakerRegistry, true, 50, 1, 100, 10, 0.5,
+                3000, 0.25, 4);
+        for (int i = 0; i < 4; i++) {
+            fast.await(store, 200, TimeUnit.MILLISECONDS.toNanos(500));
+            fast.onResponse("RCSS", FAST, 200);
+        }
+
+        assertEquals(50.0, fast.getStatuses().get(0).requestsPerSecond());
+    }
+
+    @Test
+    void onOutcome_CountsStatusButNotLatency() {
+        respond(2, SLOW, 200);
+        pacer.onOutcome("RCSS", 200);
+        pacer.onOutcome("RCSS", 200);
+        assertEquals(0.5, rate(), "p95 of the timed responses only");
+
+        for (int i = 0; i < 4; i++) {
+            pacer.onOutcome("RCSS", 200);
+        }
+        assertEquals(1.0, rate());
+    }
+
+    private void respond(int count, long latencyNanos, int status) {
+        for (int i = 0; i < count; i++) {
+            pacer.onResponse("RCSS", latencyNanos, status);
+        }
+    }
+
+    private double rate() {
+        return pacer.getStatuses().get(0).requestsPerSecond();
+    }
+}
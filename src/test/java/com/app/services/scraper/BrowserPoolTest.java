@@ -0,0 +1,221 @@
+package com.app.services.scraper;
+
+import com.microsoft.playwright.Browser;
+import com.microsoft.playwright.BrowserContext;
+import com.microsoft.playwright.BrowserType;
+import com.microsoft.playwright.Page;
+import com.microsoft.playwright.Playwright;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BrowserPoolTest {
+
+    private static final String STORAGE_STATE = "{\"cookies\":[{\"name\":\"consent\",\"value\":\"yes\"}]}";
+
+    private final List<FakePlaywright> playwrights = new ArrayList<>();
+    private final List<FakeBrowser> browsers = new ArrayList<>();
+    private final List<BrowserContext> contextsSetUp = new ArrayList<>();
+
+    @Test
+    void withPage_ReusesContextBetweenUses() throws Exception {
+        BrowserPool pool = pool(1, 10);
+
+        Page first = pool.withPage((page, newContext) -> {
+            assertTrue(newContext);
+            return page;
+        });
+        Page second = pool.withPage((page, newContext) -> {
+            assertFalse(newContext, "cookie and consent state carries over");
+            return page;
+        });
+
+        assertSame(first, second);
+        assertEquals(1, playwrights.size());
+        assertEquals(1, browsers.size());
+    }
+
+    @Test
+    void withPage_RecyclesBrowserAndKeepsStorageState() throws Exception {
+        BrowserPool pool = pool(1, 2);
+
+        for (int i = 0; i < 3; i++) {
+            pool.withPage((page, newContext) -> page);
+        }
+
+        assertEquals(2, browsers.size());
+        assertTrue(browsers.get(0).closed);
+        assertNull(browsers.get(0).contextOptions.storageState);
+        assertEquals(STORAGE_STATE, browsers.get(1).contextOptions.storageState);
+        assertEquals(1, playwrights.size(), "the Playwright driver is kept");
+        assertEquals(List.of(browsers.get(0).context, browsers.get(1).context), contextsSetUp);
+    }
+
+    @Test
+    void withPage_PageClosed_RelaunchesOnNextUse() throws Exception {
+        BrowserPool pool = pool(1, 10);
+
+        pool.withPage((page, newContext) -> {
+            browsers.get(0).page.closed = true;
+            return page;
+        });
+        boolean newContext = pool.withPage((page, fresh) -> fresh);
+
+        assertTrue(newContext);
+        assertEquals(2, browsers.size());
+        assertTrue(browsers.get(0).closed);
+        assertNull(browsers.get(1).contextOptions.storageState);
+    }
+
+    @Test
+    void withPage_LendsEachPageToOneThreadAtATime() throws Exception {
+        BrowserPool pool = pool(2, 100);
+        AtomicInteger inUse = new AtomicInteger();
+        AtomicInteger maxInUse = new AtomicInteger();
+        Set<Page> pagesUsed = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            futures.add(executor.submit(() -> pool.withPage((page, newContext) -> {
+                maxInUse.accumulateAndGet(inUse.incrementAndGet(), Math::max);
+                pagesUsed.add(page);
+                sleep(20);
+                inUse.decrementAndGet();
+                return null;
+            })));
+        }
+        for (Future<?> future : futures) {
+            future.get(5, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertEquals(2, maxInUse.get());
+        assertEquals(2, pagesUsed.size());
+    }
+
+    @Test
+    void close_ClosesBrowsersAndRejectsFurtherUse() throws Exception {
+        BrowserPool pool = pool(2, 10);
+        pool.withPage((page, newContext) -> page);
+
+        pool.close();
+
+        assertTrue(browsers.get(0).closed);
+        assertTrue(playwrights.get(0).closed);
+        assertThrows(IllegalStateException.class, () -> pool.withPage((page, newContext) -> page));
+    }
+
+    private BrowserPool pool(int size, int recycleAfterPages) {
+        return new BrowserPool(size, recycleAfterPages, this::playwright, new BrowserType.LaunchOptions(),
+                contextsSetUp::add);
+    }
+
+    private synchronized Playwright playwright() {
+        FakePlaywright playwright = new FakePlaywright();
+        playwrights.add(playwright);
+        return playwright.proxy;
+    }
+
+    private synchronized FakeBrowser launch() {
+        FakeBrowser browser = new FakeBrowser();
+        browsers.add(browser);
+        return browser;
+    }
+
+    // Playwright's types are interfaces: the fakes are proxies answering the calls the pool makes
+    @SuppressWarnings("unchecked")
+    private static <T> T fake(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+
+    private static Object identity(Object self, Method method, Object[] args) {
+        return switch (method.getName()) {
+            case "hashCode" -> System.identityHashCode(self);
+            case "equals" -> self == args[0];
+            default -> throw new UnsupportedOperationException(method.getName());
+        };
+    }
+
+    private class FakePlaywright implements InvocationHandler {
+
+        final Playwright proxy = fake(Playwright.class, this);
+        final BrowserType chromium = fake(BrowserType.class, (self, method, args) ->
+                method.getName().equals("launch") ? launch().proxy : identity(self, method, args));
+        volatile boolean closed;
+
+        @Override
+        public Object invoke(Object self, Method method, Object[] args) {
+            return switch (method.getName()) {
+                case "chromium" -> chromium;
+                case "close" -> {
+                    closed = true;
+                    yield null;
+                }
+                default -> identity(self, method, args);
+            };
+        }
+    }
+
+    private static class FakeBrowser implements InvocationHandler {
+
+        final Browser proxy = fake(Browser.class, this);
+        final FakePage page = new FakePage();
+        final BrowserContext context = fake(BrowserContext.class, (self, method, args) ->
+                switch (method.getName()) {
+                    case "newPage" -> page.proxy;
+                    case "storageState" -> STORAGE_STATE;
+                    default -> identity(self, method, args);
+                });
+        volatile boolean closed;
+        volatile Browser.NewContextOptions contextOptions;
+
+        @Override
+        public Object invoke(Object self, Method method, Object[] args) {
+            return switch (method.getName()) {
+                case "isConnected" -> !closed;
+                case "newContext" -> {
+                    contextOptions = (Browser.NewContextOptions) args[0];
+                    yield context;
+                }
+                case "close" -> {
+                    closed = true;
+                    yield null;
+                }
+                default -> identity(self, method, args);
+            };
+        }
+    }
+
+    private static class FakePage implements InvocationHandler {
+
+        final Page proxy = fake(Page.class, this);
+        volatile boolean closed;
+
+        @Override
+        public Object invoke(Object self, Method method, Object[] args) {
+            return method.getName().equals("isClosed") ? closed : identity(self, method, args);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
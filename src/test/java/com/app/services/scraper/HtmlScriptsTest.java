@@ -0,0 +1,48 @@
+package com.app.services.scraper;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HtmlScriptsTest {
+
+    @Test
+    void find_ReturnsScriptContentAndAttributes() {
+        String html = """
+                <html><head><SCRIPT type="Application/LD+JSON">{"@type":"Product"}</SCRIPT>
+                <script src="/app.js"></script></head>
+                <body><script id='__NEXT_DATA__' type="application/json">{"props":{"title":"a > b"}}</script></body></html>
+                """;
+
+        List<HtmlScripts.Script> scripts = HtmlScripts.find(html.getBytes(StandardCharsets.UTF_8));
+
+        assertEquals(3, scripts.size());
+        assertEquals("application/ld+json", scripts.get(0).type());
+        assertEquals("{\"@type\":\"Product\"}", scripts.get(0).text());
+        assertEquals("", scripts.get(1).text());
+        assertEquals("__NEXT_DATA__", scripts.get(2).id());
+        assertEquals("{\"props\":{\"title\":\"a > b\"}}", scripts.get(2).text());
+    }
+
+    @Test
+    void find_QuotedAngleBracketInTag_AndMultibyteContent() {
+        String html = "<scripts></scripts><script data-x=\"1>2\" id=data>{\"name\":\"Café ½\"}</script>";
+
+        List<HtmlScripts.Script> scripts = HtmlScripts.find(html.getBytes(StandardCharsets.UTF_8));
+
+        assertEquals(1, scripts.size());
+        assertEquals("data", scripts.get(0).id());
+        assertEquals("{\"name\":\"Café ½\"}", scripts.get(0).text());
+    }
+
+    @Test
+    void find_UnclosedScript_RunsToEndOfPage() {
+        List<HtmlScripts.Script> scripts = HtmlScripts.find("<p>x</p><script>var a = 1;".getBytes(StandardCharsets.UTF_8));
+
+        assertEquals(1, scripts.size());
+        assertEquals("var a = 1;", scripts.get(0).text());
+    }
+}
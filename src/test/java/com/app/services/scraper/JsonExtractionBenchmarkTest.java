@@ -0,0 +1,84 @@
+package com.app.services.scraper;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.resilience4j.ratelimiter.RateLimiterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Streaming extraction against reading the whole response into a tree, on responses the size
+ * of real ones. Run with {@code mvn test -Dbenchmark=true -Dtest=JsonExtractionBenchmarkTest}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class JsonExtractionBenchmarkTest {
+
+    private static final int WARMUP = 200;
+    private static final int ITERATIONS = 500;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private SuperstoreScraper superstore;
+    private TntScraper tnt;
+    private WalmartScraper walmart;
+
+    @BeforeEach
+    void setUp() {
+        RateLimiterRegistry registry = RateLimiterRegistry.ofDefaults();
+        ScrapeMetrics metrics = new ScrapeMetrics(new SimpleMeterRegistry());
+        superstore = new SuperstoreScraper(registry, objectMapper, metrics, AdaptivePacerTest.disabled(),
+                ScraperHttpClientTest.client());
+        tnt = new TntScraper(registry, objectMapper, metrics, AdaptivePacerTest.disabled(),
+                ScraperHttpClientTest.client());
+        walmart = new WalmartScraper(registry, objectMapper, metrics, AdaptivePacerTest.disabled(),
+                ScraperHttpClientTest.client());
+    }
+
+    @Test
+    void superstoreListingPage() throws Exception {
+        byte[] body = ScrapePayloads.superstore(48, 3000).getBytes(StandardCharsets.UTF_8);
+        System.out.printf("RCSS listing page, %d KB%n", body.length / 1024);
+
+        ParsingBenchmark.Result tree = ParsingBenchmark.measure("RCSS tree", WARMUP, ITERATIONS,
+                () -> superstore.parsePageTree(objectMapper.readTree(body), "28000", true));
+        ParsingBenchmark.Result streaming = ParsingBenchmark.measure("RCSS streaming", WARMUP, ITERATIONS,
+                () -> superstore.parsePage(body, "28000", true));
+
+        assertEquals(superstore.parsePageTree(objectMapper.readTree(body), "28000", true),
+                superstore.parsePage(body, "28000", true));
+        assertTrue(streaming.bytesPerOp() < tree.bytesPerOp());
+    }
+
+    @Test
+    void tntGraphQLPage() throws Exception {
+        byte[] body = ScrapePayloads.tnt(48, 2000).getBytes(StandardCharsets.UTF_8);
+        System.out.printf("T&T GraphQL page, %d KB%n", body.length / 1024);
+
+        ParsingBenchmark.Result tree = ParsingBenchmark.measure("T&T tree", WARMUP, ITERATIONS,
+                () -> tnt.parsePageTree(objectMapper.readTree(body), "2877", true));
+        ParsingBenchmark.Result streaming = ParsingBenchmark.measure("T&T streaming", WARMUP, ITERATIONS,
+                () -> tnt.parsePage(body, "2877", true));
+
+        assertEquals(tnt.parsePageTree(objectMapper.readTree(body), "2877", true), tnt.parsePage(body, "2877", true));
+        assertTrue(streaming.bytesPerOp() < tree.bytesPerOp());
+    }
+
+    @Test
+    void walmartNextData() throws Exception {
+        String json = ScrapePayloads.walmartNextData(40, 20000);
+        System.out.printf("Walmart __NEXT_DATA__, %d KB%n", json.length() / 1024);
+
+        ParsingBenchmark.Result tree = ParsingBenchmark.measure("Walmart __NEXT_DATA__ tree", WARMUP / 4,
+                ITERATIONS / 4, () -> walmart.parseNextDataTree(json, "https://www.walmart.ca", "Milk"));
+        ParsingBenchmark.Result streaming = ParsingBenchmark.measure("Walmart __NEXT_DATA__ streaming",
+                WARMUP / 4, ITERATIONS / 4, () -> walmart.parseNextDataJson(json, "https://www.walmart.ca", "Milk"));
+
+        assertEquals(walmart.parseNextDataTree(json, "https://www.walmart.ca", "Milk"),
+                walmart.parseNextDataJson(json, "https://www.walmart.ca", "Milk"));
+        assertTrue(streaming.bytesPerOp() < tree.bytesPerOp());
+    }
+}
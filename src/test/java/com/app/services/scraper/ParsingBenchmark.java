@@ -0,0 +1,51 @@
+package com.app.services.scraper;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.Callable;
+
+/**
+ * A small single-threaded harness for the parsing benchmarks: runs an operation through a
+ * warm-up and then a measured set of iterations, reporting throughput, CPU time and the bytes
+ * the thread allocated per operation. Run with {@code mvn test -Dbenchmark=true
+ * -Dtest='*BenchmarkTest'}.
+ */
+final class ParsingBenchmark {
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    // Keeps results reachable so the JIT cannot drop the work
+    static volatile int sink;
+
+    private ParsingBenchmark() {
+    }
+
+    record Result(String name, double opsPerSecond, double cpuMicrosPerOp, double bytesPerOp) {
+
+        @Override
+        public String toString() {
+            return String.format("%-40s %10.1f ops/s %10.1f us cpu/op %12.0f B/op",
+                    name, opsPerSecond, cpuMicrosPerOp, bytesPerOp);
+        }
+    }
+
+    static Result measure(String name, int warmup, int iterations, Callable<?> operation) throws Exception {
+        for (int i = 0; i < warmup; i++) {
+            sink += System.identityHashCode(operation.call());
+        }
+        long bytesBefore = THREADS.getCurrentThreadAllocatedBytes();
+        long cpuBefore = THREADS.getCurrentThreadCpuTime();
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            sink += System.identityHashCode(operation.call());
+        }
+        long elapsed = System.nanoTime() - start;
+        long cpu = THREADS.getCurrentThreadCpuTime() - cpuBefore;
+        long bytes = THREADS.getCurrentThreadAllocatedBytes() - bytesBefore;
+
+        Result result = new Result(name, iterations * 1e9 / elapsed, cpu / 1e3 / iterations,
+                (double) bytes / iterations);
+        System.out.println(result);
+        return result;
+    }
+}
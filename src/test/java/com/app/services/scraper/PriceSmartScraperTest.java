@@ -1,9 +1,11 @@
 package com.app.services.scraper;
 
 import com.app.models.Store;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.github.resilience4j.ratelimiter.RateLimiter;
 import io.github.resilience4j.ratelimiter.RateLimiterConfig;
 import io.github.resilience4j.ratelimiter.RateLimiterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
@@ -31,7 +33,9 @@ class PriceSmartScraperTest {
                 .build();
         RateLimiterRegistry registry = RateLimiterRegistry.of(config);
 
-        scraper = new PriceSmartScraper(registry);
+        scraper = new PriceSmartScraper(registry, new ObjectMapper(),
+                new ScrapeMetrics(new SimpleMeterRegistry()), AdaptivePacerTest.disabled(),
+                ScraperHttpClientTest.client());
 
         testStore = Store.builder()
                 .name("PriceSmart Foods")
@@ -274,4 +278,99 @@ class PriceSmartScraperTest {
         assertNotNull(promo);
         assertEquals("Buy 2 Get 1 Free", promo.text());
     }
+
+    @Test
+    void parseListing_ReadsProductsAndTotal() throws Exception {
+        String json = """
+                {"items":[
+                  {"productId":"00068100084313","sku":"068100084313","name":"Kraft Peanut Butter 1 Kilogram",
+                   "brand":"Kraft","price":"$6.99","priceNumeric":6.99,"wasPrice":"$8.49",
+                   "pricePerUnit":"$0.70/100g","image":{"default":"https://images.example.com/pb.jpg"},
+                   "available":true,"promotions":[{"name":"Save $1.50"}]},
+                  {"productId":"00062639331452","name":"Fresh Strawberries 454 Gram","price":"$4.99",
+                   "available":false,"productUrl":"/sm/pickup/rsid/2274/product/strawberries-id-00062639331452"},
+                  {"name":"No id"}
+                ],"total":57,"skip":0,"take":30}
+                """;
+        String sourceUrl = "https://www.pricesmartfoods.ca/sm/pickup/rsid/2274/categories/pantry/breakfast-id-30481";
+
+        PriceSmartScraper.ListingPage page = scraper.parseListing(new ObjectMapper().readTree(json), sourceUrl);
+
+        assertEquals(57, page.total());
+        assertEquals(2, page.products().size());
+        StoreScraper.ScrapedProduct peanutButter = page.products().get(0);
+        assertEquals("00068100084313", peanutButter.storeProductId());
+        assertEquals("Kraft", peanutButter.brand());
+        assertEquals(new BigDecimal("8.49"), peanutButter.regularPrice());
+        assertEquals(new BigDecimal("6.99"), peanutButter.salePrice());
+        assertTrue(peanutButter.onSale());
+        assertEquals("Save $1.50", peanutButter.promoDescription());
+        assertEquals(new BigDecimal("0.70"), peanutButter.unitPrice());
+        assertEquals("https://images.example.com/pb.jpg", peanutButter.imageUrl());
+        assertEquals("30481:Breakfast", peanutButter.category());
+        StoreScraper.ScrapedProduct strawberries = page.products().get(1);
+        assertFalse(strawberries.onSale());
+        assertFalse(strawberries.inStock());
+        assertEquals("https://www.pricesmartfoods.ca/sm/pickup/rsid/2274/product/strawberries-id-00062639331452",
+                strawberries.sourceUrl());
+    }
+
+    @Test
+    void parseListing_NoTotal_LeavesTotalUnknown() throws Exception {
+        String json = """
+                {"products":[{"productId":"00068100084313","name":"Kraft Peanut Butter 1 Kilogram","price":"$6.99"}]}
+                """;
+
+        PriceSmartScraper.ListingPage page = scraper.parseListing(new ObjectMapper().readTree(json),
+                "https://www.pricesmartfoods.ca/sm/pickup/rsid/2274/categories/pantry/breakfast-id-30481");
+
+        assertEquals(1, page.products().size());
+        assertEquals(-1, page.total());
+    }
+
+    @Test
+    void parseListing_NoProductArray_ReturnsNull() throws Exception {
+        assertNull(scraper.parseListing(new ObjectMapper().readTree("{\"facets\":[]}"),
+                "https://www.pricesmartfoods.ca/sm/pickup/rsid/2274/categories/pantry/breakfast-id-30481"));
+    }
+
+    @Test
+    void nextListingUrl_AdvancesSkipOrPage() {
+        assertEquals("https://api.example.com/stores/2274/categories/30481/search?take=30&skip=60",
+                PriceSmartScraper.nextListingUrl(
+                        "https://api.example.com/stores/2274/categories/30481/search?take=30&skip=30", 60));
+        assertEquals("https://api.example.com/search?category=30481&page=3",
+                PriceSmartScraper.nextListingUrl("https://api.example.com/search?category=30481&page=2", 60));
+        assertNull(PriceSmartScraper.nextListingUrl("https://api.example.com/categories/30481", 30));
+    }
+
+    @Test
+    void parseCard_ReadsRenderedCard() {
+        String card = """
+                <article class="ProductCardWrapper--abc" data-testid="ProductCardWrapper-00068100084313">
+                  <a class="ProductCardHiddenLink--x" href="https://www.pricesmartfoods.ca/sm/pickup/rsid/2274/product/pb"></a>
+                  <div class="ProductCardImage--y"><img src="https://images.example.com/pb.jpg"></div>
+                  <span class="ProductAQABrand--z">Kraft</span>
+                  <div class="ProductCardTitle--t">Kraft Peanut Butter 1 Kilogram Open product description</div>
+                  <span class="ProductCardPrice--p">$6.99</span>
+                  <span class="ProductCardPriceInfo--i">$0.70/100g</span>
+                </article>
+                """;
+
+        StoreScraper.ScrapedProduct product = scraper.parseCard(card,
+                "https://www.pricesmartfoods.ca/sm/pickup/rsid/2274/categories/pantry/breakfast-id-30481");
+
+        assertEquals("00068100084313", product.storeProductId());
+        assertEquals("Kraft Peanut Butter 1 Kilogram", product.name());
+        assertEquals("Kraft", product.brand());
+        assertEquals(new BigDecimal("6.99"), product.regularPrice());
+        assertEquals("https://images.example.com/pb.jpg", product.imageUrl());
+        assertEquals("30481:Breakfast", product.category());
+    }
+
+    @Test
+    void parseCard_NotAProductCard_ReturnsNull() {
+        assertNull(scraper.parseCard("<div>Sponsored</div>",
+                "https://www.pricesmartfoods.ca/sm/pickup/rsid/2274/categories/pantry/breakfast-id-30481"));
+    }
 }
@@ -0,0 +1,81 @@
+package com.app.services.scraper;
+
+import com.microsoft.playwright.BrowserContext;
+import com.microsoft.playwright.Request;
+import com.microsoft.playwright.Route;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResourceBlockerTest {
+
+    private final List<String> blocked = new ArrayList<>();
+
+    @Test
+    void blocks_ConfiguredTypesAndHostsWithSubdomains() {
+        ResourceBlocker blocker = new ResourceBlocker(Set.of("font", " Media "), false,
+                List.of("google-analytics.com", " doubleclick.net", ""), blocked::add);
+
+        assertTrue(blocker.blocks("font", "https://www.pricesmartfoods.ca/fonts/a.woff2"));
+        assertTrue(blocker.blocks("media", "https://cdn.example.com/promo.mp4"));
+        assertTrue(blocker.blocks("script", "https://www.google-analytics.com/analytics.js"));
+        assertTrue(blocker.blocks("xhr", "https://stats.g.doubleclick.net/collect"));
+        assertFalse(blocker.blocks("script", "https://notdoubleclick.net/app.js"));
+        assertFalse(blocker.blocks("xhr", "https://storefrontgateway.pricesmartfoods.ca/api/stores/2274"));
+        assertFalse(blocker.blocks("image", "not a url"));
+    }
+
+    @Test
+    void route_AbortsBlockedAnswersImagesAndResumesTheRest() {
+        ResourceBlocker blocker = new ResourceBlocker(Set.of("font"), true, List.of("hotjar.com"), blocked::add);
+        Consumer<Route> handler = installedHandler(blocker);
+
+        assertEquals("abort", route(handler, "font", "https://www.pricesmartfoods.ca/a.woff2"));
+        assertEquals("abort", route(handler, "script", "https://static.hotjar.com/c/hotjar.js"));
+        assertEquals("fulfill", route(handler, "image", "https://images.example.com/pb.jpg"));
+        assertEquals("resume", route(handler, "document", "https://www.pricesmartfoods.ca/sm/pickup"));
+        assertEquals(List.of("font", "script", "image"), blocked);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Consumer<Route> installedHandler(ResourceBlocker blocker) {
+        List<Consumer<Route>> handlers = new ArrayList<>();
+        BrowserContext context = (BrowserContext) Proxy.newProxyInstance(BrowserContext.class.getClassLoader(),
+                new Class<?>[]{BrowserContext.class}, (self, method, args) -> {
+                    assertEquals("route", method.getName());
+                    handlers.add((Consumer<Route>) args[1]);
+                    return null;
+                });
+        blocker.accept(context);
+        assertEquals(1, handlers.size());
+        return handlers.get(0);
+    }
+
+    // Which of abort, fulfill or resume the handler answered the request with
+    private static String route(Consumer<Route> handler, String resourceType, String url) {
+        Request request = (Request) Proxy.newProxyInstance(Request.class.getClassLoader(),
+                new Class<?>[]{Request.class}, (self, method, args) -> switch (method.getName()) {
+                    case "resourceType" -> resourceType;
+                    case "url" -> url;
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+        List<String> answers = new ArrayList<>();
+        Route route = (Route) Proxy.newProxyInstance(Route.class.getClassLoader(),
+                new Class<?>[]{Route.class}, (self, method, args) -> {
+                    if (method.getName().equals("request")) {
+                        return request;
+                    }
+                    answers.add(method.getName());
+                    return null;
+                });
+        handler.accept(route);
+        assertEquals(1, answers.size());
+        return answers.get(0);
+    }
+}
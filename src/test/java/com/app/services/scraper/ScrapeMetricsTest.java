@@ -0,0 +1,84 @@
+package com.app.services.scraper;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScrapeMetricsTest {
+
+    private MeterRegistry registry;
+    private ScrapeMetrics metrics;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        metrics = new ScrapeMetrics(registry);
+    }
+
+    @Test
+    void recordFetch_TaggedByStore() {
+        metrics.recordFetch("RCSS", TimeUnit.MILLISECONDS.toNanos(200), 1000);
+        metrics.recordFetch("RCSS", TimeUnit.MILLISECONDS.toNanos(400), 3000);
+        metrics.recordFetch("TNT", TimeUnit.MILLISECONDS.toNanos(100), 500);
+
+        Timer rcss = registry.get(ScrapeMetrics.FETCH).tag("store", "RCSS").timer();
+        assertEquals(2, rcss.count());
+        assertEquals(4000, registry.get(ScrapeMetrics.FETCH_BYTES).tag("store", "RCSS").summary().totalAmount());
+    }
+
+    @Test
+    void recordRenderTraffic_TaggedByStoreAndBlockedType() {
+        metrics.recordRenderBytes("PRICESMART", 800_000);
+        metrics.recordBlockedRequest("PRICESMART", "font");
+        metrics.recordBlockedRequest("PRICESMART", "font");
+        metrics.recordBlockedRequest("PRICESMART", "image");
+
+        assertEquals(800_000, registry.get(ScrapeMetrics.RENDER_BYTES).tag("store", "PRICESMART").summary().totalAmount());
+        assertEquals(2, registry.get(ScrapeMetrics.RENDER_BLOCKED).tag("type", "font").counter().count());
+        assertEquals(1, registry.get(ScrapeMetrics.RENDER_BLOCKED).tag("type", "image").counter().count());
+    }
+
+    @Test
+    void snapshot_ReportsStageTimingsAndCacheHitRatio() {
+        metrics.recordFetch("RCSS", TimeUnit.MILLISECONDS.toNanos(200), 1000);
+        metrics.recordFetch("RCSS", TimeUnit.MILLISECONDS.toNanos(400), 3000);
+        metrics.recordPersist("RCSS", TimeUnit.MILLISECONDS.toNanos(50), 500);
+        metrics.recordIdentityCache("RCSS", 3, 1);
+        metrics.recordRender("RCSS", TimeUnit.MILLISECONDS.toNanos(2500));
+
+        ScrapeMetrics.StageMetrics stages = metrics.snapshot("RCSS");
+
+        assertEquals(2, stages.fetch().count());
+        assertEquals(300.0, stages.fetch().meanMs());
+        assertEquals(400.0, stages.fetch().maxMs());
+        assertEquals(4000, stages.bytesDownloaded());
+        assertEquals(1, stages.persist().count());
+        assertEquals(0.75, stages.identityCacheHitRatio());
+        assertEquals(2500.0, stages.render().maxMs());
+        assertEquals(0, stages.parse().count());
+    }
+
+    @Test
+    void meanRateLimiterWaitMs_AveragesTheStoresWaits() {
+        metrics.recordRateLimiterWait("WALMART", TimeUnit.MILLISECONDS.toNanos(1000));
+        metrics.recordRateLimiterWait("WALMART", TimeUnit.MILLISECONDS.toNanos(500));
+
+        assertEquals(750.0, metrics.meanRateLimiterWaitMs("WALMART"));
+        assertEquals(0.0, metrics.meanRateLimiterWaitMs("RCSS"));
+    }
+
+    @Test
+    void snapshot_UnknownStore_ReturnsEmptyTimings() {
+        ScrapeMetrics.StageMetrics stages = metrics.snapshot("NONE");
+
+        assertEquals(0, stages.match().count());
+        assertEquals(0, stages.bytesDownloaded());
+        assertNull(stages.identityCacheHitRatio());
+    }
+}
@@ -0,0 +1,127 @@
+package com.app.services.scraper;
+
+/**
+ * Synthetic store responses shaped like the real ones, with the product arrays surrounded by the
+ * unrelated page state the real responses carry, for parsing tests and benchmarks.
+ */
+final class ScrapePayloads {
+
+    private ScrapePayloads() {
+    }
+
+    /**
+     * A PC Express listing page: filters and a banner component around one product carousel.
+     */
+    static String superstore(int products, int fillerEntries) {
+        StringBuilder tiles = new StringBuilder();
+        for (int i = 0; i < products; i++) {
+            if (i > 0) {
+                tiles.append(',');
+            }
+            tiles.append("""
+                    {"productId":"2100%05d_EA","title":"Gala Apples %d, 3 lb bag","brand":"Farmer's Market",
+                     "productImage":[{"smallUrl":"https://assets.example.com/%d-small.jpg","mediumUrl":"https://assets.example.com/%d.jpg"}],
+                     "pricing":{"price":"%d.49","wasPrice":%s},"deal":%s,
+                     "inventoryIndicator":{"indicatorId":"%s"},"packageSizing":"1.36 kg, $%d.49/1kg",
+                     "pricingUnits":{"unit":"ea","type":"SOLD_BY_EACH"},"link":"/gala-apples/p/2100%05d_EA",
+                     "badges":{"dealBadge":null,"loyaltyBadge":null},"sellerId":"RCSS","ratings":{"count":%d,"average":4.2}}
+                    """.formatted(i, i, i, i, 2 + i % 7, i % 3 == 0 ? "\"" + (4 + i % 7) + ".99\"" : "null",
+                    i % 3 == 0 ? "{\"text\":\"Save $1.50\"}" : "null", i % 11 == 0 ? "OUT" : "IN",
+                    2 + i % 7, i, i * 3));
+        }
+        return """
+                {"pagination":{"totalResults":%d,"totalPages":%d,"pageNumber":0},
+                 "filters":%s,
+                 "layout":{"sections":{"mainContentCollection":{"components":[
+                   {"componentId":"bannerComponent","data":{"title":"Weekly deals","items":%s}},
+                   {"componentId":"productCarouselComponent","data":{"productTiles":[%s]}}
+                 ]},"footer":{"links":%s}}}}
+                """.formatted(products * 3, 3, filler(fillerEntries), filler(fillerEntries / 4), tiles,
+                filler(fillerEntries / 4));
+    }
+
+    /**
+     * A T&T GraphQL products response, with aggregations before the items.
+     */
+    static String tnt(int products, int fillerEntries) {
+        StringBuilder items = new StringBuilder();
+        for (int i = 0; i < products; i++) {
+            if (i > 0) {
+                items.append(',');
+            }
+            items.append("""
+                    {"sku":"TNT-%05d","name":"Green Onion %d 500g","price":{"regularPrice":{"amount":{"value":%d.99,"currency":"CAD"}}},
+                     "price_range":{"minimum_price":{"final_price":{"value":%d.49,"currency":"CAD"}}},"was_price":%s,
+                     "uom_type":"EACH","weight_uom":"g","small_image":{"url":"https://img.example.com/%d.jpg","__typename":"ProductImage"},
+                     "stock_status":"%s","url_key":"green-onion-%d","url_suffix":".html","__typename":"SimpleProduct"}
+                    """.formatted(i, i, 2 + i % 5, 1 + i % 5, i % 4 == 0 ? (5 + i % 5) + ".99" : "null", i,
+                    i % 9 == 0 ? "OUT_OF_STOCK" : "IN_STOCK", i));
+        }
+        return """
+                {"data":{"products":{"aggregations":%s,"items":[%s],
+                 "page_info":{"total_pages":4,"current_page":1,"__typename":"SearchResultPageInfo"},"total_count":%d}}}
+                """.formatted(filler(fillerEntries), items, products * 4);
+    }
+
+    /**
+     * Walmart's {@code __NEXT_DATA__} document: the search result items plus the rest of the
+     * page state, which is most of the document on a real page.
+     */
+    static String walmartNextData(int products, int fillerEntries) {
+        StringBuilder items = new StringBuilder();
+        for (int i = 0; i < products; i++) {
+            if (i > 0) {
+                items.append(',');
+            }
+            items.append("""
+                    {"usItemId":"%d","name":"Great Value Whole Milk %d 4L","brand":"Great Value",
+                     "imageInfo":{"thumbnailUrl":"https://i5.walmartimages.ca/images/%d.jpg"},
+                     "priceInfo":{"linePrice":"$%d.47","wasPrice":"%s","unitPrice":"%d¢/100ml"},
+                     "isOutOfStock":%s,"canonicalUrl":"/en/ip/milk-%d","badges":{"flags":[],"tags":[]},
+                     "fulfillmentBadges":["Pickup","Delivery"],"rating":{"averageRating":4.5,"numberOfReviews":%d}}
+                    """.formatted(100000 + i, i, i, 5 + i % 4, i % 5 == 0 ? "$" + (7 + i % 4) + ".27" : "",
+                    13 + i % 4, i % 13 == 0 ? "true" : "false", i, i * 2));
+        }
+        return """
+                {"props":{"pageProps":{"bootstrapData":%s,
+                 "initialData":{"searchResult":{"itemStacks":[{"title":"Results","items":[%s]}],
+                  "facets":%s},"contentLayout":%s}}},
+                 "page":"/browse/[...catSlug]","query":{"catSlug":["grocery","dairy-eggs"]},"buildId":"build-1"}
+                """.formatted(filler(fillerEntries), items, filler(fillerEntries / 2), filler(fillerEntries / 2));
+    }
+
+    /**
+     * A Walmart category page embedding {@code __NEXT_DATA__} and JSON-LD, with page markup
+     * and inline scripts around them.
+     */
+    static String walmartPage(int products, int fillerEntries) {
+        StringBuilder markup = new StringBuilder();
+        for (int i = 0; i < fillerEntries / 4; i++) {
+            markup.append("<div class=\"tile-").append(i).append("\"><a href=\"/en/ip/").append(i)
+                    .append("\"><span>Item ").append(i).append("</span></a></div>\n");
+        }
+        return """
+                <!DOCTYPE html><html lang="en"><head><meta charset="utf-8"><title>Dairy &amp; Eggs | Walmart Canada</title>
+                <script>window.__CONFIG__ = %s;</script>
+                <script type="application/ld+json">{"@context":"https://schema.org","@type":"BreadcrumbList","itemListElement":[]}</script>
+                </head><body><div id="__next">%s</div>
+                <script id="__NEXT_DATA__" type="application/json">%s</script>
+                </body></html>
+                """.formatted(filler(fillerEntries / 4), markup, walmartNextData(products, fillerEntries));
+    }
+
+    // Page state unrelated to products: objects with nested arrays and strings
+    private static String filler(int entries) {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < entries; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"id\":\"f").append(i).append("\",\"label\":\"Facet value ").append(i)
+                    .append("\",\"count\":").append(i * 7)
+                    .append(",\"selected\":false,\"children\":[{\"id\":\"c").append(i)
+                    .append("\",\"url\":\"/browse?facet=").append(i).append("\"}]}");
+        }
+        return json.append(']').toString();
+    }
+}
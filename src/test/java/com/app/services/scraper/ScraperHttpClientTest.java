@@ -0,0 +1,152 @@
+package com.app.services.scraper;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScraperHttpClientTest {
+
+    private HttpServer server;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+
+    /**
+     * A client with the default limits, for scraper tests.
+     */
+    static ScraperHttpClient client() {
+        return new ScraperHttpClient(6, 16 * 1024 * 1024, 10);
+    }
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/plain", exchange -> send(exchange, "text/html; charset=UTF-8", null,
+                "<html><body><p>café</p></body></html>".getBytes(StandardCharsets.UTF_8)));
+        server.createContext("/gzip", exchange -> send(exchange, "application/json", "gzip",
+                gzip("{\"products\":[1,2,3]}")));
+        server.createContext("/large", exchange -> send(exchange, "text/plain", null, new byte[4096]));
+        server.createContext("/bomb", exchange -> send(exchange, "text/plain", "gzip",
+                gzip("x".repeat(64 * 1024))));
+        server.createContext("/missing", exchange -> {
+            exchange.sendResponseHeaders(404, -1);
+            exchange.close();
+        });
+        server.createContext("/slow", exchange -> {
+            int now = inFlight.incrementAndGet();
+            maxInFlight.accumulateAndGet(now, Math::max);
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            inFlight.decrementAndGet();
+            send(exchange, "text/plain", null, "ok".getBytes(StandardCharsets.UTF_8));
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void send_ReturnsBytesAndParsesHtmlInDeclaredCharset() throws Exception {
+        ScraperHttpClient client = client();
+
+        ScraperHttpResponse response = client.send(client.request(url("/plain")).build());
+
+        assertEquals(200, response.statusCode());
+        assertEquals("café", response.parse().select("p").text());
+        assertEquals(url("/plain"), response.parse().location());
+    }
+
+    @Test
+    void send_GzipResponse_IsDecompressed() throws Exception {
+        ScraperHttpClient client = client();
+
+        ScraperHttpResponse response = client.send(client.request(url("/gzip")).build());
+
+        assertEquals("{\"products\":[1,2,3]}", response.bodyAsString());
+    }
+
+    @Test
+    void send_ErrorStatus_ReturnsResponse() throws Exception {
+        ScraperHttpClient client = client();
+
+        assertEquals(404, client.send(client.request(url("/missing")).build()).statusCode());
+    }
+
+    @Test
+    void send_BodyOverCap_Fails() {
+        ScraperHttpClient client = new ScraperHttpClient(6, 1024, 10);
+
+        IOException tooLarge = assertThrows(IOException.class,
+                () -> client.send(client.request(url("/large")).build()));
+        IOException inflatedTooLarge = assertThrows(IOException.class,
+                () -> client.send(client.request(url("/bomb")).build()));
+
+        assertTrue(tooLarge.getMessage().contains("exceeds 1024 bytes"), tooLarge.getMessage());
+        assertTrue(inflatedTooLarge.getMessage().contains("exceeds 1024 bytes"), inflatedTooLarge.getMessage());
+    }
+
+    @Test
+    void sendAsync_LimitsRequestsInFlightPerHost() throws Exception {
+        ScraperHttpClient client = new ScraperHttpClient(2, 1024, 10);
+
+        List<CompletableFuture<ScraperHttpResponse>> futures = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            HttpRequest request = client.request(url("/slow")).build();
+            futures.add(client.sendAsync(request));
+        }
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+
+        assertTrue(maxInFlight.get() <= 2, "at most 2 in flight, saw " + maxInFlight.get());
+        for (CompletableFuture<ScraperHttpResponse> future : futures) {
+            assertEquals("ok", future.join().bodyAsString());
+        }
+        assertEquals(0, client.getActiveRequests("127.0.0.1"));
+    }
+
+    private String url(String path) {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + path;
+    }
+
+    private static void send(HttpExchange exchange, String contentType, String encoding, byte[] body)
+            throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        if (encoding != null) {
+            exchange.getResponseHeaders().set("Content-Encoding", encoding);
+        }
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static byte[] gzip(String text) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            gzip.write(text.getBytes(StandardCharsets.UTF_8));
+        }
+        return bytes.toByteArray();
+    }
+}
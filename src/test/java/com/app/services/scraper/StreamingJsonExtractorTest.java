@@ -0,0 +1,86 @@
+package com.app.services.scraper;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StreamingJsonExtractorTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void extract_StreamsArrayElementsAndCapturesValuesInAnyOrder() throws Exception {
+        String json = """
+                {"data":{"products":{"items":[{"sku":"a"},{"sku":"b"}],"ignored":{"items":[1]},
+                 "page_info":{"total_pages":3}}}}
+                """;
+        List<String> skus = new ArrayList<>();
+
+        StreamingJsonExtractor.Result result = new StreamingJsonExtractor()
+                .capture("data/products/page_info/total_pages")
+                .forEach("data/products/items", (path, item) -> skus.add(item.path("sku").asText()))
+                .extract(objectMapper.createParser(json));
+
+        assertEquals(List.of("a", "b"), skus);
+        assertEquals(3, result.get("data/products/page_info/total_pages").asInt());
+        assertEquals(2, result.arraySizes().get("data/products/items"));
+    }
+
+    @Test
+    void extract_WildcardMatchesEveryIndex() throws Exception {
+        String json = """
+                {"components":[{"id":"banner","tiles":[{"n":1}]},{"id":"carousel","data":{"tiles":[{"n":2},{"n":3}]}}]}
+                """;
+        List<String> seen = new ArrayList<>();
+
+        StreamingJsonExtractor.Result result = new StreamingJsonExtractor()
+                .capture("components/*/id")
+                .forEach("components/*/tiles", (path, tile) -> seen.add(path + "=" + tile.path("n").asInt()))
+                .forEach("components/*/data/tiles", (path, tile) -> seen.add(path + "=" + tile.path("n").asInt()))
+                .extract(objectMapper.createParser(json));
+
+        assertEquals(List.of("components/0/tiles=1", "components/1/data/tiles=2", "components/1/data/tiles=3"), seen);
+        assertEquals("carousel", result.get("components/1/id").asText());
+    }
+
+    @Test
+    void extract_IndexSegmentMatchesOnlyThatElement() throws Exception {
+        String json = """
+                {"stacks":[{"items":[{"id":1}]},{"items":[{"id":2}]}]}
+                """;
+        List<JsonNode> items = new ArrayList<>();
+
+        new StreamingJsonExtractor()
+                .forEach("stacks/0/items", (path, item) -> items.add(item))
+                .extract(objectMapper.createParser(json));
+
+        assertEquals(1, items.size());
+        assertEquals(1, items.get(0).path("id").asInt());
+    }
+
+    @Test
+    void extract_UnexpectedStructure_IsEmptyAtEveryPath() throws Exception {
+        StreamingJsonExtractor.Result result = new StreamingJsonExtractor()
+                .capture("pagination/totalPages")
+                .forEach("data/items", (path, item) -> fail("no items expected"))
+                .extract(objectMapper.createParser("{\"errors\":[{\"message\":\"bad\"}],\"data\":{\"items\":null}}"));
+
+        assertTrue(result.isEmptyAt("pagination/totalPages", "data/items"));
+    }
+
+    @Test
+    void extract_PageCountWithoutItems_IsEmptyOnlyAtItems() throws Exception {
+        StreamingJsonExtractor.Result result = new StreamingJsonExtractor()
+                .capture("pagination/totalPages")
+                .forEach("data/*/items", (path, item) -> fail("no items expected"))
+                .extract(objectMapper.createParser("{\"pagination\":{\"totalPages\":3},\"data\":[{\"items\":[]}]}"));
+
+        assertTrue(result.isEmptyAt("data/*/items"));
+        assertFalse(result.isEmptyAt("pagination/totalPages"));
+    }
+}
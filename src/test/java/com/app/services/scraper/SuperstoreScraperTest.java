@@ -5,11 +5,13 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.github.resilience4j.ratelimiter.RateLimiterConfig;
 import io.github.resilience4j.ratelimiter.RateLimiterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Map;
 
@@ -29,7 +31,9 @@ class SuperstoreScraperTest {
                 .build();
         RateLimiterRegistry registry = RateLimiterRegistry.of(config);
         objectMapper = new ObjectMapper();
-        scraper = new SuperstoreScraper(registry, objectMapper);
+        scraper = new SuperstoreScraper(registry, objectMapper,
+                new ScrapeMetrics(new SimpleMeterRegistry()), AdaptivePacerTest.disabled(),
+                ScraperHttpClientTest.client());
 
         testStore = Store.builder()
                 .name("Real Canadian Superstore")
@@ -160,4 +164,42 @@ class SuperstoreScraperTest {
         JsonNode node = objectMapper.readTree(json);
         assertTrue(node.path("textBadge").asText().toLowerCase().contains("out-of-stock"));
     }
+
+    @Test
+    void parsePage_Streaming_MatchesTree() throws Exception {
+        byte[] body = ScrapePayloads.superstore(12, 20).getBytes(StandardCharsets.UTF_8);
+
+        SuperstoreScraper.ApiPage streamed = scraper.parsePage(body, "28000", true);
+
+        assertEquals(scraper.parsePageTree(objectMapper.readTree(body), "28000", true), streamed);
+        assertEquals(12, streamed.products().size());
+        assertEquals(3, streamed.totalPages());
+    }
+
+    @Test
+    void parsePage_OnlyCarouselTiles_RootTilesBeforeData() throws Exception {
+        String json = """
+                {"layout":{"sections":{"mainContentCollection":{"components":[
+                  {"componentId":"sponsoredComponent","productTiles":[{"productId":"s1","title":"Sponsored"}]},
+                  {"data":{"productTiles":[{"productId":"d1","title":"Ignored, root tiles win"}]},
+                   "productTiles":[{"productId":"p1","title":"Milk 2L"}],"componentId":"productCarouselComponent"},
+                  {"componentId":"productCarouselComponent","data":{"productTiles":[{"productId":"p2","title":"Eggs 12 ct"}]}}
+                ]}}}}
+                """;
+
+        SuperstoreScraper.ApiPage page = scraper.parsePage(json.getBytes(StandardCharsets.UTF_8), "28003", true);
+
+        assertEquals(List.of("p1", "p2"),
+                page.products().stream().map(StoreScraper.ScrapedProduct::storeProductId).toList());
+        assertEquals(1, page.totalPages());
+    }
+
+    @Test
+    void parsePage_UnexpectedStructure_FallsBackToTree() throws Exception {
+        SuperstoreScraper.ApiPage page = scraper.parsePage("{\"errors\":[]}".getBytes(StandardCharsets.UTF_8),
+                "28000", true);
+
+        assertTrue(page.products().isEmpty());
+        assertEquals(1, page.totalPages());
+    }
 }
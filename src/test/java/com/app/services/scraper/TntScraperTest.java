@@ -6,12 +6,14 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import io.github.resilience4j.ratelimiter.RateLimiterConfig;
 import io.github.resilience4j.ratelimiter.RateLimiterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Map;
 
@@ -31,7 +33,9 @@ class TntScraperTest {
                 .build();
         RateLimiterRegistry registry = RateLimiterRegistry.of(config);
         objectMapper = new ObjectMapper();
-        scraper = new TntScraper(registry, objectMapper);
+        scraper = new TntScraper(registry, objectMapper,
+                new ScrapeMetrics(new SimpleMeterRegistry()), AdaptivePacerTest.disabled(),
+                ScraperHttpClientTest.client());
 
         testStore = Store.builder()
                 .name("T&T Supermarket")
@@ -184,4 +188,32 @@ class TntScraperTest {
         JsonNode node = objectMapper.readTree(json);
         assertEquals("OUT_OF_STOCK", node.path("stock_status").asText());
     }
+
+    @Test
+    void parsePage_Streaming_MatchesTree() throws Exception {
+        byte[] body = ScrapePayloads.tnt(10, 20).getBytes(StandardCharsets.UTF_8);
+
+        TntScraper.GraphQLPage streamed = scraper.parsePage(body, "2877", true);
+
+        assertEquals(scraper.parsePageTree(objectMapper.readTree(body), "2877", true), streamed);
+        assertEquals(10, streamed.products().size());
+        assertEquals(4, streamed.totalPages());
+    }
+
+    @Test
+    void parsePage_WithoutProducts_ReadsOnlyPageCount() throws Exception {
+        byte[] body = ScrapePayloads.tnt(10, 20).getBytes(StandardCharsets.UTF_8);
+
+        TntScraper.GraphQLPage page = scraper.parsePage(body, "2877", false);
+
+        assertTrue(page.products().isEmpty());
+        assertEquals(4, page.totalPages());
+    }
+
+    @Test
+    void parsePage_NoData_ReturnsNull() throws Exception {
+        byte[] body = "{\"errors\":[{\"message\":\"Internal server error\"}]}".getBytes(StandardCharsets.UTF_8);
+
+        assertNull(scraper.parsePage(body, "2877", true));
+    }
 }
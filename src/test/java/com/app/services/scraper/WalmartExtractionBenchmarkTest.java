@@ -0,0 +1,66 @@
+package com.app.services.scraper;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.resilience4j.ratelimiter.RateLimiterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Per-page cost of extracting Walmart's embedded JSON: the earlier pipeline (parse the page to a
+ * DOM, serialize it back with {@code doc.html()}, regex-scan the string) against reading the
+ * scripts from the response bytes. Run with
+ * {@code mvn test -Dbenchmark=true -Dtest=WalmartExtractionBenchmarkTest}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class WalmartExtractionBenchmarkTest {
+
+    private static final String PAGE_URL = "https://www.walmart.ca/en/browse/grocery/dairy-eggs/10019_6000194327370";
+
+    // The pattern the earlier pipeline ran over doc.html()
+    private static final Pattern NEXT_DATA_PATTERN = Pattern.compile(
+            "<script[^>]*id=[\"']__NEXT_DATA__[\"'][^>]*>(.*?)</script>", Pattern.DOTALL | Pattern.CASE_INSENSITIVE);
+
+    private WalmartScraper walmart;
+
+    @BeforeEach
+    void setUp() {
+        walmart = new WalmartScraper(RateLimiterRegistry.ofDefaults(), new ObjectMapper(),
+                new ScrapeMetrics(new SimpleMeterRegistry()), AdaptivePacerTest.disabled(),
+                ScraperHttpClientTest.client());
+    }
+
+    @Test
+    void categoryPage() throws Exception {
+        byte[] page = ScrapePayloads.walmartPage(40, 20000).getBytes(StandardCharsets.UTF_8);
+        System.out.printf("Walmart category page, %d KB%n", page.length / 1024);
+
+        ParsingBenchmark.Result before = ParsingBenchmark.measure("Walmart DOM + html() + regex", 20, 60,
+                () -> domAndRegex(page));
+        ParsingBenchmark.Result after = ParsingBenchmark.measure("Walmart scripts from bytes", 20, 60,
+                () -> walmart.extractFromEmbeddedJson(page, PAGE_URL, "Milk"));
+
+        assertEquals(domAndRegex(page), walmart.extractFromEmbeddedJson(page, PAGE_URL, "Milk"));
+        assertEquals(40, walmart.extractFromEmbeddedJson(page, PAGE_URL, "Milk").size());
+        assertTrue(after.cpuMicrosPerOp() < before.cpuMicrosPerOp());
+        assertTrue(after.bytesPerOp() < before.bytesPerOp());
+    }
+
+    // The earlier pipeline; the benchmark page always has __NEXT_DATA__
+    private List<StoreScraper.ScrapedProduct> domAndRegex(byte[] page) throws Exception {
+        Document doc = Jsoup.parse(new ByteArrayInputStream(page), "UTF-8", PAGE_URL);
+        Matcher nextData = NEXT_DATA_PATTERN.matcher(doc.html());
+        return nextData.find() ? walmart.parseNextDataJson(nextData.group(1), PAGE_URL, "Milk") : List.of();
+    }
+}
@@ -3,16 +3,23 @@ package com.app.services.scraper;
 import com.app.models.Store;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
 import io.github.resilience4j.ratelimiter.RateLimiterConfig;
 import io.github.resilience4j.ratelimiter.RateLimiterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -30,7 +37,9 @@ class WalmartScraperTest {
                 .build();
         RateLimiterRegistry registry = RateLimiterRegistry.of(config);
         objectMapper = new ObjectMapper();
-        scraper = new WalmartScraper(registry, objectMapper);
+        scraper = new WalmartScraper(registry, objectMapper,
+                new ScrapeMetrics(new SimpleMeterRegistry()), AdaptivePacerTest.disabled(),
+                ScraperHttpClientTest.client());
 
         testStore = Store.builder()
                 .name("Walmart Canada")
@@ -182,4 +191,108 @@ class WalmartScraperTest {
         assertEquals("$5.44", node.path("priceInfo").path("linePrice").asText());
         assertEquals("$6.77", node.path("priceInfo").path("wasPrice").asText());
     }
+
+    @Test
+    void parseNextDataJson_Streaming_MatchesTree() {
+        String json = ScrapePayloads.walmartNextData(40, 50);
+
+        List<StoreScraper.ScrapedProduct> streamed =
+                scraper.parseNextDataJson(json, "https://www.walmart.ca", "Milk");
+
+        assertEquals(scraper.parseNextDataTree(json, "https://www.walmart.ca", "Milk"), streamed);
+        assertEquals(40, streamed.size());
+    }
+
+    @Test
+    void parseNextDataJson_SeveralArrays_UsesFirstKnownPath() {
+        String json = """
+                {"props":{"pageProps":{
+                  "products":[{"usItemId":"other","name":"Listed later"}],
+                  "initialData":{"items":[],"searchResult":{"itemStacks":[{"items":[{"usItemId":"main","name":"Milk 4L"}]}]}}
+                }}}
+                """;
+
+        List<StoreScraper.ScrapedProduct> products = scraper.parseNextDataJson(json, "https://www.walmart.ca", "Milk");
+
+        assertEquals(1, products.size());
+        assertEquals("main", products.get(0).storeProductId());
+    }
+
+    @Test
+    void extractFromEmbeddedJson_PageBytes_ReadsNextData() {
+        String page = ScrapePayloads.walmartPage(40, 50);
+
+        List<StoreScraper.ScrapedProduct> products = scraper.extractFromEmbeddedJson(
+                page.getBytes(StandardCharsets.UTF_8), "https://www.walmart.ca", "Milk");
+
+        assertEquals(scraper.parseNextDataJson(ScrapePayloads.walmartNextData(40, 50),
+                "https://www.walmart.ca", "Milk"), products);
+        assertEquals(40, products.size());
+    }
+
+    @Test
+    void extractFromEmbeddedJson_NoNextData_ReadsJsonLd() {
+        String page = """
+                <html><head><script type="application/ld+json">
+                {"@type":"Product","sku":"6000191234567","name":"Café Latte 1L",
+                 "offers":{"@type":"Offer","price":"4.97","priceCurrency":"CAD"}}
+                </script></head><body></body></html>
+                """;
+
+        List<StoreScraper.ScrapedProduct> products = scraper.extractFromEmbeddedJson(
+                page.getBytes(StandardCharsets.UTF_8), "https://www.walmart.ca", "Milk");
+
+        assertEquals(1, products.size());
+        assertEquals("Café Latte 1L", products.get(0).name());
+    }
+
+    @Test
+    void scrapeProducts_UnchangedPartialPage_StopsPagination() throws Exception {
+        ReflectionTestUtils.setField(scraper, "maxRetryAttempts", 1);
+        scraper.userAgent = "test-agent";
+        scraper.timeoutSeconds = 5;
+        List<String> requested = new ArrayList<>();
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            synchronized (requested) {
+                requested.add(exchange.getRequestURI().toString());
+            }
+            exchange.sendResponseHeaders(304, -1);
+            exchange.close();
+        });
+        server.start();
+        try {
+            String categoryUrl = "http://127.0.0.1:" + server.getAddress().getPort() + "/browse/grocery/10019";
+            StoreScraper.PageFingerprint previous = new StoreScraper.PageFingerprint("hash", "\"v1\"", null);
+            AtomicInteger skippedPages = new AtomicInteger();
+            StoreScraper.ProductSink sink = new StoreScraper.ProductSink() {
+                @Override
+                public void onPage(String url, int page, List<StoreScraper.ScrapedProduct> products) {
+                    skippedPages.incrementAndGet();
+                }
+
+                @Override
+                public StoreScraper.PageFingerprint previousFingerprint(String url, int page) {
+                    return previous;
+                }
+
+                @Override
+                public boolean isUnchanged(String url, int page, StoreScraper.PageFingerprint fingerprint) {
+                    return true;
+                }
+
+                @Override
+                public int previousProductCount(String url, int page) {
+                    return page == 1 ? 40 : 12;
+                }
+            };
+
+            scraper.scrapeProducts(testStore, categoryUrl, sink);
+
+            assertEquals(2, requested.size(), "the unchanged partial second page ends the category");
+            assertEquals(2, skippedPages.get());
+        } finally {
+            server.stop(0);
+        }
+    }
 }
@@ -0,0 +1,110 @@
+package com.app.services.scraper.fixture;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HttpFixtureServerTest {
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private HttpFixtureServer server;
+
+    @TempDir
+    Path tempDir;
+
+    @AfterEach
+    void tearDown() {
+        if (server != null) {
+            server.stop();
+        }
+    }
+
+    @Test
+    void keyOf_IgnoresHostAndVolatileRequestFields() {
+        String a = HttpFixture.keyOf("POST", "https://api.pcexpress.ca/pcx-bff/api/v2/listingPage/28000",
+                "{\"cart\": {\"cartId\": \"0b6f1c9e-8d4e-4a0a-9c55-2a9f7b1e3c11\"}, \"date\": \"01022024\"}");
+        String b = HttpFixture.keyOf("post", "http://127.0.0.1:8089/pcx-bff/api/v2/listingPage/28000",
+                "{\"cart\":{\"cartId\":\"9e2d7c41-1f3a-4b6b-8e0d-55c3a1b2d4f6\"},\"date\":\"15032024\"}");
+        String otherPage = HttpFixture.keyOf("POST", "http://127.0.0.1:8089/pcx-bff/api/v2/listingPage/28000",
+                "{\"cart\":{\"cartId\":\"9e2d7c41-1f3a-4b6b-8e0d-55c3a1b2d4f6\"},\"date\":\"15032024\",\"from\":48}");
+
+        assertEquals(a, b);
+        assertNotEquals(a, otherPage);
+        assertEquals("GET /en/browse/grocery?page=2", HttpFixture.keyOf("GET", "https://www.walmart.ca/en/browse/grocery?page=2", null));
+    }
+
+    @Test
+    void archive_AppendedFixturesLoadBackLatestFirst() throws Exception {
+        HttpFixtureArchive archive = new HttpFixtureArchive(tempDir.resolve("TNT.fixtures.jsonl.gz"));
+        archive.append(fixture("GET /a", "old"));
+        archive.append(fixture("GET /b", "b"));
+        archive.append(fixture("GET /a", "new"));
+
+        Map<String, HttpFixture> loaded = archive.load();
+
+        assertEquals(2, loaded.size());
+        assertEquals("new", loaded.get("GET /a").body());
+    }
+
+    @Test
+    void replay_ServesRecordedResponseAndUnknownAs404() throws Exception {
+        HttpFixtureArchive archive = new HttpFixtureArchive(tempDir.resolve("WALMART.fixtures.jsonl.gz"));
+        archive.append(new HttpFixture(HttpFixture.keyOf("GET", "https://www.walmart.ca/en/browse/fruit", null),
+                "GET", "https://www.walmart.ca/en/browse/fruit", 200, "text/html", "\"v1\"", null, "<html>fruit</html>"));
+        server = new HttpFixtureServer(0, 0, 0, 0).load(List.of(archive.getFile()));
+        server.start();
+
+        HttpResponse<String> found = get("/en/browse/fruit", null);
+        HttpResponse<String> notModified = get("/en/browse/fruit", "\"v1\"");
+        HttpResponse<String> missing = get("/en/browse/dairy", null);
+
+        assertEquals(200, found.statusCode());
+        assertEquals("<html>fruit</html>", found.body());
+        assertEquals("\"v1\"", found.headers().firstValue("ETag").orElse(null));
+        assertEquals(304, notModified.statusCode());
+        assertEquals(404, missing.statusCode());
+        assertEquals(2, server.getServedCount());
+        assertEquals(1, server.getMissedCount());
+    }
+
+    @Test
+    void replay_InjectsErrorsAndLatency() throws Exception {
+        server = new HttpFixtureServer(0, 100, 0, 1.0).add(fixture("GET /a", "a"));
+        server.start();
+
+        long start = System.nanoTime();
+        HttpResponse<String> response = get("/a", null);
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        assertEquals(503, response.statusCode());
+        assertTrue(elapsedMs >= 100, "expected at least 100ms, took " + elapsedMs);
+        assertEquals(1, server.getInjectedErrorCount());
+    }
+
+    @Test
+    void constructor_InvalidErrorRate_Throws() {
+        assertThrows(IllegalArgumentException.class, () -> new HttpFixtureServer(0, 0, 0, 1.5));
+    }
+
+    private HttpResponse<String> get(String path, String ifNoneMatch) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(server.getBaseUrl() + path)).GET();
+        if (ifNoneMatch != null) {
+            request.header("If-None-Match", ifNoneMatch);
+        }
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static HttpFixture fixture(String key, String body) {
+        return new HttpFixture(key, "GET", "http://example" + key.substring(4), 200, "text/plain", null, null, body);
+    }
+}